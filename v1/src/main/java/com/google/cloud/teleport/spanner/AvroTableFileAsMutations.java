@@ -20,6 +20,7 @@ import com.google.cloud.teleport.spanner.ddl.Ddl;
 import com.google.cloud.teleport.spanner.ddl.Table;
 import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.beam.sdk.coders.SerializableCoder;
@@ -27,6 +28,8 @@ import org.apache.beam.sdk.extensions.avro.io.AvroSource;
 import org.apache.beam.sdk.io.BoundedSource;
 import org.apache.beam.sdk.io.FileIO;
 import org.apache.beam.sdk.io.fs.EmptyMatchTreatment;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.options.ValueProvider;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.Keys;
@@ -101,10 +104,20 @@ class AvroTableFileAsMutations
 
     private final PCollectionView<Ddl> ddlView;
 
+    // Per table progress of the import, keyed by table name.
+    private transient Map<String, Counter> importedRows;
+    private transient Map<String, Counter> importedFileShards;
+
     ReadFileRangesFn(PCollectionView<Ddl> ddlView) {
       this.ddlView = ddlView;
     }
 
+    @Setup
+    public void setup() {
+      importedRows = new HashMap<>();
+      importedFileShards = new HashMap<>();
+    }
+
     @ProcessElement
     public void processElement(ProcessContext c) {
       FileShard f = c.element();
@@ -115,6 +128,11 @@ class AvroTableFileAsMutations
       AvroSource<Mutation> source =
           AvroSource.from(f.getFile().getMetadata().resourceId().toString())
               .withParseFn(parseFn, SerializableCoder.of(Mutation.class));
+      Counter rows =
+          importedRows.computeIfAbsent(
+              f.getTableName(),
+              tableName ->
+                  Metrics.counter(AvroTableFileAsMutations.class, "imported_rows_" + tableName));
       try {
         BoundedSource.BoundedReader<Mutation> reader =
             source
@@ -123,10 +141,18 @@ class AvroTableFileAsMutations
                 .createReader(c.getPipelineOptions());
         for (boolean more = reader.start(); more; more = reader.advance()) {
           c.output(reader.getCurrent());
+          rows.inc();
         }
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
+      importedFileShards
+          .computeIfAbsent(
+              f.getTableName(),
+              tableName ->
+                  Metrics.counter(
+                      AvroTableFileAsMutations.class, "imported_file_shards_" + tableName))
+          .inc();
     }
   }
 }
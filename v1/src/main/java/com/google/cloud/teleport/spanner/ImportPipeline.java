@@ -215,6 +215,15 @@ public class ImportPipeline {
     ValueProvider<Integer> getEarlyIndexCreateThreshold();
 
     void setEarlyIndexCreateThreshold(ValueProvider<Integer> value);
+
+    @TemplateCreationParameter(value = "4")
+    @Description(
+        "Number of independent lanes in which tables are imported. A table only waits for the"
+            + " tables of its lane at lower interleave depths, instead of all of them.")
+    @Default.Integer(4)
+    int getImportLanes();
+
+    void setImportLanes(int value);
   }
 
   public static void main(String[] args) {
@@ -251,7 +260,8 @@ public class ImportPipeline {
             options.getWaitForSequences(),
             options.getEarlyIndexCreateFlag(),
             options.getDdlCreationTimeoutInMinutes(),
-            options.getEarlyIndexCreateThreshold()));
+            options.getEarlyIndexCreateThreshold(),
+            options.getImportLanes()));
 
     PipelineResult result = p.run();
 
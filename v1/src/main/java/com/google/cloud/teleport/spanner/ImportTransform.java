@@ -38,11 +38,13 @@ import com.google.cloud.teleport.spanner.spannerio.SpannerIO;
 import com.google.cloud.teleport.spanner.spannerio.SpannerWriteResult;
 import com.google.cloud.teleport.spanner.spannerio.Transaction;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Verify;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.util.JsonFormat;
 import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
@@ -56,8 +58,12 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -117,6 +123,8 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
   private final ValueProvider<Boolean> earlyIndexCreateFlag;
   private final ValueProvider<Integer> ddlCreationTimeoutInMinutes;
   private final ValueProvider<Integer> earlyIndexCreateThreshold;
+  // Tables are loaded in this many independent lanes, see scheduleTables.
+  private final int lanes;
 
   public ImportTransform(
       SpannerConfig spannerConfig,
@@ -128,6 +136,31 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
       ValueProvider<Boolean> earlyIndexCreateFlag,
       ValueProvider<Integer> ddlCreationTimeoutInMinutes,
       ValueProvider<Integer> earlyIndexCreateThreshold) {
+    this(
+        spannerConfig,
+        importDirectory,
+        waitForIndexes,
+        waitForForeignKeys,
+        waitForChangeStreams,
+        waitForSequences,
+        earlyIndexCreateFlag,
+        ddlCreationTimeoutInMinutes,
+        earlyIndexCreateThreshold,
+        1);
+  }
+
+  public ImportTransform(
+      SpannerConfig spannerConfig,
+      ValueProvider<String> importDirectory,
+      ValueProvider<Boolean> waitForIndexes,
+      ValueProvider<Boolean> waitForForeignKeys,
+      ValueProvider<Boolean> waitForChangeStreams,
+      ValueProvider<Boolean> waitForSequences,
+      ValueProvider<Boolean> earlyIndexCreateFlag,
+      ValueProvider<Integer> ddlCreationTimeoutInMinutes,
+      ValueProvider<Integer> earlyIndexCreateThreshold,
+      int lanes) {
+    Preconditions.checkArgument(lanes > 0, "The number of import lanes must be positive");
     this.spannerConfig = spannerConfig;
     this.importDirectory = importDirectory;
     this.waitForIndexes = waitForIndexes;
@@ -137,6 +170,7 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
     this.earlyIndexCreateFlag = earlyIndexCreateFlag;
     this.ddlCreationTimeoutInMinutes = ddlCreationTimeoutInMinutes;
     this.earlyIndexCreateThreshold = earlyIndexCreateThreshold;
+    this.lanes = lanes;
   }
 
   @Override
@@ -215,20 +249,6 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
 
     PCollectionView<Ddl> ddlView = ddl.apply("Cloud Spanner DDL as view", View.asSingleton());
 
-    PCollectionView<HashMultimap<Integer, String>> levelsView =
-        ddl.apply(
-                "Group tables by depth",
-                ParDo.of(
-                    new DoFn<Ddl, HashMultimap<Integer, String>>() {
-
-                      @ProcessElement
-                      public void processElement(ProcessContext c) {
-                        Ddl ddl = c.element();
-                        c.output(ddl.perLevelView());
-                      }
-                    }))
-            .apply(View.asSingleton());
-
     PCollection<HashMultimap<String, String>> acc =
         tableFiles
             .apply("Combine table files", Combine.globally(AsList.fn()))
@@ -247,48 +267,68 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
                       }
                     }));
 
-    PCollection<?> previousComputation = ddl;
-    for (int i = 0; i < MAX_DEPTH; i++) {
-      final int depth = i;
-      PCollection<KV<String, String>> levelFiles =
-          acc.apply(
-                  "Get Avro filenames depth " + depth,
-                  ParDo.of(
-                          new DoFn<HashMultimap<String, String>, KV<String, String>>() {
-
-                            @ProcessElement
-                            public void processElement(ProcessContext c) {
-                              HashMultimap<String, String> allFiles = c.element();
-                              HashMultimap<Integer, String> levels = c.sideInput(levelsView);
-
-                              Set<String> tables = levels.get(depth);
-                              for (String table : tables) {
-                                for (String file : allFiles.get(table)) {
-                                  c.output(KV.of(file, table));
+    PCollectionView<HashMultimap<Integer, String>> scheduleView =
+        acc.apply(
+                "Schedule tables",
+                ParDo.of(
+                        new DoFn<HashMultimap<String, String>, HashMultimap<Integer, String>>() {
+
+                          @ProcessElement
+                          public void processElement(ProcessContext c) {
+                            c.output(scheduleTables(c.sideInput(ddlView), c.element(), lanes));
+                          }
+                        })
+                    .withSideInputs(ddlView))
+            .apply("Schedule as view", View.asSingleton());
+
+    List<PCollection<?>> laneComputations = new ArrayList<>();
+    for (int l = 0; l < lanes; l++) {
+      final int lane = l;
+      PCollection<?> previousComputation = ddl;
+      for (int i = 0; i < MAX_DEPTH; i++) {
+        final int depth = i;
+        String level = lanes == 1 ? String.valueOf(depth) : depth + " lane " + lane;
+        PCollection<KV<String, String>> levelFiles =
+            acc.apply(
+                    "Get Avro filenames depth " + level,
+                    ParDo.of(
+                            new DoFn<HashMultimap<String, String>, KV<String, String>>() {
+
+                              @ProcessElement
+                              public void processElement(ProcessContext c) {
+                                HashMultimap<String, String> allFiles = c.element();
+                                HashMultimap<Integer, String> schedule = c.sideInput(scheduleView);
+
+                                Set<String> tables = schedule.get(slot(lane, depth));
+                                for (String table : tables) {
+                                  for (String file : allFiles.get(table)) {
+                                    c.output(KV.of(file, table));
+                                  }
                                 }
                               }
-                            }
-                          })
-                      .withSideInputs(levelsView))
-              .apply("Wait for previous depth " + depth, Wait.on(previousComputation));
-      PCollection<Mutation> mutations =
-          levelFiles.apply(
-              "Avro files as mutations " + depth, new AvroTableFileAsMutations(ddlView));
-
-      SpannerWriteResult result =
-          mutations.apply(
-              "Write mutations " + depth,
-              SpannerIO.write()
-                  .withSchemaReadySignal(ddl)
-                  .withSpannerConfig(spannerConfig)
-                  .withCommitDeadline(Duration.standardMinutes(1))
-                  .withMaxCumulativeBackoff(Duration.standardHours(2))
-                  .withMaxNumMutations(10000)
-                  .withGroupingFactor(100)
-                  .withDialectView(dialectView));
-      previousComputation = result.getOutput();
+                            })
+                        .withSideInputs(scheduleView))
+                .apply("Wait for previous depth " + level, Wait.on(previousComputation));
+        PCollection<Mutation> mutations =
+            levelFiles.apply(
+                "Avro files as mutations " + level, new AvroTableFileAsMutations(ddlView));
+
+        SpannerWriteResult result =
+            mutations.apply(
+                "Write mutations " + level,
+                SpannerIO.write()
+                    .withSchemaReadySignal(ddl)
+                    .withSpannerConfig(spannerConfig)
+                    .withCommitDeadline(Duration.standardMinutes(1))
+                    .withMaxCumulativeBackoff(Duration.standardHours(2))
+                    .withMaxNumMutations(10000)
+                    .withGroupingFactor(100)
+                    .withDialectView(dialectView));
+        previousComputation = result.getOutput();
+      }
+      laneComputations.add(previousComputation);
     }
-    ddl.apply(Wait.on(previousComputation))
+    ddl.apply(Wait.on(laneComputations))
         .apply(
             "Create Indexes", new ApplyDDLTransform(spannerConfig, pendingIndexes, waitForIndexes))
         .apply(
@@ -300,6 +340,71 @@ public class ImportTransform extends PTransform<PBegin, PDone> {
     return PDone.in(begin.getPipeline());
   }
 
+  /**
+   * Schedules the tables of the import in lanes and load depths, and returns the tables of every
+   * {@link #slot(int, int)}.
+   *
+   * <p>A table only depends on its parent when it is interleaved {@code IN PARENT}, since its rows
+   * can only be written after the parent rows. Foreign keys are added after the data is loaded, and
+   * tables interleaved {@code IN} do not require parent rows, so they start at depth 0. Every table
+   * which starts at depth 0 is scheduled in a lane with the tables which depend on it, and each
+   * lane only waits for its own previous depth. The groups of tables are spread across the lanes by
+   * their number of files, largest first, so that a large table only delays the tables which depend
+   * on it and the tables of its lane.
+   */
+  @VisibleForTesting
+  static HashMultimap<Integer, String> scheduleTables(
+      Ddl ddl, Multimap<String, String> tableFiles, int lanes) {
+    HashMultimap<Integer, String> levels = ddl.perLevelView();
+    Map<String, Integer> loadDepths = new HashMap<>();
+    Map<String, String> groupRoots = new HashMap<>();
+    Map<String, Long> groupFiles = new TreeMap<>();
+    for (int depth = 0; levels.containsKey(depth); depth++) {
+      for (String tableName : levels.get(depth)) {
+        Table table = ddl.table(tableName);
+        String parent =
+            table.interleaveInParent() == null ? null : table.interleaveInParent().toLowerCase();
+        if (parent == null || table.interleaveType() == Table.InterleaveType.IN) {
+          loadDepths.put(tableName, 0);
+          groupRoots.put(tableName, tableName);
+        } else {
+          loadDepths.put(tableName, loadDepths.get(parent) + 1);
+          groupRoots.put(tableName, groupRoots.get(parent));
+        }
+        groupFiles.merge(
+            groupRoots.get(tableName), (long) tableFiles.get(tableName).size(), Long::sum);
+      }
+    }
+
+    List<String> groups = new ArrayList<>(groupFiles.keySet());
+    groups.sort(Comparator.comparing(groupFiles::get).reversed());
+    long[] laneFiles = new long[lanes];
+    Map<String, Integer> groupLanes = new HashMap<>();
+    for (String group : groups) {
+      int lane = 0;
+      for (int l = 1; l < lanes; l++) {
+        if (laneFiles[l] < laneFiles[lane]) {
+          lane = l;
+        }
+      }
+      laneFiles[lane] += groupFiles.get(group);
+      groupLanes.put(group, lane);
+    }
+
+    HashMultimap<Integer, String> schedule = HashMultimap.create();
+    for (Map.Entry<String, Integer> table : loadDepths.entrySet()) {
+      int lane = groupLanes.get(groupRoots.get(table.getKey()));
+      schedule.put(slot(lane, table.getValue()), table.getKey());
+    }
+    return schedule;
+  }
+
+  /** Returns the schedule slot of a load depth of a lane. */
+  @VisibleForTesting
+  static int slot(int lane, int depth) {
+    return lane * MAX_DEPTH + depth;
+  }
+
   /** Read contents of the top-level manifest file. */
   @VisibleForTesting
   static class ReadExportManifestFile extends PTransform<PBegin, PCollection<Export>> {
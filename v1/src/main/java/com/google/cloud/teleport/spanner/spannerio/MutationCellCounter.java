@@ -32,6 +32,14 @@ final class MutationCellCounter {
 
   /** Count the number of cells modified by {@link MutationGroup}. */
   public static long countOf(SpannerSchema spannerSchema, MutationGroup mutationGroup) {
+    return countOf(new MutationKeyEncoder(spannerSchema), mutationGroup);
+  }
+
+  /**
+   * Count the number of cells modified by {@link MutationGroup}, with the table layouts cached by
+   * the encoder.
+   */
+  static long countOf(MutationKeyEncoder encoder, MutationGroup mutationGroup) {
     long mutatedCells = 0L;
     for (Mutation mutation : mutationGroup) {
       if (mutation.getOperation() == Op.DELETE) {
@@ -41,12 +49,13 @@ final class MutationCellCounter {
           final KeySet keySet = mutation.getKeySet();
 
           final long rows = Iterables.size(keySet.getKeys());
-          mutatedCells += rows * spannerSchema.getCellsMutatedPerRow(mutation.getTable());
+          mutatedCells += rows * encoder.getTableLayout(mutation.getTable()).cellsMutatedPerRow;
         }
       } else {
         // sum the cells of the columns included in the mutation
+        MutationKeyEncoder.TableLayout layout = encoder.getTableLayout(mutation.getTable());
         for (String column : mutation.getColumns()) {
-          mutatedCells += spannerSchema.getCellsMutatedPerColumn(mutation.getTable(), column);
+          mutatedCells += layout.cellsMutatedPerColumn(column);
         }
       }
     }
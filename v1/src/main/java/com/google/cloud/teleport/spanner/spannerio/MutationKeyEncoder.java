@@ -55,10 +55,29 @@ class MutationKeyEncoder {
   @VisibleForTesting
   private static final Map<String, AtomicInteger> unknownTablesWarnings = new ConcurrentHashMap<>();
 
+  // Layouts of the tables of the mutations, keyed by the table name as written in the mutations.
+  // An encoder is not thread safe, it should be used by a single thread.
+  private final Map<String, TableLayout> tableLayouts = new HashMap<>();
+
   public MutationKeyEncoder(SpannerSchema schema) {
     this.schema = schema;
   }
 
+  /** Returns the schema of the encoder. */
+  SpannerSchema getSchema() {
+    return schema;
+  }
+
+  /** Returns the layout of a table, which is resolved from the schema once per table name. */
+  TableLayout getTableLayout(String table) {
+    TableLayout layout = tableLayouts.get(table);
+    if (layout == null) {
+      layout = new TableLayout(schema, table);
+      tableLayouts.put(table, layout);
+    }
+    return layout;
+  }
+
   /**
    * Builds a lexicographically sortable binary key based on a primary key descriptor.
    *
@@ -67,9 +86,10 @@ class MutationKeyEncoder {
    */
   public byte[] encodeTableNameAndKey(Mutation m) {
     OrderedCode orderedCode = new OrderedCode();
-    String tableName = m.getTable().toLowerCase();
+    TableLayout layout = getTableLayout(m.getTable());
+    String tableName = layout.name;
 
-    if (schema.getColumns(tableName).isEmpty()) {
+    if (!layout.known) {
       // Log an warning for an unknown table.
       if (!unknownTablesWarnings.containsKey(tableName)) {
         unknownTablesWarnings.putIfAbsent(tableName, new AtomicInteger(0));
@@ -85,25 +105,37 @@ class MutationKeyEncoder {
       }
     }
 
-    orderedCode.writeBytes(tableName.getBytes(StandardCharsets.UTF_8));
+    orderedCode.writeBytes(layout.encodedName);
 
     if (m.getOperation() == Op.DELETE) {
       if (isPointDelete(m)) {
         Key key = m.getKeySet().getKeys().iterator().next();
-        encodeKey(orderedCode, tableName, key);
+        encodeKey(orderedCode, layout, key);
       } else {
         // The key is left empty for non-point deletes, since there is no general way to batch them.
       }
     } else {
-      encodeKey(orderedCode, m);
+      encodeKey(orderedCode, layout, m);
     }
     return orderedCode.getEncodedBytes();
   }
 
-  private void encodeKey(OrderedCode orderedCode, Mutation m) {
-    Map<String, Value> mutationMap = mutationAsMap(m);
-    for (KeyPart part : schema.getKeyParts(m.getTable())) {
-      Value val = mutationMap.get(part.getField());
+  private void encodeKey(OrderedCode orderedCode, TableLayout layout, Mutation m) {
+    // Collect the key values, the last value of a column wins.
+    Value[] keyValues = new Value[layout.keyParts.size()];
+    Iterator<String> coli = m.getColumns().iterator();
+    Iterator<Value> vali = m.getValues().iterator();
+    while (coli.hasNext()) {
+      String column = coli.next();
+      Value val = vali.next();
+      int keyPartIndex = layout.keyPartIndex(column);
+      if (keyPartIndex >= 0) {
+        keyValues[keyPartIndex] = val;
+      }
+    }
+    for (int i = 0; i < keyValues.length; i++) {
+      KeyPart part = layout.keyParts.get(i);
+      Value val = keyValues[i];
       if (val == null || val.isNull()) {
         if (part.isDesc()) {
           orderedCode.writeInfinityDecreasing();
@@ -148,8 +180,8 @@ class MutationKeyEncoder {
     }
   }
 
-  private void encodeKey(OrderedCode orderedCode, String tableName, Key key) {
-    List<KeyPart> parts = schema.getKeyParts(tableName);
+  private void encodeKey(OrderedCode orderedCode, TableLayout layout, Key key) {
+    List<KeyPart> parts = layout.keyParts;
     Iterator<Object> it = key.getParts().iterator();
     for (KeyPart part : parts) {
       Object value = it.next();
@@ -215,18 +247,6 @@ class MutationKeyEncoder {
     }
   }
 
-  private static Map<String, Value> mutationAsMap(Mutation m) {
-    Map<String, Value> result = new HashMap<>();
-    Iterator<String> coli = m.getColumns().iterator();
-    Iterator<Value> vali = m.getValues().iterator();
-    while (coli.hasNext()) {
-      String column = coli.next();
-      Value val = vali.next();
-      result.put(column.toLowerCase(), val);
-    }
-    return result;
-  }
-
   private static int encodeDate(Date date) {
 
     MutableDateTime jodaDate = new MutableDateTime();
@@ -240,4 +260,56 @@ class MutationKeyEncoder {
   static Map<String, AtomicInteger> getUnknownTablesWarningsMap() {
     return unknownTablesWarnings;
   }
+
+  /**
+   * The schema metadata of a table which is needed for every mutation: its key parts and the cells
+   * mutated per column. Column lookups are cached by the column name as written in the mutations,
+   * so that names are only lower-cased once.
+   */
+  static final class TableLayout {
+    final String name;
+    final byte[] encodedName;
+    final boolean known;
+    final List<KeyPart> keyParts;
+    final long cellsMutatedPerRow;
+
+    private final SpannerSchema schema;
+    private final Map<String, Integer> keyPartIndexes = new HashMap<>();
+    private final Map<String, Long> cellsMutatedPerColumn = new HashMap<>();
+
+    private TableLayout(SpannerSchema schema, String table) {
+      this.schema = schema;
+      this.name = table.toLowerCase();
+      this.encodedName = name.getBytes(StandardCharsets.UTF_8);
+      this.known = !schema.getColumns(name).isEmpty();
+      this.keyParts = schema.getKeyParts(name);
+      this.cellsMutatedPerRow = schema.getCellsMutatedPerRow(name);
+    }
+
+    /** Returns the index of the column in the key parts, or -1 if it is not a key column. */
+    int keyPartIndex(String column) {
+      Integer index = keyPartIndexes.get(column);
+      if (index == null) {
+        index = -1;
+        String field = column.toLowerCase();
+        for (int i = 0; i < keyParts.size(); i++) {
+          if (keyParts.get(i).getField().equals(field)) {
+            index = i;
+            break;
+          }
+        }
+        keyPartIndexes.put(column, index);
+      }
+      return index;
+    }
+
+    long cellsMutatedPerColumn(String column) {
+      Long cells = cellsMutatedPerColumn.get(column);
+      if (cells == null) {
+        cells = schema.getCellsMutatedPerColumn(name, column);
+        cellsMutatedPerColumn.put(column, cells);
+      }
+      return cells;
+    }
+  }
 }
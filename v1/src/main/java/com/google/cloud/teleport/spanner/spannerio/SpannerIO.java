@@ -1986,6 +1986,9 @@ public class SpannerIO {
     // total number of rows mutated in mutationsToSort
     private long sortableNumRows = 0;
 
+    // Built once per version of the schema side input, with the table layouts it caches.
+    private transient MutationKeyEncoder encoder;
+
     GatherSortCreateBatchesFn(
         long maxBatchSizeBytes,
         long maxNumMutations,
@@ -2010,7 +2013,7 @@ public class SpannerIO {
       this.maxSortableNumRows = maxBatchNumRows * groupingFactor;
     }
 
-    private synchronized void initSorter() {
+    private void initSorter() {
       mutationsToSort.clear();
       sortableSizeBytes = 0;
       sortableNumCells = 0;
@@ -2018,11 +2021,11 @@ public class SpannerIO {
     }
 
     @FinishBundle
-    public synchronized void finishBundle(FinishBundleContext c) throws Exception {
+    public void finishBundle(FinishBundleContext c) throws Exception {
       sortAndOutputBatches(new OutputReceiverForFinishBundle(c));
     }
 
-    private synchronized void sortAndOutputBatches(OutputReceiver<Iterable<MutationGroup>> out)
+    private void sortAndOutputBatches(OutputReceiver<Iterable<MutationGroup>> out)
         throws IOException {
       try {
         if (mutationsToSort.isEmpty()) {
@@ -2086,30 +2089,32 @@ public class SpannerIO {
               .collect(toList()));
     }
 
+    // A DoFn instance is never invoked concurrently, so the sorter needs no locking: the threads of
+    // a worker batch in parallel with their own instances.
     @ProcessElement
-    public synchronized void processElement(
-        ProcessContext c, OutputReceiver<Iterable<MutationGroup>> out) throws Exception {
+    public void processElement(ProcessContext c, OutputReceiver<Iterable<MutationGroup>> out)
+        throws Exception {
       SpannerSchema spannerSchema = c.sideInput(schemaView);
-      MutationKeyEncoder encoder = new MutationKeyEncoder(spannerSchema);
+      if (encoder == null || encoder.getSchema() != spannerSchema) {
+        encoder = new MutationKeyEncoder(spannerSchema);
+      }
       MutationGroup mg = c.element();
       long groupSize = MutationSizeEstimator.sizeOf(mg);
-      long groupCells = MutationCellCounter.countOf(spannerSchema, mg);
+      long groupCells = MutationCellCounter.countOf(encoder, mg);
       long groupRows = mg.size();
 
-      synchronized (this) {
-        if (((sortableNumCells + groupCells) > maxSortableNumMutations)
-            || (sortableSizeBytes + groupSize) > maxSortableSizeBytes
-            || (sortableNumRows + groupRows) > maxSortableNumRows) {
-          sortAndOutputBatches(out);
-        }
-
-        mutationsToSort.add(
-            new MutationGroupContainer(
-                mg, groupSize, groupCells, groupRows, encoder.encodeTableNameAndKey(mg.primary())));
-        sortableSizeBytes += groupSize;
-        sortableNumCells += groupCells;
-        sortableNumRows += groupRows;
+      if (((sortableNumCells + groupCells) > maxSortableNumMutations)
+          || (sortableSizeBytes + groupSize) > maxSortableSizeBytes
+          || (sortableNumRows + groupRows) > maxSortableNumRows) {
+        sortAndOutputBatches(out);
       }
+
+      mutationsToSort.add(
+          new MutationGroupContainer(
+              mg, groupSize, groupCells, groupRows, encoder.encodeTableNameAndKey(mg.primary())));
+      sortableSizeBytes += groupSize;
+      sortableNumCells += groupCells;
+      sortableNumRows += groupRows;
     }
 
     // Container class to store a MutationGroup, its sortable encoded key and its statistics.
@@ -2208,6 +2213,9 @@ public class SpannerIO {
     private final Counter unBatchableMutationGroupsCounter =
         Metrics.counter(WriteGrouped.class, "unbatchable_mutation_groups");
 
+    // Built once per version of the schema side input, with the table layouts it caches.
+    private transient MutationKeyEncoder encoder;
+
     BatchableMutationFilterFn(
         PCollectionView<SpannerSchema> schemaView,
         TupleTag<Iterable<MutationGroup>> unbatchableMutationsTag,
@@ -2232,8 +2240,11 @@ public class SpannerIO {
       }
 
       SpannerSchema spannerSchema = c.sideInput(schemaView);
+      if (encoder == null || encoder.getSchema() != spannerSchema) {
+        encoder = new MutationKeyEncoder(spannerSchema);
+      }
       long groupSize = MutationSizeEstimator.sizeOf(mg);
-      long groupCells = MutationCellCounter.countOf(spannerSchema, mg);
+      long groupCells = MutationCellCounter.countOf(encoder, mg);
       long groupRows = Iterables.size(mg);
 
       if (groupSize >= batchSizeBytes
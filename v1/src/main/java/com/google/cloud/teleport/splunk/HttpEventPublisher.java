@@ -29,6 +29,7 @@ import com.google.api.client.http.HttpMediaType;
 import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpRequestFactory;
 import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.apache.v2.ApacheHttpTransport;
 import com.google.api.client.util.ExponentialBackOff;
 import com.google.auto.value.AutoValue;
@@ -110,6 +111,9 @@ public abstract class HttpEventPublisher {
   @Nullable
   abstract Integer maxElapsedMillis();
 
+  @Nullable
+  abstract Integer maxConnections();
+
   abstract Boolean disableCertificateValidation();
 
   abstract Boolean enableGzipHttpCompression();
@@ -144,6 +148,60 @@ public abstract class HttpEventPublisher {
     return request.execute();
   }
 
+  /**
+   * Same as {@link HttpEventPublisher#execute(List)}, but reads the outcome of the POST into a
+   * {@link PublishResult} and releases the response. {@link IOException}s are part of the result
+   * rather than thrown, so that batches can be published from any thread.
+   *
+   * @param events List of {@link SplunkEvent}s
+   * @return {@link PublishResult} of the POST.
+   */
+  public PublishResult publish(List<SplunkEvent> events) {
+    long startTime = System.nanoTime();
+    HttpResponse response = null;
+    try {
+      response = execute(events);
+      if (response.isSuccessStatusCode()) {
+        return PublishResult.success(events, System.nanoTime() - startTime);
+      }
+      return PublishResult.failure(
+          events,
+          response.getStatusCode(),
+          response.getStatusMessage(),
+          response.parseAsString(),
+          System.nanoTime() - startTime);
+
+    } catch (HttpResponseException e) {
+      return PublishResult.failure(
+          events,
+          e.getStatusCode(),
+          e.getStatusMessage(),
+          e.getContent(),
+          System.nanoTime() - startTime);
+
+    } catch (IOException e) {
+      return PublishResult.failure(events, null, null, e.toString(), System.nanoTime() - startTime);
+
+    } finally {
+      // We've observed cases where errors at this point can cause the pipeline to keep retrying
+      // the same events over and over (e.g. from Dataflow Runner's Pub/Sub implementation). Since
+      // the events have either been published or wrapped for error handling, we can safely
+      // ignore this error, though there may or may not be a leak of some type depending on
+      // HttpResponse's implementation. However, any potential leak would still happen if we let
+      // the exception fall through, so this isn't considered a major issue.
+      try {
+        if (response != null) {
+          response.ignore();
+        }
+      } catch (IOException e) {
+        LOG.warn(
+            "Error ignoring response from Splunk. Messages should still have published, but there"
+                + " might be a connection leak.",
+            e);
+      }
+    }
+  }
+
   /**
    * Same as {@link HttpEventPublisher#execute(List)} but with a single {@link SplunkEvent}.
    *
@@ -208,6 +266,45 @@ public abstract class HttpEventPublisher {
     return sb.toString();
   }
 
+  /**
+   * The outcome of publishing a batch of {@link SplunkEvent}s: either a success, or the status
+   * code, status message and content of the failed POST. The status code is null when the POST
+   * failed with an {@link IOException}, whose description is the content.
+   */
+  @AutoValue
+  public abstract static class PublishResult {
+
+    abstract List<SplunkEvent> events();
+
+    abstract boolean isSuccess();
+
+    @Nullable
+    abstract Integer statusCode();
+
+    @Nullable
+    abstract String statusMessage();
+
+    @Nullable
+    abstract String content();
+
+    abstract long latencyNanos();
+
+    static PublishResult success(List<SplunkEvent> events, long latencyNanos) {
+      return new AutoValue_HttpEventPublisher_PublishResult(
+          events, true, null, null, null, latencyNanos);
+    }
+
+    static PublishResult failure(
+        List<SplunkEvent> events,
+        @Nullable Integer statusCode,
+        @Nullable String statusMessage,
+        @Nullable String content,
+        long latencyNanos) {
+      return new AutoValue_HttpEventPublisher_PublishResult(
+          events, false, statusCode, statusMessage, content, latencyNanos);
+    }
+  }
+
   @AutoValue.Builder
   abstract static class Builder {
 
@@ -239,6 +336,10 @@ public abstract class HttpEventPublisher {
 
     abstract Integer maxElapsedMillis();
 
+    abstract Builder setMaxConnections(Integer maxConnections);
+
+    abstract Integer maxConnections();
+
     abstract HttpEventPublisher autoBuild();
 
     /**
@@ -314,6 +415,18 @@ public abstract class HttpEventPublisher {
       return setMaxElapsedMillis(maxElapsedMillis);
     }
 
+    /**
+     * Method to set the maximum number of pooled connections to the HEC endpoint, which bounds the
+     * number of concurrent POSTs. Defaults to {@value DEFAULT_MAX_CONNECTIONS}.
+     *
+     * @param maxConnections max number of pooled connections.
+     * @return {@link Builder}
+     */
+    public Builder withMaxConnections(Integer maxConnections) {
+      checkNotNull(maxConnections, "withMaxConnections(maxConnections) called with null input.");
+      return setMaxConnections(maxConnections);
+    }
+
     /**
      * Validates and builds a {@link HttpEventPublisher} object.
      *
@@ -341,9 +454,12 @@ public abstract class HttpEventPublisher {
         setMaxElapsedMillis(ExponentialBackOff.DEFAULT_MAX_ELAPSED_TIME_MILLIS);
       }
 
+      if (maxConnections() == null) {
+        setMaxConnections(DEFAULT_MAX_CONNECTIONS);
+      }
+
       CloseableHttpClient httpClient =
-          getHttpClient(
-              DEFAULT_MAX_CONNECTIONS, disableCertificateValidation(), rootCaCertificate());
+          getHttpClient(maxConnections(), disableCertificateValidation(), rootCaCertificate());
 
       setTransport(new ApacheHttpTransport(httpClient));
       setRequestFactory(transport().createRequestFactory());
@@ -410,6 +526,7 @@ public abstract class HttpEventPublisher {
       }
 
       builder.setMaxConnTotal(maxConnections);
+      builder.setMaxConnPerRoute(maxConnections);
       builder.setDefaultRequestConfig(
           RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD).build());
 
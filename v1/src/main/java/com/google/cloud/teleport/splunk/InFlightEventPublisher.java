@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.splunk;
+
+import com.google.cloud.teleport.splunk.HttpEventPublisher.PublishResult;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link InFlightEventPublisher} publishes batches of {@link SplunkEvent}s asynchronously, with at
+ * most {@code maxInFlightRequests} POSTs in flight at a time.
+ *
+ * <p>Publishers are shared by all the {@link SplunkEventWriter} instances of a worker which have
+ * the same configuration, so that the bound holds per worker, and the POSTs share one pool of
+ * connections. Batches are acknowledged as their POSTs complete, in any order.
+ */
+class InFlightEventPublisher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(InFlightEventPublisher.class);
+
+  /** Creates the {@link HttpEventPublisher} of a shared publisher. */
+  interface Factory {
+    HttpEventPublisher create(int maxConnections) throws Exception;
+  }
+
+  // Guarded by the class.
+  private static final Map<Object, InFlightEventPublisher> SHARED = new HashMap<>();
+
+  private final Object key;
+  private final int maxInFlightRequests;
+  private final HttpEventPublisher publisher;
+  private final Semaphore permits;
+  private final ExecutorService executor;
+  private int references;
+
+  private InFlightEventPublisher(
+      Object key, int maxInFlightRequests, HttpEventPublisher publisher) {
+    this.key = key;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.publisher = publisher;
+    this.permits = new Semaphore(maxInFlightRequests);
+    this.executor =
+        Executors.newFixedThreadPool(
+            maxInFlightRequests,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("splunk-hec-publisher-%d")
+                .build());
+  }
+
+  /**
+   * Returns the shared publisher of a configuration, creating it on first use. Every call must be
+   * paired with a call to {@link #release()}.
+   *
+   * @param key the configuration of the publisher, compared with {@link Object#equals(Object)}.
+   * @param maxInFlightRequests the maximum number of concurrent POSTs.
+   * @param factory creates the {@link HttpEventPublisher}, with one connection per POST in flight.
+   */
+  static InFlightEventPublisher acquire(Object key, int maxInFlightRequests, Factory factory)
+      throws Exception {
+    synchronized (InFlightEventPublisher.class) {
+      InFlightEventPublisher shared = SHARED.get(key);
+      if (shared == null) {
+        shared =
+            new InFlightEventPublisher(
+                key, maxInFlightRequests, factory.create(maxInFlightRequests));
+        SHARED.put(key, shared);
+        LOG.info("Created a publisher with up to {} requests in flight", maxInFlightRequests);
+      }
+      shared.references++;
+      return shared;
+    }
+  }
+
+  /** Releases a publisher, and closes it once no writer uses it. */
+  void release() {
+    synchronized (InFlightEventPublisher.class) {
+      if (--references > 0) {
+        return;
+      }
+      SHARED.remove(key);
+    }
+    executor.shutdown();
+    try {
+      publisher.close();
+    } catch (IOException e) {
+      LOG.warn("Received exception while closing HttpEventPublisher: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Publishes a batch of events asynchronously. Blocks while {@code maxInFlightRequests} POSTs are
+   * in flight.
+   *
+   * @param events List of {@link SplunkEvent}s
+   * @return the future {@link PublishResult} of the POST, and the time the batch waited to be sent.
+   */
+  CompletableFuture<Published> publish(List<SplunkEvent> events) throws InterruptedException {
+    long enqueuedTime = System.nanoTime();
+    permits.acquire();
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            try {
+              long queueingNanos = System.nanoTime() - enqueuedTime;
+              return new Published(publisher.publish(events), queueingNanos);
+            } finally {
+              permits.release();
+            }
+          },
+          executor);
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /** Returns the number of POSTs in flight. */
+  int inFlightRequests() {
+    return maxInFlightRequests - permits.availablePermits();
+  }
+
+  /** A {@link PublishResult}, with the time its batch waited before its POST was sent. */
+  static class Published {
+    final PublishResult result;
+    final long queueingNanos;
+
+    Published(PublishResult result, long queueingNanos) {
+      this.result = result;
+      this.queueingNanos = queueingNanos;
+    }
+  }
+}
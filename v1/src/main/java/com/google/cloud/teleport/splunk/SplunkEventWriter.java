@@ -18,9 +18,8 @@ package com.google.cloud.teleport.splunk;
 import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.Preconditions.checkArgument;
 import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.api.client.http.HttpResponse;
-import com.google.api.client.http.HttpResponseException;
 import com.google.auto.value.AutoValue;
+import com.google.cloud.teleport.splunk.HttpEventPublisher.PublishResult;
 import com.google.cloud.teleport.util.GCSUtils;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -34,7 +33,12 @@ import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
@@ -54,6 +58,7 @@ import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.KV;
 import org.joda.time.Duration;
+import org.joda.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +67,7 @@ import org.slf4j.LoggerFactory;
 public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, SplunkWriteError> {
 
   private static final Integer DEFAULT_BATCH_COUNT = 10;
+  private static final Integer DEFAULT_MAX_IN_FLIGHT_REQUESTS = 1;
   private static final Boolean DEFAULT_DISABLE_CERTIFICATE_VALIDATION = false;
   private static final Boolean DEFAULT_ENABLE_BATCH_LOGS = true;
   private static final Boolean DEFAULT_ENABLE_GZIP_HTTP_COMPRESSION = true;
@@ -85,6 +91,10 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       Metrics.distribution(SplunkEventWriter.class, "unsuccessful_write_to_splunk_latency_ms");
   private static final Distribution SUCCESSFUL_WRITE_BATCH_SIZE =
       Metrics.distribution(SplunkEventWriter.class, "write_to_splunk_batch");
+  private static final Distribution IN_FLIGHT_REQUESTS =
+      Metrics.distribution(SplunkEventWriter.class, "in_flight_requests_to_splunk");
+  private static final Distribution QUEUEING_DELAY_MS =
+      Metrics.distribution(SplunkEventWriter.class, "write_to_splunk_queueing_delay_ms");
   private static final String BUFFER_STATE_NAME = "buffer";
   private static final String COUNT_STATE_NAME = "count";
   private static final String TIME_ID_NAME = "expiry";
@@ -108,7 +118,10 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
   private Boolean disableValidation;
   private Boolean enableBatchLogs;
   private Boolean enableGzipHttpCompression;
+  private Integer maxInFlight;
   private HttpEventPublisher publisher;
+  private InFlightEventPublisher inFlightPublisher;
+  private transient List<PendingBatch> pendingBatches;
 
   private static final Gson GSON =
       new GsonBuilder().setFieldNamingStrategy(f -> f.getName().toLowerCase()).create();
@@ -138,6 +151,9 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
   @Nullable
   abstract ValueProvider<Integer> inputBatchCount();
 
+  @Nullable
+  abstract ValueProvider<Integer> maxInFlightRequests();
+
   @Setup
   public void setup() {
 
@@ -189,34 +205,74 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       LOG.info("Disable certificate validation set to: {}", disableValidation);
     }
 
-    try {
-      HttpEventPublisher.Builder builder =
-          HttpEventPublisher.newBuilder()
-              .withUrl(url().get())
-              .withToken(token().get())
-              .withDisableCertificateValidation(disableValidation)
-              .withEnableGzipHttpCompression(enableGzipHttpCompression);
-
-      if (rootCaCertificatePath() != null && rootCaCertificatePath().get() != null) {
-        builder.withRootCaCertificate(GCSUtils.getGcsFileAsBytes(rootCaCertificatePath().get()));
+    // Either user supplied or default maxInFlight.
+    if (maxInFlight == null) {
+
+      if (maxInFlightRequests() != null) {
+        maxInFlight = maxInFlightRequests().get();
       }
 
-      publisher = builder.build();
+      maxInFlight = MoreObjects.firstNonNull(maxInFlight, DEFAULT_MAX_IN_FLIGHT_REQUESTS);
+      checkArgument(maxInFlight > 0, "maxInFlightRequests must be positive.");
+      LOG.info("Max in-flight requests set to: {}", maxInFlight);
+    }
+
+    try {
+      if (maxInFlight > 1) {
+        // Writers of a worker with the same configuration share the publisher and its bound.
+        String rootCaPath = rootCaCertificatePath() == null ? null : rootCaCertificatePath().get();
+        inFlightPublisher =
+            InFlightEventPublisher.acquire(
+                Arrays.asList(
+                    url().get(),
+                    token().get(),
+                    disableValidation,
+                    enableGzipHttpCompression,
+                    rootCaPath,
+                    maxInFlight),
+                maxInFlight,
+                this::createPublisher);
+      } else {
+        publisher = createPublisher(1);
+      }
       LOG.info("Successfully created HttpEventPublisher");
 
-    } catch (CertificateException
-        | NoSuchAlgorithmException
-        | KeyStoreException
-        | KeyManagementException
-        | IOException e) {
+    } catch (Exception e) {
       LOG.error("Error creating HttpEventPublisher: {}", e.getMessage());
       throw new RuntimeException(e);
     }
   }
 
+  private HttpEventPublisher createPublisher(int maxConnections)
+      throws CertificateException,
+          NoSuchAlgorithmException,
+          KeyStoreException,
+          KeyManagementException,
+          IOException {
+    HttpEventPublisher.Builder builder =
+        HttpEventPublisher.newBuilder()
+            .withUrl(url().get())
+            .withToken(token().get())
+            .withDisableCertificateValidation(disableValidation)
+            .withEnableGzipHttpCompression(enableGzipHttpCompression)
+            .withMaxConnections(maxConnections);
+
+    if (rootCaCertificatePath() != null && rootCaCertificatePath().get() != null) {
+      builder.withRootCaCertificate(GCSUtils.getGcsFileAsBytes(rootCaCertificatePath().get()));
+    }
+
+    return builder.build();
+  }
+
+  @StartBundle
+  public void startBundle() {
+    pendingBatches = new ArrayList<>();
+  }
+
   @ProcessElement
   public void processElement(
       @Element KV<Integer, SplunkEvent> input,
+      @Timestamp Instant timestamp,
       OutputReceiver<SplunkWriteError> receiver,
       BoundedWindow window,
       @StateId(BUFFER_STATE_NAME) BagState<SplunkEvent> bufferState,
@@ -236,13 +292,15 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       if (enableBatchLogs) {
         LOG.info("Flushing batch of {} events", count);
       }
-      flush(receiver, bufferState, countState);
+      flush(receiver, bufferState, countState, timestamp, window);
     }
   }
 
   @OnTimer(TIME_ID_NAME)
   public void onExpiry(
+      @Timestamp Instant timestamp,
       OutputReceiver<SplunkWriteError> receiver,
+      BoundedWindow window,
       @StateId(BUFFER_STATE_NAME) BagState<SplunkEvent> bufferState,
       @StateId(COUNT_STATE_NAME) ValueState<Long> countState)
       throws IOException {
@@ -251,12 +309,26 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       if (enableBatchLogs) {
         LOG.info("Flushing window with {} events", countState.read());
       }
-      flush(receiver, bufferState, countState);
+      flush(receiver, bufferState, countState, timestamp, window);
+    }
+  }
+
+  /** Waits for the batches in flight, and outputs the {@link SplunkWriteError}s of failed ones. */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext context) {
+    for (PendingBatch pending : pendingBatches) {
+      InFlightEventPublisher.Published published = pending.published.join();
+      handleResult(published, error -> context.output(error, pending.timestamp, pending.window));
     }
+    pendingBatches.clear();
   }
 
   @Teardown
   public void tearDown() {
+    if (this.inFlightPublisher != null) {
+      this.inFlightPublisher.release();
+      this.inFlightPublisher = null;
+    }
     if (this.publisher != null) {
       try {
         this.publisher.close();
@@ -269,108 +341,106 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
   }
 
   /**
-   * Utility method to flush a batch of events via {@link HttpEventPublisher}.
+   * Utility method to flush a batch of events via {@link HttpEventPublisher}. With more than one
+   * request in flight, the batch is published asynchronously and acknowledged by {@link
+   * #finishBundle}; batches which completed successfully in the meantime are acknowledged here.
    *
    * @param receiver Receiver to write {@link SplunkWriteError}s to
    */
   private void flush(
       OutputReceiver<SplunkWriteError> receiver,
       @StateId(BUFFER_STATE_NAME) BagState<SplunkEvent> bufferState,
-      @StateId(COUNT_STATE_NAME) ValueState<Long> countState)
+      @StateId(COUNT_STATE_NAME) ValueState<Long> countState,
+      Instant timestamp,
+      BoundedWindow window)
       throws IOException {
 
     if (!bufferState.isEmpty().read()) {
 
-      HttpResponse response = null;
       List<SplunkEvent> events = Lists.newArrayList(bufferState.read());
-      long startTime = System.nanoTime();
+
+      // States are cleared regardless of write success or failure since we
+      // write failed events to an output PCollection.
+      bufferState.clear();
+      countState.clear();
+
+      if (inFlightPublisher == null) {
+        handleResult(
+            new InFlightEventPublisher.Published(publisher.publish(events), 0L), receiver::output);
+        return;
+      }
+
+      acknowledgeSuccessfulBatches();
       try {
-        // Important to close this response to avoid connection leak.
-        response = publisher.execute(events);
-        if (!response.isSuccessStatusCode()) {
-          UNSUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(System.nanoTime() - startTime));
-          FAILED_WRITES.inc(countState.read());
-          int statusCode = response.getStatusCode();
-          if (statusCode >= 400 && statusCode < 500) {
-            INVALID_REQUESTS.inc();
-          } else if (statusCode >= 500 && statusCode < 600) {
-            SERVER_ERROR_REQUESTS.inc();
-          }
-
-          logWriteFailures(
-              countState,
-              response.getStatusCode(),
-              response.parseAsString(),
-              response.getStatusMessage());
-          flushWriteFailures(
-              events, response.getStatusMessage(), response.getStatusCode(), receiver);
-
-        } else {
-          SUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(System.nanoTime() - startTime));
-          SUCCESS_WRITES.inc(countState.read());
-          VALID_REQUESTS.inc();
-          SUCCESSFUL_WRITE_BATCH_SIZE.update(countState.read());
-
-          if (enableBatchLogs) {
-            LOG.info("Successfully wrote {} events", countState.read());
-          }
-        }
-
-      } catch (HttpResponseException e) {
-        UNSUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(System.nanoTime() - startTime));
-        FAILED_WRITES.inc(countState.read());
-        int statusCode = e.getStatusCode();
-        if (statusCode >= 400 && statusCode < 500) {
-          INVALID_REQUESTS.inc();
-        } else if (statusCode >= 500 && statusCode < 600) {
-          SERVER_ERROR_REQUESTS.inc();
-        }
-
-        logWriteFailures(countState, e.getStatusCode(), e.getContent(), e.getStatusMessage());
-        flushWriteFailures(events, e.getStatusMessage(), e.getStatusCode(), receiver);
-
-      } catch (IOException ioe) {
-        UNSUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(System.nanoTime() - startTime));
-        FAILED_WRITES.inc(countState.read());
-        INVALID_REQUESTS.inc();
-
-        logWriteFailures(countState, 0, ioe.toString(), null);
-        flushWriteFailures(events, ioe.toString(), null, receiver);
-
-      } finally {
-        // States are cleared regardless of write success or failure since we
-        // write failed events to an output PCollection.
-        bufferState.clear();
-        countState.clear();
-
-        // We've observed cases where errors at this point can cause the pipeline to keep retrying
-        // the same events over and over (e.g. from Dataflow Runner's Pub/Sub implementation). Since
-        // the events have either been published or wrapped for error handling, we can safely
-        // ignore this error, though there may or may not be a leak of some type depending on
-        // HttpResponse's implementation. However, any potential leak would still happen if we let
-        // the exception fall through, so this isn't considered a major issue.
-        try {
-          if (response != null) {
-            response.ignore();
-          }
-        } catch (IOException e) {
-          LOG.warn(
-              "Error ignoring response from Splunk. Messages should still have published, but there"
-                  + " might be a connection leak.",
-              e);
-        }
+        pendingBatches.add(new PendingBatch(inFlightPublisher.publish(events), timestamp, window));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting to publish events", e);
+      }
+      IN_FLIGHT_REQUESTS.update(inFlightPublisher.inFlightRequests());
+    }
+  }
+
+  /*
+   * Acknowledges the completed batches which were published successfully, in any order. Failed
+   * batches stay pending until the end of the bundle, which outputs their errors in their window.
+   */
+  private void acknowledgeSuccessfulBatches() {
+    Iterator<PendingBatch> iterator = pendingBatches.iterator();
+    while (iterator.hasNext()) {
+      CompletableFuture<InFlightEventPublisher.Published> published = iterator.next().published;
+      if (published.isDone() && published.join().result.isSuccess()) {
+        handleResult(published.join(), error -> {});
+        iterator.remove();
       }
     }
   }
 
+  /** Utility method to record the metrics of a published batch, and output its failures. */
+  private void handleResult(
+      InFlightEventPublisher.Published published, Consumer<SplunkWriteError> errors) {
+    PublishResult result = published.result;
+    int count = result.events().size();
+    if (inFlightPublisher != null) {
+      QUEUEING_DELAY_MS.update(nanosToMillis(published.queueingNanos));
+    }
+
+    if (result.isSuccess()) {
+      SUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(result.latencyNanos()));
+      SUCCESS_WRITES.inc(count);
+      VALID_REQUESTS.inc();
+      SUCCESSFUL_WRITE_BATCH_SIZE.update(count);
+
+      if (enableBatchLogs) {
+        LOG.info("Successfully wrote {} events", count);
+      }
+      return;
+    }
+
+    UNSUCCESSFUL_WRITE_LATENCY_MS.update(nanosToMillis(result.latencyNanos()));
+    FAILED_WRITES.inc(count);
+    Integer statusCode = result.statusCode();
+    if (statusCode == null) {
+      // The POST failed with an IOException.
+      INVALID_REQUESTS.inc();
+      logWriteFailures(count, 0, result.content(), null);
+      flushWriteFailures(result.events(), result.content(), null, errors);
+      return;
+    }
+
+    if (statusCode >= 400 && statusCode < 500) {
+      INVALID_REQUESTS.inc();
+    } else if (statusCode >= 500 && statusCode < 600) {
+      SERVER_ERROR_REQUESTS.inc();
+    }
+    logWriteFailures(count, statusCode, result.content(), result.statusMessage());
+    flushWriteFailures(result.events(), result.statusMessage(), statusCode, errors);
+  }
+
   /** Utility method to log write failures. */
-  private void logWriteFailures(
-      @StateId(COUNT_STATE_NAME) ValueState<Long> countState,
-      int statusCode,
-      String content,
-      String statusMessage) {
+  private void logWriteFailures(int count, int statusCode, String content, String statusMessage) {
     if (enableBatchLogs) {
-      LOG.error("Failed to write {} events", countState.read());
+      LOG.error("Failed to write {} events", count);
     }
     LOG.error(
         "Error writing to Splunk. StatusCode: {}, content: {}, StatusMessage: {}",
@@ -385,13 +455,13 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
    * @param events List of {@link SplunkEvent}s to un-batch
    * @param statusMessage Status message to be added to {@link SplunkWriteError}
    * @param statusCode Status code to be added to {@link SplunkWriteError}
-   * @param receiver Receiver to write {@link SplunkWriteError}s to
+   * @param errors Consumer to write {@link SplunkWriteError}s to
    */
   private static void flushWriteFailures(
       List<SplunkEvent> events,
       String statusMessage,
       Integer statusCode,
-      OutputReceiver<SplunkWriteError> receiver) {
+      Consumer<SplunkWriteError> errors) {
 
     checkNotNull(events, "SplunkEvents cannot be null.");
 
@@ -409,7 +479,7 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       String payload = GSON.toJson(event);
       SplunkWriteError error = builder.withPayload(payload).build();
 
-      receiver.output(error);
+      errors.accept(error);
     }
   }
 
@@ -438,6 +508,22 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
     return Math.round(((double) ns) / 1e6);
   }
 
+  /** A batch published asynchronously, with the timestamp and window of its failures. */
+  private static class PendingBatch {
+    final CompletableFuture<InFlightEventPublisher.Published> published;
+    final Instant timestamp;
+    final BoundedWindow window;
+
+    PendingBatch(
+        CompletableFuture<InFlightEventPublisher.Published> published,
+        Instant timestamp,
+        BoundedWindow window) {
+      this.published = published;
+      this.timestamp = timestamp;
+      this.window = window;
+    }
+  }
+
   @AutoValue.Builder
   abstract static class Builder {
 
@@ -460,6 +546,8 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
 
     abstract Builder setInputBatchCount(ValueProvider<Integer> inputBatchCount);
 
+    abstract Builder setMaxInFlightRequests(ValueProvider<Integer> maxInFlightRequests);
+
     abstract SplunkEventWriter autoBuild();
 
     /**
@@ -520,6 +608,17 @@ public abstract class SplunkEventWriter extends DoFn<KV<Integer, SplunkEvent>, S
       return setInputBatchCount(inputBatchCount);
     }
 
+    /**
+     * Method to set the maximum number of requests in flight per worker. Above one, batches are
+     * published asynchronously over a pool of connections shared by the writers of the worker.
+     *
+     * @param maxInFlightRequests for bounding the concurrent post requests of a worker.
+     * @return {@link Builder}
+     */
+    public Builder withMaxInFlightRequests(ValueProvider<Integer> maxInFlightRequests) {
+      return setMaxInFlightRequests(maxInFlightRequests);
+    }
+
     /**
      * Method to disable certificate validation.
      *
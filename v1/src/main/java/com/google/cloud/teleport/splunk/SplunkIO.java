@@ -81,6 +81,9 @@ public class SplunkIO {
     @Nullable
     abstract ValueProvider<Boolean> enableGzipHttpCompression();
 
+    @Nullable
+    abstract ValueProvider<Integer> maxInFlightRequests();
+
     @Override
     public PCollection<SplunkWriteError> expand(PCollection<SplunkEvent> input) {
 
@@ -93,7 +96,8 @@ public class SplunkIO {
               .withToken((token()))
               .withRootCaCertificatePath(rootCaCertificatePath())
               .withEnableBatchLogs(enableBatchLogs())
-              .withEnableGzipHttpCompression(enableGzipHttpCompression());
+              .withEnableGzipHttpCompression(enableGzipHttpCompression())
+              .withMaxInFlightRequests(maxInFlightRequests());
 
       SplunkEventWriter writer = builder.build();
       LOG.info("SplunkEventWriter configured");
@@ -131,6 +135,8 @@ public class SplunkIO {
       abstract Builder setEnableGzipHttpCompression(
           ValueProvider<Boolean> enableGzipHttpCompression);
 
+      abstract Builder setMaxInFlightRequests(ValueProvider<Integer> maxInFlightRequests);
+
       abstract Write autoBuild();
 
       /**
@@ -323,6 +329,30 @@ public class SplunkIO {
             ValueProvider.StaticValueProvider.of(enableGzipHttpCompression));
       }
 
+      /**
+       * Method to set the maximum number of requests in flight per worker.
+       *
+       * @param maxInFlightRequests for bounding the concurrent post requests of a worker.
+       * @return {@link Builder}
+       */
+      public Builder withMaxInFlightRequests(ValueProvider<Integer> maxInFlightRequests) {
+        return setMaxInFlightRequests(maxInFlightRequests);
+      }
+
+      /**
+       * Same as {@link Builder#withMaxInFlightRequests(ValueProvider)} but without a {@link
+       * ValueProvider}.
+       *
+       * @param maxInFlightRequests for bounding the concurrent post requests of a worker.
+       * @return {@link Builder}
+       */
+      public Builder withMaxInFlightRequests(Integer maxInFlightRequests) {
+        checkArgument(
+            maxInFlightRequests != null,
+            "withMaxInFlightRequests(maxInFlightRequests) called with null input.");
+        return setMaxInFlightRequests(ValueProvider.StaticValueProvider.of(maxInFlightRequests));
+      }
+
       public Write build() {
         checkNotNull(url(), "HEC url is required.");
         checkNotNull(token(), "Authorization token is required.");
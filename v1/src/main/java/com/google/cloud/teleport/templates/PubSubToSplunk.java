@@ -255,6 +255,7 @@ public class PubSubToSplunk {
                     .withRootCaCertificatePath(options.getRootCaCertificatePath())
                     .withEnableBatchLogs(options.getEnableBatchLogs())
                     .withEnableGzipHttpCompression(options.getEnableGzipHttpCompression())
+                    .withMaxInFlightRequests(options.getMaxInFlightRequests())
                     .build());
 
     final ValueProvider<Boolean> unwrapHecProvider = options.getUnwrapHecForDeadletter();
@@ -225,6 +225,16 @@ public class SplunkConverters {
     ValueProvider<Boolean> getEnableGzipHttpCompression();
 
     void setEnableGzipHttpCompression(ValueProvider<Boolean> enableGzipHttpCompression);
+
+    @TemplateParameter.Integer(
+        order = 13,
+        optional = true,
+        description = "Maximum number of in-flight requests per worker.",
+        helpText =
+            "The maximum number of requests that a worker sends to Splunk HEC concurrently. If greater than `1`, batches are sent asynchronously over a pool of connections shared by the worker, and acknowledged as they complete, in any order. Defaults to `1` (each batch is sent synchronously).")
+    ValueProvider<Integer> getMaxInFlightRequests();
+
+    void setMaxInFlightRequests(ValueProvider<Integer> maxInFlightRequests);
   }
 
   private static class FailsafeStringToSplunkEvent
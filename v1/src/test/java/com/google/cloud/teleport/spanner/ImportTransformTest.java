@@ -24,9 +24,13 @@ import com.google.cloud.teleport.spanner.ImportTransform.ReadExportManifestFile;
 import com.google.cloud.teleport.spanner.ImportTransform.ReadManifestFiles;
 import com.google.cloud.teleport.spanner.ImportTransform.ReadTableManifestFile;
 import com.google.cloud.teleport.spanner.ImportTransform.ValidateInputFiles;
+import com.google.cloud.teleport.spanner.ddl.Ddl;
+import com.google.cloud.teleport.spanner.ddl.Table.InterleaveType;
 import com.google.cloud.teleport.spanner.proto.ExportProtos.Export;
 import com.google.cloud.teleport.spanner.proto.ExportProtos.TableManifest;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -428,4 +432,107 @@ public class ImportTransformTest {
             });
     pipeline.run();
   }
+
+  @Test
+  public void testScheduleTables() {
+    Ddl ddl =
+        Ddl.builder()
+            .createTable("Users")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .endTable()
+            .createTable("Accounts")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .interleaveInParent("Users")
+            .endTable()
+            .createTable("Logs")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .interleaveInParent("Users")
+            .interleaveType(InterleaveType.IN)
+            .endTable()
+            .createTable("Orders")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .endTable()
+            .createTable("OrderItems")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .interleaveInParent("Orders")
+            .endTable()
+            .build();
+    HashMultimap<String, String> tableFiles = HashMultimap.create();
+    addFiles(tableFiles, "users", 10);
+    addFiles(tableFiles, "accounts", 5);
+    addFiles(tableFiles, "logs", 3);
+    addFiles(tableFiles, "orders", 2);
+    addFiles(tableFiles, "orderitems", 1);
+
+    HashMultimap<Integer, String> schedule = ImportTransform.scheduleTables(ddl, tableFiles, 2);
+
+    // The large Users tree has its own lane, the Orders tree only waits for Orders. Logs does not
+    // need the rows of Users, so it is loaded at depth 0 of the other lane.
+    assertEquals(ImmutableSet.of("users"), schedule.get(ImportTransform.slot(0, 0)));
+    assertEquals(ImmutableSet.of("accounts"), schedule.get(ImportTransform.slot(0, 1)));
+    assertEquals(ImmutableSet.of("logs", "orders"), schedule.get(ImportTransform.slot(1, 0)));
+    assertEquals(ImmutableSet.of("orderitems"), schedule.get(ImportTransform.slot(1, 1)));
+    assertEquals(5, schedule.size());
+  }
+
+  @Test
+  public void testScheduleTablesInOneLane() {
+    Ddl ddl =
+        Ddl.builder()
+            .createTable("Users")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .endTable()
+            .createTable("Accounts")
+            .column("id")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .interleaveInParent("Users")
+            .endTable()
+            .build();
+
+    HashMultimap<Integer, String> schedule =
+        ImportTransform.scheduleTables(ddl, HashMultimap.create(), 1);
+
+    assertEquals(ImmutableSet.of("users"), schedule.get(ImportTransform.slot(0, 0)));
+    assertEquals(ImmutableSet.of("accounts"), schedule.get(ImportTransform.slot(0, 1)));
+  }
+
+  private static void addFiles(HashMultimap<String, String> tableFiles, String table, int count) {
+    for (int i = 0; i < count; i++) {
+      tableFiles.put(table, table + "-" + i + ".avro");
+    }
+  }
 }
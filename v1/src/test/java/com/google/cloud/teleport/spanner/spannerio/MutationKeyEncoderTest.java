@@ -967,6 +967,62 @@ public class MutationKeyEncoderTest {
             .get());
   }
 
+  @Test
+  public void reusedEncoderIgnoresColumnNameCase() throws Exception {
+    SpannerSchema.Builder builder = SpannerSchema.builder();
+
+    builder.addColumn("test", "key", "INT64");
+    builder.addKeyPart("test", "key", false);
+    builder.addColumn("test", "keydesc", "STRING");
+    builder.addKeyPart("test", "keydesc", true);
+    builder.addColumn("test", "value", "STRING");
+
+    SpannerSchema schema = builder.build();
+    MutationKeyEncoder encoder = new MutationKeyEncoder(schema);
+
+    byte[] lowerCase =
+        encoder.encodeTableNameAndKey(
+            Mutation.newInsertOrUpdateBuilder("test")
+                .set("value")
+                .to("x")
+                .set("keydesc")
+                .to("a")
+                .set("key")
+                .to(1L)
+                .build());
+    byte[] mixedCase =
+        encoder.encodeTableNameAndKey(
+            Mutation.newInsertOrUpdateBuilder("TEST")
+                .set("Key")
+                .to(1L)
+                .set("KeyDesc")
+                .to("a")
+                .set("Value")
+                .to("y")
+                .build());
+    byte[] otherKey =
+        encoder.encodeTableNameAndKey(
+            Mutation.newInsertOrUpdateBuilder("test")
+                .set("key")
+                .to(2L)
+                .set("keydesc")
+                .to("a")
+                .build());
+
+    Assert.assertArrayEquals(lowerCase, mixedCase);
+    Assert.assertTrue(UnsignedBytes.lexicographicalComparator().compare(lowerCase, otherKey) < 0);
+    Assert.assertArrayEquals(
+        lowerCase,
+        new MutationKeyEncoder(schema)
+            .encodeTableNameAndKey(
+                Mutation.newInsertOrUpdateBuilder("test")
+                    .set("key")
+                    .to(1L)
+                    .set("keydesc")
+                    .to("a")
+                    .build()));
+  }
+
   private void verifyEncodedOrdering(SpannerSchema schema, List<Mutation> expectedMutations) {
     com.google.cloud.teleport.spanner.spannerio.MutationKeyEncoder encoder =
         new com.google.cloud.teleport.spanner.spannerio.MutationKeyEncoder(schema);
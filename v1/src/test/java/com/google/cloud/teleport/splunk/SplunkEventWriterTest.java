@@ -337,6 +337,100 @@ public class SplunkEventWriterTest {
     mockServer.verify(HttpRequest.request(EXPECTED_PATH), VerificationTimes.once());
   }
 
+  /** Test successful POST requests with several requests in flight. */
+  @Test
+  @Category(NeedsRunner.class)
+  public void successfulSplunkWriteWithRequestsInFlightTest() {
+
+    // Create server expectation for success.
+    mockServerListening(200);
+
+    int testPort = mockServer.getPort();
+
+    List<KV<Integer, SplunkEvent>> testEvents =
+        ImmutableList.of(
+            KV.of(123, SplunkEvent.newBuilder().withEvent("test-event-1").withTime(1L).build()),
+            KV.of(123, SplunkEvent.newBuilder().withEvent("test-event-2").withTime(2L).build()),
+            KV.of(123, SplunkEvent.newBuilder().withEvent("test-event-3").withTime(3L).build()));
+
+    PCollection<SplunkWriteError> actual =
+        pipeline
+            .apply(
+                "Create Input data",
+                Create.of(testEvents)
+                    .withCoder(KvCoder.of(BigEndianIntegerCoder.of(), SplunkEventCoder.of())))
+            .apply(
+                "SplunkEventWriter",
+                ParDo.of(
+                    SplunkEventWriter.newBuilder()
+                        .withUrl(Joiner.on(':').join("http://localhost", testPort))
+                        .withInputBatchCount(StaticValueProvider.of(1)) // one request per event.
+                        .withMaxInFlightRequests(StaticValueProvider.of(2))
+                        .withToken("test-token")
+                        .build()))
+            .setCoder(SplunkWriteErrorCoder.of());
+
+    // All successful responses.
+    PAssert.that(actual).empty();
+
+    pipeline.run();
+
+    // Server received one POST request per event.
+    mockServer.verify(HttpRequest.request(EXPECTED_PATH), VerificationTimes.exactly(3));
+  }
+
+  /** Test failed POST requests with several requests in flight. */
+  @Test
+  @Category(NeedsRunner.class)
+  public void failedSplunkWriteWithRequestsInFlightTest() {
+
+    // Create server expectation for FAILURE.
+    mockServerListening(404);
+
+    int testPort = mockServer.getPort();
+
+    List<KV<Integer, SplunkEvent>> testEvents =
+        ImmutableList.of(
+            KV.of(123, SplunkEvent.newBuilder().withEvent("test-event-1").withTime(1L).build()),
+            KV.of(123, SplunkEvent.newBuilder().withEvent("test-event-2").withTime(2L).build()));
+
+    PCollection<SplunkWriteError> actual =
+        pipeline
+            .apply(
+                "Create Input data",
+                Create.of(testEvents)
+                    .withCoder(KvCoder.of(BigEndianIntegerCoder.of(), SplunkEventCoder.of())))
+            .apply(
+                "SplunkEventWriter",
+                ParDo.of(
+                    SplunkEventWriter.newBuilder()
+                        .withUrl(Joiner.on(':').join("http://localhost", testPort))
+                        .withInputBatchCount(StaticValueProvider.of(1)) // one request per event.
+                        .withMaxInFlightRequests(StaticValueProvider.of(2))
+                        .withToken("test-token")
+                        .build()))
+            .setCoder(SplunkWriteErrorCoder.of());
+
+    // Expect a 404 Not found SplunkWriteError per event.
+    PAssert.that(actual)
+        .containsInAnyOrder(
+            SplunkWriteError.newBuilder()
+                .withStatusCode(404)
+                .withStatusMessage("Not Found")
+                .withPayload("{\"time\":1,\"event\":\"test-event-1\"}")
+                .build(),
+            SplunkWriteError.newBuilder()
+                .withStatusCode(404)
+                .withStatusMessage("Not Found")
+                .withPayload("{\"time\":2,\"event\":\"test-event-2\"}")
+                .build());
+
+    pipeline.run();
+
+    // Server received one POST request per event.
+    mockServer.verify(HttpRequest.request(EXPECTED_PATH), VerificationTimes.exactly(2));
+  }
+
   private void mockServerListening(int statusCode) {
     mockServer
         .when(HttpRequest.request(EXPECTED_PATH))
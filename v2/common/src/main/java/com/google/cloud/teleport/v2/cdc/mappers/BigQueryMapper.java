@@ -174,7 +174,8 @@ public class BigQueryMapper<InputT, OutputT>
           (BigQueryTableCache)
               new BigQueryTableCache(bigquery)
                   .withCacheResetTimeUnitValue(60)
-                  .withCacheNumRetries(3);
+                  .withCacheNumRetries(3)
+                  .withRefreshAhead(true);
     }
   }
 
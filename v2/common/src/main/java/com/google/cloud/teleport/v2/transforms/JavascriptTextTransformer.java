@@ -32,8 +32,14 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.script.Invocable;
@@ -53,6 +59,7 @@ import org.apache.beam.sdk.options.PipelineOptions;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.TupleTag;
@@ -118,9 +125,44 @@ public abstract class JavascriptTextTransformer {
         Integer javascriptTextTransformReloadIntervalMinutes);
   }
 
+  /**
+   * The outcome of a UDF invocation for a single payload: the transformed payload, which is null if
+   * the payload was filtered out, or the error raised for it.
+   */
+  public static final class UdfResult {
+    private final @Nullable String value;
+    private final @Nullable Throwable error;
+
+    private UdfResult(@Nullable String value, @Nullable Throwable error) {
+      this.value = value;
+      this.error = error;
+    }
+
+    public static UdfResult success(@Nullable String value) {
+      return new UdfResult(value, null);
+    }
+
+    public static UdfResult failure(Throwable error) {
+      return new UdfResult(null, error);
+    }
+
+    public @Nullable String value() {
+      return value;
+    }
+
+    public @Nullable Throwable error() {
+      return error;
+    }
+  }
+
   /**
    * Grabs code from a FileSystem, loads it into the Nashorn Javascript Engine, and executes
    * Javascript Functions.
+   *
+   * <p>A Nashorn engine can only run one invocation at a time, so the scripts are loaded into a
+   * bounded pool of engines (see {@link #poolSize()}) which is shared by all the threads of the
+   * worker. Each invocation borrows an engine from the pool, which lets UDF throughput scale with
+   * the number of cores.
    */
   @AutoValue
   public abstract static class JavascriptRuntime {
@@ -138,15 +180,25 @@ public abstract class JavascriptTextTransformer {
     @Nullable
     public abstract Integer reloadIntervalMinutes();
 
+    /**
+     * Maximum number of engines the UDF is loaded into, which bounds the number of concurrent
+     * invocations. Defaults to the number of available processors.
+     */
+    @Nullable
+    public abstract Integer poolSize();
+
     private static final Distribution JAVASCRIPT_RELOAD_LATENCY_MS =
         Metrics.distribution(JavascriptTextTransformer.class, "javascript_reload_latency_ms");
 
-    private static LoadingCache<JavascriptRuntime, Invocable> cache =
+    private static final Distribution JAVASCRIPT_BATCH_SIZE =
+        Metrics.distribution(JavascriptTextTransformer.class, "javascript_batch_size");
+
+    private static LoadingCache<JavascriptRuntime, InvocablePool> cache =
         Caffeine.newBuilder()
             .expireAfter(
-                new Expiry<JavascriptRuntime, Invocable>() {
+                new Expiry<JavascriptRuntime, InvocablePool>() {
                   public long expireAfterCreate(
-                      JavascriptRuntime runtime, Invocable invocable, long currentTime) {
+                      JavascriptRuntime runtime, InvocablePool pool, long currentTime) {
                     // Do not expire if reload is disabled
                     if (runtime.reloadIntervalMinutes() == null
                         || runtime.reloadIntervalMinutes() <= 0) {
@@ -157,7 +209,7 @@ public abstract class JavascriptTextTransformer {
 
                   public long expireAfterUpdate(
                       JavascriptRuntime runtime,
-                      Invocable invocable,
+                      InvocablePool pool,
                       long currentTime,
                       long currentDuration) {
                     return currentDuration;
@@ -165,13 +217,13 @@ public abstract class JavascriptTextTransformer {
 
                   public long expireAfterRead(
                       JavascriptRuntime runtime,
-                      Invocable invocable,
+                      InvocablePool pool,
                       long currentTime,
                       long currentDuration) {
                     return currentDuration;
                   }
                 })
-            .build(runtime -> buildInvocable(runtime));
+            .build(runtime -> buildInvocablePool(runtime));
 
     private Instant lastRefreshCheck = Instant.now();
 
@@ -184,6 +236,8 @@ public abstract class JavascriptTextTransformer {
 
       public abstract Builder setReloadIntervalMinutes(@Nullable Integer value);
 
+      public abstract Builder setPoolSize(@Nullable Integer value);
+
       public abstract JavascriptRuntime build();
     }
 
@@ -197,13 +251,20 @@ public abstract class JavascriptTextTransformer {
     }
 
     /**
-     * Gets a cached Javascript Invocable, if fileSystemPath() not set, returns null.
+     * Gets a Javascript Invocable with the UDF loaded, if fileSystemPath() not set, returns null.
+     * The Invocable is a new engine which is not part of the pool, so it is owned by the caller and
+     * must not be shared between threads. Invocations should go through {@link #invoke(String)}.
      *
      * @return a Javascript Invocable or null
      */
     @Nullable
     public Invocable getInvocable() throws ScriptException, IOException {
+      InvocablePool pool = getInvocablePool();
+      return pool == null ? null : newInvocable(pool.scripts);
+    }
 
+    @Nullable
+    private InvocablePool getInvocablePool() {
       // return null if no UDF path specified.
       if (Strings.isNullOrEmpty(fileSystemPath())) {
         return null;
@@ -212,6 +273,17 @@ public abstract class JavascriptTextTransformer {
       return cache.get(this);
     }
 
+    /**
+     * Loads the UDF and adds an engine to the pool if it is not full yet, so that the scripts are
+     * not evaluated on the processing path. Meant to be called once per DoFn instance at setup.
+     */
+    public void warmUp() throws ScriptException {
+      InvocablePool pool = getInvocablePool();
+      if (pool != null) {
+        pool.warmUp();
+      }
+    }
+
     /**
      * Factory method for making a new Invocable.
      *
@@ -227,11 +299,15 @@ public abstract class JavascriptTextTransformer {
       return (Invocable) engine;
     }
 
-    private static Invocable buildInvocable(JavascriptRuntime runtime)
+    private static InvocablePool buildInvocablePool(JavascriptRuntime runtime)
         throws IOException, ScriptException {
       // List of all scripts read from the filesystem
       Collection<String> scripts = getScripts(runtime.fileSystemPath());
-      return newInvocable(scripts);
+      int poolSize =
+          runtime.poolSize() != null && runtime.poolSize() > 0
+              ? runtime.poolSize()
+              : Runtime.getRuntime().availableProcessors();
+      return new InvocablePool(scripts, poolSize);
     }
 
     private static ScriptEngine getJavaScriptEngine() {
@@ -265,14 +341,17 @@ public abstract class JavascriptTextTransformer {
      */
     @Nullable
     public String invoke(String data) throws ScriptException, IOException, NoSuchMethodException {
-      Invocable invocable = getInvocable();
-      if (invocable == null) {
+      InvocablePool pool = getInvocablePool();
+      if (pool == null) {
         throw new RuntimeException("No UDF was loaded");
       }
 
       Object result;
-      synchronized (invocable) {
+      Invocable invocable = pool.borrow();
+      try {
         result = invocable.invokeFunction(functionName(), data);
+      } finally {
+        pool.release(invocable);
       }
       if (result == null || ScriptObjectMirror.isUndefined(result)) {
         return null;
@@ -285,6 +364,140 @@ public abstract class JavascriptTextTransformer {
       }
     }
 
+    /**
+     * Invokes the function once for a batch of payloads. The function is called with an array of
+     * payloads and must return an array of the same length, where each entry is the transformed
+     * payload, null or undefined if the payload is filtered out, or an error object (such as an
+     * {@code Error}) which fails that payload only.
+     *
+     * @param data payloads to pass to the invocable function
+     * @return one result per payload, in the order of the payloads
+     */
+    public List<UdfResult> invokeBatch(List<String> data)
+        throws ScriptException, IOException, NoSuchMethodException {
+      InvocablePool pool = getInvocablePool();
+      if (pool == null) {
+        throw new RuntimeException("No UDF was loaded");
+      }
+
+      Object result;
+      Invocable invocable = pool.borrow();
+      try {
+        // Convert to a native array so that the function can use the Array built-ins.
+        ScriptObjectMirror javaFrom =
+            (ScriptObjectMirror) ((ScriptEngine) invocable).eval("Java.from");
+        Object payloads = javaFrom.call(null, (Object) data.toArray(new String[0]));
+        result = invocable.invokeFunction(functionName(), payloads);
+      } finally {
+        pool.release(invocable);
+      }
+      JAVASCRIPT_BATCH_SIZE.update(data.size());
+
+      if (!(result instanceof ScriptObjectMirror) || !((ScriptObjectMirror) result).isArray()) {
+        String className = result == null ? "null" : result.getClass().getName();
+        throw new RuntimeException(
+            "UDF Function did not return an Array. Instead got: " + className);
+      }
+      ScriptObjectMirror results = (ScriptObjectMirror) result;
+      int length = ((Number) results.getMember("length")).intValue();
+      if (length != data.size()) {
+        throw new RuntimeException(
+            String.format(
+                "UDF Function returned %d results for a batch of %d payloads",
+                length, data.size()));
+      }
+
+      List<UdfResult> udfResults = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+        udfResults.add(toUdfResult(results.getSlot(i)));
+      }
+      return udfResults;
+    }
+
+    private static UdfResult toUdfResult(@Nullable Object value) {
+      if (value == null || ScriptObjectMirror.isUndefined(value)) {
+        return UdfResult.success(null);
+      } else if (value instanceof String) {
+        return UdfResult.success((String) value);
+      } else if (value instanceof ScriptObjectMirror
+          && ((ScriptObjectMirror) value).hasMember("message")) {
+        return UdfResult.failure(
+            new RuntimeException(
+                String.valueOf(((ScriptObjectMirror) value).getMember("message"))));
+      } else {
+        String className = value.getClass().getName();
+        return UdfResult.failure(
+            new RuntimeException(
+                "UDF Function did not return a String. Instead got: " + className));
+      }
+    }
+
+    /**
+     * A bounded pool of engines with the UDF scripts loaded. Engines are created on demand up to
+     * the pool size, after which callers wait for an engine to be released. The first engine is
+     * created eagerly so that script errors surface when the UDF is loaded.
+     */
+    private static class InvocablePool {
+      private final Collection<String> scripts;
+      private final int size;
+      private final BlockingQueue<Invocable> idle = new LinkedBlockingQueue<>();
+      private final AtomicInteger created = new AtomicInteger();
+
+      private InvocablePool(Collection<String> scripts, int size) throws ScriptException {
+        this.scripts = scripts;
+        this.size = size;
+        idle.add(newInvocable(scripts));
+        created.incrementAndGet();
+      }
+
+      private void warmUp() throws ScriptException {
+        if (idle.isEmpty() && reserve()) {
+          idle.add(createReserved());
+        }
+      }
+
+      private Invocable borrow() throws ScriptException {
+        Invocable invocable = idle.poll();
+        if (invocable != null) {
+          return invocable;
+        }
+        if (reserve()) {
+          return createReserved();
+        }
+        try {
+          return idle.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Interrupted while waiting for a JavaScript engine", e);
+        }
+      }
+
+      private void release(Invocable invocable) {
+        idle.add(invocable);
+      }
+
+      /** Reserves a slot for a new engine, returns false if the pool is full. */
+      private boolean reserve() {
+        int current;
+        do {
+          current = created.get();
+          if (current >= size) {
+            return false;
+          }
+        } while (!created.compareAndSet(current, current + 1));
+        return true;
+      }
+
+      private Invocable createReserved() throws ScriptException {
+        try {
+          return newInvocable(scripts);
+        } catch (ScriptException | RuntimeException e) {
+          created.decrementAndGet();
+          throw e;
+        }
+      }
+    }
+
     /**
      * Loads into memory scripts from a File System from a given path. Supports any file system that
      * {@link FileSystems} supports.
@@ -324,6 +537,12 @@ public abstract class JavascriptTextTransformer {
 
     public abstract @Nullable Integer reloadIntervalMinutes();
 
+    /**
+     * Number of elements passed to the function in a single call, see {@link
+     * JavascriptRuntime#invokeBatch(List)}. Values of 1 or less invoke the function per element.
+     */
+    public abstract @Nullable Integer batchSize();
+
     /** Builder for {@link TransformTextViaJavascript}. */
     @AutoValue.Builder
     public abstract static class Builder {
@@ -333,6 +552,8 @@ public abstract class JavascriptTextTransformer {
 
       public abstract Builder setReloadIntervalMinutes(@Nullable Integer value);
 
+      public abstract Builder setBatchSize(@Nullable Integer value);
+
       public abstract TransformTextViaJavascript build();
     }
 
@@ -346,6 +567,7 @@ public abstract class JavascriptTextTransformer {
           ParDo.of(
               new DoFn<String, String>() {
                 private JavascriptRuntime javascriptRuntime;
+                private transient UdfBatcher<String> batcher;
 
                 @Setup
                 public void setup() {
@@ -355,14 +577,31 @@ public abstract class JavascriptTextTransformer {
                             fileSystemPath(),
                             functionName(),
                             reloadIntervalMinutes() != null ? reloadIntervalMinutes() : null);
+                    warmUp(javascriptRuntime);
                   }
                 }
 
+                @StartBundle
+                public void startBundle() {
+                  batcher = newBatcher(javascriptRuntime, batchSize());
+                }
+
                 @ProcessElement
-                public void processElement(ProcessContext c)
+                public void processElement(ProcessContext c, BoundedWindow window)
                     throws IOException, NoSuchMethodException, ScriptException {
                   String element = c.element();
 
+                  if (batcher != null) {
+                    for (UdfBatcher.Entry<String> entry :
+                        batcher.add(element, element, c.timestamp(), window)) {
+                      String value = resultValue(entry);
+                      if (!Strings.isNullOrEmpty(value)) {
+                        c.outputWithTimestamp(value, entry.timestampNotBefore(c.timestamp()));
+                      }
+                    }
+                    return;
+                  }
+
                   if (javascriptRuntime != null) {
                     element = javascriptRuntime.invoke(element);
                   }
@@ -371,6 +610,29 @@ public abstract class JavascriptTextTransformer {
                     c.output(element);
                   }
                 }
+
+                @FinishBundle
+                public void finishBundle(FinishBundleContext c) {
+                  if (batcher == null) {
+                    return;
+                  }
+                  for (UdfBatcher.Entry<String> entry : batcher.finish()) {
+                    String value = resultValue(entry);
+                    if (!Strings.isNullOrEmpty(value)) {
+                      c.output(value, entry.timestamp, entry.window);
+                    }
+                  }
+                }
+
+                @Nullable
+                private String resultValue(UdfBatcher.Entry<String> entry) {
+                  Throwable error = entry.result.error();
+                  if (error != null) {
+                    Throwables.throwIfUnchecked(error);
+                    throw new RuntimeException(error);
+                  }
+                  return entry.result.value();
+                }
               }));
     }
   }
@@ -391,6 +653,12 @@ public abstract class JavascriptTextTransformer {
 
     public abstract @Nullable Boolean loggingEnabled();
 
+    /**
+     * Number of payloads passed to the function in a single call, see {@link
+     * JavascriptRuntime#invokeBatch(List)}. Values of 1 or less invoke the function per element.
+     */
+    public abstract @Nullable Integer batchSize();
+
     public abstract TupleTag<FailsafeElement<T, String>> successTag();
 
     public abstract TupleTag<FailsafeElement<T, String>> failureTag();
@@ -416,6 +684,8 @@ public abstract class JavascriptTextTransformer {
 
       public abstract Builder<T> setLoggingEnabled(@Nullable Boolean loggingEnabled);
 
+      public abstract Builder<T> setBatchSize(@Nullable Integer batchSize);
+
       public abstract Builder<T> setSuccessTag(TupleTag<FailsafeElement<T, String>> successTag);
 
       public abstract Builder<T> setFailureTag(TupleTag<FailsafeElement<T, String>> failureTag);
@@ -431,6 +701,7 @@ public abstract class JavascriptTextTransformer {
                   new DoFn<FailsafeElement<T, String>, FailsafeElement<T, String>>() {
                     private JavascriptRuntime javascriptRuntime;
                     private boolean loggingEnabled;
+                    private transient UdfBatcher<FailsafeElement<T, String>> batcher;
 
                     @Setup
                     public void setup() {
@@ -440,6 +711,7 @@ public abstract class JavascriptTextTransformer {
                                 fileSystemPath(),
                                 functionName(),
                                 reloadIntervalMinutes() != null ? reloadIntervalMinutes() : null);
+                        warmUp(javascriptRuntime);
                       }
 
                       if (loggingEnabled() != null) {
@@ -447,11 +719,38 @@ public abstract class JavascriptTextTransformer {
                       }
                     }
 
+                    @StartBundle
+                    public void startBundle() {
+                      batcher = newBatcher(javascriptRuntime, batchSize());
+                    }
+
                     @ProcessElement
-                    public void processElement(ProcessContext context) {
+                    public void processElement(ProcessContext context, BoundedWindow window) {
                       FailsafeElement<T, String> element = context.element();
                       String payloadStr = element.getPayload();
 
+                      if (batcher != null) {
+                        for (UdfBatcher.Entry<FailsafeElement<T, String>> entry :
+                            batcher.add(element, payloadStr, context.timestamp(), window)) {
+                          org.joda.time.Instant timestamp =
+                              entry.timestampNotBefore(context.timestamp());
+                          Throwable error = entry.result.error();
+                          String result = entry.result.value();
+                          if (error != null) {
+                            context.outputWithTimestamp(
+                                failureTag(), toFailure(entry.element, error), timestamp);
+                            failedCounter.inc();
+                          } else if (!Strings.isNullOrEmpty(result)) {
+                            context.outputWithTimestamp(
+                                successTag(),
+                                FailsafeElement.of(entry.element.getOriginalPayload(), result),
+                                timestamp);
+                            successCounter.inc();
+                          }
+                        }
+                        return;
+                      }
+
                       try {
                         if (javascriptRuntime != null) {
                           payloadStr = javascriptRuntime.invoke(payloadStr);
@@ -464,22 +763,51 @@ public abstract class JavascriptTextTransformer {
                         }
                       } catch (Throwable e) {
                         // Throwable caught because UDFS can trigger Errors (e.g., StackOverflow)
-                        if (loggingEnabled) {
-                          LOG.warn(
-                              "Exception occurred while applying UDF '{}' from file path '{}' due"
-                                  + " to '{}'",
-                              functionName(),
-                              fileSystemPath(),
-                              e.getMessage());
+                        context.output(failureTag(), toFailure(element, e));
+                        failedCounter.inc();
+                      }
+                    }
+
+                    @FinishBundle
+                    public void finishBundle(FinishBundleContext context) {
+                      if (batcher == null) {
+                        return;
+                      }
+                      for (UdfBatcher.Entry<FailsafeElement<T, String>> entry : batcher.finish()) {
+                        FailsafeElement<T, String> element = entry.element;
+                        Throwable error = entry.result.error();
+                        String payloadStr = entry.result.value();
+                        if (error != null) {
+                          context.output(
+                              failureTag(),
+                              toFailure(element, error),
+                              entry.timestamp,
+                              entry.window);
+                          failedCounter.inc();
+                        } else if (!Strings.isNullOrEmpty(payloadStr)) {
+                          context.output(
+                              successTag(),
+                              FailsafeElement.of(element.getOriginalPayload(), payloadStr),
+                              entry.timestamp,
+                              entry.window);
+                          successCounter.inc();
                         }
+                      }
+                    }
 
-                        context.output(
-                            failureTag(),
-                            FailsafeElement.of(element)
-                                .setErrorMessage(e.getMessage())
-                                .setStacktrace(Throwables.getStackTraceAsString(e)));
-                        failedCounter.inc();
+                    private FailsafeElement<T, String> toFailure(
+                        FailsafeElement<T, String> element, Throwable e) {
+                      if (loggingEnabled) {
+                        LOG.warn(
+                            "Exception occurred while applying UDF '{}' from file path '{}' due"
+                                + " to '{}'",
+                            functionName(),
+                            fileSystemPath(),
+                            e.getMessage());
                       }
+                      return FailsafeElement.of(element)
+                          .setErrorMessage(e.getMessage())
+                          .setStacktrace(Throwables.getStackTraceAsString(e));
                     }
                   })
               .withOutputTags(successTag(), TupleTagList.of(failureTag())));
@@ -510,4 +838,114 @@ public abstract class JavascriptTextTransformer {
 
     return javascriptRuntime;
   }
+
+  /**
+   * Loads the UDF into the runtime's engine pool ahead of processing. Failures are only logged,
+   * they are surfaced again when the UDF is invoked so that failsafe transforms can route them.
+   */
+  private static void warmUp(@Nullable JavascriptRuntime javascriptRuntime) {
+    if (javascriptRuntime == null) {
+      return;
+    }
+    try {
+      javascriptRuntime.warmUp();
+    } catch (Exception e) {
+      LOG.warn("Unable to load JavaScript UDF {}", javascriptRuntime.fileSystemPath(), e);
+    }
+  }
+
+  /** Returns a batcher for a bundle if the UDF is configured to be invoked in batches. */
+  @Nullable
+  private static <T> UdfBatcher<T> newBatcher(
+      @Nullable JavascriptRuntime javascriptRuntime, @Nullable Integer batchSize) {
+    if (javascriptRuntime == null || batchSize == null || batchSize <= 1) {
+      return null;
+    }
+    return new UdfBatcher<>(javascriptRuntime, batchSize);
+  }
+
+  /**
+   * Buffers the elements of a bundle and invokes the UDF once for every {@code batchSize} payloads
+   * of a window. A batch is returned as soon as it was invoked, so that its results can be output
+   * while processing the element that filled it, and only one partial batch per window is held
+   * until the end of the bundle.
+   */
+  private static class UdfBatcher<T> {
+
+    /** A buffered element and, once its batch was invoked, the result for its payload. */
+    private static class Entry<T> {
+      private final T element;
+      private final String payload;
+      private final org.joda.time.Instant timestamp;
+      private final BoundedWindow window;
+      private UdfResult result;
+
+      private Entry(
+          T element, String payload, org.joda.time.Instant timestamp, BoundedWindow window) {
+        this.element = element;
+        this.payload = payload;
+        this.timestamp = timestamp;
+        this.window = window;
+      }
+
+      /**
+       * Returns the timestamp to output the result with while processing another element. A DoFn
+       * cannot output before the timestamp of its input, so earlier elements of the batch take the
+       * timestamp of the element that filled it.
+       */
+      private org.joda.time.Instant timestampNotBefore(org.joda.time.Instant inputTimestamp) {
+        return timestamp.isBefore(inputTimestamp) ? inputTimestamp : timestamp;
+      }
+    }
+
+    private final JavascriptRuntime javascriptRuntime;
+    private final int batchSize;
+    private final Map<BoundedWindow, List<Entry<T>>> pending = new HashMap<>();
+
+    private UdfBatcher(JavascriptRuntime javascriptRuntime, int batchSize) {
+      this.javascriptRuntime = javascriptRuntime;
+      this.batchSize = batchSize;
+    }
+
+    /** Buffers an element, returns the entries of its batch if it is now full, or none. */
+    private List<Entry<T>> add(
+        T element, String payload, org.joda.time.Instant timestamp, BoundedWindow window) {
+      List<Entry<T>> batch = pending.computeIfAbsent(window, w -> new ArrayList<>(batchSize));
+      batch.add(new Entry<>(element, payload, timestamp, window));
+      if (batch.size() < batchSize) {
+        return Collections.emptyList();
+      }
+      pending.remove(window);
+      invoke(batch);
+      return batch;
+    }
+
+    /** Invokes the partial batches left at the end of the bundle and returns their entries. */
+    private List<Entry<T>> finish() {
+      List<Entry<T>> entries = new ArrayList<>();
+      for (List<Entry<T>> batch : pending.values()) {
+        invoke(batch);
+        entries.addAll(batch);
+      }
+      pending.clear();
+      return entries;
+    }
+
+    private void invoke(List<Entry<T>> batch) {
+      List<UdfResult> results;
+      try {
+        List<String> payloads = new ArrayList<>(batch.size());
+        for (Entry<T> entry : batch) {
+          payloads.add(entry.payload);
+        }
+        results = javascriptRuntime.invokeBatch(payloads);
+      } catch (Throwable e) {
+        // Throwable caught because UDFS can trigger Errors (e.g., StackOverflow)
+        results = Collections.nCopies(batch.size(), UdfResult.failure(e));
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).result = results.get(i);
+      }
+    }
+  }
 }
@@ -15,10 +15,23 @@
  */
 package com.google.cloud.teleport.v2.utils;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.Serializable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,17 +43,43 @@ import org.slf4j.LoggerFactory;
  * behavior to ensure reliability, and easy cache reloads. Open Question: Does the class require
  * thread-safe behaviors? Currently, it does not since there is no iteration and get/set are not
  * continuous.
+ *
+ * <p>With {@link #withRefreshAhead(boolean)}, values do not expire. Once a value is older than the
+ * cache reset time, it is still served while a background load refreshes it. Loads run on a shared
+ * pool, concurrent loads of a key are collapsed into one, and retries are scheduled rather than
+ * slept on the calling thread. The load latency, failed loads and stale values served are reported
+ * as metrics under the name of the cache class.
  */
 public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(MappedObjectCache.class);
 
+  private static final int LOADER_THREADS = 8;
+
+  private static ScheduledExecutorService loaderPool;
+
   public Cache<KeyT, ValueT> cachedObjects =
       CacheBuilder.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).<KeyT, ValueT>build();
   private int maxNumRetries = 0;
 
-  // private Integer cacheResetTimeUnitValue = 5;
-  // private TimeUnit cacheResetTimeUnit = TimeUnit.MINUTES;
+  private Integer cacheResetTimeUnitValue = 5;
+  private boolean refreshAhead = false;
+
+  // The time at which each cached value is due for a refresh, in refresh ahead mode.
+  private final Map<KeyT, Long> refreshDueNanos = new ConcurrentHashMap<>();
+
+  // The loads in flight, so that concurrent loads of a key share one.
+  private final Map<KeyT, CompletableFuture<ValueT>> loads = new ConcurrentHashMap<>();
+
+  // Load attempts made on the loader pool, reported to the metrics by the calling threads.
+  private final Queue<LoadAttempt> loadAttempts = new ConcurrentLinkedQueue<>();
+
+  private final Distribution loadLatencyMs =
+      Metrics.distribution(getClass(), "mapped_object_cache_load_latency_ms");
+  private final Counter loadFailures =
+      Metrics.counter(getClass(), "mapped_object_cache_load_failures");
+  private final Counter staleServes =
+      Metrics.counter(getClass(), "mapped_object_cache_stale_serves");
 
   /** Create an instance of a {@link MappedObjectCache} to track table schemas. */
   public MappedObjectCache() {}
@@ -51,8 +90,8 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
    * @param value The number of minutes before reseting a cached value.
    */
   public MappedObjectCache withCacheResetTimeUnitValue(Integer value) {
-    this.cachedObjects =
-        CacheBuilder.newBuilder().expireAfterWrite(value, TimeUnit.MINUTES).<KeyT, ValueT>build();
+    this.cacheResetTimeUnitValue = value;
+    this.cachedObjects = buildCache();
 
     return this;
   }
@@ -69,6 +108,28 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
     return this;
   }
 
+  /**
+   * Serve cached values past the cache reset time while a background load refreshes them, instead
+   * of expiring them.
+   *
+   * @param refreshAhead whether stale values are refreshed in the background.
+   */
+  public MappedObjectCache withRefreshAhead(boolean refreshAhead) {
+    this.refreshAhead = refreshAhead;
+    this.cachedObjects = buildCache();
+
+    return this;
+  }
+
+  private Cache<KeyT, ValueT> buildCache() {
+    if (refreshAhead) {
+      return CacheBuilder.newBuilder().<KeyT, ValueT>build();
+    }
+    return CacheBuilder.newBuilder()
+        .expireAfterWrite(cacheResetTimeUnitValue, TimeUnit.MINUTES)
+        .<KeyT, ValueT>build();
+  }
+
   /**
    * Return a {@code ValueT} representing the value requested to be stored.
    *
@@ -80,17 +141,29 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
     if (value == null) {
       return this.reset(key, false, null);
     }
+    if (refreshAhead) {
+      reportLoadAttempts();
+      Long dueNanos = refreshDueNanos.get(key);
+      if (dueNanos != null && System.nanoTime() - dueNanos >= 0) {
+        staleServes.inc();
+        load(key, false);
+      }
+    }
     return value;
   }
 
   public abstract ValueT getObjectValue(KeyT key);
 
   private ValueT getObjectValueWithRetries(KeyT key, int retriesRemaining) {
+    long startNanos = System.nanoTime();
     try {
-      return getObjectValue(key);
+      ValueT value = getObjectValue(key);
+      loadLatencyMs.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      return value;
     } catch (Exception e) {
+      loadFailures.inc();
       if (retriesRemaining > 0) {
-        int sleepSecs = (this.maxNumRetries - retriesRemaining + 1) * 10;
+        int sleepSecs = retryDelaySeconds(retriesRemaining);
         LOG.info("Cache Exception, will retry after {} seconds: {}", sleepSecs, e.toString());
         try {
           Thread.sleep(sleepSecs * 1000);
@@ -102,6 +175,10 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
     }
   }
 
+  private int retryDelaySeconds(int retriesRemaining) {
+    return (this.maxNumRetries - retriesRemaining + 1) * 10;
+  }
+
   /**
    * Returns a {@code ValueT} extracted from abstract getObjectValue(key) and sets the value in the
    * local cache.
@@ -133,7 +210,23 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
    * @param currentValue is the current ValueT which a thread is using and if the stored value is
    *     already different than supply that.
    */
-  private synchronized ValueT reset(KeyT key, Boolean force, ValueT currentValue) {
+  private ValueT reset(KeyT key, Boolean force, ValueT currentValue) {
+    if (refreshAhead) {
+      // Not synchronized, so that the loads of different keys do not wait for each other.
+      if (!force) {
+        ValueT value = cachedObjects.getIfPresent(key);
+        if (value != null && value != currentValue) {
+          return value;
+        }
+      }
+      // A caller resetting the value it holds knows that it changed, so it does not join a load
+      // which may have started before the change.
+      return awaitLoad(load(key, force || currentValue != null));
+    }
+    return resetSynchronized(key, force, currentValue);
+  }
+
+  private synchronized ValueT resetSynchronized(KeyT key, Boolean force, ValueT currentValue) {
     ValueT value;
     if (!force) {
       value = cachedObjects.getIfPresent(key);
@@ -147,4 +240,143 @@ public abstract class MappedObjectCache<KeyT, ValueT> implements Serializable {
     }
     return value;
   }
+
+  /**
+   * Starts loading the value of a key on the loader pool, or returns the load in flight. A forced
+   * load does not join the load in flight, which may have started before the value changed.
+   */
+  private CompletableFuture<ValueT> load(KeyT key, boolean force) {
+    CompletableFuture<ValueT> future = new CompletableFuture<>();
+    if (force) {
+      loads.put(key, future);
+    } else {
+      CompletableFuture<ValueT> inFlight = loads.putIfAbsent(key, future);
+      if (inFlight != null) {
+        return inFlight;
+      }
+    }
+    future.whenComplete((value, e) -> loads.remove(key, future));
+    attemptLoad(key, future, this.maxNumRetries, 0);
+    return future;
+  }
+
+  private void attemptLoad(
+      KeyT key, CompletableFuture<ValueT> future, int retriesRemaining, long delaySeconds) {
+    loaderPool()
+        .schedule(
+            () -> {
+              long startNanos = System.nanoTime();
+              try {
+                ValueT value = getObjectValue(key);
+                loadAttempts.add(new LoadAttempt(System.nanoTime() - startNanos, false));
+                ifCurrentLoad(key, future, () -> store(key, value));
+                future.complete(value);
+              } catch (Exception e) {
+                loadAttempts.add(new LoadAttempt(System.nanoTime() - startNanos, true));
+                if (retriesRemaining > 0) {
+                  int retrySecs = retryDelaySeconds(retriesRemaining);
+                  LOG.info(
+                      "Cache Exception, will retry after {} seconds: {}", retrySecs, e.toString());
+                  attemptLoad(key, future, retriesRemaining - 1, retrySecs);
+                  return;
+                }
+                LOG.warn("Cache Exception, keeping the cached value of {}: {}", key, e.toString());
+                // The stale value, if any, is served until the next refresh.
+                ifCurrentLoad(
+                    key,
+                    future,
+                    () ->
+                        refreshDueNanos.computeIfPresent(
+                            key,
+                            (k, due) ->
+                                System.nanoTime()
+                                    + TimeUnit.SECONDS.toNanos(
+                                        retryDelaySeconds(retriesRemaining))));
+                future.completeExceptionally(e);
+              } catch (Throwable t) {
+                future.completeExceptionally(t);
+              }
+            },
+            delaySeconds,
+            TimeUnit.SECONDS);
+  }
+
+  /**
+   * Runs the update unless a forced load of the key superseded this one, so that an older load
+   * finishing late does not overwrite the newer value. Runs atomically with the start of a load.
+   */
+  private void ifCurrentLoad(KeyT key, CompletableFuture<ValueT> future, Runnable update) {
+    loads.computeIfPresent(
+        key,
+        (k, current) -> {
+          if (current == future) {
+            update.run();
+          }
+          return current;
+        });
+  }
+
+  private void store(KeyT key, ValueT value) {
+    if (value == null) {
+      // The object is gone, the next get loads it again.
+      cachedObjects.invalidate(key);
+      refreshDueNanos.remove(key);
+      return;
+    }
+    cachedObjects.put(key, value);
+    refreshDueNanos.put(key, System.nanoTime() + TimeUnit.MINUTES.toNanos(cacheResetTimeUnitValue));
+  }
+
+  private ValueT awaitLoad(CompletableFuture<ValueT> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } finally {
+      reportLoadAttempts();
+    }
+  }
+
+  // Beam metrics can only be updated from the threads of a DoFn, so the loader pool queues them.
+  private void reportLoadAttempts() {
+    LoadAttempt attempt;
+    while ((attempt = loadAttempts.poll()) != null) {
+      loadLatencyMs.update(TimeUnit.NANOSECONDS.toMillis(attempt.latencyNanos));
+      if (attempt.failed) {
+        loadFailures.inc();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  boolean isLoading(KeyT key) {
+    return loads.containsKey(key);
+  }
+
+  private static synchronized ScheduledExecutorService loaderPool() {
+    if (loaderPool == null) {
+      loaderPool =
+          Executors.newScheduledThreadPool(
+              LOADER_THREADS,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("mapped-object-cache-loader-%d")
+                  .build());
+    }
+    return loaderPool;
+  }
+
+  /** A load attempt made on the loader pool. */
+  private static class LoadAttempt {
+    private final long latencyNanos;
+    private final boolean failed;
+
+    LoadAttempt(long latencyNanos, boolean failed) {
+      this.latencyNanos = latencyNanos;
+      this.failed = failed;
+    }
+  }
 }
@@ -29,14 +29,20 @@ import com.google.cloud.teleport.v2.coders.FailsafeElementCoder;
 import com.google.cloud.teleport.v2.transforms.JavascriptTextTransformer.FailsafeJavascriptUdf;
 import com.google.cloud.teleport.v2.transforms.JavascriptTextTransformer.JavascriptRuntime;
 import com.google.cloud.teleport.v2.transforms.JavascriptTextTransformer.TransformTextViaJavascript;
+import com.google.cloud.teleport.v2.transforms.JavascriptTextTransformer.UdfResult;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.io.Resources;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.beam.sdk.coders.CoderRegistry;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
 import org.apache.beam.sdk.io.gcp.pubsub.PubsubMessage;
@@ -71,6 +77,12 @@ public class JavascriptTextTransformerTest {
   private static final TupleTag<FailsafeElement<PubsubMessage, String>> FAILURE_TAG =
       new TupleTag<FailsafeElement<PubsubMessage, String>>() {};
 
+  private static final TupleTag<FailsafeElement<String, String>> STRING_SUCCESS_TAG =
+      new TupleTag<FailsafeElement<String, String>>() {};
+
+  private static final TupleTag<FailsafeElement<String, String>> STRING_FAILURE_TAG =
+      new TupleTag<FailsafeElement<String, String>>() {};
+
   private static final String RESOURCES_DIR = "JavascriptTextTransformerTest/";
 
   private static final String TRANSFORM_FILE_PATH =
@@ -158,6 +170,80 @@ public class JavascriptTextTransformerTest {
     assertNull(data);
   }
 
+  /**
+   * Test {@link JavascriptRuntime#invokeBatch(List)} returns one result per payload, with filtered
+   * payloads and per-payload errors.
+   */
+  @Test
+  public void testInvokeBatch() throws Exception {
+    JavascriptRuntime javascriptRuntime =
+        JavascriptRuntime.newBuilder()
+            .setFileSystemPath(TRANSFORM_FILE_PATH)
+            .setFunctionName("transformBatch")
+            .setReloadIntervalMinutes(0)
+            .build();
+    List<UdfResult> results =
+        javascriptRuntime.invokeBatch(
+            Arrays.asList("{\"answerToLife\": 42}", "{\"answerToLife\": 43}", "{invalid"));
+
+    assertEquals(3, results.size());
+    assertEquals("{\"answerToLife\":42,\"someProp\":\"someValue\"}", results.get(0).value());
+    assertNull(results.get(0).error());
+    assertNull(results.get(1).value());
+    assertNull(results.get(1).error());
+    assertNull(results.get(2).value());
+    assertThat(results.get(2).error(), is(notNullValue()));
+  }
+
+  /**
+   * Test {@link JavascriptRuntime#invokeBatch(List)} errors when the function does not return an
+   * array.
+   */
+  @Test
+  public void testInvokeBatchNotAnArray() throws Exception {
+    JavascriptRuntime javascriptRuntime =
+        JavascriptRuntime.newBuilder()
+            .setFileSystemPath(TRANSFORM_FILE_PATH)
+            .setFunctionName("transform")
+            .setReloadIntervalMinutes(0)
+            .build();
+
+    thrown.expect(RuntimeException.class);
+    thrown.expectMessage("UDF Function did not return an Array");
+    javascriptRuntime.invokeBatch(Arrays.asList("{\"answerToLife\": 42}"));
+  }
+
+  /**
+   * Test {@link JavascriptRuntime#invoke(String)} returns the right results when invoked from more
+   * threads than there are engines in the pool.
+   */
+  @Test
+  public void testInvokeConcurrently() throws Exception {
+    JavascriptRuntime javascriptRuntime =
+        JavascriptRuntime.newBuilder()
+            .setFileSystemPath(TRANSFORM_FILE_PATH)
+            .setFunctionName("transform")
+            .setReloadIntervalMinutes(0)
+            .setPoolSize(2)
+            .build();
+    javascriptRuntime.warmUp();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        String input = "{\"answerToLife\":" + i + "}";
+        results.add(executor.submit(() -> javascriptRuntime.invoke(input)));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(
+            "{\"answerToLife\":" + i + ",\"someProp\":\"someValue\"}", results.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Test {@link TransformTextViaJavascript} returns transformed data when a good javascript
    * transform given.
@@ -274,6 +360,39 @@ public class JavascriptTextTransformerTest {
     pipeline.run();
   }
 
+  /**
+   * Test {@link TransformTextViaJavascript} with a batch size outputs the results of both the full
+   * batches and the partial batch left at the end of the bundle.
+   */
+  @Test
+  @Category(NeedsRunner.class)
+  public void testDoFnBatch() {
+    List<String> inJson =
+        Arrays.asList(
+            "{\"answerToLife\":42,\"id\":1}",
+            "{\"answerToLife\":43,\"id\":2}",
+            "{\"answerToLife\":42,\"id\":3}");
+    List<String> expectedJson =
+        Arrays.asList(
+            "{\"answerToLife\":42,\"id\":1,\"someProp\":\"someValue\"}",
+            "{\"answerToLife\":42,\"id\":3,\"someProp\":\"someValue\"}");
+
+    PCollection<String> transformedJson =
+        pipeline
+            .apply("Create", Create.of(inJson))
+            .apply(
+                TransformTextViaJavascript.newBuilder()
+                    .setFileSystemPath(TRANSFORM_FILE_PATH)
+                    .setFunctionName("transformBatch")
+                    .setReloadIntervalMinutes(0)
+                    .setBatchSize(2)
+                    .build());
+
+    PAssert.that(transformedJson).containsInAnyOrder(expectedJson);
+
+    pipeline.run();
+  }
+
   /** Tests the {@link FailsafeJavascriptUdf} when the input is valid. */
   @Test
   @Category(NeedsRunner.class)
@@ -334,6 +453,61 @@ public class JavascriptTextTransformerTest {
     pipeline.run();
   }
 
+  /**
+   * Tests the {@link FailsafeJavascriptUdf} with a batch size, where the UDF is invoked with arrays
+   * of payloads and each payload is routed to the success or failure output.
+   */
+  @Test
+  @Category(NeedsRunner.class)
+  public void testFailsafeJavaScriptUdfBatch() {
+    FailsafeElementCoder<String, String> coder =
+        FailsafeElementCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of());
+
+    List<FailsafeElement<String, String>> inputs =
+        Arrays.asList(
+            FailsafeElement.of("0", "{\"answerToLife\": 42}"),
+            FailsafeElement.of("1", "{\"answerToLife\": 43}"),
+            FailsafeElement.of("2", "{invalid"));
+
+    PCollectionTuple output =
+        pipeline
+            .apply("CreateInput", Create.of(inputs).withCoder(coder))
+            .apply(
+                "InvokeUdf",
+                FailsafeJavascriptUdf.<String>newBuilder()
+                    .setFileSystemPath(TRANSFORM_FILE_PATH)
+                    .setFunctionName("transformBatch")
+                    .setReloadIntervalMinutes(0)
+                    .setBatchSize(2)
+                    .setSuccessTag(STRING_SUCCESS_TAG)
+                    .setFailureTag(STRING_FAILURE_TAG)
+                    .build());
+    output.get(STRING_SUCCESS_TAG).setCoder(coder);
+    output.get(STRING_FAILURE_TAG).setCoder(coder);
+
+    PAssert.that(output.get(STRING_SUCCESS_TAG))
+        .satisfies(
+            collection -> {
+              FailsafeElement<String, String> result = collection.iterator().next();
+              assertThat(Iterables.size(collection), is(equalTo(1)));
+              assertThat(result.getOriginalPayload(), is(equalTo("0")));
+              assertThat(
+                  result.getPayload(),
+                  is(equalTo("{\"answerToLife\":42,\"someProp\":\"someValue\"}")));
+              return null;
+            });
+    PAssert.that(output.get(STRING_FAILURE_TAG))
+        .satisfies(
+            collection -> {
+              FailsafeElement<String, String> result = collection.iterator().next();
+              assertThat(result.getOriginalPayload(), is(equalTo("2")));
+              assertThat(result.getErrorMessage(), is(notNullValue()));
+              return null;
+            });
+
+    pipeline.run();
+  }
+
   /**
    * Tests the {@link FailsafeJavascriptUdf} when it's passed invalid JSON. In this case the UDF
    * should output the input {@link FailsafeElement} to the dead-letter enriched with error
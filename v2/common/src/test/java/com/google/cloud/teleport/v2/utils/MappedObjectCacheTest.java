@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.utils;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Test cases for the {@link MappedObjectCache} class. */
+@RunWith(JUnit4.class)
+public class MappedObjectCacheTest {
+
+  /**
+   * Loads the number of its loads, waiting for the gate, and the gate of the load if any, to open
+   * and failing when asked to.
+   */
+  private static class CountingCache extends MappedObjectCache<String, String> {
+    final AtomicInteger loadCount = new AtomicInteger();
+    final Map<Integer, CountDownLatch> loadGates = new ConcurrentHashMap<>();
+    volatile CountDownLatch gate = new CountDownLatch(0);
+    volatile boolean failing = false;
+
+    @Override
+    public String getObjectValue(String key) {
+      int load = loadCount.incrementAndGet();
+      try {
+        gate.await();
+        CountDownLatch loadGate = loadGates.get(load);
+        if (loadGate != null) {
+          loadGate.await();
+        }
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      if (failing) {
+        throw new IllegalStateException("load " + load + " failed");
+      }
+      return key + "-" + load;
+    }
+  }
+
+  private static CountingCache refreshAheadCache() {
+    // A zero reset time makes every value due for a refresh as soon as it is loaded.
+    CountingCache cache = new CountingCache();
+    cache.withCacheResetTimeUnitValue(0).withRefreshAhead(true);
+    return cache;
+  }
+
+  private static void awaitLoaded(CountingCache cache, String key) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (cache.isLoading(key)) {
+      assertThat(System.nanoTime() < deadline).isTrue();
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testGet_withoutRefreshAhead_loadsOnce() {
+    CountingCache cache = new CountingCache();
+
+    assertThat(cache.get("table")).isEqualTo("table-1");
+    assertThat(cache.get("table")).isEqualTo("table-1");
+    assertThat(cache.loadCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGet_withRefreshAhead_servesStaleValueWhileRefreshing() throws Exception {
+    CountingCache cache = refreshAheadCache();
+    assertThat(cache.get("table")).isEqualTo("table-1");
+
+    cache.gate = new CountDownLatch(1);
+    assertThat(cache.get("table")).isEqualTo("table-1");
+    assertThat(cache.isLoading("table")).isTrue();
+    assertThat(cache.get("table")).isEqualTo("table-1");
+
+    cache.gate.countDown();
+    awaitLoaded(cache, "table");
+    assertThat(cache.loadCount.get()).isEqualTo(2);
+    assertThat(cache.cachedObjects.getIfPresent("table")).isEqualTo("table-2");
+  }
+
+  @Test
+  public void testGet_withRefreshAhead_collapsesConcurrentMisses() throws Exception {
+    // The values are not due for a refresh, in case a caller only gets once the load finished.
+    CountingCache cache = new CountingCache();
+    cache.withRefreshAhead(true);
+    cache.gate = new CountDownLatch(1);
+    ExecutorService callers = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> values = new ArrayList<>();
+      values.add(callers.submit(() -> cache.get("table")));
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!cache.isLoading("table")) {
+        assertThat(System.nanoTime() < deadline).isTrue();
+        Thread.sleep(10);
+      }
+      for (int i = 0; i < 3; i++) {
+        values.add(callers.submit(() -> cache.get("table")));
+      }
+
+      cache.gate.countDown();
+      for (Future<String> value : values) {
+        assertThat(value.get(10, TimeUnit.SECONDS)).isEqualTo("table-1");
+      }
+      assertThat(cache.loadCount.get()).isEqualTo(1);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testReset_withRefreshAhead_keepsTheForcedValueWhenAnOlderLoadFinishesLater()
+      throws Exception {
+    CountingCache cache = refreshAheadCache();
+    CountDownLatch firstLoadGate = new CountDownLatch(1);
+    cache.loadGates.put(1, firstLoadGate);
+    ExecutorService callers = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> firstValue = callers.submit(() -> cache.get("table"));
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (cache.loadCount.get() < 1) {
+        assertThat(System.nanoTime() < deadline).isTrue();
+        Thread.sleep(10);
+      }
+
+      assertThat(cache.reset("table")).isEqualTo("table-2");
+
+      firstLoadGate.countDown();
+      assertThat(firstValue.get(10, TimeUnit.SECONDS)).isEqualTo("table-1");
+      assertThat(cache.cachedObjects.getIfPresent("table")).isEqualTo("table-2");
+      assertThat(cache.loadCount.get()).isEqualTo(2);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testGet_withRefreshAhead_keepsStaleValueWhenRefreshFails() throws Exception {
+    CountingCache cache = refreshAheadCache();
+    assertThat(cache.get("table")).isEqualTo("table-1");
+
+    cache.failing = true;
+    assertThat(cache.get("table")).isEqualTo("table-1");
+    awaitLoaded(cache, "table");
+
+    // The failed refresh is retried later rather than on the next get.
+    assertThat(cache.get("table")).isEqualTo("table-1");
+    assertThat(cache.isLoading("table")).isFalse();
+    assertThat(cache.loadCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testGet_withRefreshAhead_throwsWhenTheFirstLoadFails() {
+    CountingCache cache = refreshAheadCache();
+    cache.failing = true;
+
+    assertThrows(IllegalStateException.class, () -> cache.get("table"));
+  }
+}
@@ -37,3 +37,25 @@ function transformWithFilter(inJson) {
     return JSON.stringify(obj);
   }
 }
+
+/**
+ * A batch transform function which only accepts 42 as the answer to life and fails payloads
+ * which are not valid JSON.
+ * @param {string[]} inJsons
+ * @return {(string|Error)[]} outJsons
+ */
+function transformBatch(inJsons) {
+  return inJsons.map(function(inJson) {
+    var obj;
+    try {
+      obj = JSON.parse(inJson);
+    } catch (e) {
+      return e;
+    }
+    if (obj.answerToLife != 42) {
+      return null;
+    }
+    obj.someProp = "someValue";
+    return JSON.stringify(obj);
+  });
+}
@@ -156,7 +156,7 @@ public abstract class MergeInfo implements Serializable {
     if (tableCache == null) {
       BigQuery bigquery =
           BigQueryOptions.newBuilder().setProjectId(getProjectId()).build().getService();
-      tableCache = new BigQueryTableCache(bigquery);
+      tableCache = (BigQueryTableCache) new BigQueryTableCache(bigquery).withRefreshAhead(true);
     }
   }
 
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.datastream.coders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.util.VarInt;
+
+/**
+ * The {@link DatastreamChangeEventCoder} encodes and decodes {@link DatastreamChangeEvent}s in a
+ * compact binary form.
+ *
+ * <p>Every value of the change event is written as a one byte type tag followed by its binary
+ * representation: integers as zig-zag variable length integers, decimals as their scale and
+ * unscaled value, doubles as their 8 bytes and text as UTF-8. Decoding rebuilds the typed JSON
+ * values directly, without any JSON parsing, and decoded events are equal to the encoded ones.
+ */
+public class DatastreamChangeEventCoder extends CustomCoder<DatastreamChangeEvent> {
+
+  private static final DatastreamChangeEventCoder INSTANCE = new DatastreamChangeEventCoder();
+
+  private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.withExactBigDecimals(true);
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_TRUE = 1;
+  private static final byte TAG_FALSE = 2;
+  private static final byte TAG_INT = 3;
+  private static final byte TAG_LONG = 4;
+  private static final byte TAG_BIG_INTEGER = 5;
+  private static final byte TAG_DECIMAL = 6;
+  private static final byte TAG_FLOAT = 7;
+  private static final byte TAG_DOUBLE = 8;
+  private static final byte TAG_TEXT = 9;
+  private static final byte TAG_BINARY = 10;
+  private static final byte TAG_ARRAY = 11;
+  private static final byte TAG_OBJECT = 12;
+
+  private DatastreamChangeEventCoder() {}
+
+  public static DatastreamChangeEventCoder of() {
+    return INSTANCE;
+  }
+
+  @Override
+  public void encode(DatastreamChangeEvent value, OutputStream outStream) throws IOException {
+    if (value == null) {
+      throw new CoderException("The DatastreamChangeEventCoder cannot encode a null object!");
+    }
+    encodeNode(value.getEvent(), new DataOutputStream(outStream));
+  }
+
+  @Override
+  public DatastreamChangeEvent decode(InputStream inStream) throws IOException {
+    JsonNode event = decodeNode(new DataInputStream(inStream));
+    if (!event.isObject()) {
+      throw new CoderException("The encoded change event is not a JSON object.");
+    }
+    return DatastreamChangeEvent.of((ObjectNode) event);
+  }
+
+  private static void encodeNode(JsonNode node, DataOutputStream out) throws IOException {
+    switch (node.getNodeType()) {
+      case NULL:
+      case MISSING:
+        out.writeByte(TAG_NULL);
+        break;
+      case BOOLEAN:
+        out.writeByte(node.booleanValue() ? TAG_TRUE : TAG_FALSE);
+        break;
+      case NUMBER:
+        encodeNumber(node, out);
+        break;
+      case STRING:
+        out.writeByte(TAG_TEXT);
+        encodeString(node.textValue(), out);
+        break;
+      case BINARY:
+        out.writeByte(TAG_BINARY);
+        encodeBytes(node.binaryValue(), out);
+        break;
+      case ARRAY:
+        out.writeByte(TAG_ARRAY);
+        VarInt.encode(node.size(), out);
+        for (JsonNode element : node) {
+          encodeNode(element, out);
+        }
+        break;
+      case OBJECT:
+        out.writeByte(TAG_OBJECT);
+        VarInt.encode(node.size(), out);
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+          Map.Entry<String, JsonNode> field = fields.next();
+          encodeString(field.getKey(), out);
+          encodeNode(field.getValue(), out);
+        }
+        break;
+      default:
+        throw new CoderException("Unsupported change event value of type " + node.getNodeType());
+    }
+  }
+
+  private static void encodeNumber(JsonNode node, DataOutputStream out) throws IOException {
+    switch (node.numberType()) {
+      case INT:
+        out.writeByte(TAG_INT);
+        VarInt.encode(zigZag(node.intValue()), out);
+        break;
+      case LONG:
+        out.writeByte(TAG_LONG);
+        VarInt.encode(zigZag(node.longValue()), out);
+        break;
+      case BIG_INTEGER:
+        out.writeByte(TAG_BIG_INTEGER);
+        encodeBytes(node.bigIntegerValue().toByteArray(), out);
+        break;
+      case BIG_DECIMAL:
+        BigDecimal decimal = node.decimalValue();
+        out.writeByte(TAG_DECIMAL);
+        VarInt.encode(zigZag(decimal.scale()), out);
+        encodeBytes(decimal.unscaledValue().toByteArray(), out);
+        break;
+      case FLOAT:
+        out.writeByte(TAG_FLOAT);
+        out.writeFloat(node.floatValue());
+        break;
+      default:
+        out.writeByte(TAG_DOUBLE);
+        out.writeDouble(node.doubleValue());
+    }
+  }
+
+  private static JsonNode decodeNode(DataInputStream in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case TAG_NULL:
+        return NODE_FACTORY.nullNode();
+      case TAG_TRUE:
+        return NODE_FACTORY.booleanNode(true);
+      case TAG_FALSE:
+        return NODE_FACTORY.booleanNode(false);
+      case TAG_INT:
+        return NODE_FACTORY.numberNode((int) unZigZag(VarInt.decodeLong(in)));
+      case TAG_LONG:
+        return NODE_FACTORY.numberNode(unZigZag(VarInt.decodeLong(in)));
+      case TAG_BIG_INTEGER:
+        return NODE_FACTORY.numberNode(new BigInteger(decodeBytes(in)));
+      case TAG_DECIMAL:
+        int scale = (int) unZigZag(VarInt.decodeLong(in));
+        return NODE_FACTORY.numberNode(new BigDecimal(new BigInteger(decodeBytes(in)), scale));
+      case TAG_FLOAT:
+        return NODE_FACTORY.numberNode(in.readFloat());
+      case TAG_DOUBLE:
+        return NODE_FACTORY.numberNode(in.readDouble());
+      case TAG_TEXT:
+        return NODE_FACTORY.textNode(decodeString(in));
+      case TAG_BINARY:
+        return NODE_FACTORY.binaryNode(decodeBytes(in));
+      case TAG_ARRAY:
+        int elementCount = VarInt.decodeInt(in);
+        ArrayNode array = NODE_FACTORY.arrayNode(elementCount);
+        for (int i = 0; i < elementCount; i++) {
+          array.add(decodeNode(in));
+        }
+        return array;
+      case TAG_OBJECT:
+        int fieldCount = VarInt.decodeInt(in);
+        ObjectNode object = NODE_FACTORY.objectNode();
+        for (int i = 0; i < fieldCount; i++) {
+          String name = decodeString(in);
+          object.set(name, decodeNode(in));
+        }
+        return object;
+      default:
+        throw new CoderException("Unknown change event value tag " + tag);
+    }
+  }
+
+  private static void encodeString(String value, DataOutputStream out) throws IOException {
+    encodeBytes(value.getBytes(StandardCharsets.UTF_8), out);
+  }
+
+  private static String decodeString(DataInputStream in) throws IOException {
+    return new String(decodeBytes(in), StandardCharsets.UTF_8);
+  }
+
+  private static void encodeBytes(byte[] value, DataOutputStream out) throws IOException {
+    VarInt.encode(value.length, out);
+    out.write(value);
+  }
+
+  private static byte[] decodeBytes(DataInputStream in) throws IOException {
+    byte[] value = new byte[VarInt.decodeInt(in)];
+    in.readFully(value);
+    return value;
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -30,7 +30,9 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -402,6 +404,42 @@ public class CdcJdbcIO {
     String formatStatement(T element);
   }
 
+  /**
+   * An interface used by the JdbcIO Write to turn a record into a {@link ParameterizedStatement},
+   * which is written with a {@link PreparedStatement}.
+   */
+  @FunctionalInterface
+  public interface PreparedStatementFormatter<T> extends Serializable {
+    ParameterizedStatement formatStatement(T element);
+  }
+
+  /**
+   * A SQL statement with {@code ?} placeholders, and the values of its parameters.
+   *
+   * <p>Records whose statements have the same SQL, such as the upserts of one table with the same
+   * columns, are written together in a {@link PreparedStatement} batch. The optional ordering key,
+   * such as the table and primary key of the record, identifies records whose relative order must
+   * be kept when they have different SQL statements.
+   */
+  @AutoValue
+  public abstract static class ParameterizedStatement {
+    public abstract String getSql();
+
+    public abstract List<Object> getParameters();
+
+    @Nullable
+    public abstract Object getOrderingKey();
+
+    public static ParameterizedStatement of(String sql, List<Object> parameters) {
+      return of(sql, parameters, null);
+    }
+
+    public static ParameterizedStatement of(
+        String sql, List<Object> parameters, @Nullable Object orderingKey) {
+      return new AutoValue_CdcJdbcIO_ParameterizedStatement(sql, parameters, orderingKey);
+    }
+  }
+
   /**
    * An interface used to control if we retry the statements when a {@link SQLException} occurs. If
    * {@link RetryStrategy#apply(SQLException)} returns true, {@link Write} tries to replay the
@@ -478,6 +516,11 @@ public class CdcJdbcIO {
       return new Write(inner.withStatementFormatter(formatter));
     }
 
+    /** See {@link WriteVoid#withPreparedStatementFormatter(PreparedStatementFormatter)}. */
+    public Write<T> withPreparedStatementFormatter(PreparedStatementFormatter<T> formatter) {
+      return new Write(inner.withPreparedStatementFormatter(formatter));
+    }
+
     /** See {@link WriteVoid#withBatchSize(long)}. */
     public Write<T> withBatchSize(long batchSize) {
       return new Write(inner.withBatchSize(batchSize));
@@ -545,6 +588,9 @@ public class CdcJdbcIO {
     @Nullable
     abstract StatementFormatter<T> getStatementFormatter();
 
+    @Nullable
+    abstract PreparedStatementFormatter<T> getPreparedStatementFormatter();
+
     @Nullable
     abstract RetryStrategy getRetryStrategy();
 
@@ -562,6 +608,8 @@ public class CdcJdbcIO {
 
       abstract Builder<T> setStatementFormatter(StatementFormatter<T> formatter);
 
+      abstract Builder<T> setPreparedStatementFormatter(PreparedStatementFormatter<T> formatter);
+
       abstract Builder<T> setRetryStrategy(RetryStrategy deadlockPredicate);
 
       abstract Builder<T> setDlqJsonFormatter(DlqJsonFormatter<T> dlqJsonFormatter);
@@ -582,6 +630,22 @@ public class CdcJdbcIO {
       return toBuilder().setStatementFormatter(formatter).build();
     }
 
+    /**
+     * Write the records with {@link PreparedStatement} batches instead of SQL strings. Records
+     * whose statements have the same SQL are batched together, which lets the database reuse the
+     * statement plan. When a {@link PreparedStatementFormatter} is set, the {@link
+     * StatementFormatter} is not used.
+     *
+     * <p>The JDBC drivers can send the batches of inserts as multi-row statements. This is enabled
+     * by the {@code reWriteBatchedInserts=true} connection property for PostgreSQL and the {@code
+     * rewriteBatchedStatements=true} connection property for MySQL, see {@link
+     * DataSourceConfiguration#withConnectionProperties(String)}.
+     */
+    public WriteVoid<T> withPreparedStatementFormatter(PreparedStatementFormatter<T> formatter) {
+      checkArgument(formatter != null, "formatter can not be null");
+      return toBuilder().setPreparedStatementFormatter(formatter).build();
+    }
+
     /**
      * Provide a maximum size in number of SQL statement for the batch. Default is 1000.
      *
@@ -595,7 +659,8 @@ public class CdcJdbcIO {
     /**
      * When a SQL exception occurs, {@link Write} uses this {@link RetryStrategy} to determine if it
      * will retry the statements. If {@link RetryStrategy#apply(SQLException)} returns {@code true},
-     * then {@link Write} retries the statements.
+     * then {@link Write} retries the statements. Otherwise, or once the retries are exhausted, the
+     * batch is split in halves until the failing records are isolated and sent to the DLQ.
      */
     public WriteVoid<T> withRetryStrategy(RetryStrategy retryStrategy) {
       checkArgument(retryStrategy != null, "retryStrategy can not be null");
@@ -612,6 +677,9 @@ public class CdcJdbcIO {
       checkArgument(
           (getDataSourceProviderFn() != null),
           "withDataSourceConfiguration() or withDataSourceProviderFn() is required");
+      checkArgument(
+          (getStatementFormatter() != null || getPreparedStatementFormatter() != null),
+          "withStatementFormatter() or withPreparedStatementFormatter() is required");
 
       final TupleTag<Void> mainOutputTag = new TupleTag<Void>() {};
 
@@ -627,11 +695,13 @@ public class CdcJdbcIO {
     }
 
     /** A simple wrapper to hold an element along with its windowing metadata. */
-    private static class BufferedRecord<T> {
+    static class BufferedRecord<T> {
       final T record;
       final Instant timestamp;
       final BoundedWindow window;
       final PaneInfo pane;
+      // Formatted once, when the record is first written with a PreparedStatement.
+      @Nullable ParameterizedStatement parameterizedStatement;
 
       BufferedRecord(T record, Instant timestamp, BoundedWindow window, PaneInfo pane) {
         this.record = record;
@@ -641,7 +711,7 @@ public class CdcJdbcIO {
       }
     }
 
-    private static class WriteFn<T> extends DoFn<T, Void> {
+    static class WriteFn<T> extends DoFn<T, Void> {
       private final WriteVoid<T> spec;
 
       private static final int MAX_RETRIES = 5;
@@ -652,8 +722,9 @@ public class CdcJdbcIO {
 
       private DataSource dataSource;
       private Connection connection;
-      private Statement statement;
-      private final List<BufferedRecord<T>> records = new ArrayList<>();
+      // Prepared statements of the bundle, by SQL, so that batches of a statement reuse its plan.
+      private final Map<String, PreparedStatement> preparedStatements = new HashMap<>();
+      final List<BufferedRecord<T>> records = new ArrayList<>();
 
       public WriteFn(WriteVoid<T> spec) {
         this.spec = spec;
@@ -668,7 +739,6 @@ public class CdcJdbcIO {
       public void startBundle() throws Exception {
         connection = dataSource.getConnection();
         connection.setAutoCommit(false);
-        statement = connection.createStatement();
       }
 
       @ProcessElement
@@ -711,17 +781,18 @@ public class CdcJdbcIO {
           }
         }
         try {
-          if (statement != null) {
-            statement.close();
+          for (PreparedStatement preparedStatement : preparedStatements.values()) {
+            preparedStatement.close();
           }
         } finally {
+          preparedStatements.clear();
           if (connection != null) {
             connection.close();
           }
         }
       }
 
-      private List<BufferedRecord<T>> executeBatch()
+      List<BufferedRecord<T>> executeBatch()
           throws SQLException, IOException, InterruptedException {
         if (records.isEmpty()) {
           return new ArrayList<>();
@@ -729,63 +800,139 @@ public class CdcJdbcIO {
 
         Sleeper sleeper = Sleeper.DEFAULT;
         BackOff backoff = BUNDLE_WRITE_BACKOFF.backoff();
-        boolean singleStatementMode = false;
         List<BufferedRecord<T>> failedRecords = new ArrayList<>();
         while (true) {
           try {
-            if (singleStatementMode) {
-              statement = connection.createStatement();
-              Iterator<BufferedRecord<T>> iterator = records.iterator();
-              while (iterator.hasNext()) {
-                BufferedRecord<T> bufferedRecord = iterator.next();
-                String formattedStatement =
-                    spec.getStatementFormatter().formatStatement(bufferedRecord.record);
-                try {
-                  statement.executeUpdate(formattedStatement);
-                  connection.commit();
-                  iterator.remove();
-                } catch (SQLException exception) {
-                  LOG.error(
-                      "SQLException Occurred: {} while executing statement: {}. Adding to failed records.",
-                      exception.toString(),
-                      formattedStatement);
-                  connection.rollback();
-                  failedRecords.add(bufferedRecord);
-                }
-              }
-            } else {
-              statement = connection.createStatement();
-              for (BufferedRecord<T> bufferedRecord : records) {
-                String formattedStatement =
-                    spec.getStatementFormatter().formatStatement(bufferedRecord.record);
-                statement.addBatch(formattedStatement);
-              }
-              statement.executeBatch();
-              connection.commit();
-              records.clear();
-            }
+            writeRecords(records);
+            connection.commit();
             break;
           } catch (SQLException exception) {
-            if (singleStatementMode) {
-              LOG.error(
-                  "Errors occurred during single-statement mode. "
-                      + "Records in this batch that failed have been sent to DLQ.",
-                  exception);
-              break; // Exit retry loop
-            }
-
             connection.rollback();
-            if (!BackOffUtils.next(sleeper, backoff)) {
-              LOG.warn(
-                  "Batch write failed: {}. Retrying in single-statement mode.",
-                  exception.getMessage());
-              singleStatementMode = true;
+            boolean retryable =
+                spec.getRetryStrategy() == null || spec.getRetryStrategy().apply(exception);
+            if (retryable && BackOffUtils.next(sleeper, backoff)) {
+              LOG.warn("SQLException Occurred, retrying: {}", exception.toString());
+              continue;
             }
-            LOG.warn("SQLException Occurred, retrying: {}", exception.toString());
+            LOG.warn(
+                "Batch write failed: {}. Isolating the failed records of the batch.",
+                exception.getMessage());
+            if (records.size() == 1) {
+              failedRecords.addAll(records);
+            } else {
+              int middle = records.size() / 2;
+              writeOrBisect(records.subList(0, middle), failedRecords);
+              writeOrBisect(records.subList(middle, records.size()), failedRecords);
+            }
+            break;
           }
         }
+        records.clear();
         return failedRecords;
       }
+
+      /*
+       * Writes the records in one transaction. If it fails, each half of the records is written
+       * the same way, until the records that fail on their own are isolated. The halves are
+       * written in order, so the order of the records which are written is kept.
+       */
+      private void writeOrBisect(
+          List<BufferedRecord<T>> batch, List<BufferedRecord<T>> failedRecords)
+          throws SQLException {
+        try {
+          writeRecords(batch);
+          connection.commit();
+          return;
+        } catch (SQLException exception) {
+          connection.rollback();
+          if (batch.size() == 1) {
+            LOG.error(
+                "SQLException Occurred: {} while writing a record. Adding to failed records.",
+                exception.toString());
+            failedRecords.add(batch.get(0));
+            return;
+          }
+        }
+        int middle = batch.size() / 2;
+        writeOrBisect(batch.subList(0, middle), failedRecords);
+        writeOrBisect(batch.subList(middle, batch.size()), failedRecords);
+      }
+
+      private void writeRecords(List<BufferedRecord<T>> batch) throws SQLException {
+        if (spec.getPreparedStatementFormatter() != null) {
+          writePreparedStatements(batch);
+          return;
+        }
+        try (Statement statement = connection.createStatement()) {
+          for (BufferedRecord<T> bufferedRecord : batch) {
+            statement.addBatch(spec.getStatementFormatter().formatStatement(bufferedRecord.record));
+          }
+          statement.executeBatch();
+        }
+      }
+
+      /*
+       * Adds every record to the batch of the prepared statement of its SQL, and executes the
+       * batches in the order in which their SQL first appeared. When a record has the ordering key
+       * of an earlier record with a different SQL, the pending batches are executed first, so that
+       * the records of a key are written in order.
+       */
+      private void writePreparedStatements(List<BufferedRecord<T>> batch) throws SQLException {
+        Map<String, PreparedStatement> pendingBatches = new LinkedHashMap<>();
+        Map<Object, String> orderingKeySql = new HashMap<>();
+        try {
+          for (BufferedRecord<T> bufferedRecord : batch) {
+            if (bufferedRecord.parameterizedStatement == null) {
+              bufferedRecord.parameterizedStatement =
+                  spec.getPreparedStatementFormatter().formatStatement(bufferedRecord.record);
+            }
+            ParameterizedStatement parameterizedStatement = bufferedRecord.parameterizedStatement;
+            String sql = parameterizedStatement.getSql();
+            Object orderingKey = parameterizedStatement.getOrderingKey();
+            if (orderingKey != null) {
+              String previousSql = orderingKeySql.put(orderingKey, sql);
+              if (previousSql != null && !previousSql.equals(sql)) {
+                executeBatches(pendingBatches);
+                orderingKeySql.clear();
+                orderingKeySql.put(orderingKey, sql);
+              }
+            }
+            PreparedStatement preparedStatement = pendingBatches.get(sql);
+            if (preparedStatement == null) {
+              preparedStatement = prepareStatement(sql);
+              pendingBatches.put(sql, preparedStatement);
+            }
+            List<Object> parameters = parameterizedStatement.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+              preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            preparedStatement.addBatch();
+          }
+          executeBatches(pendingBatches);
+        } finally {
+          for (PreparedStatement preparedStatement : pendingBatches.values()) {
+            preparedStatement.clearBatch();
+          }
+        }
+      }
+
+      private static void executeBatches(Map<String, PreparedStatement> pendingBatches)
+          throws SQLException {
+        Iterator<PreparedStatement> iterator = pendingBatches.values().iterator();
+        while (iterator.hasNext()) {
+          iterator.next().executeBatch();
+          iterator.remove();
+        }
+      }
+
+      private PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement preparedStatement = preparedStatements.get(sql);
+        if (preparedStatement == null) {
+          preparedStatement = connection.prepareStatement(sql);
+          preparedStatements.put(sql, preparedStatement);
+        }
+        return preparedStatement;
+      }
     }
   }
 
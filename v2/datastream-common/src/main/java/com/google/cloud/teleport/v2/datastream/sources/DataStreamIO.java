@@ -58,6 +58,7 @@ import org.apache.beam.sdk.transforms.Values;
 import org.apache.beam.sdk.transforms.Watch;
 import org.apache.beam.sdk.transforms.Watch.Growth;
 import org.apache.beam.sdk.transforms.Watch.Growth.PollFn;
+import org.apache.beam.sdk.transforms.WithKeys;
 import org.apache.beam.sdk.values.PBegin;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.TimestampedValue;
@@ -114,6 +115,8 @@ public class DataStreamIO extends PTransform<PBegin, PCollection<FailsafeElement
   private Map<String, String> renameColumns = new HashMap<>();
   private Boolean hashRowId = false;
   private Duration directoryWatchDuration = Duration.standardMinutes(10);
+  private Boolean incrementalFileDiscovery = false;
+  private Duration incrementalFileDiscoveryPollInterval = Duration.standardSeconds(5);
   PCollection<String> directories = null;
   private String datastreamSourceType;
 
@@ -175,6 +178,23 @@ public class DataStreamIO extends PTransform<PBegin, PCollection<FailsafeElement
     return this;
   }
 
+  /**
+   * Discover the files of every table directory incrementally, instead of watching every minute
+   * directory.
+   *
+   * <p>Each table directory keeps the time of its last listing, and only the hour directories
+   * written since then, less the {@code directoryWatchDuration}, are listed again. Only the names
+   * of the files of the last {@code directoryWatchDuration} are kept to skip the files which were
+   * read already. See {@link IncrementalFileDiscoveryFn}.
+   *
+   * @param pollInterval The interval at which every table directory is listed.
+   */
+  public DataStreamIO withIncrementalFileDiscovery(Duration pollInterval) {
+    this.incrementalFileDiscovery = true;
+    this.incrementalFileDiscoveryPollInterval = pollInterval;
+    return this;
+  }
+
   /**
    * Set {@code applyReshuffle} to {@code false} to skip the reshuffle step for Datastream records.
    *
@@ -297,14 +317,30 @@ public class DataStreamIO extends PTransform<PBegin, PCollection<FailsafeElement
     }
 
     public PCollection<ReadableFile> expandPollingPipeline(PBegin input) {
-      directories =
+      PCollection<String> tableDirectories =
           input
               .apply("StartPipeline", Create.of(inputFilePattern))
               .apply(
                   "FindTableDirectory",
                   Watch.growthOf(new DirectoryMatchPollFn(1, 1, null, "/"))
                       .withPollInterval(Duration.standardSeconds(120)))
-              .apply(Values.create())
+              .apply(Values.create());
+      if (incrementalFileDiscovery) {
+        return tableDirectories
+            .apply(
+                "KeyByTableDirectory",
+                WithKeys.of((String directory) -> directory).withKeyType(TypeDescriptors.strings()))
+            .apply(
+                "DiscoverDatastreamFiles",
+                ParDo.of(
+                    new IncrementalFileDiscoveryFn(
+                        rfcStartDateTime,
+                        incrementalFileDiscoveryPollInterval,
+                        directoryWatchDuration)))
+            .apply("ReadFiles", FileIO.readMatches());
+      }
+      directories =
+          tableDirectories
               .apply(
                   "FindTablePerMinuteDirectory",
                   Watch.growthOf(new DirectoryMatchPollFn(5, 5, rfcStartDateTime, null))
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.datastream.sources;
+
+import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.MoreObjects.firstNonNull;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.storage.model.Objects;
+import com.google.api.services.storage.model.StorageObject;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.beam.sdk.coders.MapCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.apache.beam.sdk.extensions.gcp.options.GcsOptions;
+import org.apache.beam.sdk.extensions.gcp.util.GcsUtil;
+import org.apache.beam.sdk.extensions.gcp.util.gcsfs.GcsPath;
+import org.apache.beam.sdk.io.FileSystems;
+import org.apache.beam.sdk.io.fs.MatchResult.Metadata;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.state.StateSpec;
+import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.TimeDomain;
+import org.apache.beam.sdk.state.Timer;
+import org.apache.beam.sdk.state.TimerSpec;
+import org.apache.beam.sdk.state.TimerSpecs;
+import org.apache.beam.sdk.state.ValueState;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.Instant;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Discovers the new files of Datastream table directories incrementally.
+ *
+ * <p>Every table directory, such as {@code gs://BUCKET/root/prefix/HR_JOBS/}, is a key with its own
+ * polling timer and a listing checkpoint: the time of its last complete listing. The first poll
+ * lists the whole directory. Later polls only list the hour directories, such as {@code
+ * HR_JOBS/2020/07/14/11/}, from the checkpoint minus the {@code lateArrivalWindow} up to now, and
+ * output the files which were not seen yet.
+ *
+ * <p>Datastream writes a file in the minute directory of its events, up to the {@code
+ * lateArrivalWindow} after them. The names of the files updated within the window are kept to skip
+ * them in the next polls, and older names are dropped, so the state of a table only holds the files
+ * of the last {@code lateArrivalWindow}.
+ */
+class IncrementalFileDiscoveryFn extends DoFn<KV<String, String>, Metadata> {
+
+  private static final DateTimeFormatter HOUR_DIRECTORY_FORMAT =
+      DateTimeFormat.forPattern("yyyy/MM/dd/HH/").withZoneUTC();
+
+  private static final Counter LISTING_CALLS =
+      Metrics.counter(IncrementalFileDiscoveryFn.class, "incremental_discovery_listing_calls");
+
+  private static final Counter DISCOVERED_FILES =
+      Metrics.counter(IncrementalFileDiscoveryFn.class, "incremental_discovery_files");
+
+  private static final Distribution SEEN_FILES =
+      Metrics.distribution(IncrementalFileDiscoveryFn.class, "incremental_discovery_seen_files");
+
+  /** Lists the objects of a bucket whose name starts with a prefix. */
+  interface ObjectLister extends Serializable {
+    /** Prepares the lister with the GCS options of the pipeline, before it lists objects. */
+    default void setup(GcsOptions options) {}
+
+    List<StorageObject> list(String bucket, String prefix) throws IOException;
+  }
+
+  private final ObjectLister lister;
+  private final long startMillis;
+  private final Duration pollInterval;
+  private final Duration lateArrivalWindow;
+
+  @StateId("checkpoint")
+  private final StateSpec<ValueState<Long>> checkpointSpec = StateSpecs.value(VarLongCoder.of());
+
+  @StateId("seenFiles")
+  private final StateSpec<ValueState<Map<String, Long>>> seenFilesSpec =
+      StateSpecs.value(MapCoder.of(StringUtf8Coder.of(), VarLongCoder.of()));
+
+  @TimerId("poll")
+  private final TimerSpec pollSpec = TimerSpecs.timer(TimeDomain.PROCESSING_TIME);
+
+  IncrementalFileDiscoveryFn(
+      @Nullable String rfcStartDateTime, Duration pollInterval, Duration lateArrivalWindow) {
+    this(new GcsObjectLister(), rfcStartDateTime, pollInterval, lateArrivalWindow);
+  }
+
+  IncrementalFileDiscoveryFn(
+      ObjectLister lister,
+      @Nullable String rfcStartDateTime,
+      Duration pollInterval,
+      Duration lateArrivalWindow) {
+    this.lister = lister;
+    this.startMillis =
+        rfcStartDateTime == null ? 0L : DateTime.parseRfc3339(rfcStartDateTime).getValue();
+    this.pollInterval = pollInterval;
+    this.lateArrivalWindow = lateArrivalWindow;
+  }
+
+  @StartBundle
+  public void startBundle(StartBundleContext c) {
+    lister.setup(c.getPipelineOptions().as(GcsOptions.class));
+  }
+
+  @ProcessElement
+  public void processElement(@TimerId("poll") Timer poll) {
+    // Table directories are discovered once, their polling loop starts right away.
+    poll.offset(Duration.ZERO).setRelative();
+  }
+
+  @OnTimer("poll")
+  public void onPoll(
+      OnTimerContext c,
+      @Key String directory,
+      @StateId("checkpoint") ValueState<Long> checkpoint,
+      @StateId("seenFiles") ValueState<Map<String, Long>> seenFiles,
+      @TimerId("poll") Timer poll)
+      throws IOException {
+    Instant now = Instant.now();
+    Map<String, Long> seen = new HashMap<>(firstNonNull(seenFiles.read(), Collections.emptyMap()));
+    for (StorageObject object : discoverNewObjects(directory, checkpoint.read(), seen, now)) {
+      c.output(toMetadata(object));
+    }
+    checkpoint.write(now.getMillis());
+    seenFiles.write(seen);
+    SEEN_FILES.update(seen.size());
+    poll.offset(pollInterval).setRelative();
+  }
+
+  /**
+   * Lists the objects of a table directory which were not seen yet, and records them in {@code
+   * seenFiles}. Seen files which are older than the next listing window are dropped.
+   */
+  List<StorageObject> discoverNewObjects(
+      String directory, @Nullable Long checkpointMillis, Map<String, Long> seenFiles, Instant now)
+      throws IOException {
+    GcsPath path = GcsPath.fromUri(directory);
+    long floorMillis =
+        checkpointMillis == null
+            ? startMillis
+            : Math.max(startMillis, checkpointMillis - lateArrivalWindow.getMillis());
+    List<StorageObject> newObjects = new ArrayList<>();
+    for (String prefix : listingPrefixes(path.getObject(), checkpointMillis, now)) {
+      LISTING_CALLS.inc();
+      for (StorageObject object : lister.list(path.getBucket(), prefix)) {
+        if (object.getName().endsWith("/")) {
+          continue;
+        }
+        long updatedMillis = object.getUpdated().getValue();
+        if (updatedMillis < floorMillis || seenFiles.containsKey(object.getName())) {
+          continue;
+        }
+        seenFiles.put(object.getName(), updatedMillis);
+        newObjects.add(object);
+      }
+    }
+    DISCOVERED_FILES.inc(newObjects.size());
+    long nextFloorMillis = now.getMillis() - lateArrivalWindow.getMillis();
+    seenFiles.values().removeIf(updatedMillis -> updatedMillis < nextFloorMillis);
+    return newObjects;
+  }
+
+  /*
+   * Returns the prefixes to list. The first listing covers the whole table directory, later ones
+   * cover the hour directories of the listing window. The window extends past now by the late
+   * arrival window too, for clock skew between the workers and Datastream.
+   */
+  List<String> listingPrefixes(String directory, @Nullable Long checkpointMillis, Instant now) {
+    if (checkpointMillis == null) {
+      return Collections.singletonList(directory);
+    }
+    List<String> prefixes = new ArrayList<>();
+    Instant hour =
+        new Instant(checkpointMillis)
+            .minus(lateArrivalWindow)
+            .toDateTime(DateTimeZone.UTC)
+            .hourOfDay()
+            .roundFloorCopy()
+            .toInstant();
+    Instant last = now.plus(lateArrivalWindow);
+    for (; !hour.isAfter(last); hour = hour.plus(Duration.standardHours(1))) {
+      prefixes.add(directory + HOUR_DIRECTORY_FORMAT.print(hour));
+    }
+    return prefixes;
+  }
+
+  private static Metadata toMetadata(StorageObject object) {
+    return Metadata.builder()
+        .setResourceId(
+            FileSystems.matchNewResource(
+                "gs://" + object.getBucket() + "/" + object.getName(), false))
+        .setIsReadSeekEfficient(!"gzip".equals(object.getContentEncoding()))
+        .setSizeBytes(object.getSize().longValue())
+        .setLastModifiedMillis(object.getUpdated().getValue())
+        .build();
+  }
+
+  /**
+   * Lists objects with the {@link GcsUtil} of the pipeline options, so that the GCS options and
+   * credentials of the job are used.
+   */
+  private static class GcsObjectLister implements ObjectLister {
+    private transient GcsUtil util;
+
+    @Override
+    public void setup(GcsOptions options) {
+      if (util == null) {
+        util = options.getGcsUtil();
+      }
+    }
+
+    @Override
+    public List<StorageObject> list(String bucket, String prefix) throws IOException {
+      List<StorageObject> result = new ArrayList<>();
+      String pageToken = null;
+      do {
+        Objects objects = util.listObjects(bucket, prefix, pageToken, null);
+        pageToken = objects.getNextPageToken();
+        if (objects.getItems() != null) {
+          result.addAll(objects.getItems());
+        }
+      } while (pageToken != null);
+      return result;
+    }
+  }
+}
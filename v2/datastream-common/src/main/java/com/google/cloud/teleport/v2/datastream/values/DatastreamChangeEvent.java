@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.datastream.values;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.teleport.v2.datastream.coders.DatastreamChangeEventCoder;
+import java.io.IOException;
+import java.util.Objects;
+import org.apache.beam.sdk.coders.DefaultCoder;
+
+/**
+ * The {@link DatastreamChangeEvent} class holds a parsed Datastream change event: the metadata and
+ * the column values of one CDC event, as typed JSON values.
+ *
+ * <p>Pipelines carry change events as {@link DatastreamChangeEvent}s, encoded with the binary
+ * {@link DatastreamChangeEventCoder}, between the stages that read them, so that the event is
+ * parsed once. The event is rendered as JSON only where JSON text is required, such as dead letter
+ * queues.
+ */
+@DefaultCoder(DatastreamChangeEventCoder.class)
+public final class DatastreamChangeEvent {
+
+  public static final String TABLE_NAME_KEY = "_metadata_table";
+
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+  private final ObjectNode event;
+
+  private DatastreamChangeEvent(ObjectNode event) {
+    this.event = event;
+  }
+
+  /**
+   * Build a {@code DatastreamChangeEvent} from a parsed change event.
+   *
+   * @param event the change event. It is not copied.
+   */
+  public static DatastreamChangeEvent of(ObjectNode event) {
+    return new DatastreamChangeEvent(Objects.requireNonNull(event));
+  }
+
+  /**
+   * Build a {@code DatastreamChangeEvent} from a parsed change event.
+   *
+   * @param event the change event, which must be a JSON object. It is not copied.
+   * @throws IllegalArgumentException if the event is not a JSON object.
+   */
+  public static DatastreamChangeEvent of(JsonNode event) {
+    if (!(event instanceof ObjectNode)) {
+      throw new IllegalArgumentException("A change event must be a JSON object: " + event);
+    }
+    return of((ObjectNode) event);
+  }
+
+  /**
+   * Parse a {@code DatastreamChangeEvent} from its JSON representation. Floating point numbers are
+   * read as {@link java.math.BigDecimal}s, so that no precision is lost.
+   *
+   * @param json the change event as JSON.
+   * @throws IOException if the JSON cannot be parsed.
+   */
+  public static DatastreamChangeEvent fromJson(String json) throws IOException {
+    try {
+      return of(MAPPER.readTree(json));
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /** Returns the change event. Callers which modify it should work on a {@code deepCopy()}. */
+  public ObjectNode getEvent() {
+    return event;
+  }
+
+  /** Returns the source table name of the change event, or null if it has none. */
+  public String getTableName() {
+    JsonNode tableName = event.get(TABLE_NAME_KEY);
+    return tableName == null ? null : tableName.asText();
+  }
+
+  /** Returns the JSON representation of the change event. */
+  public String toJson() {
+    return event.toString();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof DatastreamChangeEvent)) {
+      return false;
+    }
+    return event.equals(((DatastreamChangeEvent) obj).event);
+  }
+
+  @Override
+  public int hashCode() {
+    return event.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+}
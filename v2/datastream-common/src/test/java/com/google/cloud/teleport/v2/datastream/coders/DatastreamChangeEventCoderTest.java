@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.datastream.coders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.testing.CoderProperties;
+import org.apache.beam.sdk.util.CoderUtils;
+import org.junit.Test;
+
+/** Tests for {@link DatastreamChangeEventCoder}. */
+public class DatastreamChangeEventCoderTest {
+
+  private static final String CHANGE_EVENT_JSON =
+      "{\"_metadata_source_type\":\"mysql\",\"_metadata_table\":\"Users\","
+          + "\"_metadata_change_type\":\"UPDATE-INSERT\",\"_metadata_deleted\":false,"
+          + "\"_metadata_log_file\":\"mysql-bin.000001\",\"_metadata_log_position\":12345678901,"
+          + "\"_metadata_primary_keys\":[\"id\"],\"id\":-42,\"name\":\"Jos\\u00e9\","
+          + "\"balance\":1234.5600,\"rate\":1.0E-7,\"big\":123456789012345678901234567890,"
+          + "\"notes\":null,\"tags\":[1,\"a\",{\"nested\":true}]}";
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    DatastreamChangeEvent event = DatastreamChangeEvent.fromJson(CHANGE_EVENT_JSON);
+
+    CoderProperties.coderDecodeEncodeEqual(DatastreamChangeEventCoder.of(), event);
+    DatastreamChangeEvent decoded = CoderUtils.clone(DatastreamChangeEventCoder.of(), event);
+    assertEquals(event.toJson(), decoded.toJson());
+    assertEquals(
+        event.getEvent().get("balance").decimalValue(),
+        decoded.getEvent().get("balance").decimalValue());
+    assertEquals(
+        0, new BigDecimal("1234.56").compareTo(decoded.getEvent().get("balance").decimalValue()));
+    assertTrue(decoded.getEvent().get("_metadata_log_position").isLong());
+    assertEquals("Users", decoded.getTableName());
+  }
+
+  @Test
+  public void testEncodingIsSmallerThanJson() throws Exception {
+    DatastreamChangeEvent event = DatastreamChangeEvent.fromJson(CHANGE_EVENT_JSON);
+
+    byte[] encoded = CoderUtils.encodeToByteArray(DatastreamChangeEventCoder.of(), event);
+
+    assertTrue(encoded.length < CHANGE_EVENT_JSON.getBytes(StandardCharsets.UTF_8).length);
+  }
+
+  @Test
+  public void testDecodeUnknownTag() {
+    assertThrows(
+        CoderException.class,
+        () -> DatastreamChangeEventCoder.of().decode(new ByteArrayInputStream(new byte[] {99})));
+  }
+
+  @Test
+  public void testFromJsonRequiresAnObject() {
+    assertThrows(IOException.class, () -> DatastreamChangeEvent.fromJson("[1, 2]"));
+  }
+}
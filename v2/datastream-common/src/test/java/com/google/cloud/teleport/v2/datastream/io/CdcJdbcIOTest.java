@@ -20,18 +20,35 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import javax.sql.DataSource;
 import org.apache.beam.sdk.options.ValueProvider;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
+import org.apache.beam.sdk.transforms.windowing.PaneInfo;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.joda.time.Instant;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -232,6 +249,159 @@ public final class CdcJdbcIOTest {
     assertNotNull(result.getFailedInserts());
   }
 
+  /** Formats {@code table,kind,id} records, ordered by table and id. */
+  private static CdcJdbcIO.ParameterizedStatement formatRecord(String record) {
+    String[] parts = record.split(",");
+    String sql =
+        parts[1].equals("DELETE")
+            ? "DELETE FROM " + parts[0] + " WHERE id = ?"
+            : "INSERT INTO " + parts[0] + " VALUES (?)";
+    return CdcJdbcIO.ParameterizedStatement.of(
+        sql, Collections.singletonList(parts[2]), parts[0] + "." + parts[2]);
+  }
+
+  /**
+   * A connection whose prepared statements fail the batches holding a {@code bad} value, and which
+   * records the committed rows.
+   */
+  private static class FakeConnection {
+    final Connection connection = mock(Connection.class);
+    final List<String> executedSql = new ArrayList<>();
+    final List<Object> committedValues = new ArrayList<>();
+    final List<Object> uncommittedValues = new ArrayList<>();
+
+    FakeConnection() throws SQLException {
+      when(connection.prepareStatement(anyString()))
+          .thenAnswer(invocation -> prepareStatement(invocation.getArgument(0)));
+      doAnswer(
+              invocation -> {
+                committedValues.addAll(uncommittedValues);
+                uncommittedValues.clear();
+                return null;
+              })
+          .when(connection)
+          .commit();
+      doAnswer(
+              invocation -> {
+                uncommittedValues.clear();
+                return null;
+              })
+          .when(connection)
+          .rollback();
+    }
+
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+      PreparedStatement statement = mock(PreparedStatement.class);
+      List<Object> row = new ArrayList<>();
+      List<Object> batch = new ArrayList<>();
+      doAnswer(
+              invocation -> {
+                row.add(invocation.getArgument(1));
+                return null;
+              })
+          .when(statement)
+          .setObject(anyInt(), any());
+      doAnswer(
+              invocation -> {
+                batch.addAll(row);
+                row.clear();
+                return null;
+              })
+          .when(statement)
+          .addBatch();
+      doAnswer(
+              invocation -> {
+                batch.clear();
+                return null;
+              })
+          .when(statement)
+          .clearBatch();
+      when(statement.executeBatch())
+          .thenAnswer(
+              invocation -> {
+                executedSql.add(sql);
+                List<Object> values = new ArrayList<>(batch);
+                batch.clear();
+                if (values.contains("bad")) {
+                  throw new SQLException("Incorrect value", "22007");
+                }
+                uncommittedValues.addAll(values);
+                return new int[values.size()];
+              });
+      return statement;
+    }
+  }
+
+  private static CdcJdbcIO.WriteVoid.WriteFn<String> preparedWriteFn(FakeConnection connection)
+      throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection.connection);
+    CdcJdbcIO.WriteVoid.WriteFn<String> writeFn =
+        new CdcJdbcIO.WriteVoid.WriteFn<>(
+            CdcJdbcIO.<String>writeVoid()
+                .withDataSourceProviderFn(ignored -> dataSource)
+                .withPreparedStatementFormatter(CdcJdbcIOTest::formatRecord));
+    writeFn.setup();
+    writeFn.startBundle();
+    return writeFn;
+  }
+
+  private static void addRecords(CdcJdbcIO.WriteVoid.WriteFn<String> writeFn, String... records) {
+    for (String record : records) {
+      writeFn.records.add(
+          new CdcJdbcIO.WriteVoid.BufferedRecord<>(
+              record, Instant.now(), GlobalWindow.INSTANCE, PaneInfo.NO_FIRING));
+    }
+  }
+
+  @Test
+  public void testWriteFn_preparedStatements_batchesRecordsBySql() throws Exception {
+    FakeConnection connection = new FakeConnection();
+    CdcJdbcIO.WriteVoid.WriteFn<String> writeFn = preparedWriteFn(connection);
+    addRecords(writeFn, "t1,INSERT,1", "t2,INSERT,2", "t1,INSERT,3");
+
+    List<CdcJdbcIO.WriteVoid.BufferedRecord<String>> failedRecords = writeFn.executeBatch();
+
+    assertTrue(failedRecords.isEmpty());
+    assertEquals(
+        Arrays.asList("INSERT INTO t1 VALUES (?)", "INSERT INTO t2 VALUES (?)"),
+        connection.executedSql);
+    assertEquals(Arrays.asList("1", "3", "2"), connection.committedValues);
+    verify(connection.connection, times(2)).prepareStatement(anyString());
+    verify(connection.connection, times(1)).commit();
+  }
+
+  @Test
+  public void testWriteFn_preparedStatements_keepsTheOrderOfAKey() throws Exception {
+    FakeConnection connection = new FakeConnection();
+    CdcJdbcIO.WriteVoid.WriteFn<String> writeFn = preparedWriteFn(connection);
+    addRecords(writeFn, "t1,INSERT,1", "t1,INSERT,2", "t1,DELETE,1", "t1,INSERT,3");
+
+    writeFn.executeBatch();
+
+    assertEquals(
+        Arrays.asList(
+            "INSERT INTO t1 VALUES (?)",
+            "DELETE FROM t1 WHERE id = ?",
+            "INSERT INTO t1 VALUES (?)"),
+        connection.executedSql);
+    assertEquals(Arrays.asList("1", "2", "1", "3"), connection.committedValues);
+  }
+
+  @Test
+  public void testWriteFn_preparedStatements_isolatesFailedRecords() throws Exception {
+    FakeConnection connection = new FakeConnection();
+    CdcJdbcIO.WriteVoid.WriteFn<String> writeFn = preparedWriteFn(connection);
+    addRecords(writeFn, "t1,INSERT,1", "t1,INSERT,bad", "t1,INSERT,3", "t1,INSERT,4");
+
+    List<CdcJdbcIO.WriteVoid.BufferedRecord<String>> failedRecords = writeFn.executeBatch();
+
+    assertEquals(1, failedRecords.size());
+    assertEquals("t1,INSERT,bad", failedRecords.get(0).record);
+    assertEquals(Arrays.asList("1", "3", "4"), connection.committedValues);
+    assertTrue(writeFn.records.isEmpty());
+  }
+
   @Test
   public void testRetryStrategy_defaultDetectsDeadlock() {
     CdcJdbcIO.RetryStrategy strategy = new CdcJdbcIO.DefaultRetryStrategy();
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.datastream.sources;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.storage.model.StorageObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.beam.sdk.extensions.gcp.options.GcsOptions;
+import org.apache.beam.sdk.io.fs.MatchResult.Metadata;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.Duration;
+import org.joda.time.Instant;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link IncrementalFileDiscoveryFn}. */
+@RunWith(JUnit4.class)
+public class IncrementalFileDiscoveryFnTest {
+
+  private static final String DIRECTORY = "gs://bucket/root/HR_JOBS/";
+
+  /** Lists the objects of {@link #objects} whose name starts with the prefix. */
+  private static class FakeLister implements IncrementalFileDiscoveryFn.ObjectLister {
+    final List<StorageObject> objects = new ArrayList<>();
+    final List<String> listedPrefixes = new ArrayList<>();
+    transient GcsOptions options;
+
+    @Override
+    public void setup(GcsOptions options) {
+      this.options = options;
+    }
+
+    @Override
+    public List<StorageObject> list(String bucket, String prefix) {
+      listedPrefixes.add(prefix);
+      return objects.stream()
+          .filter(object -> object.getName().startsWith(prefix))
+          .collect(Collectors.toList());
+    }
+
+    void add(String name, String updated) {
+      objects.add(
+          new StorageObject()
+              .setBucket("bucket")
+              .setName(name)
+              .setUpdated(DateTime.parseRfc3339(updated)));
+    }
+  }
+
+  private static List<String> names(List<StorageObject> objects) {
+    return objects.stream().map(StorageObject::getName).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testFirstPollListsTheTableDirectory() throws Exception {
+    FakeLister lister = new FakeLister();
+    lister.add("root/HR_JOBS/2020/07/14/11/03/", "2020-07-14T11:03:00Z");
+    lister.add("root/HR_JOBS/2020/07/14/10/59/old.avro", "2020-07-14T10:59:30Z");
+    lister.add("root/HR_JOBS/2020/07/14/11/03/a.avro", "2020-07-14T11:03:30Z");
+    IncrementalFileDiscoveryFn fn =
+        new IncrementalFileDiscoveryFn(
+            lister, "2020-07-14T11:00:00Z", Duration.standardSeconds(5), Duration.ZERO);
+    Map<String, Long> seen = new HashMap<>();
+
+    List<StorageObject> discovered =
+        fn.discoverNewObjects(DIRECTORY, null, seen, Instant.parse("2020-07-14T11:04:00Z"));
+
+    assertThat(names(discovered)).containsExactly("root/HR_JOBS/2020/07/14/11/03/a.avro");
+    assertThat(lister.listedPrefixes).containsExactly("root/HR_JOBS/");
+  }
+
+  @Test
+  public void testLaterPollsListTheHoursOfTheWindowAndSkipSeenFiles() throws Exception {
+    FakeLister lister = new FakeLister();
+    lister.add("root/HR_JOBS/2020/07/14/11/58/a.avro", "2020-07-14T11:58:30Z");
+    IncrementalFileDiscoveryFn fn =
+        new IncrementalFileDiscoveryFn(
+            lister, null, Duration.standardSeconds(5), Duration.standardMinutes(10));
+    Map<String, Long> seen = new HashMap<>();
+    Instant firstPoll = Instant.parse("2020-07-14T11:59:00Z");
+    assertThat(names(fn.discoverNewObjects(DIRECTORY, null, seen, firstPoll)))
+        .containsExactly("root/HR_JOBS/2020/07/14/11/58/a.avro");
+
+    lister.add("root/HR_JOBS/2020/07/14/11/55/late.avro", "2020-07-14T11:59:10Z");
+    lister.add("root/HR_JOBS/2020/07/14/12/00/b.avro", "2020-07-14T12:00:10Z");
+    lister.listedPrefixes.clear();
+    List<StorageObject> discovered =
+        fn.discoverNewObjects(
+            DIRECTORY, firstPoll.getMillis(), seen, Instant.parse("2020-07-14T12:00:30Z"));
+
+    assertThat(names(discovered))
+        .containsExactly(
+            "root/HR_JOBS/2020/07/14/11/55/late.avro", "root/HR_JOBS/2020/07/14/12/00/b.avro");
+    assertThat(lister.listedPrefixes)
+        .containsExactly("root/HR_JOBS/2020/07/14/11/", "root/HR_JOBS/2020/07/14/12/")
+        .inOrder();
+  }
+
+  @Test
+  public void testSeenFilesAreCompacted() throws Exception {
+    FakeLister lister = new FakeLister();
+    lister.add("root/HR_JOBS/2020/07/14/11/00/a.avro", "2020-07-14T11:00:30Z");
+    lister.add("root/HR_JOBS/2020/07/14/11/20/b.avro", "2020-07-14T11:20:30Z");
+    IncrementalFileDiscoveryFn fn =
+        new IncrementalFileDiscoveryFn(
+            lister, null, Duration.standardSeconds(5), Duration.standardMinutes(10));
+    Map<String, Long> seen = new HashMap<>();
+
+    fn.discoverNewObjects(DIRECTORY, null, seen, Instant.parse("2020-07-14T11:21:00Z"));
+
+    assertThat(seen.keySet()).containsExactly("root/HR_JOBS/2020/07/14/11/20/b.avro");
+  }
+
+  @Test
+  public void testListerUsesTheGcsOptionsOfThePipeline() {
+    FakeLister lister = new FakeLister();
+    IncrementalFileDiscoveryFn fn =
+        new IncrementalFileDiscoveryFn(
+            lister, null, Duration.standardSeconds(5), Duration.standardMinutes(10));
+    GcsOptions options = PipelineOptionsFactory.as(GcsOptions.class);
+    options.setProject("test-project");
+    DoFn<KV<String, String>, Metadata>.StartBundleContext context =
+        mock(DoFn.StartBundleContext.class);
+    when(context.getPipelineOptions()).thenReturn(options);
+
+    fn.startBundle(context);
+
+    assertThat(lister.options.getProject()).isEqualTo("test-project");
+  }
+}
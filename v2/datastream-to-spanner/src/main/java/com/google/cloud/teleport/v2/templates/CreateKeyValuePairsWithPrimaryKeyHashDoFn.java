@@ -20,12 +20,15 @@ import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpann
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.spanner.migrations.convertors.ChangeEventSpannerConvertor;
 import com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants;
 import com.google.cloud.teleport.v2.templates.datastream.ChangeEventConvertor;
 import com.google.cloud.teleport.v2.templates.datastream.DatastreamConstants;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.DoFn;
@@ -34,14 +37,27 @@ import org.apache.beam.sdk.values.PCollectionView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Keys change events by their table and primary key. By default the key is the hash code of the
+ * primary key. When a number of apply lanes is set, events are instead bucketed into that many
+ * lanes by a stable 64-bit hash of the primary key, so that all events of a primary key go to the
+ * same lane.
+ *
+ * <p>The change event is parsed once here and is passed on as a {@link DatastreamChangeEvent}, so
+ * that the following stages do not parse it again.
+ */
 public class CreateKeyValuePairsWithPrimaryKeyHashDoFn
-    extends DoFn<FailsafeElement<String, String>, KV<Long, FailsafeElement<String, String>>> {
+    extends DoFn<
+        FailsafeElement<String, String>, KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(CreateKeyValuePairsWithPrimaryKeyHashDoFn.class);
 
   private final PCollectionView<Ddl> ddlView;
 
+  // Number of apply lanes events are bucketed into, 0 to key by the primary key hash code.
+  private final int applyLaneCount;
+
   // Jackson Object mapper.
   private transient ObjectMapper mapper;
 
@@ -49,7 +65,13 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFn
       Metrics.counter(SpannerTransactionWriterDoFn.class, CONVERSION_ERRORS_COUNTER_NAME);
 
   public CreateKeyValuePairsWithPrimaryKeyHashDoFn(PCollectionView<Ddl> ddlView) {
+    this(ddlView, 0);
+  }
+
+  public CreateKeyValuePairsWithPrimaryKeyHashDoFn(
+      PCollectionView<Ddl> ddlView, int applyLaneCount) {
     this.ddlView = ddlView;
+    this.applyLaneCount = applyLaneCount;
   }
 
   @Setup
@@ -69,14 +91,23 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFn
       Ddl ddl = c.sideInput(ddlView);
 
       tableName = changeEvent.get(DatastreamConstants.EVENT_TABLE_NAME_KEY).asText();
-      ChangeEventConvertor.convertChangeEventColumnKeysToLowerCase(changeEvent);
-      ChangeEventConvertor.verifySpannerSchema(ddl, changeEvent);
+      // Column names are lowercased on a copy, so that the event passed on, which is also the
+      // dead letter queue payload on errors, keeps its original column names.
+      JsonNode keyChangeEvent = changeEvent.deepCopy();
+      ChangeEventConvertor.convertChangeEventColumnKeysToLowerCase(keyChangeEvent);
+      ChangeEventConvertor.verifySpannerSchema(ddl, keyChangeEvent);
       com.google.cloud.spanner.Key primaryKey =
           ChangeEventSpannerConvertor.changeEventToPrimaryKey(
-              tableName, ddl, changeEvent, /* convertNameToLowerCase= */ true);
+              tableName, ddl, keyChangeEvent, /* convertNameToLowerCase= */ true);
       String finalKeyString = tableName + "_" + primaryKey.toString();
-      Long finalKey = (long) finalKeyString.hashCode();
-      c.output(KV.of(finalKey, msg));
+      Long finalKey =
+          applyLaneCount > 0
+              ? getApplyLane(finalKeyString, applyLaneCount)
+              : (long) finalKeyString.hashCode();
+      c.output(
+          KV.of(
+              finalKey,
+              FailsafeElement.of(msg.getOriginalPayload(), DatastreamChangeEvent.of(changeEvent))));
     } catch (Exception e) {
       LOG.error(
           "Error while converting change event to primary key hash for tableName=" + tableName, e);
@@ -88,4 +119,14 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFn
       conversionErrors.inc();
     }
   }
+
+  /**
+   * Returns the apply lane of a key. The lane is derived from a fingerprint of the key, which is
+   * stable across workers and JVM versions, unlike {@link String#hashCode()}.
+   */
+  static long getApplyLane(String key, int applyLaneCount) {
+    long fingerprint =
+        Hashing.farmHashFingerprint64().hashString(key, StandardCharsets.UTF_8).asLong();
+    return Math.floorMod(fingerprint, (long) applyLaneCount);
+  }
 }
@@ -580,6 +580,91 @@ public class DataStreamToSpanner {
     String getFailureInjectionParameter();
 
     void setFailureInjectionParameter(String value);
+
+    @TemplateParameter.Integer(
+        order = 35,
+        optional = true,
+        description = "Maximum number of change events per Spanner transaction",
+        helpText =
+            "The maximum number of change events, each for a distinct primary key, that are written"
+                + " to Cloud Spanner in a single read-write transaction. Batched events are checked"
+                + " against the shadow tables with one multi-key read and committed together."
+                + " Batching is not used when shadow tables are in a separate database. Defaults"
+                + " to `1`, which writes every change event in its own transaction.")
+    @Default.Integer(1)
+    Integer getTransactionBatchSize();
+
+    void setTransactionBatchSize(Integer value);
+
+    @TemplateParameter.Integer(
+        order = 36,
+        optional = true,
+        description = "Maximum linger time of a batched change event in milliseconds",
+        helpText =
+            "The maximum time, in milliseconds, that a change event is held in a transaction"
+                + " batch before the batch is written, even if it is not full. Batches are always"
+                + " written at the end of a bundle. Only used when transactionBatchSize is greater"
+                + " than 1. Defaults to `500`.")
+    @Default.Integer(500)
+    Integer getTransactionBatchLingerMillis();
+
+    void setTransactionBatchLingerMillis(Integer value);
+
+    @TemplateParameter.Integer(
+        order = 37,
+        optional = true,
+        description = "Number of apply lanes",
+        helpText =
+            "The number of lanes that change events are bucketed into, by a hash of their primary"
+                + " key, before they are written to Cloud Spanner. Within a lane, events are"
+                + " ordered by their change event sequence and written in micro-batches, which"
+                + " bounds the parallelism of the writes to this number of lanes. Defaults to `0`,"
+                + " which keys events by their primary key instead.")
+    @Default.Integer(0)
+    Integer getApplyLaneCount();
+
+    void setApplyLaneCount(Integer value);
+
+    @TemplateParameter.Integer(
+        order = 38,
+        optional = true,
+        description = "Maximum number of change events buffered per apply lane",
+        helpText =
+            "The maximum number of change events that an apply lane buffers for ordering before"
+                + " they are written. Buffered events are also written once they have waited for"
+                + " transactionBatchLingerMillis. Only used when applyLaneCount is greater than 0."
+                + " Defaults to `1000`.")
+    @Default.Integer(1000)
+    Integer getApplyLaneMaxBufferedEvents();
+
+    void setApplyLaneMaxBufferedEvents(Integer value);
+
+    @TemplateParameter.Boolean(
+        order = 39,
+        optional = true,
+        description = "If true, discover new Datastream files incrementally",
+        helpText =
+            "This flag indicates whether the new files of every table directory are discovered"
+                + " incrementally, by listing only the hour directories written since the previous"
+                + " listing, instead of watching every minute directory for"
+                + " directoryWatchDurationInMinutes. Only used when reading from"
+                + " inputFilePattern without gcsPubSubSubscription. Defaults to `false`.")
+    @Default.Boolean(false)
+    Boolean getUseIncrementalFileDiscovery();
+
+    void setUseIncrementalFileDiscovery(Boolean value);
+
+    @TemplateParameter.Integer(
+        order = 40,
+        optional = true,
+        description = "Incremental file discovery poll interval in seconds",
+        helpText =
+            "The interval, in seconds, at which every table directory is listed for new files."
+                + " Only used when useIncrementalFileDiscovery is true. Defaults to `5`.")
+    @Default.Integer(5)
+    Integer getIncrementalFileDiscoveryPollIntervalSeconds();
+
+    void setIncrementalFileDiscoveryPollIntervalSeconds(Integer value);
   }
 
   private static void validateSourceType(Options options) {
@@ -765,19 +850,25 @@ public class DataStreamToSpanner {
             .setCoder(FailsafeElementCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()));
     if (isRegularMode) {
       LOG.info("Regular Datastream flow");
+      DataStreamIO datastreamIO =
+          new DataStreamIO(
+                  options.getStreamName(),
+                  options.getInputFilePattern(),
+                  options.getInputFileFormat(),
+                  options.getGcsPubSubSubscription(),
+                  options.getRfcStartDateTime())
+              .withFileReadConcurrency(options.getFileReadConcurrency())
+              .withoutDatastreamRecordsReshuffle()
+              .withDirectoryWatchDuration(
+                  Duration.standardMinutes(options.getDirectoryWatchDurationInMinutes()))
+              .withDatastreamSourceType(options.getDatastreamSourceType());
+      if (options.getUseIncrementalFileDiscovery()) {
+        datastreamIO =
+            datastreamIO.withIncrementalFileDiscovery(
+                Duration.standardSeconds(options.getIncrementalFileDiscoveryPollIntervalSeconds()));
+      }
       PCollection<FailsafeElement<String, String>> datastreamJsonRecords =
-          pipeline.apply(
-              new DataStreamIO(
-                      options.getStreamName(),
-                      options.getInputFilePattern(),
-                      options.getInputFileFormat(),
-                      options.getGcsPubSubSubscription(),
-                      options.getRfcStartDateTime())
-                  .withFileReadConcurrency(options.getFileReadConcurrency())
-                  .withoutDatastreamRecordsReshuffle()
-                  .withDirectoryWatchDuration(
-                      Duration.standardMinutes(options.getDirectoryWatchDurationInMinutes()))
-                  .withDatastreamSourceType(options.getDatastreamSourceType()));
+          pipeline.apply(datastreamIO);
       int maxNumWorkers = options.getMaxNumWorkers() != 0 ? options.getMaxNumWorkers() : 1;
       jsonRecords =
           PCollectionList.of(datastreamJsonRecords)
@@ -882,7 +973,11 @@ public class DataStreamToSpanner {
                     shadowTableDdlView,
                     options.getShadowTablePrefix(),
                     options.getDatastreamSourceType(),
-                    isRegularMode));
+                    isRegularMode,
+                    options.getTransactionBatchSize(),
+                    options.getTransactionBatchLingerMillis(),
+                    options.getApplyLaneCount(),
+                    options.getApplyLaneMaxBufferedEvents()));
     /*
      * Stage 5: Write failures to GCS Dead Letter Queue
      * a) Retryable errors are written to retry GCS Dead letter queue
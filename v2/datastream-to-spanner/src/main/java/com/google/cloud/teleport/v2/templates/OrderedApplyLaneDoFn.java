@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.templates;
+
+import com.google.cloud.teleport.v2.coders.FailsafeElementCoder;
+import com.google.cloud.teleport.v2.datastream.coders.DatastreamChangeEventCoder;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
+import com.google.cloud.teleport.v2.templates.datastream.ChangeEventSequence;
+import com.google.cloud.teleport.v2.templates.datastream.ChangeEventSequenceFactory;
+import com.google.cloud.teleport.v2.values.FailsafeElement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.state.BagState;
+import org.apache.beam.sdk.state.StateSpec;
+import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.TimeDomain;
+import org.apache.beam.sdk.state.Timer;
+import org.apache.beam.sdk.state.TimerSpec;
+import org.apache.beam.sdk.state.TimerSpecs;
+import org.apache.beam.sdk.state.ValueState;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
+import org.apache.beam.sdk.values.KV;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers the change events of an apply lane and releases them as micro-batches ordered by their
+ * {@link ChangeEventSequence}, so that the events of a primary key reach the writer oldest first.
+ *
+ * <p>Events are released when the lane holds {@code maxBufferedEvents} events, or {@code
+ * lingerMillis} after the first event of the micro-batch was buffered, whichever comes first. This
+ * bounds the reorder buffer of every lane. The events still buffered when the window ends, such as
+ * at the end of a bounded input, are released then. Events whose sequence cannot be read keep their
+ * position in the arrival order, and only the other events are reordered around them; the writer
+ * reports their errors.
+ */
+public class OrderedApplyLaneDoFn
+    extends DoFn<
+        KV<Long, FailsafeElement<String, DatastreamChangeEvent>>,
+        KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OrderedApplyLaneDoFn.class);
+
+  private static final Distribution APPLY_LANE_BATCH_SIZE =
+      Metrics.distribution(OrderedApplyLaneDoFn.class, "apply_lane_batch_size");
+
+  private final int maxBufferedEvents;
+
+  private final long lingerMillis;
+
+  @StateId("events")
+  private final StateSpec<BagState<FailsafeElement<String, DatastreamChangeEvent>>> eventsSpec =
+      StateSpecs.bag(
+          FailsafeElementCoder.of(StringUtf8Coder.of(), DatastreamChangeEventCoder.of()));
+
+  @StateId("count")
+  private final StateSpec<ValueState<Integer>> countSpec = StateSpecs.value(VarIntCoder.of());
+
+  @TimerId("flush")
+  private final TimerSpec flushSpec = TimerSpecs.timer(TimeDomain.PROCESSING_TIME);
+
+  @TimerId("endOfWindow")
+  private final TimerSpec endOfWindowSpec = TimerSpecs.timer(TimeDomain.EVENT_TIME);
+
+  public OrderedApplyLaneDoFn(int maxBufferedEvents, long lingerMillis) {
+    this.maxBufferedEvents = maxBufferedEvents;
+    this.lingerMillis = lingerMillis;
+  }
+
+  @ProcessElement
+  public void processElement(
+      ProcessContext c,
+      BoundedWindow window,
+      @StateId("events") BagState<FailsafeElement<String, DatastreamChangeEvent>> events,
+      @StateId("count") ValueState<Integer> count,
+      @TimerId("flush") Timer flush,
+      @TimerId("endOfWindow") Timer endOfWindow) {
+    Integer buffered = count.read();
+    int newCount = (buffered == null ? 0 : buffered) + 1;
+    events.add(c.element().getValue());
+    if (newCount >= maxBufferedEvents) {
+      for (FailsafeElement<String, DatastreamChangeEvent> event : releaseEvents(events, count)) {
+        c.output(KV.of(c.element().getKey(), event));
+      }
+      return;
+    }
+    if (newCount == 1) {
+      flush.offset(Duration.millis(lingerMillis)).setRelative();
+      endOfWindow.set(window.maxTimestamp());
+    }
+    count.write(newCount);
+  }
+
+  @OnTimer("flush")
+  public void onFlush(
+      OnTimerContext c,
+      @Key Long lane,
+      @StateId("events") BagState<FailsafeElement<String, DatastreamChangeEvent>> events,
+      @StateId("count") ValueState<Integer> count) {
+    for (FailsafeElement<String, DatastreamChangeEvent> event : releaseEvents(events, count)) {
+      c.output(KV.of(lane, event));
+    }
+  }
+
+  @OnTimer("endOfWindow")
+  public void onEndOfWindow(
+      OnTimerContext c,
+      @Key Long lane,
+      @StateId("events") BagState<FailsafeElement<String, DatastreamChangeEvent>> events,
+      @StateId("count") ValueState<Integer> count) {
+    for (FailsafeElement<String, DatastreamChangeEvent> event : releaseEvents(events, count)) {
+      c.output(KV.of(lane, event));
+    }
+  }
+
+  private List<FailsafeElement<String, DatastreamChangeEvent>> releaseEvents(
+      BagState<FailsafeElement<String, DatastreamChangeEvent>> events, ValueState<Integer> count) {
+    List<FailsafeElement<String, DatastreamChangeEvent>> ordered = orderBySequence(events.read());
+    events.clear();
+    count.clear();
+    if (!ordered.isEmpty()) {
+      APPLY_LANE_BATCH_SIZE.update(ordered.size());
+    }
+    return ordered;
+  }
+
+  /*
+   * Sorts events by their change event sequence. The sort is stable, so events with equal sequences
+   * keep their arrival order. Events without a sequence stay at their position in the arrival order,
+   * and the sorted events fill the remaining positions.
+   */
+  List<FailsafeElement<String, DatastreamChangeEvent>> orderBySequence(
+      Iterable<FailsafeElement<String, DatastreamChangeEvent>> events) {
+    List<FailsafeElement<String, DatastreamChangeEvent>> ordered = new ArrayList<>();
+    List<Integer> sequencedPositions = new ArrayList<>();
+    List<KV<ChangeEventSequence, FailsafeElement<String, DatastreamChangeEvent>>> sequenced =
+        new ArrayList<>();
+    for (FailsafeElement<String, DatastreamChangeEvent> event : events) {
+      try {
+        sequenced.add(
+            KV.of(
+                ChangeEventSequenceFactory.createChangeEventSequenceFromChangeEvent(
+                    event.getPayload().getEvent()),
+                event));
+        sequencedPositions.add(ordered.size());
+      } catch (Exception e) {
+        LOG.debug("Unable to read the change event sequence, event is not reordered", e);
+      }
+      ordered.add(event);
+    }
+    try {
+      sequenced.sort(Comparator.comparing(KV::getKey));
+    } catch (RuntimeException e) {
+      // Sequences of different source types cannot be compared, release the events as they are.
+      LOG.warn("Unable to order the change events of an apply lane", e);
+      return ordered;
+    }
+    for (int i = 0; i < sequenced.size(); i++) {
+      ordered.set(sequencedPositions.get(i), sequenced.get(i).getValue());
+    }
+    return ordered;
+  }
+}
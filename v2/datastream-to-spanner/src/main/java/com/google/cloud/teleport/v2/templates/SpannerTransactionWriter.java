@@ -18,6 +18,8 @@ package com.google.cloud.teleport.v2.templates;
 import com.google.auto.value.AutoValue;
 import com.google.cloud.Timestamp;
 import com.google.cloud.teleport.v2.coders.FailsafeElementCoder;
+import com.google.cloud.teleport.v2.datastream.coders.DatastreamChangeEventCoder;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
@@ -35,6 +37,7 @@ import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.transforms.Reshuffle;
+import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.PCollectionTuple;
@@ -49,7 +52,13 @@ import org.apache.beam.sdk.values.TupleTagList;
  * Takes an input of DataStream events as {@link FailsafeElement} objects and writes them to the
  * given Cloud Spanner database.
  *
- * <p>Each event will be written using a single Cloud Spanner Transaction.
+ * <p>Each event will be written using a single Cloud Spanner Transaction, unless a transaction
+ * batch size greater than 1 is set, in which case events for distinct primary keys are written
+ * together in batches of up to that size.
+ *
+ * <p>If a number of apply lanes is set, events are bucketed into that many lanes by a hash of their
+ * primary key, and the events of each lane are ordered by their change event sequence before they
+ * are written.
  *
  * <p>The {@link Result} object contains two streams: the successfully written Mutation Group
  * objects with their commit timestamps, and the Mutation Group objects that failed to be written
@@ -80,6 +89,18 @@ public class SpannerTransactionWriter
   /* The run mode, whether it is regular or retry. */
   private final Boolean isRegularRunMode;
 
+  /* The maximum number of change events written in one Cloud Spanner transaction. */
+  private final int transactionBatchSize;
+
+  /* The maximum time in milliseconds a change event waits for its batch to be written. */
+  private final long transactionBatchLingerMillis;
+
+  /* The number of apply lanes, 0 to key events by their primary key hash. */
+  private final int applyLaneCount;
+
+  /* The maximum number of change events buffered per apply lane for ordering. */
+  private final int applyLaneMaxBufferedEvents;
+
   public SpannerTransactionWriter(
       SpannerConfig spannerConfig,
       SpannerConfig shadowTableSpannerConfig,
@@ -88,6 +109,54 @@ public class SpannerTransactionWriter
       String shadowTablePrefix,
       String sourceType,
       Boolean isRegularRunMode) {
+    this(
+        spannerConfig,
+        shadowTableSpannerConfig,
+        ddlView,
+        shadowTableDdlView,
+        shadowTablePrefix,
+        sourceType,
+        isRegularRunMode,
+        1,
+        0L);
+  }
+
+  public SpannerTransactionWriter(
+      SpannerConfig spannerConfig,
+      SpannerConfig shadowTableSpannerConfig,
+      PCollectionView<Ddl> ddlView,
+      PCollectionView<Ddl> shadowTableDdlView,
+      String shadowTablePrefix,
+      String sourceType,
+      Boolean isRegularRunMode,
+      int transactionBatchSize,
+      long transactionBatchLingerMillis) {
+    this(
+        spannerConfig,
+        shadowTableSpannerConfig,
+        ddlView,
+        shadowTableDdlView,
+        shadowTablePrefix,
+        sourceType,
+        isRegularRunMode,
+        transactionBatchSize,
+        transactionBatchLingerMillis,
+        0,
+        0);
+  }
+
+  public SpannerTransactionWriter(
+      SpannerConfig spannerConfig,
+      SpannerConfig shadowTableSpannerConfig,
+      PCollectionView<Ddl> ddlView,
+      PCollectionView<Ddl> shadowTableDdlView,
+      String shadowTablePrefix,
+      String sourceType,
+      Boolean isRegularRunMode,
+      int transactionBatchSize,
+      long transactionBatchLingerMillis,
+      int applyLaneCount,
+      int applyLaneMaxBufferedEvents) {
     Preconditions.checkNotNull(spannerConfig);
     this.spannerConfig = spannerConfig;
     this.shadowTableSpannerConfig = shadowTableSpannerConfig;
@@ -96,6 +165,10 @@ public class SpannerTransactionWriter
     this.shadowTablePrefix = shadowTablePrefix;
     this.sourceType = sourceType;
     this.isRegularRunMode = isRegularRunMode;
+    this.transactionBatchSize = transactionBatchSize;
+    this.transactionBatchLingerMillis = transactionBatchLingerMillis;
+    this.applyLaneCount = applyLaneCount;
+    this.applyLaneMaxBufferedEvents = applyLaneMaxBufferedEvents;
   }
 
   @Override
@@ -104,37 +177,57 @@ public class SpannerTransactionWriter
     PCollectionTuple keyedEvents =
         input.apply(
             "Key By PK Hash",
-            ParDo.of(new CreateKeyValuePairsWithPrimaryKeyHashDoFn(ddlView))
+            ParDo.of(new CreateKeyValuePairsWithPrimaryKeyHashDoFn(ddlView, applyLaneCount))
                 .withSideInputs(ddlView)
                 .withOutputTags(
                     DatastreamToSpannerConstants.SUCCESSFUL_KEYED_EVENT_TAG,
                     TupleTagList.of(List.of(DatastreamToSpannerConstants.PERMANENT_ERROR_TAG))));
+    // Keyed events carry the parsed change event, in binary form when shuffled.
+    KvCoder<Long, FailsafeElement<String, DatastreamChangeEvent>> keyedEventCoder =
+        KvCoder.of(
+            VarLongCoder.of(),
+            FailsafeElementCoder.of(StringUtf8Coder.of(), DatastreamChangeEventCoder.of()));
+    PCollection<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> shuffledEvents;
+    if (applyLaneCount > 0) {
+      // The stateful ordering step groups the events by lane, no reshuffle is needed.
+      shuffledEvents =
+          keyedEvents
+              .get(DatastreamToSpannerConstants.SUCCESSFUL_KEYED_EVENT_TAG)
+              .setCoder(keyedEventCoder)
+              .apply(
+                  "Order Events Per Apply Lane",
+                  ParDo.of(
+                      new OrderedApplyLaneDoFn(
+                          applyLaneMaxBufferedEvents, transactionBatchLingerMillis)))
+              .setCoder(keyedEventCoder);
+    } else {
+      shuffledEvents =
+          keyedEvents
+              .get(DatastreamToSpannerConstants.SUCCESSFUL_KEYED_EVENT_TAG)
+              .setCoder(keyedEventCoder)
+              .apply("Reshuffle Keyed Events", Reshuffle.of());
+    }
     PCollectionTuple spannerWriteResults =
-        keyedEvents
-            .get(DatastreamToSpannerConstants.SUCCESSFUL_KEYED_EVENT_TAG)
-            .setCoder(
-                KvCoder.of(
-                    VarLongCoder.of(),
-                    FailsafeElementCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of())))
-            .apply("Reshuffle Keyed Events", Reshuffle.of())
-            .apply(
-                "Write Mutations",
-                ParDo.of(
-                        new SpannerTransactionWriterDoFn(
-                            spannerConfig,
-                            shadowTableSpannerConfig,
-                            ddlView,
-                            shadowTableDdlView,
-                            shadowTablePrefix,
-                            sourceType,
-                            isRegularRunMode))
-                    .withSideInputs(ddlView, shadowTableDdlView)
-                    .withOutputTags(
-                        DatastreamToSpannerConstants.SUCCESSFUL_EVENT_TAG,
-                        TupleTagList.of(
-                            Arrays.asList(
-                                DatastreamToSpannerConstants.PERMANENT_ERROR_TAG,
-                                DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG))));
+        shuffledEvents.apply(
+            "Write Mutations",
+            ParDo.of(
+                    new SpannerTransactionWriterDoFn(
+                        spannerConfig,
+                        shadowTableSpannerConfig,
+                        ddlView,
+                        shadowTableDdlView,
+                        shadowTablePrefix,
+                        sourceType,
+                        isRegularRunMode,
+                        transactionBatchSize,
+                        transactionBatchLingerMillis))
+                .withSideInputs(ddlView, shadowTableDdlView)
+                .withOutputTags(
+                    DatastreamToSpannerConstants.SUCCESSFUL_EVENT_TAG,
+                    TupleTagList.of(
+                        Arrays.asList(
+                            DatastreamToSpannerConstants.PERMANENT_ERROR_TAG,
+                            DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG))));
 
     PCollection<FailsafeElement<String, String>> keyedEventsErrorRecords =
         keyedEvents.get(DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
@@ -22,14 +22,14 @@ import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpann
 import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants.SKIPPED_EVENTS_COUNTER_NAME;
 import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants.SUCCESSFUL_EVENTS_COUNTER_NAME;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Options;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.Statement;
 import com.google.cloud.spanner.TransactionRunner;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.spanner.migrations.exceptions.ChangeEventConvertorException;
 import com.google.cloud.teleport.v2.spanner.migrations.exceptions.DroppedTableException;
@@ -47,9 +47,16 @@ import com.google.cloud.teleport.v2.templates.utils.WatchdogRunnable;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
 import com.google.common.base.Preconditions;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.beam.runners.dataflow.options.DataflowWorkerHarnessOptions;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerAccessor;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerConfig;
@@ -58,6 +65,7 @@ import org.apache.beam.sdk.metrics.Distribution;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.options.PipelineOptions;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
@@ -73,6 +81,10 @@ import org.slf4j.LoggerFactory;
  * specifies the commit order) for each primary key. Shadow tables are consulted before actual
  * writes to Cloud Spanner to preserve the correctness and consistency of data.
  *
+ * <p>When a transaction batch size greater than 1 is configured, change events for distinct primary
+ * keys are buffered per bundle and written together, using one multi-key shadow table read and one
+ * commit per batch.
+ *
  * <p>Change events written successfully will be pushed onto the primary output with their commit
  * timestamps.
  *
@@ -80,7 +92,8 @@ import org.slf4j.LoggerFactory;
  * PERMANENT_ERROR_TAG/RETRYABLE_ERROR_TAG along with the exception that caused the failure.
  */
 class SpannerTransactionWriterDoFn
-    extends DoFn<KV<Long, FailsafeElement<String, String>>, Timestamp> implements Serializable {
+    extends DoFn<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>, Timestamp>
+    implements Serializable {
 
   // TODO - Change Cloud Spanner nomenclature in code used to read DDL.
 
@@ -98,9 +111,6 @@ class SpannerTransactionWriterDoFn
   // The source database type.
   private final String sourceType;
 
-  // Jackson Object mapper.
-  private transient ObjectMapper mapper;
-
   /* SpannerAccessor must be transient so that its value is not serialized at runtime. */
   private transient SpannerAccessor spannerAccessor;
   /* SpannerAccessor for shadow table database must be transient so that its value is not serialized at runtime. */
@@ -156,6 +166,14 @@ class SpannerTransactionWriterDoFn
   private final Counter droppedTableExceptions =
       Metrics.counter(SpannerTransactionWriterDoFn.class, "Dropped table exceptions");
 
+  // Number of change events written by each batched Spanner transaction.
+  private final Distribution eventsPerCommit =
+      Metrics.distribution(SpannerTransactionWriterDoFn.class, "spanner_writer_events_per_commit");
+
+  // Number of batched transactions that failed and were written again one event at a time.
+  private final Counter batchedTransactionFallbacks =
+      Metrics.counter(SpannerTransactionWriterDoFn.class, "Batched transaction fallbacks");
+
   // The max length of tag allowed in Spanner Transaction tags.
   private static final int MAX_TXN_TAG_LENGTH = 50;
 
@@ -184,6 +202,18 @@ class SpannerTransactionWriterDoFn
 
   private final boolean usesSeparateShadowTableDb;
 
+  // Maximum number of change events written in a single transaction. Batching is disabled for
+  // values of 1 or less, and when the shadow tables are in a separate database.
+  private final int transactionBatchSize;
+
+  // Maximum time in milliseconds for which a change event is held in a batch.
+  private final long transactionBatchLingerMillis;
+
+  // Change events of the current bundle waiting to be written, and their tables and primary keys.
+  private transient List<BufferedChangeEvent> batch;
+  private transient Set<KV<String, com.google.cloud.spanner.Key>> batchKeys;
+  private transient Instant batchStartTimestamp;
+
   SpannerTransactionWriterDoFn(
       SpannerConfig spannerConfig,
       SpannerConfig shadowTableSpannerConfig,
@@ -192,6 +222,28 @@ class SpannerTransactionWriterDoFn
       String shadowTablePrefix,
       String sourceType,
       Boolean isRegularRunMode) {
+    this(
+        spannerConfig,
+        shadowTableSpannerConfig,
+        ddlView,
+        shadowTableDdlView,
+        shadowTablePrefix,
+        sourceType,
+        isRegularRunMode,
+        1,
+        0L);
+  }
+
+  SpannerTransactionWriterDoFn(
+      SpannerConfig spannerConfig,
+      SpannerConfig shadowTableSpannerConfig,
+      PCollectionView<Ddl> ddlView,
+      PCollectionView<Ddl> shadowTableDdlView,
+      String shadowTablePrefix,
+      String sourceType,
+      Boolean isRegularRunMode,
+      int transactionBatchSize,
+      long transactionBatchLingerMillis) {
     Preconditions.checkNotNull(spannerConfig);
     this.spannerConfig = spannerConfig;
     this.shadowTableSpannerConfig = shadowTableSpannerConfig;
@@ -204,6 +256,8 @@ class SpannerTransactionWriterDoFn
     this.usesSeparateShadowTableDb =
         !(spannerConfig.getInstanceId().equals(shadowTableSpannerConfig.getInstanceId())
             && spannerConfig.getDatabaseId().equals(shadowTableSpannerConfig.getDatabaseId()));
+    this.transactionBatchSize = transactionBatchSize;
+    this.transactionBatchLingerMillis = transactionBatchLingerMillis;
   }
 
   /** Setup function connects to Cloud Spanner. */
@@ -214,8 +268,6 @@ class SpannerTransactionWriterDoFn
         usesSeparateShadowTableDb
             ? SpannerAccessor.getOrCreate(shadowTableSpannerConfig)
             : spannerAccessor;
-    mapper = new ObjectMapper();
-    mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     // Setup and start the watchdog thread.
     transactionAttemptCount = new AtomicLong(0);
     isInTransaction = new AtomicBoolean(false);
@@ -239,13 +291,22 @@ class SpannerTransactionWriterDoFn
     keepWatchdogRunning.set(false);
   }
 
+  @StartBundle
+  public void startBundle() {
+    if (isBatchingEnabled()) {
+      batch = new ArrayList<>();
+      batchKeys = new HashSet<>();
+    }
+  }
+
   @ProcessElement
-  public void processElement(ProcessContext c) {
-    FailsafeElement<String, String> msg = c.element().getValue();
+  public void processElement(ProcessContext c, BoundedWindow window) {
+    FailsafeElement<String, DatastreamChangeEvent> msg = c.element().getValue();
     Ddl ddl = c.sideInput(ddlView);
     // TODO: pass shadow table ddl to shdaow tble mutaiton generator and sequence reader.
     Ddl shadowTableDdl = c.sideInput(shadowTableDdlView);
     Instant startTimestamp = Instant.now();
+    ChangeEventOutput output = new ProcessContextOutput(c);
     String migrationShardId = null;
     boolean isRetryRecord = false;
     /*
@@ -255,7 +316,8 @@ class SpannerTransactionWriterDoFn
      */
     try {
 
-      JsonNode changeEvent = mapper.readTree(msg.getPayload());
+      // The event is converted in place, the input element must not be mutated.
+      JsonNode changeEvent = msg.getPayload().getEvent().deepCopy();
       migrationShardId =
           Optional.ofNullable(changeEvent.get(SHARD_ID_COLUMN_NAME))
               .map(shardIdNode -> changeEvent.get(shardIdNode.asText()).asText())
@@ -275,48 +337,239 @@ class SpannerTransactionWriterDoFn
           ChangeEventSequenceFactory.createChangeEventSequenceFromChangeEventContext(
               changeEventContext);
 
+      if (isBatchingEnabled()) {
+        bufferChangeEvent(
+            new BufferedChangeEvent(
+                msg,
+                changeEvent,
+                changeEventContext,
+                currentChangeEventSequence,
+                ddl,
+                shadowTableDdl,
+                migrationShardId,
+                isRetryRecord,
+                startTimestamp,
+                c.timestamp(),
+                window),
+            c.getPipelineOptions(),
+            output);
+        return;
+      }
+
       if (usesSeparateShadowTableDb) {
         processCrossDatabaseTransaction(
-            c, changeEventContext, currentChangeEventSequence, shadowTableDdl, ddl);
+            c.getPipelineOptions(),
+            changeEventContext,
+            currentChangeEventSequence,
+            shadowTableDdl,
+            ddl);
       } else {
         processSingleDatabaseTransaction(
-            c, changeEventContext, currentChangeEventSequence, shadowTableDdl, ddl);
+            c.getPipelineOptions(),
+            changeEventContext,
+            currentChangeEventSequence,
+            shadowTableDdl,
+            ddl);
       }
-      com.google.cloud.Timestamp timestamp = com.google.cloud.Timestamp.now();
-      c.output(timestamp);
-      if (migrationShardId != null) {
-        Metrics.counter(
-                SpannerTransactionWriterDoFn.class,
-                migrationShardId + " : " + SUCCESSFUL_EVENTS_COUNTER_NAME)
-            .inc();
-      }
-      successfulEvents.inc();
-      updateLatencyMetrics(changeEvent, startTimestamp);
+      onChangeEventWritten(output, changeEvent, migrationShardId, isRetryRecord, startTimestamp);
+    } catch (Exception e) {
+      handleWriteException(output, msg, e, migrationShardId, isRetryRecord);
+    }
+  }
+
+  /** Writes the change events still buffered at the end of the bundle. */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext c) {
+    if (batch == null || batch.isEmpty()) {
+      return;
+    }
+    flushBatch(
+        c.getPipelineOptions(),
+        event -> new FinishBundleContextOutput(c, event.elementTimestamp, event.window));
+  }
 
-      // increment the successful retry count if this was retry attempt
-      if (isRegularRunMode && isRetryRecord) {
-        successfulEventRetries.inc();
+  private boolean isBatchingEnabled() {
+    return transactionBatchSize > 1 && !usesSeparateShadowTableDb;
+  }
+
+  /*
+   * Adds a change event to the current batch. A batch only holds a single event per table and
+   * primary key, hence the batch is flushed before adding an event whose key is already buffered.
+   * This keeps the events of a key applied in the order in which they are received. The key of the
+   * input element is not used, since apply lanes key many primary keys by the same lane.
+   */
+  private void bufferChangeEvent(
+      BufferedChangeEvent event, PipelineOptions options, ChangeEventOutput output) {
+    if (batchKeys.contains(event.key)
+        || (!batch.isEmpty() && batch.get(0).shadowTableDdl != event.shadowTableDdl)) {
+      flushBatch(options, e -> output);
+    }
+    if (batch.isEmpty()) {
+      batchStartTimestamp = Instant.now();
+    }
+    batch.add(event);
+    batchKeys.add(event.key);
+    if (batch.size() >= transactionBatchSize
+        || new Duration(batchStartTimestamp, Instant.now()).getMillis()
+            >= transactionBatchLingerMillis) {
+      flushBatch(options, e -> output);
+    }
+  }
+
+  /*
+   * Writes the buffered change events in a single transaction. If the batched transaction fails,
+   * the events are written again one transaction per event so that the failure is attributed to,
+   * and retried for, the individual events only.
+   */
+  private void flushBatch(
+      PipelineOptions options, Function<BufferedChangeEvent, ChangeEventOutput> outputs) {
+    List<BufferedChangeEvent> events = batch;
+    batch = new ArrayList<>();
+    batchKeys.clear();
+    try {
+      processBatchedTransaction(options, events);
+    } catch (Exception e) {
+      LOG.warn(
+          "Batched transaction of {} change events failed, writing the events individually.",
+          events.size(),
+          e);
+      batchedTransactionFallbacks.inc();
+      for (BufferedChangeEvent event : events) {
+        ChangeEventOutput output = outputs.apply(event);
+        try {
+          processSingleDatabaseTransaction(
+              options,
+              event.changeEventContext,
+              event.changeEventSequence,
+              event.shadowTableDdl,
+              event.ddl);
+          onChangeEventWritten(
+              output,
+              event.changeEvent,
+              event.migrationShardId,
+              event.isRetryRecord,
+              event.startTimestamp);
+        } catch (Exception ex) {
+          handleWriteException(
+              output, event.message, ex, event.migrationShardId, event.isRetryRecord);
+        }
       }
+      return;
+    }
+    for (BufferedChangeEvent event : events) {
+      ChangeEventOutput output = outputs.apply(event);
+      try {
+        onChangeEventWritten(
+            output,
+            event.changeEvent,
+            event.migrationShardId,
+            event.isRetryRecord,
+            event.startTimestamp);
+      } catch (Exception e) {
+        handleWriteException(output, event.message, e, event.migrationShardId, event.isRetryRecord);
+      }
+    }
+  }
+
+  /*
+   * Applies a batch of change events for distinct primary keys in one read-write transaction. The
+   * shadow table rows of all the events are fetched with a single multi-key read per shadow table
+   * and stale events are skipped, as in processSingleDatabaseTransaction.
+   */
+  void processBatchedTransaction(PipelineOptions options, List<BufferedChangeEvent> events) {
+    List<ChangeEventContext> changeEventContexts =
+        events.stream().map(event -> event.changeEventContext).collect(Collectors.toList());
+    AtomicLong skippedEventCount = new AtomicLong(0);
+
+    spannerAccessor
+        .getDatabaseClient()
+        .readWriteTransaction(
+            Options.tag(getTxnTag(options)),
+            Options.excludeTxnFromChangeStreams(),
+            Options.priority(spannerConfig.getRpcPriority().get()))
+        .run(
+            (TransactionRunner.TransactionCallable<Void>)
+                transaction -> {
+                  isInTransaction.set(true);
+                  transactionAttemptCount.incrementAndGet();
+                  skippedEventCount.set(0);
+                  // Sequence information for the last change event of every key in the batch.
+                  Map<ChangeEventContext, ChangeEventSequence> previousChangeEventSequences =
+                      ChangeEventSequenceFactory.createChangeEventSequencesFromShadowTable(
+                          transaction, changeEventContexts, events.get(0).shadowTableDdl);
+                  List<Mutation> mutations = new ArrayList<>();
+                  for (BufferedChangeEvent event : events) {
+                    ChangeEventSequence previousChangeEventSequence =
+                        previousChangeEventSequences.get(event.changeEventContext);
+                    if (previousChangeEventSequence != null
+                        && previousChangeEventSequence.compareTo(event.changeEventSequence) >= 0) {
+                      skippedEventCount.incrementAndGet();
+                      continue;
+                    }
+                    // Execute DML if applicable
+                    Statement dataDml = event.changeEventContext.getDataDmlStatement(event.ddl);
+                    if (dataDml != null) {
+                      transaction.executeUpdate(dataDml);
+                    }
+                    event.changeEventContext.getMutations().forEach(mutations::add);
+                  }
+                  // Apply shadow and data table mutations of the whole batch.
+                  transaction.buffer(mutations);
+                  isInTransaction.set(false);
+                  return null;
+                });
+    skippedEvents.inc(skippedEventCount.get());
+    eventsPerCommit.update(events.size());
+  }
 
-    } catch (DroppedTableException e) {
+  private void onChangeEventWritten(
+      ChangeEventOutput output,
+      JsonNode changeEvent,
+      String migrationShardId,
+      boolean isRetryRecord,
+      Instant startTimestamp) {
+    com.google.cloud.Timestamp timestamp = com.google.cloud.Timestamp.now();
+    output.outputSuccess(timestamp);
+    if (migrationShardId != null) {
+      Metrics.counter(
+              SpannerTransactionWriterDoFn.class,
+              migrationShardId + " : " + SUCCESSFUL_EVENTS_COUNTER_NAME)
+          .inc();
+    }
+    successfulEvents.inc();
+    updateLatencyMetrics(changeEvent, startTimestamp);
+
+    // increment the successful retry count if this was retry attempt
+    if (isRegularRunMode && isRetryRecord) {
+      successfulEventRetries.inc();
+    }
+  }
+
+  private void handleWriteException(
+      ChangeEventOutput output,
+      FailsafeElement<String, DatastreamChangeEvent> msg,
+      Exception e,
+      String migrationShardId,
+      boolean isRetryRecord) {
+    if (e instanceof DroppedTableException) {
       // Errors when table exists in source but was dropped during conversion. We do not output any
       // errors to dlq for this.
       // Note that this is not loogged to DLQ!!
       LOG.error("Table dropped during migration for changeEventMessage {}", msg, e.getMessage());
       droppedTableExceptions.inc();
-    } catch (InvalidChangeEventException e) {
+    } else if (e instanceof InvalidChangeEventException) {
       LOG.error("Invalid Change Exception", e);
       // Errors that result from invalid change events.
-      outputWithErrorTag(c, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
+      outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
       invalidEvents.inc();
       if (migrationShardId != null) {
         Metrics.counter(SpannerTransactionWriterDoFn.class, migrationShardId + " : Invalid events")
             .inc();
       }
-    } catch (ChangeEventConvertorException e) {
+    } else if (e instanceof ChangeEventConvertorException) {
       LOG.error("Conversion Error", e);
       // Errors that result during Event conversions are not retryable.
-      outputWithErrorTag(c, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
+      outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
       if (migrationShardId != null) {
         Metrics.counter(
                 SpannerTransactionWriterDoFn.class,
@@ -324,18 +577,18 @@ class SpannerTransactionWriterDoFn
             .inc();
       }
       conversionErrors.inc();
-    } catch (IllegalStateException ex) {
+    } else if (e instanceof IllegalStateException) {
       /*
        * IllegalStateException can occur due to conditions like spanner pool being closed,
        * in which case if this event is requed to same or different node at a later point in time,
        * a retry might work.
        */
-      outputWithErrorTag(c, msg, ex, DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG);
+      outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG);
       // do not increment the retry error count if this was retry attempt
       if (!isRetryRecord) {
         retryableErrors.inc();
       }
-    } catch (SpannerException ex) {
+    } else if (e instanceof SpannerException) {
       /*
        * There are many SpannerExceptions which can occur. Some of them are retryable and some of them are non-retryable.
        * Examples:
@@ -343,29 +596,30 @@ class SpannerTransactionWriterDoFn
        * 2. Failures due to foreign key/interleaved table constraints - Retryable error
        * 3. Unique index violation - Permanent error
        */
-      SpannerMigrationException spannerMigrationException = SpannerExceptionParser.parse(ex);
+      SpannerMigrationException spannerMigrationException =
+          SpannerExceptionParser.parse((SpannerException) e);
       ErrorTag outputTag =
           DatastreamToSpannerExceptionClassifier.classify(spannerMigrationException);
       switch (outputTag) {
         case PERMANENT_ERROR:
           LOG.error(
               "A severe error occurred while processing the event.", spannerMigrationException);
-          outputWithErrorTag(c, msg, ex, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
+          outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
           break;
         case RETRYABLE_ERROR:
           LOG.warn(
               "A retryable error occurred while processing the event, the event will be retried again.",
               spannerMigrationException);
-          outputWithErrorTag(c, msg, ex, DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG);
+          outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG);
       }
       // do not increment the retry error count if this was retry attempt
       if (ErrorTag.RETRYABLE_ERROR.equals(outputTag) && !isRetryRecord) {
         retryableErrors.inc();
       }
-    } catch (Exception e) {
+    } else {
       LOG.error("Unhandled Exception", e);
       // Any other errors are considered severe and not retryable.
-      outputWithErrorTag(c, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
+      outputWithErrorTag(output, msg, e, DatastreamToSpannerConstants.PERMANENT_ERROR_TAG);
       failedEvents.inc();
       if (migrationShardId != null) {
         Metrics.counter(
@@ -376,7 +630,7 @@ class SpannerTransactionWriterDoFn
   }
 
   private void processSingleDatabaseTransaction(
-      ProcessContext c,
+      PipelineOptions options,
       ChangeEventContext changeEventContext,
       ChangeEventSequence currentChangeEventSequence,
       Ddl shadowDdl,
@@ -385,7 +639,7 @@ class SpannerTransactionWriterDoFn
     spannerAccessor
         .getDatabaseClient()
         .readWriteTransaction(
-            Options.tag(getTxnTag(c.getPipelineOptions())),
+            Options.tag(getTxnTag(options)),
             Options.excludeTxnFromChangeStreams(),
             Options.priority(spannerConfig.getRpcPriority().get()))
         .run(
@@ -442,7 +696,7 @@ class SpannerTransactionWriterDoFn
    * retrial. This ensures no 2 processes are updating the same row together.
    */
   void processCrossDatabaseTransaction(
-      ProcessContext c,
+      PipelineOptions options,
       ChangeEventContext changeEventContext,
       ChangeEventSequence currentChangeEventSequence,
       Ddl shadowDdl,
@@ -451,7 +705,7 @@ class SpannerTransactionWriterDoFn
     shadowTableSpannerAccessor
         .getDatabaseClient()
         .readWriteTransaction(
-            Options.tag(getTxnTag(c.getPipelineOptions())),
+            Options.tag(getTxnTag(options)),
             Options.excludeTxnFromChangeStreams(),
             Options.priority(spannerConfig.getRpcPriority().get()))
         .allowNestedTransaction()
@@ -476,7 +730,7 @@ class SpannerTransactionWriterDoFn
                   spannerAccessor
                       .getDatabaseClient()
                       .readWriteTransaction(
-                          Options.tag(getTxnTag(c.getPipelineOptions())),
+                          Options.tag(getTxnTag(options)),
                           Options.excludeTxnFromChangeStreams(),
                           Options.priority(spannerConfig.getRpcPriority().get()))
                       .run(
@@ -547,14 +801,16 @@ class SpannerTransactionWriterDoFn
   }
 
   void outputWithErrorTag(
-      ProcessContext c,
-      FailsafeElement<String, String> changeEvent,
+      ChangeEventOutput output,
+      FailsafeElement<String, DatastreamChangeEvent> changeEvent,
       Exception e,
       TupleTag<FailsafeElement<String, String>> errorTag) {
-    // Making a copy, as the input must not be mutated.
-    FailsafeElement<String, String> output = FailsafeElement.of(changeEvent);
-    output.setErrorMessage(e.getMessage());
-    c.output(errorTag, output);
+    // The change event is rendered as JSON for the dead letter queue only.
+    FailsafeElement<String, String> errorElement =
+        FailsafeElement.of(changeEvent.getOriginalPayload(), changeEvent.getPayload().toJson());
+    errorElement.setStacktrace(changeEvent.getStacktrace());
+    errorElement.setErrorMessage(e.getMessage());
+    output.outputError(errorTag, errorElement);
   }
 
   String getTxnTag(PipelineOptions options) {
@@ -577,10 +833,6 @@ class SpannerTransactionWriterDoFn
     return txnTag;
   }
 
-  public void setMapper(ObjectMapper mapper) {
-    this.mapper = mapper;
-  }
-
   public void setSpannerAccessor(SpannerAccessor spannerAccessor) {
     this.spannerAccessor = spannerAccessor;
   }
@@ -596,4 +848,102 @@ class SpannerTransactionWriterDoFn
   public void setIsInTransaction(AtomicBoolean isInTransaction) {
     this.isInTransaction = isInTransaction;
   }
+
+  /** Destination for the results of a change event. */
+  interface ChangeEventOutput {
+    void outputSuccess(com.google.cloud.Timestamp timestamp);
+
+    void outputError(
+        TupleTag<FailsafeElement<String, String>> errorTag,
+        FailsafeElement<String, String> errorElement);
+  }
+
+  /** Outputs the results of a change event from {@link ProcessElement}. */
+  private static class ProcessContextOutput implements ChangeEventOutput {
+    private final ProcessContext c;
+
+    ProcessContextOutput(ProcessContext c) {
+      this.c = c;
+    }
+
+    @Override
+    public void outputSuccess(com.google.cloud.Timestamp timestamp) {
+      c.output(timestamp);
+    }
+
+    @Override
+    public void outputError(
+        TupleTag<FailsafeElement<String, String>> errorTag,
+        FailsafeElement<String, String> errorElement) {
+      c.output(errorTag, errorElement);
+    }
+  }
+
+  /** Outputs the results of a change event buffered until {@link FinishBundle}. */
+  private static class FinishBundleContextOutput implements ChangeEventOutput {
+    private final FinishBundleContext c;
+    private final Instant elementTimestamp;
+    private final BoundedWindow window;
+
+    FinishBundleContextOutput(
+        FinishBundleContext c, Instant elementTimestamp, BoundedWindow window) {
+      this.c = c;
+      this.elementTimestamp = elementTimestamp;
+      this.window = window;
+    }
+
+    @Override
+    public void outputSuccess(com.google.cloud.Timestamp timestamp) {
+      c.output(timestamp, elementTimestamp, window);
+    }
+
+    @Override
+    public void outputError(
+        TupleTag<FailsafeElement<String, String>> errorTag,
+        FailsafeElement<String, String> errorElement) {
+      c.output(errorTag, errorElement, elementTimestamp, window);
+    }
+  }
+
+  /** A change event converted to mutations and waiting to be written in a batch. */
+  static class BufferedChangeEvent {
+    private final KV<String, com.google.cloud.spanner.Key> key;
+    private final FailsafeElement<String, DatastreamChangeEvent> message;
+    private final JsonNode changeEvent;
+    private final ChangeEventContext changeEventContext;
+    private final ChangeEventSequence changeEventSequence;
+    private final Ddl ddl;
+    private final Ddl shadowTableDdl;
+    private final String migrationShardId;
+    private final boolean isRetryRecord;
+    private final Instant startTimestamp;
+    private final Instant elementTimestamp;
+    private final BoundedWindow window;
+
+    BufferedChangeEvent(
+        FailsafeElement<String, DatastreamChangeEvent> message,
+        JsonNode changeEvent,
+        ChangeEventContext changeEventContext,
+        ChangeEventSequence changeEventSequence,
+        Ddl ddl,
+        Ddl shadowTableDdl,
+        String migrationShardId,
+        boolean isRetryRecord,
+        Instant startTimestamp,
+        Instant elementTimestamp,
+        BoundedWindow window) {
+      this.key = KV.of(changeEventContext.getDataTable(), changeEventContext.getPrimaryKey());
+      this.message = message;
+      this.changeEvent = changeEvent;
+      this.changeEventContext = changeEventContext;
+      this.changeEventSequence = changeEventSequence;
+      this.ddl = ddl;
+      this.shadowTableDdl = shadowTableDdl;
+      this.migrationShardId = migrationShardId;
+      this.isRetryRecord = isRetryRecord;
+      this.startTimestamp = startTimestamp;
+      this.elementTimestamp = elementTimestamp;
+      this.window = window;
+    }
+  }
 }
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.templates.constants;
 
 import com.google.cloud.Timestamp;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.TupleTag;
@@ -44,8 +45,9 @@ public class DatastreamToSpannerConstants {
   public static final TupleTag<Timestamp> SUCCESSFUL_EVENT_TAG = new TupleTag<Timestamp>() {};
 
   /* The tag for successfully keyed events. */
-  public static final TupleTag<KV<Long, FailsafeElement<String, String>>>
-      SUCCESSFUL_KEYED_EVENT_TAG = new TupleTag<KV<Long, FailsafeElement<String, String>>>() {};
+  public static final TupleTag<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>>
+      SUCCESSFUL_KEYED_EVENT_TAG =
+          new TupleTag<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>>() {};
 
   /* Max DoFns per dataflow worker in a streaming pipeline. */
   public static final int MAX_DOFN_PER_WORKER = 500;
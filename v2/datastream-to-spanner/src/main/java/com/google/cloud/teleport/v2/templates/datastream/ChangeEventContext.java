@@ -220,6 +220,11 @@ public abstract class ChangeEventContext {
     return shadowTableMutation;
   }
 
+  // Getter method for the data table.
+  public String getDataTable() {
+    return dataTable;
+  }
+
   // Getter method for the shadow table.
   public String getShadowTable() {
     return shadowTable;
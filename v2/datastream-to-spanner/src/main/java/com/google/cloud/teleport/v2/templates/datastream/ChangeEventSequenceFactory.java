@@ -16,10 +16,23 @@
 package com.google.cloud.teleport.v2.templates.datastream;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
+import com.google.cloud.teleport.v2.spanner.ddl.IndexColumn;
 import com.google.cloud.teleport.v2.spanner.migrations.exceptions.ChangeEventConvertorException;
 import com.google.cloud.teleport.v2.spanner.migrations.exceptions.InvalidChangeEventException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Factory classes for ChangeEventSequence classes which provides methods for 1) creating
@@ -58,6 +71,25 @@ public class ChangeEventSequenceFactory {
     throw new InvalidChangeEventException("Unsupported source database: " + sourceType);
   }
 
+  /*
+   * Creates a ChangeEventSequence from the JSON of a change event, without resolving the change
+   * event against the schema. Used to order change events before they are applied.
+   */
+  public static ChangeEventSequence createChangeEventSequenceFromChangeEvent(JsonNode changeEvent)
+      throws ChangeEventConvertorException, InvalidChangeEventException {
+
+    String sourceType = getSourceType(changeEvent);
+
+    if (DatastreamConstants.MYSQL_SOURCE_TYPE.equals(sourceType)) {
+      return MySqlChangeEventSequence.createFromChangeEvent(changeEvent);
+    } else if (DatastreamConstants.ORACLE_SOURCE_TYPE.equals(sourceType)) {
+      return OracleChangeEventSequence.createFromChangeEvent(changeEvent);
+    } else if (DatastreamConstants.POSTGRES_SOURCE_TYPE.equals(sourceType)) {
+      return PostgresChangeEventSequence.createFromChangeEvent(changeEvent);
+    }
+    throw new InvalidChangeEventException("Unsupported source database: " + sourceType);
+  }
+
   /*
    * Create a ChangeEventSequence object for an earlier event by reading
    * from shadow tables.
@@ -83,4 +115,155 @@ public class ChangeEventSequenceFactory {
     }
     throw new InvalidChangeEventException("Unsupported source database: " + sourceType);
   }
+
+  /*
+   * Reads the ChangeEventSequence of the earlier event for every change event context with a single
+   * multi-key read per shadow table. Contexts whose primary key has no shadow table row are mapped
+   * to null. All contexts must refer to distinct primary keys.
+   */
+  public static Map<ChangeEventContext, ChangeEventSequence>
+      createChangeEventSequencesFromShadowTable(
+          final TransactionContext transactionContext,
+          final List<ChangeEventContext> changeEventContexts,
+          Ddl shadowDdl)
+          throws ChangeEventSequenceCreationException, InvalidChangeEventException {
+
+    Map<String, List<ChangeEventContext>> contextsByShadowTable = new LinkedHashMap<>();
+    for (ChangeEventContext changeEventContext : changeEventContexts) {
+      contextsByShadowTable
+          .computeIfAbsent(changeEventContext.getShadowTable(), t -> new ArrayList<>())
+          .add(changeEventContext);
+    }
+
+    Map<ChangeEventContext, ChangeEventSequence> sequences = new IdentityHashMap<>();
+    for (Map.Entry<String, List<ChangeEventContext>> entry : contextsByShadowTable.entrySet()) {
+      String shadowTable = entry.getKey();
+      List<ChangeEventContext> tableContexts = entry.getValue();
+      List<String> keyColumns =
+          shadowDdl.table(shadowTable).primaryKeys().stream()
+              .map(IndexColumn::name)
+              .collect(Collectors.toList());
+      // All events of a table come from the same source and share the sequence columns.
+      List<String> sequenceColumns = getShadowTableReadColumns(tableContexts.get(0));
+      List<String> readColumnList = new ArrayList<>(keyColumns);
+      readColumnList.addAll(sequenceColumns);
+
+      Map<Key, ChangeEventContext> contextsByKey = new HashMap<>();
+      KeySet.Builder keySet = KeySet.newBuilder();
+      for (ChangeEventContext changeEventContext : tableContexts) {
+        contextsByKey.put(changeEventContext.getPrimaryKey(), changeEventContext);
+        keySet.addKey(changeEventContext.getPrimaryKey());
+        sequences.put(changeEventContext, null);
+      }
+
+      try (ResultSet resultSet =
+          transactionContext.read(shadowTable, keySet.build(), readColumnList)) {
+        while (resultSet.next()) {
+          Struct row = resultSet.getCurrentRowAsStruct();
+          ChangeEventContext changeEventContext = contextsByKey.get(toKey(row, keyColumns));
+          if (changeEventContext == null) {
+            // The key read back could not be matched to a change event (e.g. a NUMERIC key with a
+            // different scale). Fail rather than treating the event as the first for its key.
+            throw new IllegalStateException(
+                "Unable to match shadow table row to a change event. table=" + shadowTable);
+          }
+          sequences.put(
+              changeEventContext,
+              createChangeEventSequenceFromShadowTableRow(changeEventContext, row));
+        }
+      } catch (InvalidChangeEventException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new ChangeEventSequenceCreationException(e);
+      }
+    }
+    return sequences;
+  }
+
+  static List<String> getShadowTableReadColumns(ChangeEventContext changeEventContext)
+      throws InvalidChangeEventException {
+
+    String sourceType = getSourceType(changeEventContext.getChangeEvent());
+
+    if (DatastreamConstants.MYSQL_SOURCE_TYPE.equals(sourceType)) {
+      return MySqlChangeEventSequence.getShadowTableReadColumns(changeEventContext);
+    } else if (DatastreamConstants.ORACLE_SOURCE_TYPE.equals(sourceType)) {
+      return OracleChangeEventSequence.getShadowTableReadColumns(changeEventContext);
+    } else if (DatastreamConstants.POSTGRES_SOURCE_TYPE.equals(sourceType)) {
+      return PostgresChangeEventSequence.getShadowTableReadColumns(changeEventContext);
+    }
+    throw new InvalidChangeEventException("Unsupported source database: " + sourceType);
+  }
+
+  static ChangeEventSequence createChangeEventSequenceFromShadowTableRow(
+      ChangeEventContext changeEventContext, Struct row) throws InvalidChangeEventException {
+
+    String sourceType = getSourceType(changeEventContext.getChangeEvent());
+
+    if (DatastreamConstants.MYSQL_SOURCE_TYPE.equals(sourceType)) {
+      return MySqlChangeEventSequence.createFromShadowTableRow(changeEventContext, row);
+    } else if (DatastreamConstants.ORACLE_SOURCE_TYPE.equals(sourceType)) {
+      return OracleChangeEventSequence.createFromShadowTableRow(changeEventContext, row);
+    } else if (DatastreamConstants.POSTGRES_SOURCE_TYPE.equals(sourceType)) {
+      return PostgresChangeEventSequence.createFromShadowTableRow(changeEventContext, row);
+    }
+    throw new InvalidChangeEventException("Unsupported source database: " + sourceType);
+  }
+
+  /*
+   * Builds the primary key of a shadow table row, using the same Java types as
+   * ChangeEventSpannerConvertor.changeEventToPrimaryKey so that keys can be compared for equality.
+   */
+  static Key toKey(Struct row, List<String> keyColumns) {
+    Key.Builder key = Key.newBuilder();
+    for (String column : keyColumns) {
+      if (row.isNull(column)) {
+        key.appendObject(null);
+        continue;
+      }
+      switch (row.getColumnType(column).getCode()) {
+        case BOOL:
+          key.append(row.getBoolean(column));
+          break;
+        case INT64:
+          key.append(row.getLong(column));
+          break;
+        case FLOAT64:
+          key.append(row.getDouble(column));
+          break;
+        case STRING:
+          key.append(row.getString(column));
+          break;
+        case JSON:
+          key.append(row.getJson(column));
+          break;
+        case PG_JSONB:
+          key.append(row.getPgJsonb(column));
+          break;
+        case NUMERIC:
+          key.append(row.getBigDecimal(column));
+          break;
+        case PG_NUMERIC:
+          key.append(new BigDecimal(row.getString(column)));
+          break;
+        case BYTES:
+          key.append(row.getBytes(column));
+          break;
+        case TIMESTAMP:
+          key.append(row.getTimestamp(column));
+          break;
+        case DATE:
+          key.append(row.getDate(column));
+          break;
+        default:
+          throw new IllegalArgumentException(
+              "Column name("
+                  + column
+                  + ") has unsupported key column type("
+                  + row.getColumnType(column)
+                  + ")");
+      }
+    }
+    return key.build();
+  }
 }
@@ -15,6 +15,7 @@
  */
 package com.google.cloud.teleport.v2.templates.datastream;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.Statement;
@@ -50,6 +51,14 @@ class OracleChangeEventSequence extends ChangeEventSequence {
    */
   public static OracleChangeEventSequence createFromChangeEvent(ChangeEventContext ctx)
       throws ChangeEventConvertorException, InvalidChangeEventException {
+    return createFromChangeEvent(ctx.getChangeEvent());
+  }
+
+  /*
+   * Creates OracleChangeEventSequence from the JSON of a change event.
+   */
+  public static OracleChangeEventSequence createFromChangeEvent(JsonNode changeEvent)
+      throws ChangeEventConvertorException, InvalidChangeEventException {
 
     /* Backfill events from Oracle "can" have only timestamp metadata filled in.
      * Set SCN to a smaller value than any real value
@@ -58,7 +67,7 @@ class OracleChangeEventSequence extends ChangeEventSequence {
 
     scn =
         ChangeEventTypeConvertor.toLong(
-            ctx.getChangeEvent(), DatastreamConstants.ORACLE_SCN_KEY, /* requiredField= */ false);
+            changeEvent, DatastreamConstants.ORACLE_SCN_KEY, /* requiredField= */ false);
     if (scn == null) {
       scn = new Long(-1);
     }
@@ -66,9 +75,7 @@ class OracleChangeEventSequence extends ChangeEventSequence {
     // Change events from Oracle have timestamp and SCN filled in always.
     return new OracleChangeEventSequence(
         ChangeEventTypeConvertor.toLong(
-            ctx.getChangeEvent(),
-            DatastreamConstants.ORACLE_TIMESTAMP_KEY,
-            /* requiredField= */ true),
+            changeEvent, DatastreamConstants.ORACLE_TIMESTAMP_KEY, /* requiredField= */ true),
         scn);
   }
 
@@ -86,10 +93,7 @@ class OracleChangeEventSequence extends ChangeEventSequence {
       String shadowTable = context.getShadowTable();
       Key primaryKey = context.getPrimaryKey();
       // Read columns from shadow table
-      List<String> readColumnList =
-          java.util.Arrays.asList(
-              context.getSafeShadowColumn(DatastreamConstants.ORACLE_TIMESTAMP_KEY),
-              context.getSafeShadowColumn(DatastreamConstants.ORACLE_SCN_KEY));
+      List<String> readColumnList = getShadowTableReadColumns(context);
       Struct row;
       // TODO: After beam release, use the latest client lib version which supports setting lock
       // hints via the read api. SQL string generation should be removed.
@@ -112,13 +116,33 @@ class OracleChangeEventSequence extends ChangeEventSequence {
         return null;
       }
 
-      return new OracleChangeEventSequence(
-          row.getLong(readColumnList.get(0)), row.getLong(readColumnList.get(1)));
+      return createFromShadowTableRow(context, row);
     } catch (Exception e) {
       throw new ChangeEventSequenceCreationException(e);
     }
   }
 
+  /*
+   * Returns the shadow table columns which hold the sequence information, in the order expected by
+   * createFromShadowTableRow.
+   */
+  static List<String> getShadowTableReadColumns(ChangeEventContext context) {
+    return java.util.Arrays.asList(
+        context.getSafeShadowColumn(DatastreamConstants.ORACLE_TIMESTAMP_KEY),
+        context.getSafeShadowColumn(DatastreamConstants.ORACLE_SCN_KEY));
+  }
+
+  /*
+   * Creates a OracleChangeEventSequence from a shadow table row containing the columns
+   * returned by getShadowTableReadColumns.
+   */
+  static OracleChangeEventSequence createFromShadowTableRow(
+      ChangeEventContext context, Struct row) {
+    List<String> readColumnList = getShadowTableReadColumns(context);
+    return new OracleChangeEventSequence(
+        row.getLong(readColumnList.get(0)), row.getLong(readColumnList.get(1)));
+  }
+
   Long getTimestamp() {
     return timestamp;
   }
@@ -18,6 +18,7 @@ package com.google.cloud.teleport.v2.templates;
 import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants.PERMANENT_ERROR_TAG;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -27,6 +28,7 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.templates.datastream.DatastreamConstants;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
@@ -137,12 +139,13 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
 
     doFn.processElement(processContext);
 
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext).output(captor.capture());
 
-    KV<Long, FailsafeElement<String, String>> result = captor.getValue();
-    assertEquals(failsafeElement, result.getValue());
+    KV<Long, FailsafeElement<String, DatastreamChangeEvent>> result = captor.getValue();
+    assertEquals(failsafeElement.getOriginalPayload(), result.getValue().getOriginalPayload());
+    assertEquals(outputObject, result.getValue().getPayload().getEvent());
     // Verify hash is consistent (we don't check exact value as it depends on hashCode impl)
     String expectedKeyString = "Users_Johnny/Doe";
     // Note: ChangeEventSpannerConvertor.changeEventToPrimaryKey might format it differently,
@@ -192,11 +195,11 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
 
     doFn.processElement(processContext);
 
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext).output(captor.capture());
 
-    KV<Long, FailsafeElement<String, String>> result = captor.getValue();
+    KV<Long, FailsafeElement<String, DatastreamChangeEvent>> result = captor.getValue();
     assertNotEquals(null, result.getKey());
   }
 
@@ -221,7 +224,7 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
     when(processContext.element())
         .thenReturn(FailsafeElement.of(event1.toString(), event1.toString()));
     doFn.processElement(processContext);
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor1 =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor1 =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext, times(1)).output(captor1.capture());
 
@@ -229,7 +232,7 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
     when(processContext.element())
         .thenReturn(FailsafeElement.of(event2.toString(), event2.toString()));
     doFn.processElement(processContext);
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor2 =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor2 =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext, times(2)).output(captor2.capture());
 
@@ -255,7 +258,7 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
     when(processContext.element())
         .thenReturn(FailsafeElement.of(event1.toString(), event1.toString()));
     doFn.processElement(processContext);
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor1 =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor1 =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext, times(1)).output(captor1.capture());
 
@@ -263,7 +266,7 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
     when(processContext.element())
         .thenReturn(FailsafeElement.of(event2.toString(), event2.toString()));
     doFn.processElement(processContext);
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor2 =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor2 =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext, times(2)).output(captor2.capture());
 
@@ -289,12 +292,13 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
 
     doFn.processElement(processContext);
 
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext).output(captor.capture());
 
-    KV<Long, FailsafeElement<String, String>> result = captor.getValue();
-    assertEquals(failsafeElement, result.getValue());
+    KV<Long, FailsafeElement<String, DatastreamChangeEvent>> result = captor.getValue();
+    assertEquals(failsafeElement.getOriginalPayload(), result.getValue().getOriginalPayload());
+    assertEquals(outputObject, result.getValue().getPayload().getEvent());
     assertNotEquals(null, result.getKey());
   }
 
@@ -315,12 +319,16 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
 
     doFn.processElement(processContext);
 
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext).output(captor.capture());
 
-    KV<Long, FailsafeElement<String, String>> result = captor.getValue();
-    assertEquals(failsafeElement, result.getValue());
+    KV<Long, FailsafeElement<String, DatastreamChangeEvent>> result = captor.getValue();
+    assertEquals(failsafeElement.getOriginalPayload(), result.getValue().getOriginalPayload());
+    // The keyed event keeps its column names, so that dead letter queue outputs carry the
+    // transformed payload unchanged.
+    assertEquals(outputObject, result.getValue().getPayload().getEvent());
+    assertEquals(failsafeElement.getPayload(), result.getValue().getPayload().toJson());
     assertNotEquals(null, result.getKey());
   }
 
@@ -342,12 +350,45 @@ public class CreateKeyValuePairsWithPrimaryKeyHashDoFnTest {
 
     doFn.processElement(processContext);
 
-    ArgumentCaptor<KV<Long, FailsafeElement<String, String>>> captor =
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
         ArgumentCaptor.forClass(KV.class);
     verify(processContext).output(captor.capture());
 
-    KV<Long, FailsafeElement<String, String>> result = captor.getValue();
-    assertEquals(failsafeElement, result.getValue());
+    KV<Long, FailsafeElement<String, DatastreamChangeEvent>> result = captor.getValue();
+    assertEquals(failsafeElement.getOriginalPayload(), result.getValue().getOriginalPayload());
+    assertEquals(outputObject, result.getValue().getPayload().getEvent());
     assertNotEquals(null, result.getKey());
   }
+
+  @Test
+  public void testProcessElementWithApplyLanes() {
+    Ddl ddl = getTestDdl();
+    when(processContext.sideInput(ddlView)).thenReturn(ddl);
+    CreateKeyValuePairsWithPrimaryKeyHashDoFn laneDoFn =
+        new CreateKeyValuePairsWithPrimaryKeyHashDoFn(ddlView, 4);
+    laneDoFn.setup();
+
+    ObjectNode event = mapper.createObjectNode();
+    event.put(DatastreamConstants.EVENT_TABLE_NAME_KEY, "Users");
+    event.put("first_name", "Johnny");
+    event.put("last_name", "Doe");
+    when(processContext.element())
+        .thenReturn(FailsafeElement.of(event.toString(), event.toString()));
+    laneDoFn.processElement(processContext);
+
+    ArgumentCaptor<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> captor =
+        ArgumentCaptor.forClass(KV.class);
+    verify(processContext).output(captor.capture());
+    long lane = captor.getValue().getKey();
+    assertTrue(lane >= 0 && lane < 4);
+  }
+
+  @Test
+  public void testGetApplyLane() {
+    for (int i = 0; i < 1000; i++) {
+      long lane = CreateKeyValuePairsWithPrimaryKeyHashDoFn.getApplyLane("key" + i, 7);
+      assertTrue(lane >= 0 && lane < 7);
+      assertEquals(lane, CreateKeyValuePairsWithPrimaryKeyHashDoFn.getApplyLane("key" + i, 7));
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.templates;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.cloud.teleport.v2.coders.FailsafeElementCoder;
+import com.google.cloud.teleport.v2.datastream.coders.DatastreamChangeEventCoder;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
+import com.google.cloud.teleport.v2.templates.datastream.DatastreamConstants;
+import com.google.cloud.teleport.v2.values.FailsafeElement;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link OrderedApplyLaneDoFn}. */
+@RunWith(JUnit4.class)
+public class OrderedApplyLaneDoFnTest {
+
+  @Rule public final transient TestPipeline pipeline = TestPipeline.create();
+
+  private static FailsafeElement<String, DatastreamChangeEvent> mySqlEvent(
+      String id, String logFile, long pos) throws IOException {
+    JSONObject changeEvent = new JSONObject();
+    changeEvent.put(
+        DatastreamConstants.EVENT_SOURCE_TYPE_KEY, DatastreamConstants.MYSQL_SOURCE_TYPE);
+    changeEvent.put(DatastreamConstants.EVENT_TABLE_NAME_KEY, "Users");
+    changeEvent.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 1615159728L);
+    changeEvent.put(DatastreamConstants.MYSQL_LOGFILE_KEY, logFile);
+    changeEvent.put(DatastreamConstants.MYSQL_LOGPOSITION_KEY, pos);
+    changeEvent.put("id", id);
+    return FailsafeElement.of(
+        changeEvent.toString(), DatastreamChangeEvent.fromJson(changeEvent.toString()));
+  }
+
+  @Test
+  public void testOrderBySequence() throws IOException {
+    FailsafeElement<String, DatastreamChangeEvent> first = mySqlEvent("1", "file1.log", 10L);
+    FailsafeElement<String, DatastreamChangeEvent> second = mySqlEvent("1", "file1.log", 20L);
+    FailsafeElement<String, DatastreamChangeEvent> third = mySqlEvent("1", "file2.log", 5L);
+    FailsafeElement<String, DatastreamChangeEvent> invalid =
+        FailsafeElement.of("{}", DatastreamChangeEvent.fromJson("{}"));
+
+    OrderedApplyLaneDoFn doFn = new OrderedApplyLaneDoFn(100, 500L);
+    List<FailsafeElement<String, DatastreamChangeEvent>> ordered =
+        doFn.orderBySequence(Arrays.asList(third, first, invalid, second));
+
+    // Events without a sequence keep their position, the others are in sequence order.
+    assertEquals(Arrays.asList(first, second, invalid, third), ordered);
+  }
+
+  @Test
+  public void testReleasesAllEvents() throws IOException {
+    FailsafeElementCoder<String, DatastreamChangeEvent> eventCoder =
+        FailsafeElementCoder.of(StringUtf8Coder.of(), DatastreamChangeEventCoder.of());
+    List<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> events =
+        Arrays.asList(
+            KV.of(0L, mySqlEvent("1", "file1.log", 30L)),
+            KV.of(0L, mySqlEvent("2", "file1.log", 10L)),
+            KV.of(0L, mySqlEvent("3", "file1.log", 20L)),
+            KV.of(1L, mySqlEvent("4", "file1.log", 40L)));
+
+    PCollection<KV<Long, FailsafeElement<String, DatastreamChangeEvent>>> output =
+        pipeline
+            .apply(Create.of(events).withCoder(KvCoder.of(VarLongCoder.of(), eventCoder)))
+            .apply(ParDo.of(new OrderedApplyLaneDoFn(2, 1000L)));
+
+    PAssert.that(output).containsInAnyOrder(events);
+    pipeline.run();
+  }
+}
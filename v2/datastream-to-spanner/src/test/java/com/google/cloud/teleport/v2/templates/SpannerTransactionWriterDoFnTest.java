@@ -19,6 +19,7 @@ import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpann
 import static com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConstants.RETRYABLE_ERROR_TAG;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -33,9 +34,11 @@ import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionRunner;
+import com.google.cloud.teleport.v2.datastream.values.DatastreamChangeEvent;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.spanner.migrations.constants.Constants;
 import com.google.cloud.teleport.v2.spanner.migrations.schema.Schema;
@@ -43,6 +46,7 @@ import com.google.cloud.teleport.v2.templates.constants.DatastreamToSpannerConst
 import com.google.cloud.teleport.v2.templates.datastream.DatastreamConstants;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.beam.runners.dataflow.options.DataflowWorkerHarnessOptions;
@@ -51,8 +55,10 @@ import org.apache.beam.sdk.io.gcp.spanner.SpannerConfig;
 import org.apache.beam.sdk.options.PipelineOptionsFactory;
 import org.apache.beam.sdk.options.ValueProvider;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollectionView;
+import org.joda.time.Instant;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -146,8 +152,8 @@ public class SpannerTransactionWriterDoFnTest {
     outputObject.put("last_name", "Depp");
     outputObject.put("age", 13);
     outputObject.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 12345);
-    FailsafeElement<String, String> failsafeElement =
-        FailsafeElement.of(outputObject.toString(), outputObject.toString());
+    FailsafeElement<String, DatastreamChangeEvent> failsafeElement =
+        FailsafeElement.of(outputObject.toString(), DatastreamChangeEvent.of(outputObject));
     Ddl ddl = getTestDdl();
 
     when(processContextMock.element()).thenReturn(KV.of(1L, failsafeElement));
@@ -173,11 +179,10 @@ public class SpannerTransactionWriterDoFnTest {
     SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
         new SpannerTransactionWriterDoFn(
             spannerConfig, spannerConfig, ddlView, ddlView, "shadow", "mysql", true);
-    spannerTransactionWriterDoFn.setMapper(mapper);
     spannerTransactionWriterDoFn.setSpannerAccessor(spannerAccessor);
     spannerTransactionWriterDoFn.setIsInTransaction(new AtomicBoolean(false));
     spannerTransactionWriterDoFn.setTransactionAttemptCount(new AtomicLong(0));
-    spannerTransactionWriterDoFn.processElement(processContextMock);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
     ArgumentCaptor<Iterable<Mutation>> argument = ArgumentCaptor.forClass(Iterable.class);
     verify(transactionContext, times(1)).buffer(argument.capture());
     Iterable<Mutation> capturedMutations = argument.getValue();
@@ -238,8 +243,8 @@ public class SpannerTransactionWriterDoFnTest {
     outputObject.put("last_name", "Depp");
     outputObject.put("age", 13);
     outputObject.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 123);
-    FailsafeElement<String, String> failsafeElement =
-        FailsafeElement.of(outputObject.toString(), outputObject.toString());
+    FailsafeElement<String, DatastreamChangeEvent> failsafeElement =
+        FailsafeElement.of(outputObject.toString(), DatastreamChangeEvent.of(outputObject));
     Ddl ddl = getTestDdl();
 
     when(processContextMock.element()).thenReturn(KV.of(1L, failsafeElement));
@@ -249,9 +254,8 @@ public class SpannerTransactionWriterDoFnTest {
     SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
         new SpannerTransactionWriterDoFn(
             spannerConfig, spannerConfig, ddlView, ddlView, "shadow", "mysql", true);
-    spannerTransactionWriterDoFn.setMapper(mapper);
     spannerTransactionWriterDoFn.setSpannerAccessor(spannerAccessor);
-    spannerTransactionWriterDoFn.processElement(processContextMock);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
 
     ArgumentCaptor<FailsafeElement> argument = ArgumentCaptor.forClass(FailsafeElement.class);
     verify(processContextMock, times(1))
@@ -259,6 +263,9 @@ public class SpannerTransactionWriterDoFnTest {
     assertEquals(
         "Change event with invalid source. Actual(random), Expected(mysql)",
         argument.getValue().getErrorMessage());
+    // The dead letter queue receives the change event as JSON.
+    assertEquals(outputObject.toString(), argument.getValue().getPayload());
+    assertEquals(outputObject.toString(), argument.getValue().getOriginalPayload());
   }
 
   @Test
@@ -288,8 +295,8 @@ public class SpannerTransactionWriterDoFnTest {
     outputObject.put("last_name", "Depp");
     outputObject.put("age", 13);
     outputObject.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 12345);
-    FailsafeElement<String, String> failsafeElement =
-        FailsafeElement.of(outputObject.toString(), outputObject.toString());
+    FailsafeElement<String, DatastreamChangeEvent> failsafeElement =
+        FailsafeElement.of(outputObject.toString(), DatastreamChangeEvent.of(outputObject));
     Ddl ddl = getTestDdl();
 
     when(processContextMock.element()).thenReturn(KV.of(1L, failsafeElement));
@@ -315,11 +322,10 @@ public class SpannerTransactionWriterDoFnTest {
     SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
         new SpannerTransactionWriterDoFn(
             spannerConfig, spannerConfig, ddlView, ddlView, "shadow", "mysql", true);
-    spannerTransactionWriterDoFn.setMapper(mapper);
     spannerTransactionWriterDoFn.setSpannerAccessor(spannerAccessor);
     spannerTransactionWriterDoFn.setIsInTransaction(new AtomicBoolean(false));
     spannerTransactionWriterDoFn.setTransactionAttemptCount(new AtomicLong(0));
-    spannerTransactionWriterDoFn.processElement(processContextMock);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
     ArgumentCaptor<Iterable<Mutation>> argument = ArgumentCaptor.forClass(Iterable.class);
     verify(transactionContext, times(0)).buffer(anyList());
 
@@ -354,8 +360,8 @@ public class SpannerTransactionWriterDoFnTest {
     outputObject.put("last_name", "Depp");
     outputObject.put("age", 13);
     outputObject.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 12345);
-    FailsafeElement<String, String> failsafeElement =
-        FailsafeElement.of(outputObject.toString(), outputObject.toString());
+    FailsafeElement<String, DatastreamChangeEvent> failsafeElement =
+        FailsafeElement.of(outputObject.toString(), DatastreamChangeEvent.of(outputObject));
     Ddl ddl = getTestDdl();
 
     when(processContextMock.element()).thenReturn(KV.of(1L, failsafeElement));
@@ -381,15 +387,141 @@ public class SpannerTransactionWriterDoFnTest {
     SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
         new SpannerTransactionWriterDoFn(
             spannerConfig, spannerConfig, ddlView, ddlView, "shadow", "mysql", true);
-    spannerTransactionWriterDoFn.setMapper(mapper);
     spannerTransactionWriterDoFn.setSpannerAccessor(spannerAccessor);
     spannerTransactionWriterDoFn.setIsInTransaction(new AtomicBoolean(false));
     spannerTransactionWriterDoFn.setTransactionAttemptCount(new AtomicLong(0));
-    spannerTransactionWriterDoFn.processElement(processContextMock);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
     ArgumentCaptor<Iterable<Mutation>> argument = ArgumentCaptor.forClass(Iterable.class);
     verify(transactionContext, times(0)).buffer(anyList());
 
     verify(processContextMock, times(1))
         .output(eq(PERMANENT_ERROR_TAG), any(FailsafeElement.class));
   }
+
+  @Test
+  public void testProcessElementWithTransactionBatching() {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    DoFn.ProcessContext processContextMock = mock(DoFn.ProcessContext.class);
+    DatabaseClient databaseClientMock = mock(DatabaseClient.class);
+    TransactionContext transactionContext = mock(TransactionContext.class);
+
+    when(processContextMock.element())
+        .thenReturn(KV.of(1L, getUsersChangeEvent(mapper, "Johnny")))
+        .thenReturn(KV.of(2L, getUsersChangeEvent(mapper, "Jack")));
+    SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
+        getBatchingWriterDoFn(2, processContextMock, databaseClientMock, transactionContext);
+    spannerTransactionWriterDoFn.startBundle();
+
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
+    // The first event is buffered until the batch is full.
+    verify(databaseClientMock, times(0)).readWriteTransaction(any(), any(), any());
+
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
+    verify(databaseClientMock, times(1)).readWriteTransaction(any(), any(), any());
+    verify(transactionContext, times(1)).read(eq("shadow_Users"), any(), anyIterable());
+    ArgumentCaptor<List<Mutation>> argument = ArgumentCaptor.forClass(List.class);
+    verify(transactionContext, times(1)).buffer(argument.capture());
+    // Data and shadow table mutations of both events.
+    assertEquals(4, argument.getValue().size());
+    verify(processContextMock, times(2)).output(any(com.google.cloud.Timestamp.class));
+  }
+
+  @Test
+  public void testProcessElementWithTransactionBatchingOfOneApplyLane() {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    DoFn.ProcessContext processContextMock = mock(DoFn.ProcessContext.class);
+    DatabaseClient databaseClientMock = mock(DatabaseClient.class);
+    TransactionContext transactionContext = mock(TransactionContext.class);
+
+    // Apply lanes key the events of distinct primary keys by the same lane.
+    when(processContextMock.element())
+        .thenReturn(KV.of(0L, getUsersChangeEvent(mapper, "Johnny")))
+        .thenReturn(KV.of(0L, getUsersChangeEvent(mapper, "Jack")))
+        .thenReturn(KV.of(0L, getUsersChangeEvent(mapper, "Jim")));
+    SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
+        getBatchingWriterDoFn(3, processContextMock, databaseClientMock, transactionContext);
+    spannerTransactionWriterDoFn.startBundle();
+
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
+    spannerTransactionWriterDoFn.processElement(processContextMock, GlobalWindow.INSTANCE);
+
+    verify(databaseClientMock, times(1)).readWriteTransaction(any(), any(), any());
+    ArgumentCaptor<List<Mutation>> argument = ArgumentCaptor.forClass(List.class);
+    verify(transactionContext, times(1)).buffer(argument.capture());
+    // Data and shadow table mutations of the three events.
+    assertEquals(6, argument.getValue().size());
+    verify(processContextMock, times(3)).output(any(com.google.cloud.Timestamp.class));
+  }
+
+  private SpannerTransactionWriterDoFn getBatchingWriterDoFn(
+      int transactionBatchSize,
+      DoFn.ProcessContext processContextMock,
+      DatabaseClient databaseClientMock,
+      TransactionContext transactionContext) {
+    SpannerConfig spannerConfig = mock(SpannerConfig.class);
+    SpannerAccessor spannerAccessor = mock(SpannerAccessor.class);
+    PCollectionView<Ddl> ddlView = mock(PCollectionView.class);
+    TransactionRunner transactionCallableMock = mock(TransactionRunner.class);
+    ResultSet shadowTableResultSet = mock(ResultSet.class);
+    ValueProvider<Options.RpcPriority> rpcPriorityValueProviderMock = mock(ValueProvider.class);
+
+    String[] args = new String[] {"--jobId=123"};
+    DataflowWorkerHarnessOptions options =
+        PipelineOptionsFactory.fromArgs(args).as(DataflowWorkerHarnessOptions.class);
+
+    when(processContextMock.sideInput(any())).thenReturn(getTestDdl());
+    when(processContextMock.getPipelineOptions()).thenReturn(options);
+    when(processContextMock.timestamp()).thenReturn(Instant.now());
+    when(rpcPriorityValueProviderMock.get()).thenReturn(Options.RpcPriority.LOW);
+    when(spannerConfig.getRpcPriority()).thenReturn(rpcPriorityValueProviderMock);
+    when(spannerConfig.getInstanceId())
+        .thenReturn(ValueProvider.StaticValueProvider.of("test-instance"));
+    when(spannerConfig.getDatabaseId())
+        .thenReturn(ValueProvider.StaticValueProvider.of("test-database"));
+    when(spannerAccessor.getDatabaseClient()).thenReturn(databaseClientMock);
+    when(transactionContext.read(eq("shadow_Users"), any(), anyIterable()))
+        .thenReturn(shadowTableResultSet);
+    when(shadowTableResultSet.next()).thenReturn(false);
+    when(transactionCallableMock.run(any()))
+        .thenAnswer(
+            invocation -> {
+              TransactionRunner.TransactionCallable<Void> callable = invocation.getArgument(0);
+              return callable.run(transactionContext);
+            });
+    when(databaseClientMock.readWriteTransaction(any(), any(), any()))
+        .thenReturn(transactionCallableMock);
+
+    SpannerTransactionWriterDoFn spannerTransactionWriterDoFn =
+        new SpannerTransactionWriterDoFn(
+            spannerConfig,
+            spannerConfig,
+            ddlView,
+            ddlView,
+            "shadow",
+            "mysql",
+            true,
+            transactionBatchSize,
+            60000L);
+    spannerTransactionWriterDoFn.setSpannerAccessor(spannerAccessor);
+    spannerTransactionWriterDoFn.setIsInTransaction(new AtomicBoolean(false));
+    spannerTransactionWriterDoFn.setTransactionAttemptCount(new AtomicLong(0));
+    return spannerTransactionWriterDoFn;
+  }
+
+  private FailsafeElement<String, DatastreamChangeEvent> getUsersChangeEvent(
+      ObjectMapper mapper, String firstName) {
+    ObjectNode outputObject = mapper.createObjectNode();
+    outputObject.put(DatastreamConstants.EVENT_SOURCE_TYPE_KEY, Constants.MYSQL_SOURCE_TYPE);
+    outputObject.put(DatastreamConstants.EVENT_TABLE_NAME_KEY, "Users");
+    outputObject.put("first_name", firstName);
+    outputObject.put("last_name", "Depp");
+    outputObject.put("age", 13);
+    outputObject.put(DatastreamConstants.MYSQL_TIMESTAMP_KEY, 12345);
+    outputObject.put("_metadata_read_timestamp", 12345);
+    outputObject.put("_metadata_dataflow_timestamp", 12345);
+    return FailsafeElement.of(outputObject.toString(), DatastreamChangeEvent.of(outputObject));
+  }
 }
@@ -56,6 +56,7 @@ import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.TupleTagList;
+import org.joda.time.Duration;
 import org.joda.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -414,6 +415,32 @@ public class DataStreamToSQL {
     String getRunMode();
 
     void setRunMode(String value);
+
+    @TemplateParameter.Integer(
+        order = 26,
+        optional = true,
+        description = "The number of seconds to coalesce the changes of a row.",
+        helpText =
+            "The number of seconds for which the changes of each primary key are coalesced before"
+                + " they are applied. Only the latest change of a row within this window is"
+                + " written to the database. Defaults to `0`, which applies every change.")
+    @Default.Integer(0)
+    Integer getDmlCoalesceWindowSeconds();
+
+    void setDmlCoalesceWindowSeconds(Integer value);
+
+    @TemplateParameter.Integer(
+        order = 27,
+        optional = true,
+        description = "The maximum number of changes of a row to coalesce.",
+        helpText =
+            "The number of changes of a primary key after which its latest change is applied,"
+                + " even if the coalesce window has not ended. Only used when"
+                + " dmlCoalesceWindowSeconds is greater than 0. Defaults to `1000`.")
+    @Default.Integer(1000)
+    Integer getDmlCoalesceMaxEvents();
+
+    void setDmlCoalesceMaxEvents(Integer value);
   }
 
   /**
@@ -768,7 +795,12 @@ public class DataStreamToSQL {
             /*
              * Stage 3) Filter stale rows using stateful PK transform
              */
-            .apply("DML Stateful Processing", ProcessDml.statefulOrderByPK());
+            .apply(
+                "DML Stateful Processing",
+                ProcessDml.statefulOrderByPK()
+                    .withCoalesceWindow(
+                        Duration.standardSeconds(options.getDmlCoalesceWindowSeconds()))
+                    .withCoalesceMaxEvents(options.getDmlCoalesceMaxEvents()));
 
     // Errors from DML conversion are severe and should not be retried.
     dmlResults
@@ -17,11 +17,18 @@ package com.google.cloud.teleport.v2.transforms;
 
 import com.google.cloud.teleport.v2.datastream.values.DmlInfo;
 import com.google.cloud.teleport.v2.utils.DurationUtils;
+import org.apache.beam.sdk.coders.SerializableCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.coders.VarIntCoder;
+import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Distribution;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.state.StateSpec;
 import org.apache.beam.sdk.state.StateSpecs;
+import org.apache.beam.sdk.state.TimeDomain;
+import org.apache.beam.sdk.state.Timer;
+import org.apache.beam.sdk.state.TimerSpec;
+import org.apache.beam.sdk.state.TimerSpecs;
 import org.apache.beam.sdk.state.ValueState;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.DoFn.StateId;
@@ -32,6 +39,7 @@ import org.apache.beam.sdk.transforms.windowing.FixedWindows;
 import org.apache.beam.sdk.transforms.windowing.Window;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,16 +64,56 @@ public class ProcessDml {
         && dmlInfo.getOriginalPayload().contains("\"_metadata_retry_count\":");
   }
 
+  /** Returns true if the event is newer than the last event applied for its primary key. */
+  private static boolean isNewerEvent(DmlInfo dmlInfo, String lastSortKey) {
+    // TODO(dhercher): More complex compare w/o String.join
+    String currentSortKey = dmlInfo.getOrderByValueString();
+    // FIX: Changed '> 0' to '>= 0' to allow DLQ retries to pass through
+    return lastSortKey == null
+        || currentSortKey.compareTo(lastSortKey) > 0
+        || (currentSortKey.compareTo(lastSortKey) >= 0 && isDLQEvent(dmlInfo));
+  }
+
+  private static String getThreadKey(String stateKey) {
+    return Integer.toString(Math.abs(stateKey.hashCode()) % NUM_THREADS);
+  }
+
   /** This class is used as the default return value of {@link ProcessDml#statefulOrderByPK()}. */
   public static class StatefulProcessDml
       extends PTransform<PCollection<KV<String, DmlInfo>>, PCollection<KV<String, DmlInfo>>> {
 
+    private Duration coalesceWindow = Duration.ZERO;
+    private int coalesceMaxEvents = Integer.MAX_VALUE;
+
     public StatefulProcessDml() {}
 
+    /**
+     * Coalesce the events of each primary key for the given duration before they are applied. Only
+     * the latest event of a key is applied, so an insert, updates and a delete of a row within the
+     * window produce one DML statement. A zero duration, the default, applies every event.
+     */
+    public StatefulProcessDml withCoalesceWindow(Duration coalesceWindow) {
+      this.coalesceWindow = coalesceWindow;
+      return this;
+    }
+
+    /**
+     * Apply the latest event of a primary key once this many events of the key were coalesced, even
+     * if the coalesce window has not ended. Only used with {@link #withCoalesceWindow(Duration)}.
+     */
+    public StatefulProcessDml withCoalesceMaxEvents(int coalesceMaxEvents) {
+      this.coalesceMaxEvents = coalesceMaxEvents;
+      return this;
+    }
+
     @Override
     public PCollection<KV<String, DmlInfo>> expand(PCollection<KV<String, DmlInfo>> input) {
+      DoFn<KV<String, DmlInfo>, KV<String, DmlInfo>> processDmlFn =
+          coalesceWindow.isLongerThan(Duration.ZERO)
+              ? new CoalescingProcessDmlFn(coalesceWindow, coalesceMaxEvents)
+              : new StatefulProcessDmlFn();
       return input
-          .apply(ParDo.of(new StatefulProcessDmlFn()))
+          .apply(ParDo.of(processDmlFn))
           .apply(
               "Creating " + WINDOW_DURATION + " Window",
               Window.into(FixedWindows.of(DurationUtils.parseDuration(WINDOW_DURATION))))
@@ -99,23 +147,121 @@ public class ProcessDml {
         return;
       }
 
-      // TODO(dhercher): More complex compare w/o String.join
-      String lastSortKey = myState.read();
-      String currentSortKey = dmlInfo.getOrderByValueString();
-
       // If there is no PK then state can be skipped
-      String numThreads = Integer.toString(Math.abs(stateKey.hashCode()) % NUM_THREADS);
+      String numThreads = getThreadKey(stateKey);
       if (dmlInfo.getAllPkFields().size() == 0) {
         context.output(KV.of(numThreads, dmlInfo));
-        // FIX: Changed '> 0' to '>= 0' to allow DLQ retries to pass through
-      } else if (lastSortKey == null
-          || currentSortKey.compareTo(lastSortKey) > 0
-          || (currentSortKey.compareTo(lastSortKey) >= 0 && isDLQEvent(dmlInfo))) {
-        myState.write(currentSortKey);
+      } else if (isNewerEvent(dmlInfo, myState.read())) {
+        myState.write(dmlInfo.getOrderByValueString());
         context.output(KV.of(numThreads, dmlInfo));
 
         distribution.update(0);
       }
     }
   }
+
+  /**
+   * The {@code CoalescingProcessDmlFn} class filters events like {@link StatefulProcessDmlFn}, and
+   * holds the latest event of every primary key for a coalesce window before it is applied.
+   *
+   * <p>An event replaces the held event of its key only if its sort keys are newer, so the applied
+   * event is the latest state of the row. The held event is released when the window ends, or when
+   * {@code maxEvents} events of the key were coalesced. Events without primary keys are not held.
+   */
+  public static class CoalescingProcessDmlFn
+      extends DoFn<KV<String, DmlInfo>, KV<String, DmlInfo>> {
+
+    private static final String PK_STATE_ID = "pk-state-id";
+    private static final String PENDING_STATE_ID = "pending-dml";
+    private static final String PENDING_COUNT_STATE_ID = "pending-count";
+    private static final String FLUSH_TIMER_ID = "flush";
+
+    private static final Counter COALESCED_EVENTS =
+        Metrics.counter(CoalescingProcessDmlFn.class, "coalescedDmlEvents");
+    private static final Distribution EVENTS_PER_FLUSH =
+        Metrics.distribution(CoalescingProcessDmlFn.class, "coalescedDmlEventsPerFlush");
+
+    private final Duration coalesceWindow;
+    private final int maxEvents;
+
+    @StateId(PK_STATE_ID)
+    private final StateSpec<ValueState<String>> sortKeySpec =
+        StateSpecs.value(StringUtf8Coder.of());
+
+    @StateId(PENDING_STATE_ID)
+    private final StateSpec<ValueState<DmlInfo>> pendingSpec =
+        StateSpecs.value(SerializableCoder.of(DmlInfo.class));
+
+    @StateId(PENDING_COUNT_STATE_ID)
+    private final StateSpec<ValueState<Integer>> pendingCountSpec =
+        StateSpecs.value(VarIntCoder.of());
+
+    @TimerId(FLUSH_TIMER_ID)
+    private final TimerSpec flushSpec = TimerSpecs.timer(TimeDomain.PROCESSING_TIME);
+
+    public CoalescingProcessDmlFn(Duration coalesceWindow, int maxEvents) {
+      this.coalesceWindow = coalesceWindow;
+      this.maxEvents = maxEvents;
+    }
+
+    @ProcessElement
+    public void processElement(
+        ProcessContext context,
+        @StateId(PK_STATE_ID) ValueState<String> sortKey,
+        @StateId(PENDING_STATE_ID) ValueState<DmlInfo> pending,
+        @StateId(PENDING_COUNT_STATE_ID) ValueState<Integer> pendingCount,
+        @TimerId(FLUSH_TIMER_ID) Timer flush) {
+      String stateKey = context.element().getKey();
+      DmlInfo dmlInfo = context.element().getValue();
+      // Empty SQL suggests the table DNE and should be skipped
+      if (dmlInfo.getDmlSql().equals("")) {
+        return;
+      }
+      if (dmlInfo.getAllPkFields().size() == 0) {
+        context.output(KV.of(getThreadKey(stateKey), dmlInfo));
+        return;
+      }
+      if (!isNewerEvent(dmlInfo, sortKey.read())) {
+        return;
+      }
+      sortKey.write(dmlInfo.getOrderByValueString());
+
+      Integer count = pendingCount.read();
+      int newCount = (count == null ? 0 : count) + 1;
+      if (newCount >= maxEvents) {
+        EVENTS_PER_FLUSH.update(newCount);
+        COALESCED_EVENTS.inc(newCount - 1);
+        pending.clear();
+        pendingCount.clear();
+        // Nothing is held anymore, drop the flush timer and its watermark hold.
+        flush.clear();
+        context.output(KV.of(getThreadKey(stateKey), dmlInfo));
+        return;
+      }
+      if (newCount == 1) {
+        // Hold the watermark at the first held event, so the released event is not late.
+        flush.withOutputTimestamp(context.timestamp()).offset(coalesceWindow).setRelative();
+      }
+      pending.write(dmlInfo);
+      pendingCount.write(newCount);
+    }
+
+    @OnTimer(FLUSH_TIMER_ID)
+    public void onFlush(
+        OnTimerContext context,
+        @Key String stateKey,
+        @StateId(PENDING_STATE_ID) ValueState<DmlInfo> pending,
+        @StateId(PENDING_COUNT_STATE_ID) ValueState<Integer> pendingCount) {
+      DmlInfo dmlInfo = pending.read();
+      Integer count = pendingCount.read();
+      pending.clear();
+      pendingCount.clear();
+      if (dmlInfo == null) {
+        return;
+      }
+      EVENTS_PER_FLUSH.update(count);
+      COALESCED_EVENTS.inc(count - 1);
+      context.output(KV.of(getThreadKey(stateKey), dmlInfo));
+    }
+  }
 }
@@ -216,7 +216,8 @@ public abstract class DatastreamToDML
     if (tableCache == null) {
       tableCache =
           new JdbcTableCache(this.getDataSource())
-              .withCacheResetTimeUnitValue(this.schemaCacheRefreshMinutes);
+              .withCacheResetTimeUnitValue(this.schemaCacheRefreshMinutes)
+              .withRefreshAhead(true);
     }
   }
 
@@ -224,7 +225,8 @@ public abstract class DatastreamToDML
     if (primaryKeyCache == null) {
       primaryKeyCache =
           new JdbcPrimaryKeyCache(this.getDataSource())
-              .withCacheResetTimeUnitValue(this.schemaCacheRefreshMinutes);
+              .withCacheResetTimeUnitValue(this.schemaCacheRefreshMinutes)
+              .withRefreshAhead(true);
     }
   }
 
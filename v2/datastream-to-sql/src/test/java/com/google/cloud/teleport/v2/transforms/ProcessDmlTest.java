@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.transforms;
+
+import com.google.cloud.teleport.v2.datastream.values.DmlInfo;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.SerializableCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.testing.TestStream;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.Values;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.joda.time.Duration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ProcessDml}. */
+@RunWith(JUnit4.class)
+public class ProcessDmlTest {
+
+  @Rule public final transient TestPipeline pipeline = TestPipeline.create();
+
+  private static DmlInfo dmlInfo(String id, String sql, String sortValue) {
+    return DmlInfo.of(
+        "{}",
+        sql,
+        "public",
+        "users",
+        Collections.singletonList("id"),
+        Collections.singletonList("_metadata_timestamp"),
+        Collections.singletonList(id),
+        Collections.singletonList(sortValue),
+        "{}");
+  }
+
+  private static TestStream.Builder<KV<String, DmlInfo>> createStream() {
+    return TestStream.create(KvCoder.of(StringUtf8Coder.of(), SerializableCoder.of(DmlInfo.class)));
+  }
+
+  @Test
+  public void testCoalescingProcessDmlFn_appliesTheLatestEventOfAKey() {
+    DmlInfo insert = dmlInfo("1", "INSERT 1", "1");
+    DmlInfo update = dmlInfo("1", "UPDATE 1", "3");
+    DmlInfo staleUpdate = dmlInfo("1", "STALE UPDATE 1", "2");
+    DmlInfo otherRow = dmlInfo("2", "INSERT 2", "1");
+    TestStream<KV<String, DmlInfo>> events =
+        createStream()
+            .addElements(
+                KV.of(insert.getStateWindowKey(), insert),
+                KV.of(update.getStateWindowKey(), update),
+                KV.of(staleUpdate.getStateWindowKey(), staleUpdate),
+                KV.of(otherRow.getStateWindowKey(), otherRow))
+            .advanceProcessingTime(Duration.standardSeconds(10))
+            .advanceWatermarkToInfinity();
+
+    PCollection<DmlInfo> applied =
+        pipeline
+            .apply(events)
+            .apply(
+                ParDo.of(new ProcessDml.CoalescingProcessDmlFn(Duration.standardSeconds(5), 100)))
+            .apply(Values.create());
+
+    PAssert.that(applied).containsInAnyOrder(update, otherRow);
+    pipeline.run();
+  }
+
+  @Test
+  public void testCoalescingProcessDmlFn_appliesAfterMaxEvents() {
+    DmlInfo first = dmlInfo("1", "INSERT 1", "1");
+    DmlInfo second = dmlInfo("1", "UPDATE 1", "2");
+    DmlInfo third = dmlInfo("1", "DELETE 1", "3");
+    TestStream<KV<String, DmlInfo>> events =
+        createStream()
+            .addElements(KV.of(first.getStateWindowKey(), first))
+            .addElements(KV.of(second.getStateWindowKey(), second))
+            .addElements(KV.of(third.getStateWindowKey(), third))
+            .advanceProcessingTime(Duration.standardSeconds(10))
+            .advanceWatermarkToInfinity();
+
+    PCollection<DmlInfo> applied =
+        pipeline
+            .apply(events)
+            .apply(ParDo.of(new ProcessDml.CoalescingProcessDmlFn(Duration.standardSeconds(5), 2)))
+            .apply(Values.create());
+
+    PAssert.that(applied).containsInAnyOrder(Arrays.asList(second, third));
+    pipeline.run();
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.constants;
 
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
+import com.google.cloud.teleport.v2.dto.RangeDigest;
 import org.apache.beam.sdk.values.TupleTag;
 
 public class GCSSpannerDVConstants {
@@ -27,6 +28,8 @@ public class GCSSpannerDVConstants {
       new TupleTag<ComparisonRecord>() {};
   public static final TupleTag<ComparisonRecord> MISSING_IN_SOURCE_TAG =
       new TupleTag<ComparisonRecord>() {};
+  public static final TupleTag<RangeDigest> SOURCE_DIGEST_TAG = new TupleTag<RangeDigest>() {};
+  public static final TupleTag<RangeDigest> SPANNER_DIGEST_TAG = new TupleTag<RangeDigest>() {};
 
   public static final String TABLE_NAME_COLUMN = "__tableName__";
 }
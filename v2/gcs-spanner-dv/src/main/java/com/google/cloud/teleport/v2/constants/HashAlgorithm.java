@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.constants;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * The hash functions which can compute the row hashes of the data validation.
+ *
+ * <p>The source and Spanner rows must be hashed with the same function. Row hashes are only
+ * compared within a validation run, so the function can be changed between runs.
+ */
+public enum HashAlgorithm {
+  /** Murmur3 128-bit: fast, and collision resistant enough for trillions of rows. */
+  MURMUR3_128(Hashing.murmur3_128()),
+  /** FarmHash Fingerprint64: the fastest, but with 64 bits, for tables below a billion rows. */
+  FARMHASH_FINGERPRINT64(Hashing.farmHashFingerprint64()),
+  /** SHA-256: cryptographic, for validations which must resist crafted collisions. */
+  SHA256(Hashing.sha256());
+
+  private final HashFunction hashFunction;
+
+  HashAlgorithm(HashFunction hashFunction) {
+    this.hashFunction = hashFunction;
+  }
+
+  public HashFunction hashFunction() {
+    return hashFunction;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.dofn;
+
+import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SOURCE_DIGEST_TAG;
+import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SPANNER_DIGEST_TAG;
+
+import com.google.cloud.teleport.v2.dto.RangeDigest;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.join.CoGbkResult;
+import org.apache.beam.sdk.values.KV;
+
+/**
+ * A {@link DoFn} that compares the source and Spanner {@link RangeDigest}s of a primary key range,
+ * and outputs the key of the range if they differ or if the range exists on one side only.
+ */
+public class FindMismatchedRangesFn extends DoFn<KV<String, CoGbkResult>, KV<String, Boolean>> {
+
+  private final Counter matchedRanges =
+      Metrics.counter(FindMismatchedRangesFn.class, "matchedRanges");
+  private final Counter mismatchedRanges =
+      Metrics.counter(FindMismatchedRangesFn.class, "mismatchedRanges");
+
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    CoGbkResult result = c.element().getValue();
+    RangeDigest sourceDigest = result.getOnly(SOURCE_DIGEST_TAG, null);
+    RangeDigest spannerDigest = result.getOnly(SPANNER_DIGEST_TAG, null);
+
+    if (sourceDigest != null && sourceDigest.equals(spannerDigest)) {
+      matchedRanges.inc();
+      return;
+    }
+    mismatchedRanges.inc();
+    c.output(KV.of(c.element().getKey(), true));
+  }
+}
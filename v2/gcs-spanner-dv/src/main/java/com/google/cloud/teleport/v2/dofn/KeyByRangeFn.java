@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.dofn;
+
+import com.google.cloud.teleport.v2.dto.Column;
+import com.google.cloud.teleport.v2.dto.ComparisonRecord;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+
+/**
+ * A {@link DoFn} that keys the hash of a {@link ComparisonRecord} by its primary key range.
+ *
+ * <p>The primary key values of a record are hashed into one of {@code rangeCount} ranges of its
+ * table, so a row falls in the same range on the source and on Spanner. Records without primary key
+ * columns are placed by their row hash.
+ */
+public class KeyByRangeFn extends DoFn<ComparisonRecord, KV<String, String>> {
+
+  private final int rangeCount;
+
+  public KeyByRangeFn(int rangeCount) {
+    this.rangeCount = rangeCount;
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    ComparisonRecord record = c.element();
+    c.output(KV.of(rangeKey(record, rangeCount), record.getHash()));
+  }
+
+  /** Returns the key of the primary key range of the record, such as {@code Singers#42}. */
+  public static String rangeKey(ComparisonRecord record, int rangeCount) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    if (record.getPrimaryKeyColumns().isEmpty()) {
+      hasher.putString(record.getHash(), StandardCharsets.UTF_8);
+    }
+    for (Column column : record.getPrimaryKeyColumns()) {
+      hasher.putString(column.getColName(), StandardCharsets.UTF_8);
+      hasher.putString(String.valueOf(column.getColValue()), StandardCharsets.UTF_8);
+    }
+    int range = Math.floorMod(hasher.hash().asLong(), rangeCount);
+    return record.getTableName() + "#" + range;
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.dofn;
 
 import com.google.cloud.spanner.Struct;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import com.google.cloud.teleport.v2.mapper.ComparisonRecordMapper;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
@@ -29,13 +30,22 @@ public class SpannerHashFn extends DoFn<Struct, ComparisonRecord> {
 
   private final PCollectionView<Ddl> ddlView;
   private final SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider;
+  private final HashAlgorithm hashAlgorithm;
 
   private transient ComparisonRecordMapper comparisonRecordMapper;
 
   public SpannerHashFn(
       PCollectionView<Ddl> ddlView, SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider) {
+    this(ddlView, schemaMapperProvider, HashAlgorithm.MURMUR3_128);
+  }
+
+  public SpannerHashFn(
+      PCollectionView<Ddl> ddlView,
+      SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider,
+      HashAlgorithm hashAlgorithm) {
     this.ddlView = ddlView;
     this.schemaMapperProvider = schemaMapperProvider;
+    this.hashAlgorithm = hashAlgorithm;
   }
 
   @ProcessElement
@@ -44,7 +54,7 @@ public class SpannerHashFn extends DoFn<Struct, ComparisonRecord> {
     // lazy initialization of the mapper.
     if (comparisonRecordMapper == null) {
       comparisonRecordMapper =
-          new ComparisonRecordMapper(schemaMapperProvider.apply(ddl), null, ddl);
+          new ComparisonRecordMapper(schemaMapperProvider.apply(ddl), null, ddl, hashAlgorithm);
     }
 
     ComparisonRecord comparisonRecord =
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.dofn;
+
+import com.google.cloud.teleport.v2.dto.ComparisonRecord;
+import java.util.Map;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+
+/**
+ * A {@link DoFn} that routes the {@link ComparisonRecord}s of mismatched primary key ranges to
+ * row-level comparison, and the records of matched ranges to {@code matchedTag}.
+ *
+ * <p>With a null {@code matchedTag}, the records of matched ranges are dropped. This is used for
+ * the Spanner side, since matched rows are reported once, from the source side.
+ */
+public class SplitByRangeFn extends DoFn<ComparisonRecord, ComparisonRecord> {
+
+  private final PCollectionView<Map<String, Boolean>> mismatchedRangesView;
+  private final int rangeCount;
+  private final TupleTag<ComparisonRecord> matchedTag;
+
+  public SplitByRangeFn(
+      PCollectionView<Map<String, Boolean>> mismatchedRangesView,
+      int rangeCount,
+      TupleTag<ComparisonRecord> matchedTag) {
+    this.mismatchedRangesView = mismatchedRangesView;
+    this.rangeCount = rangeCount;
+    this.matchedTag = matchedTag;
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    ComparisonRecord record = c.element();
+    Map<String, Boolean> mismatchedRanges = c.sideInput(mismatchedRangesView);
+    if (mismatchedRanges.containsKey(KeyByRangeFn.rangeKey(record, rangeCount))) {
+      c.output(record);
+    } else if (matchedTag != null) {
+      c.output(matchedTag, record);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.dto;
+
+import com.google.auto.value.AutoValue;
+import org.apache.beam.sdk.schemas.AutoValueSchema;
+import org.apache.beam.sdk.schemas.annotations.DefaultSchema;
+
+/**
+ * Digest of the row hashes of a primary key range: the number of rows and the sums of the two
+ * halves of their 128-bit hashes. The sums do not depend on the order in which rows are added, so
+ * both sides of a range have equal digests when they hold the same rows.
+ */
+@AutoValue
+@DefaultSchema(AutoValueSchema.class)
+public abstract class RangeDigest {
+
+  public abstract Long getRowCount();
+
+  public abstract Long getHashSumHigh();
+
+  public abstract Long getHashSumLow();
+
+  public static Builder builder() {
+    return new AutoValue_RangeDigest.Builder();
+  }
+
+  @AutoValue.Builder
+  public abstract static class Builder {
+
+    public abstract Builder setRowCount(Long rowCount);
+
+    public abstract Builder setHashSumHigh(Long hashSumHigh);
+
+    public abstract Builder setHashSumLow(Long hashSumLow);
+
+    public abstract RangeDigest build();
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.dto;
+
+import java.io.Serializable;
+
+/** Accumulator for the {@link RangeDigest} of a primary key range. */
+public class RangeDigestAccumulator implements Serializable {
+  public long rowCount = 0;
+  public long hashSumHigh = 0;
+  public long hashSumLow = 0;
+}
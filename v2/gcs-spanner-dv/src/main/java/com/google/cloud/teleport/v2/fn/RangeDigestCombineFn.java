@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.fn;
+
+import com.google.cloud.teleport.v2.dto.RangeDigest;
+import com.google.cloud.teleport.v2.dto.RangeDigestAccumulator;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.apache.beam.sdk.transforms.Combine;
+
+/**
+ * A {@link Combine.CombineFn} that aggregates the hashes of the records of a primary key range into
+ * a {@link RangeDigest}.
+ *
+ * <p>Every record hash is hashed again with Murmur3 128-bit, and the two 64-bit halves are summed
+ * separately. Sums are associative and commutative, so the digest can be combined on each worker
+ * before the shuffle, and duplicates of a row change the digest.
+ */
+public class RangeDigestCombineFn
+    extends Combine.CombineFn<String, RangeDigestAccumulator, RangeDigest> {
+
+  @Override
+  public RangeDigestAccumulator createAccumulator() {
+    return new RangeDigestAccumulator();
+  }
+
+  @Override
+  public RangeDigestAccumulator addInput(RangeDigestAccumulator accumulator, String hash) {
+    HashCode hashCode = Hashing.murmur3_128().hashString(hash, StandardCharsets.UTF_8);
+    ByteBuffer bytes = ByteBuffer.wrap(hashCode.asBytes());
+    accumulator.rowCount++;
+    accumulator.hashSumHigh += bytes.getLong();
+    accumulator.hashSumLow += bytes.getLong();
+    return accumulator;
+  }
+
+  @Override
+  public RangeDigestAccumulator mergeAccumulators(Iterable<RangeDigestAccumulator> accumulators) {
+    RangeDigestAccumulator merged = new RangeDigestAccumulator();
+    for (RangeDigestAccumulator acc : accumulators) {
+      merged.rowCount += acc.rowCount;
+      merged.hashSumHigh += acc.hashSumHigh;
+      merged.hashSumLow += acc.hashSumLow;
+    }
+    return merged;
+  }
+
+  @Override
+  public RangeDigest extractOutput(RangeDigestAccumulator accumulator) {
+    return RangeDigest.builder()
+        .setRowCount(accumulator.rowCount)
+        .setHashSumHigh(accumulator.hashSumHigh)
+        .setHashSumLow(accumulator.hashSumLow)
+        .build();
+  }
+}
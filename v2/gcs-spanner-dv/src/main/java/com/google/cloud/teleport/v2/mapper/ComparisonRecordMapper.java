@@ -18,6 +18,7 @@ package com.google.cloud.teleport.v2.mapper;
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Value;
 import com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dto.Column;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
@@ -27,10 +28,9 @@ import com.google.cloud.teleport.v2.spanner.migrations.avro.GenericRecordTypeCon
 import com.google.cloud.teleport.v2.spanner.migrations.schema.ISchemaMapper;
 import com.google.cloud.teleport.v2.spanner.utils.ISpannerMigrationTransformer;
 import com.google.cloud.teleport.v2.visitor.IUnifiedVisitor;
+import com.google.cloud.teleport.v2.visitor.RowHashBuffer;
 import com.google.cloud.teleport.v2.visitor.UnifiedHasherVisitor;
 import com.google.cloud.teleport.v2.visitor.UnifiedStringVisitor;
-import com.google.common.hash.Hasher;
-import com.google.common.hash.Hashing;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -51,12 +51,26 @@ public class ComparisonRecordMapper implements Serializable {
   private final ISchemaMapper schemaMapper;
   private final ISpannerMigrationTransformer transformer;
   private final Ddl ddl;
+  private final HashAlgorithm hashAlgorithm;
+
+  // Reused for all the rows of the mapper, which is used by a single DoFn thread.
+  private transient RowHashBuffer rowHashBuffer;
+  private transient UnifiedHasherVisitor hasherVisitor;
 
   public ComparisonRecordMapper(
       ISchemaMapper schemaMapper, ISpannerMigrationTransformer transformer, Ddl ddl) {
+    this(schemaMapper, transformer, ddl, HashAlgorithm.MURMUR3_128);
+  }
+
+  public ComparisonRecordMapper(
+      ISchemaMapper schemaMapper,
+      ISpannerMigrationTransformer transformer,
+      Ddl ddl,
+      HashAlgorithm hashAlgorithm) {
     this.schemaMapper = schemaMapper;
     this.transformer = transformer;
     this.ddl = ddl;
+    this.hashAlgorithm = hashAlgorithm;
   }
 
   public ComparisonRecord mapFrom(GenericRecord avroRecord) {
@@ -120,17 +134,25 @@ public class ComparisonRecordMapper implements Serializable {
    * different hash from a boolean {@code true}, enhancing collision resistance.
    *
    * <p><b>3. Murmur3 128-bit Hash:</b><br>
-   * We use Murmur3 128-bit hashing. The 128-bit has a one in a quadrillion probability of collision
-   * in a dataset of size 2.6 trillion. This provides scale assurance for most practical workloads.
-   * 128 bit is also small enough for Dataflow's shuffle and GBK operations to be highly efficient
-   * on.
+   * We use Murmur3 128-bit hashing by default. The 128-bit has a one in a quadrillion probability
+   * of collision in a dataset of size 2.6 trillion. This provides scale assurance for most
+   * practical workloads. 128 bit is also small enough for Dataflow's shuffle and GBK operations to
+   * be highly efficient on. Another {@link HashAlgorithm} can be selected when the mapper is
+   * created.
+   *
+   * <p><b>4. Buffered Hashing:</b><br>
+   * The bytes of the row are collected in a {@link RowHashBuffer} which is reused across rows, and
+   * hashed in a single call of the hash function.
    */
   private ComparisonRecord buildRecord(
       String tableName, TreeMap<String, Value> data, List<String> pkNames) {
 
     // 1. Use the record data to compute the hash
-    Hasher hasher = Hashing.murmur3_128().newHasher();
-    UnifiedHasherVisitor hasherVisitor = new UnifiedHasherVisitor(hasher);
+    if (rowHashBuffer == null) {
+      rowHashBuffer = new RowHashBuffer();
+      hasherVisitor = new UnifiedHasherVisitor(rowHashBuffer);
+    }
+    RowHashBuffer hasher = rowHashBuffer.reset();
     for (Map.Entry<String, Value> entry : data.entrySet()) {
       // Hash the columnNames
       hasher.putString(entry.getKey(), StandardCharsets.UTF_8);
@@ -139,7 +161,7 @@ public class ComparisonRecordMapper implements Serializable {
     }
     // Add the tableName to the hasher at the end
     hasher.putString(tableName, StandardCharsets.UTF_8);
-    String hash = hasher.hash().toString();
+    String hash = hasher.hash(hashAlgorithm.hashFunction()).toString();
 
     // 2. Use the pk column names to form the full primary keys from the record data
     UnifiedStringVisitor stringVisitor = new UnifiedStringVisitor();
@@ -22,7 +22,9 @@ import com.google.cloud.spanner.Options.RpcPriority;
 import com.google.cloud.teleport.metadata.Template;
 import com.google.cloud.teleport.metadata.TemplateCategory;
 import com.google.cloud.teleport.metadata.TemplateParameter;
+import com.google.cloud.teleport.metadata.TemplateParameter.TemplateEnumOption;
 import com.google.cloud.teleport.v2.common.UncaughtExceptionLogger;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import com.google.cloud.teleport.v2.fn.SchemaMapperProviderFn;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
@@ -212,6 +214,37 @@ public class GCSSpannerDV {
     String getRunId();
 
     void setRunId(String value);
+
+    @TemplateParameter.Integer(
+        order = 13,
+        optional = true,
+        description = "Number of primary key ranges per table",
+        helpText =
+            "When positive, the rows of each table are split into this many primary key ranges and"
+                + " only the rows of the ranges whose digests differ between the source and Spanner"
+                + " are compared row by row. Defaults to 0, which compares all rows row by row.")
+    @Default.Integer(0)
+    Integer getComparisonRangeCount();
+
+    void setComparisonRangeCount(Integer value);
+
+    @TemplateParameter.Enum(
+        order = 14,
+        enumOptions = {
+          @TemplateEnumOption("MURMUR3_128"),
+          @TemplateEnumOption("FARMHASH_FINGERPRINT64"),
+          @TemplateEnumOption("SHA256")
+        },
+        optional = true,
+        description = "Row hash algorithm",
+        helpText =
+            "The hash function which computes the row hashes of the source and Spanner rows."
+                + " `FARMHASH_FINGERPRINT64` is the fastest but only has 64 bits, `SHA256` is"
+                + " cryptographic. Defaults to `MURMUR3_128`.")
+    @Default.Enum("MURMUR3_128")
+    HashAlgorithm getHashAlgorithm();
+
+    void setHashAlgorithm(HashAlgorithm value);
   }
 
   public static void main(String[] args) {
@@ -246,19 +279,24 @@ public class GCSSpannerDV {
         pipeline.apply(
             "ReadSourceRecords",
             new SourceReaderTransform(
-                options.getGcsInputDirectory(), ddlView, schemaMapperProvider));
+                options.getGcsInputDirectory(),
+                ddlView,
+                schemaMapperProvider,
+                options.getHashAlgorithm()));
 
     // Get Spanner records hashes
     PCollection<ComparisonRecord> spannerRecords =
         pipeline.apply(
             "ReadSpannerRecords",
-            new SpannerReaderTransform(spannerConfig, ddlView, schemaMapperProvider));
+            new SpannerReaderTransform(
+                spannerConfig, ddlView, schemaMapperProvider, options.getHashAlgorithm()));
 
     PCollectionTuple inputs =
         PCollectionTuple.of(SOURCE_TAG, sourceRecords).and(SPANNER_TAG, spannerRecords);
 
     // Match records to determine equivalence
-    PCollectionTuple matchResults = inputs.apply("MatchRecords", new MatchRecordsTransform());
+    PCollectionTuple matchResults =
+        inputs.apply("MatchRecords", new MatchRecordsTransform(options.getComparisonRangeCount()));
 
     // Report results of the validation
     Instant startTimestamp = Instant.now();
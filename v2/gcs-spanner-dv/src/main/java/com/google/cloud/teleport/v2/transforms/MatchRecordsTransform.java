@@ -18,50 +18,146 @@ package com.google.cloud.teleport.v2.transforms;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.MATCHED_TAG;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.MISSING_IN_SOURCE_TAG;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.MISSING_IN_SPANNER_TAG;
+import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SOURCE_DIGEST_TAG;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SOURCE_TAG;
+import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SPANNER_DIGEST_TAG;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SPANNER_TAG;
 
+import com.google.cloud.teleport.v2.dofn.FindMismatchedRangesFn;
 import com.google.cloud.teleport.v2.dofn.FunnelComparedRecordsFn;
+import com.google.cloud.teleport.v2.dofn.KeyByRangeFn;
+import com.google.cloud.teleport.v2.dofn.SplitByRangeFn;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
+import com.google.cloud.teleport.v2.dto.RangeDigest;
+import com.google.cloud.teleport.v2.fn.RangeDigestCombineFn;
+import java.util.Map;
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
+import org.apache.beam.sdk.schemas.NoSuchSchemaException;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.View;
 import org.apache.beam.sdk.transforms.WithKeys;
 import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.transforms.join.CoGroupByKey;
 import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
 import org.apache.beam.sdk.values.TupleTagList;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * A {@link PTransform} that matches the source and Spanner {@link ComparisonRecord}s by their hash.
+ *
+ * <p>By default, every record is keyed by its hash and both sides are joined with a {@link
+ * CoGroupByKey}. With a positive {@code rangeCount}, the records of each table are first split into
+ * {@code rangeCount} primary key ranges, and only digests of the ranges are shuffled and compared.
+ * The records of the ranges whose digests match are reported as matched without being shuffled, and
+ * only the records of mismatched ranges are joined row by row. The row-level shuffle is then
+ * proportional to the differences rather than to the table size.
+ */
 public class MatchRecordsTransform
     extends PTransform<@NotNull PCollectionTuple, @NotNull PCollectionTuple> {
 
+  private final int rangeCount;
+
+  public MatchRecordsTransform() {
+    this(0);
+  }
+
+  public MatchRecordsTransform(int rangeCount) {
+    this.rangeCount = rangeCount;
+  }
+
   @Override
   public @NotNull PCollectionTuple expand(PCollectionTuple input) {
     PCollection<ComparisonRecord> sourceRecords = input.get(SOURCE_TAG);
     PCollection<ComparisonRecord> spannerRecords = input.get(SPANNER_TAG);
+    if (rangeCount <= 0) {
+      return matchRows("", sourceRecords, spannerRecords);
+    }
+
+    PCollectionView<Map<String, Boolean>> mismatchedRanges =
+        KeyedPCollectionTuple.of(SOURCE_DIGEST_TAG, digestRanges("Source", sourceRecords))
+            .and(SPANNER_DIGEST_TAG, digestRanges("Spanner", spannerRecords))
+            .apply("CoGroupRangeDigests", CoGroupByKey.create())
+            .apply("FindMismatchedRanges", ParDo.of(new FindMismatchedRangesFn()))
+            .apply("ViewMismatchedRanges", View.asMap());
+
+    TupleTag<ComparisonRecord> drillDownTag = new TupleTag<ComparisonRecord>() {};
+    PCollectionTuple splitSource =
+        sourceRecords.apply(
+            "SplitSourceByRange",
+            ParDo.of(new SplitByRangeFn(mismatchedRanges, rangeCount, MATCHED_TAG))
+                .withSideInputs(mismatchedRanges)
+                .withOutputTags(drillDownTag, TupleTagList.of(MATCHED_TAG)));
+    PCollection<ComparisonRecord> drillDownSource =
+        splitSource.get(drillDownTag).setCoder(sourceRecords.getCoder());
+    PCollection<ComparisonRecord> drillDownSpanner =
+        spannerRecords
+            .apply(
+                "SplitSpannerByRange",
+                ParDo.of(new SplitByRangeFn(mismatchedRanges, rangeCount, null))
+                    .withSideInputs(mismatchedRanges))
+            .setCoder(spannerRecords.getCoder());
+
+    PCollectionTuple rowResults = matchRows("DrillDown", drillDownSource, drillDownSpanner);
+    PCollection<ComparisonRecord> matched =
+        PCollectionList.of(splitSource.get(MATCHED_TAG).setCoder(sourceRecords.getCoder()))
+            .and(rowResults.get(MATCHED_TAG))
+            .apply("FlattenMatched", Flatten.pCollections());
+    return PCollectionTuple.of(MATCHED_TAG, matched)
+        .and(MISSING_IN_SPANNER_TAG, rowResults.get(MISSING_IN_SPANNER_TAG))
+        .and(MISSING_IN_SOURCE_TAG, rowResults.get(MISSING_IN_SOURCE_TAG));
+  }
+
+  private PCollection<KV<String, RangeDigest>> digestRanges(
+      String side, PCollection<ComparisonRecord> records) {
+    Coder<RangeDigest> rangeDigestCoder;
+    try {
+      rangeDigestCoder =
+          records.getPipeline().getSchemaRegistry().getSchemaCoder(RangeDigest.class);
+    } catch (NoSuchSchemaException e) {
+      throw new RuntimeException("Unable to retrieve SchemaCoder for RangeDigest", e);
+    }
+    return records
+        .apply("Key" + side + "ByRange", ParDo.of(new KeyByRangeFn(rangeCount)))
+        .setCoder(KvCoder.of(StringUtf8Coder.of(), StringUtf8Coder.of()))
+        .apply("Digest" + side + "Ranges", Combine.perKey(new RangeDigestCombineFn()))
+        .setCoder(KvCoder.of(StringUtf8Coder.of(), rangeDigestCoder));
+  }
+
+  private PCollectionTuple matchRows(
+      String prefix,
+      PCollection<ComparisonRecord> sourceRecords,
+      PCollection<ComparisonRecord> spannerRecords) {
+    Coder<ComparisonRecord> sourceCoder = sourceRecords.getCoder();
+    Coder<ComparisonRecord> spannerCoder = spannerRecords.getCoder();
 
     PCollection<KV<String, ComparisonRecord>> sourceRecordsKv =
         sourceRecords
-            .apply("MapSourceToKv", WithKeys.of(ComparisonRecord::getHash))
-            .setCoder(KvCoder.of(StringUtf8Coder.of(), sourceRecords.getCoder()));
+            .apply(prefix + "MapSourceToKv", WithKeys.of(ComparisonRecord::getHash))
+            .setCoder(KvCoder.of(StringUtf8Coder.of(), sourceCoder));
 
     PCollection<KV<String, ComparisonRecord>> spannerRecordsKv =
         spannerRecords
-            .apply("MapSpannerToKv", WithKeys.of(ComparisonRecord::getHash))
-            .setCoder(KvCoder.of(StringUtf8Coder.of(), spannerRecords.getCoder()));
+            .apply(prefix + "MapSpannerToKv", WithKeys.of(ComparisonRecord::getHash))
+            .setCoder(KvCoder.of(StringUtf8Coder.of(), spannerCoder));
 
     PCollection<KV<String, CoGbkResult>> coGbkResult =
         KeyedPCollectionTuple.of(SOURCE_TAG, sourceRecordsKv)
             .and(SPANNER_TAG, spannerRecordsKv)
-            .apply("CoGroupByKey", CoGroupByKey.create());
+            .apply(prefix + "CoGroupByKey", CoGroupByKey.create());
 
     return coGbkResult.apply(
-        "CompareRecords",
+        prefix + "CompareRecords",
         ParDo.of(new FunnelComparedRecordsFn())
             .withOutputTags(
                 MATCHED_TAG, TupleTagList.of(MISSING_IN_SPANNER_TAG).and(MISSING_IN_SOURCE_TAG)));
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.transforms;
 
 import com.google.cloud.teleport.v2.coders.GenericRecordCoder;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dofn.SourceHashFn;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import com.google.cloud.teleport.v2.fn.IdentityGenericRecordFn;
@@ -36,14 +37,24 @@ public class SourceReaderTransform
   private final String gcsInputDirectory;
   private final PCollectionView<Ddl> ddlView;
   private final SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider;
+  private final HashAlgorithm hashAlgorithm;
 
   public SourceReaderTransform(
       String gcsInputDirectory,
       PCollectionView<Ddl> ddlView,
       SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider) {
+    this(gcsInputDirectory, ddlView, schemaMapperProvider, HashAlgorithm.MURMUR3_128);
+  }
+
+  public SourceReaderTransform(
+      String gcsInputDirectory,
+      PCollectionView<Ddl> ddlView,
+      SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider,
+      HashAlgorithm hashAlgorithm) {
     this.gcsInputDirectory = gcsInputDirectory;
     this.ddlView = ddlView;
     this.schemaMapperProvider = schemaMapperProvider;
+    this.hashAlgorithm = hashAlgorithm;
   }
 
   @Override
@@ -57,7 +68,8 @@ public class SourceReaderTransform
                 .withHintMatchesManyFiles())
         .apply(
             "CalculateSourceRecordsHash",
-            ParDo.of(new SourceHashFn(ddlView, schemaMapperProvider)).withSideInputs(ddlView));
+            ParDo.of(new SourceHashFn(ddlView, schemaMapperProvider, hashAlgorithm))
+                .withSideInputs(ddlView));
   }
 
   private static String createAvroFilePattern(String inputPath) {
@@ -17,6 +17,7 @@ package com.google.cloud.teleport.v2.transforms;
 
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.TimestampBound;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dofn.CreateSpannerReadOpsFn;
 import com.google.cloud.teleport.v2.dofn.SpannerHashFn;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
@@ -43,14 +44,24 @@ public class SpannerReaderTransform
 
   private final PCollectionView<Ddl> ddlView;
   private final SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider;
+  private final HashAlgorithm hashAlgorithm;
 
   public SpannerReaderTransform(
       SpannerConfig spannerConfig,
       PCollectionView<Ddl> ddlView,
       SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider) {
+    this(spannerConfig, ddlView, schemaMapperProvider, HashAlgorithm.MURMUR3_128);
+  }
+
+  public SpannerReaderTransform(
+      SpannerConfig spannerConfig,
+      PCollectionView<Ddl> ddlView,
+      SerializableFunction<Ddl, ISchemaMapper> schemaMapperProvider,
+      HashAlgorithm hashAlgorithm) {
     this.spannerConfig = spannerConfig;
     this.ddlView = ddlView;
     this.schemaMapperProvider = schemaMapperProvider;
+    this.hashAlgorithm = hashAlgorithm;
   }
 
   @Override
@@ -61,7 +72,8 @@ public class SpannerReaderTransform
         .apply("ReadSpannerRecords", readFromSpanner())
         .apply(
             "CalculateSpannerRecordsHash",
-            ParDo.of(new SpannerHashFn(ddlView, schemaMapperProvider)).withSideInputs(ddlView));
+            ParDo.of(new SpannerHashFn(ddlView, schemaMapperProvider, hashAlgorithm))
+                .withSideInputs(ddlView));
   }
 
   /**
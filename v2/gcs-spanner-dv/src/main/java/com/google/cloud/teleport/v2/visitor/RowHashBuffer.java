@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.visitor;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.PrimitiveSink;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable {@link PrimitiveSink} which collects the bytes of a row, and hashes them at once.
+ *
+ * <p>Guava {@link com.google.common.hash.Hasher}s can only compute one hash, and their streaming
+ * implementations process every {@code put} separately. The buffer is reset for every row instead,
+ * so a mapper hashes all its rows with one buffer, and the hash function processes the bytes of a
+ * row in a single call. The primitives are written in little-endian order, like {@code Hasher}s do,
+ * so {@link #hash(HashFunction)} returns the hash a {@code Hasher} would compute for the same
+ * calls. A buffer is not thread safe.
+ */
+public class RowHashBuffer implements PrimitiveSink {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int size;
+
+  /** Discards the bytes of the previous row. */
+  public RowHashBuffer reset() {
+    size = 0;
+    return this;
+  }
+
+  /** Returns the hash of the bytes written since the last {@link #reset()}. */
+  public HashCode hash(HashFunction hashFunction) {
+    return hashFunction.hashBytes(buffer, 0, size);
+  }
+
+  private void ensureCapacity(int length) {
+    if (size + length > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+    }
+  }
+
+  @Override
+  public RowHashBuffer putByte(byte b) {
+    ensureCapacity(1);
+    buffer[size++] = b;
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putBytes(byte[] bytes) {
+    return putBytes(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public RowHashBuffer putBytes(byte[] bytes, int off, int len) {
+    ensureCapacity(len);
+    System.arraycopy(bytes, off, buffer, size, len);
+    size += len;
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putBytes(ByteBuffer bytes) {
+    int len = bytes.remaining();
+    ensureCapacity(len);
+    bytes.get(buffer, size, len);
+    size += len;
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putShort(short s) {
+    ensureCapacity(2);
+    buffer[size++] = (byte) s;
+    buffer[size++] = (byte) (s >>> 8);
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putInt(int i) {
+    ensureCapacity(4);
+    for (int shift = 0; shift < 32; shift += 8) {
+      buffer[size++] = (byte) (i >>> shift);
+    }
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putLong(long l) {
+    ensureCapacity(8);
+    for (int shift = 0; shift < 64; shift += 8) {
+      buffer[size++] = (byte) (l >>> shift);
+    }
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putFloat(float f) {
+    return putInt(Float.floatToRawIntBits(f));
+  }
+
+  @Override
+  public RowHashBuffer putDouble(double d) {
+    return putLong(Double.doubleToRawLongBits(d));
+  }
+
+  @Override
+  public RowHashBuffer putBoolean(boolean b) {
+    return putByte(b ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public RowHashBuffer putChar(char c) {
+    return putShort((short) c);
+  }
+
+  @Override
+  public RowHashBuffer putUnencodedChars(CharSequence charSequence) {
+    for (int i = 0; i < charSequence.length(); i++) {
+      putChar(charSequence.charAt(i));
+    }
+    return this;
+  }
+
+  @Override
+  public RowHashBuffer putString(CharSequence charSequence, Charset charset) {
+    if (!StandardCharsets.UTF_8.equals(charset)) {
+      return putBytes(charSequence.toString().getBytes(charset));
+    }
+    // ASCII strings, such as column names, are copied without encoding them to a byte array first.
+    int length = charSequence.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      char c = charSequence.charAt(i);
+      if (c >= 0x80) {
+        size -= i;
+        return putBytes(charSequence.toString().getBytes(StandardCharsets.UTF_8));
+      }
+      buffer[size++] = (byte) c;
+    }
+    return this;
+  }
+}
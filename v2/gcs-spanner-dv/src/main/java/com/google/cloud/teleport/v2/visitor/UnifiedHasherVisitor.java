@@ -18,15 +18,18 @@ package com.google.cloud.teleport.v2.visitor;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Value;
-import com.google.common.hash.Hasher;
+import com.google.common.hash.PrimitiveSink;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 
-/** Visitor that hashes Spanner values using a provided {@link Hasher}. */
+/**
+ * Visitor that hashes Spanner values into a provided {@link PrimitiveSink}, such as a {@link
+ * com.google.common.hash.Hasher} or a {@link RowHashBuffer}.
+ */
 public class UnifiedHasherVisitor implements IUnifiedVisitor {
-  private final Hasher hasher;
+  private final PrimitiveSink hasher;
 
-  public UnifiedHasherVisitor(Hasher hasher) {
+  public UnifiedHasherVisitor(PrimitiveSink hasher) {
     this.hasher = hasher;
   }
 
@@ -82,23 +85,30 @@ public class UnifiedHasherVisitor implements IUnifiedVisitor {
 
   @Override
   public void visitDate(Date d) {
-    // Date values are encoded with a sentinel byte 1 followed by the date in yyyy-MM-dd format
+    // Date values are encoded with a sentinel byte 1 followed by the year, month and day
     markNonNull();
-    hasher.putString(IUnifiedVisitor.formatDate(d), StandardCharsets.UTF_8);
+    hasher.putInt(d.getYear());
+    hasher.putInt(d.getMonth());
+    hasher.putInt(d.getDayOfMonth());
   }
 
   @Override
   public void visitNumeric(BigDecimal n) {
-    // Numeric values are encoded with a sentinel byte 1 followed by the numeric value as a string
+    // Numeric values are encoded with a sentinel byte 1 followed by the scale and the unscaled
+    // value. Like the string representation, this distinguishes 1.0 from 1.00.
     markNonNull();
-    hasher.putString(n.toString(), StandardCharsets.UTF_8);
+    hasher.putInt(n.scale());
+    byte[] unscaled = n.unscaledValue().toByteArray();
+    hasher.putInt(unscaled.length);
+    hasher.putBytes(unscaled);
   }
 
   @Override
   public void visitTimestamp(Timestamp t) {
-    // Timestamp values are encoded with a sentinel byte 1 followed by the timestamp as a string
+    // Timestamp values are encoded with a sentinel byte 1 followed by the seconds and nanos
     markNonNull();
-    hasher.putString(t.toString(), StandardCharsets.UTF_8);
+    hasher.putLong(t.getSeconds());
+    hasher.putInt(t.getNanos());
   }
 
   @Override
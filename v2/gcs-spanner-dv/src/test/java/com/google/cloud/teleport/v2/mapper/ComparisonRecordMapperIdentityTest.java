@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.mapper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.when;
 import com.google.cloud.spanner.Dialect;
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import com.google.cloud.teleport.v2.spanner.ddl.Column;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
@@ -202,6 +204,42 @@ public class ComparisonRecordMapperIdentityTest {
         "Hashes should match for equivalent data", avroRec.getHash(), spannerRec.getHash());
   }
 
+  @Test
+  public void testMapFromSpannerStruct_HashAlgorithm() {
+    String tableName = "Users";
+    setupDdl(tableName, Arrays.asList("id", "name"), Arrays.asList(Type.int64(), Type.string()));
+    Struct alice =
+        Struct.newBuilder()
+            .set("id")
+            .to(1L)
+            .set("name")
+            .to("Alice")
+            .set(GCSSpannerDVConstants.TABLE_NAME_COLUMN)
+            .to(tableName)
+            .build();
+    Struct bob =
+        Struct.newBuilder()
+            .set("id")
+            .to(2L)
+            .set("name")
+            .to("Bob")
+            .set(GCSSpannerDVConstants.TABLE_NAME_COLUMN)
+            .to(tableName)
+            .build();
+    ComparisonRecordMapper sha256Mapper =
+        new ComparisonRecordMapper(identityMapper, mockTransformer, mockDdl, HashAlgorithm.SHA256);
+
+    String aliceHash = mapper.mapFrom(alice).getHash();
+    String bobHash = mapper.mapFrom(bob).getHash();
+    String sha256Hash = sha256Mapper.mapFrom(alice).getHash();
+
+    // The row hash buffer of the mapper is reused across rows.
+    assertEquals(aliceHash, mapper.mapFrom(alice).getHash());
+    assertNotEquals(aliceHash, bobHash);
+    assertEquals(32, aliceHash.length());
+    assertEquals(64, sha256Hash.length());
+  }
+
   private void setupDdl(String tableName, List<String> columns, List<Type> types) {
     Table mockTable = mock(Table.class);
     when(mockDdl.table(tableName)).thenReturn(mockTable);
@@ -21,9 +21,12 @@ import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.MISSI
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SOURCE_TAG;
 import static com.google.cloud.teleport.v2.constants.GCSSpannerDVConstants.SPANNER_TAG;
 
+import com.google.cloud.teleport.v2.dto.Column;
 import com.google.cloud.teleport.v2.dto.ComparisonRecord;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.apache.beam.sdk.testing.PAssert;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.Create;
@@ -148,4 +151,67 @@ public class MatchRecordsTransformTest implements Serializable {
 
     pipeline.run();
   }
+
+  @Test
+  public void testRangeComparisonMixedScenarios() {
+    List<ComparisonRecord> matched = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      matched.add(record("Table1", String.valueOf(i), "hash" + i));
+    }
+    ComparisonRecord missingInSpanner = record("Table1", "20", "hash20");
+    ComparisonRecord missingInSource = record("Table2", "1", "other1");
+    ComparisonRecord sourceVersion = record("Table1", "21", "hash21");
+    ComparisonRecord spannerVersion = record("Table1", "21", "changed21");
+
+    List<ComparisonRecord> sourceRecords = new ArrayList<>(matched);
+    sourceRecords.add(missingInSpanner);
+    sourceRecords.add(sourceVersion);
+    List<ComparisonRecord> spannerRecords = new ArrayList<>(matched);
+    spannerRecords.add(missingInSource);
+    spannerRecords.add(spannerVersion);
+
+    PCollection<ComparisonRecord> source = pipeline.apply("CreateSource", Create.of(sourceRecords));
+    PCollection<ComparisonRecord> spanner =
+        pipeline.apply("CreateSpanner", Create.of(spannerRecords));
+
+    PCollectionTuple input = PCollectionTuple.of(SOURCE_TAG, source).and(SPANNER_TAG, spanner);
+
+    PCollectionTuple output = input.apply(new MatchRecordsTransform(4));
+
+    PAssert.that(output.get(MATCHED_TAG)).containsInAnyOrder(matched);
+    PAssert.that(output.get(MISSING_IN_SPANNER_TAG))
+        .containsInAnyOrder(missingInSpanner, sourceVersion);
+    PAssert.that(output.get(MISSING_IN_SOURCE_TAG))
+        .containsInAnyOrder(missingInSource, spannerVersion);
+
+    pipeline.run();
+  }
+
+  @Test
+  public void testRangeComparisonMissingInSpanner() {
+    ComparisonRecord record = record("Table1", "1", "hash1");
+
+    PCollection<ComparisonRecord> source = pipeline.apply("CreateSource", Create.of(record));
+    PCollection<ComparisonRecord> spanner =
+        pipeline.apply("CreateSpanner", Create.empty(source.getCoder()));
+
+    PCollectionTuple input = PCollectionTuple.of(SOURCE_TAG, source).and(SPANNER_TAG, spanner);
+
+    PCollectionTuple output = input.apply(new MatchRecordsTransform(4));
+
+    PAssert.that(output.get(MATCHED_TAG)).empty();
+    PAssert.that(output.get(MISSING_IN_SPANNER_TAG)).containsInAnyOrder(record);
+    PAssert.that(output.get(MISSING_IN_SOURCE_TAG)).empty();
+
+    pipeline.run();
+  }
+
+  private static ComparisonRecord record(String tableName, String id, String hash) {
+    return ComparisonRecord.builder()
+        .setTableName(tableName)
+        .setHash(hash)
+        .setPrimaryKeyColumns(
+            Collections.singletonList(Column.builder().setColName("id").setColValue(id).build()))
+        .build();
+  }
 }
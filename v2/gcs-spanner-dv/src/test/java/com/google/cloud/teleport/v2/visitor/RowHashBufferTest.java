@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.visitor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.teleport.v2.constants.HashAlgorithm;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.PrimitiveSink;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RowHashBufferTest {
+
+  private static void writeRow(PrimitiveSink sink) {
+    UnifiedHasherVisitor visitor = new UnifiedHasherVisitor(sink);
+    sink.putString("id", UTF_8);
+    visitor.visitInt64(42L);
+    sink.putString("name", UTF_8);
+    visitor.visitString("Zo\u00eb \u2013 \u6771\u4eac");
+    sink.putString("balance", UTF_8);
+    visitor.visitNumeric(new BigDecimal("-12345678901234567890.125"));
+    sink.putString("created", UTF_8);
+    visitor.visitTimestamp(Timestamp.parseTimestamp("2024-02-06T12:00:00.123456Z"));
+    sink.putString("birthday", UTF_8);
+    visitor.visitDate(Date.parseDate("1990-12-31"));
+    sink.putString("score", UTF_8);
+    visitor.visitFloat64(0.5);
+    sink.putString("active", UTF_8);
+    visitor.visitBool(true);
+    sink.putString("photo", UTF_8);
+    visitor.visitBytes(new byte[] {1, 2, 3});
+    sink.putString("deleted", UTF_8);
+    visitor.visitNull();
+    sink.putShort((short) -2).putChar('x').putFloat(1.5f).putUnencodedChars("ab");
+    sink.putBytes(ByteBuffer.wrap(new byte[] {4, 5}));
+  }
+
+  @Test
+  public void testHashMatchesStreamingHasher() {
+    for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+      HashFunction hashFunction = algorithm.hashFunction();
+      Hasher hasher = hashFunction.newHasher();
+      writeRow(hasher);
+      RowHashBuffer buffer = new RowHashBuffer();
+      writeRow(buffer);
+
+      assertEquals(algorithm.name(), hasher.hash(), buffer.hash(hashFunction));
+    }
+  }
+
+  @Test
+  public void testResetDiscardsThePreviousRow() {
+    HashFunction hashFunction = HashAlgorithm.MURMUR3_128.hashFunction();
+    RowHashBuffer buffer = new RowHashBuffer();
+    for (int i = 0; i < 1000; i++) {
+      buffer.putString("a longer row which grows the buffer", UTF_8).putLong(i);
+    }
+
+    buffer.reset().putString("row", UTF_8).putInt(7);
+
+    assertEquals(
+        hashFunction.newHasher().putString("row", UTF_8).putInt(7).hash(),
+        buffer.hash(hashFunction));
+  }
+}
@@ -17,6 +17,7 @@ package com.google.cloud.teleport.v2.visitor;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
@@ -122,7 +123,7 @@ public class UnifiedHasherVisitorTest {
     HashCode actualHash = hasher.hash();
 
     HashCode expectedHash =
-        Hashing.murmur3_128().newHasher().putByte((byte) 1).putString("2024-02-06", UTF_8).hash();
+        Hashing.murmur3_128().newHasher().putByte((byte) 1).putInt(2024).putInt(2).putInt(6).hash();
 
     assertEquals(expectedHash, actualHash);
   }
@@ -136,16 +137,29 @@ public class UnifiedHasherVisitorTest {
     visitor.visitNumeric(input);
     HashCode actualHash = hasher.hash();
 
+    byte[] unscaled = input.unscaledValue().toByteArray();
     HashCode expectedHash =
         Hashing.murmur3_128()
             .newHasher()
             .putByte((byte) 1)
-            .putString(input.toString(), UTF_8)
+            .putInt(3)
+            .putInt(unscaled.length)
+            .putBytes(unscaled)
             .hash();
 
     assertEquals(expectedHash, actualHash);
   }
 
+  @Test
+  public void testVisitNumericDistinguishesScale() {
+    Hasher oneDecimal = Hashing.murmur3_128().newHasher();
+    new UnifiedHasherVisitor(oneDecimal).visitNumeric(new BigDecimal("1.0"));
+    Hasher twoDecimals = Hashing.murmur3_128().newHasher();
+    new UnifiedHasherVisitor(twoDecimals).visitNumeric(new BigDecimal("1.00"));
+
+    assertNotEquals(oneDecimal.hash(), twoDecimals.hash());
+  }
+
   @Test
   public void testVisitTimestamp() {
     Hasher hasher = Hashing.murmur3_128().newHasher();
@@ -159,7 +173,8 @@ public class UnifiedHasherVisitorTest {
         Hashing.murmur3_128()
             .newHasher()
             .putByte((byte) 1)
-            .putString(input.toString(), UTF_8)
+            .putLong(input.getSeconds())
+            .putInt(input.getNanos())
             .hash();
 
     assertEquals(expectedHash, actualHash);
@@ -125,7 +125,8 @@ import org.slf4j.LoggerFactory;
       skipOptions = {
         "javascriptTextTransformGcsPath",
         "javascriptTextTransformFunctionName",
-        "javascriptTextTransformReloadIntervalMinutes"
+        "javascriptTextTransformReloadIntervalMinutes",
+        "javascriptTextTransformBatchSize"
       },
       flexContainerName = "googlecloud-to-googlecloud-xlang",
       documentation =
@@ -245,6 +246,22 @@ public class PubSubToBigQuery {
     Boolean getUseStorageWriteApiAtLeastOnce();
 
     void setUseStorageWriteApiAtLeastOnce(Boolean value);
+
+    @TemplateParameter.Integer(
+        order = 6,
+        optional = true,
+        description = "JavaScript UDF batch size",
+        helpText =
+            "The number of messages to pass to the JavaScript user-defined function (UDF) in a "
+                + "single call. If the value is greater than `1`, the function is called with an "
+                + "array of payloads and must return an array with one entry per payload: the "
+                + "transformed payload, `null` to filter the payload out, or an `Error` to send "
+                + "the payload to the dead-letter output. The default value is `1`, which calls "
+                + "the function once per message.")
+    @Default.Integer(1)
+    Integer getJavascriptTextTransformBatchSize();
+
+    void setJavascriptTextTransformBatchSize(Integer value);
   }
 
   /**
@@ -463,6 +480,7 @@ public class PubSubToBigQuery {
                         .setFunctionName(options.getJavascriptTextTransformFunctionName())
                         .setReloadIntervalMinutes(
                             options.getJavascriptTextTransformReloadIntervalMinutes())
+                        .setBatchSize(options.getJavascriptTextTransformBatchSize())
                         .setSuccessTag(UDF_OUT)
                         .setFailureTag(UDF_DEADLETTER_OUT)
                         .build());
@@ -25,6 +25,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.neo4j.importer.v1.ImportSpecification;
 import org.neo4j.importer.v1.targets.EntityTarget;
+import org.neo4j.importer.v1.targets.NodeReference;
 import org.neo4j.importer.v1.targets.NodeSchema;
 import org.neo4j.importer.v1.targets.NodeTarget;
 import org.neo4j.importer.v1.targets.PropertyMapping;
@@ -92,6 +93,15 @@ public class CypherGenerator {
     return generatedCyphers;
   }
 
+  /**
+   * Returns the source fields which hold the key of a start or end node of a relationship target.
+   */
+  public static List<String> getRelationshipNodeKeyFields(
+      ImportSpecification importSpecification, NodeReference reference) {
+    NodeTarget node = resolveRelationshipNode(importSpecification, reference.getName());
+    return CypherPatterns.relationshipNodeKeyFields(node, reference);
+  }
+
   private static String unwindNodes(NodeTarget nodeTarget) {
     String cypherLabels = CypherPatterns.labels(nodeTarget.getLabels());
     CypherPatterns patterns = CypherPatterns.parsePatterns(nodeTarget, "n", ROW_VARIABLE_NAME);
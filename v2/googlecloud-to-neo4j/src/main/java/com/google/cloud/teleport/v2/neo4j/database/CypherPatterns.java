@@ -62,6 +62,21 @@ public class CypherPatterns {
     return new CypherPatterns(cypherKeyProperties, "");
   }
 
+  /**
+   * Returns the source fields which hold the key of the start or end node of a relationship, in the
+   * order of the key properties.
+   */
+  public static List<String> relationshipNodeKeyFields(NodeTarget entity, NodeReference reference) {
+    var keyMappings = reference.getKeyMappings();
+    if (!keyMappings.isEmpty()) {
+      return keyMappings.stream().map(KeyMapping::getSourceField).toList();
+    }
+    Map<String, String> fieldsByProperty =
+        entity.getProperties().stream()
+            .collect(toMap(PropertyMapping::getTargetProperty, PropertyMapping::getSourceField));
+    return getKeyProperties(entity).stream().map(fieldsByProperty::get).toList();
+  }
+
   public static CypherPatterns parsePatterns(
       EntityTarget entity, String entityVariable, String rowVariable) {
     Set<String> keyProperties = getKeyProperties(entity);
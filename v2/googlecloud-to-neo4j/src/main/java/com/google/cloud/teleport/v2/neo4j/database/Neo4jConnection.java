@@ -21,6 +21,7 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.neo4j.driver.Config;
@@ -31,6 +32,8 @@ import org.neo4j.driver.Session;
 import org.neo4j.driver.SessionConfig;
 import org.neo4j.driver.TransactionConfig;
 import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransactionCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -89,11 +92,7 @@ public class Neo4jConnection implements AutoCloseable, Serializable {
       this.driver = getDriver();
     }
     if (session == null || !session.isOpen()) {
-      SessionConfig.Builder builder = SessionConfig.builder();
-      if (StringUtils.isNotEmpty(this.database)) {
-        builder = builder.withDatabase(this.database);
-      }
-      this.session = driver.session(builder.build());
+      this.session = driver.session(sessionConfig());
     }
     return this.session;
   }
@@ -105,6 +104,23 @@ public class Neo4jConnection implements AutoCloseable, Serializable {
     }
   }
 
+  /**
+   * Asynchronous write transaction, run in its own session so that several of them can be in flight
+   * at once. The session is closed before the returned stage completes.
+   */
+  public <T> CompletionStage<T> writeTransactionAsync(
+      AsyncTransactionCallback<CompletionStage<T>> callback, TransactionConfig txConfig) {
+    if (driver == null) {
+      this.driver = getDriver();
+    }
+    AsyncSession asyncSession = driver.session(AsyncSession.class, sessionConfig());
+    CompletionStage<T> result = asyncSession.executeWriteAsync(callback, txConfig);
+    return result
+        .handle((value, error) -> null)
+        .thenCompose(ignored -> asyncSession.closeAsync())
+        .thenCompose(ignored -> result);
+  }
+
   /** Completely delete "neo4j" or named database. */
   public void resetDatabase() {
     // Direct connect utility...
@@ -233,6 +249,14 @@ public class Neo4jConnection implements AutoCloseable, Serializable {
     return driverSupplier.get();
   }
 
+  private SessionConfig sessionConfig() {
+    SessionConfig.Builder builder = SessionConfig.builder();
+    if (StringUtils.isNotEmpty(this.database)) {
+      builder = builder.withDatabase(this.database);
+    }
+    return builder.build();
+  }
+
   private static TransactionConfig databaseResetMetadata(String resetMethod) {
     return TransactionConfig.builder()
         .withMetadata(
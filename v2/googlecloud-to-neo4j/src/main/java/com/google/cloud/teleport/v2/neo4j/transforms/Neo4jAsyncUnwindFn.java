@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.neo4j.transforms;
+
+import com.google.cloud.teleport.v2.neo4j.database.Neo4jConnection;
+import com.google.cloud.teleport.v2.neo4j.telemetry.ReportedSourceType;
+import com.google.cloud.teleport.v2.neo4j.utils.SerializableSupplier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.Row;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.exceptions.TransientException;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.importer.v1.targets.TargetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write to Neo4j asynchronously, called from inside @Neo4jRowWriterTransform.
+ *
+ * <p>Up to {@code maxInFlightBatches} UNWIND transactions run at once, each in its own async
+ * session, while the next batches are converted. Past that, an element waits for the oldest
+ * transaction to complete, which bounds the rows held in memory. A bundle only finishes once all of
+ * its transactions have committed.
+ *
+ * <p>With {@code oneBatchPerLane}, the keys are lanes which must not be written concurrently, see
+ * NodeKeyLanes, so an element also waits for the pending transaction of its lane.
+ */
+public class Neo4jAsyncUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Neo4jAsyncUnwindFn.class);
+
+  private final String cypher;
+  private final SerializableFunction<Row, Value> valueFunction;
+  private final String unwindMapName;
+  private final int maxInFlightBatches;
+  private final boolean oneBatchPerLane;
+  private final SerializableSupplier<Neo4jConnection> connectionSupplier;
+  private final ReportedSourceType reportedSourceType;
+  private final TargetType targetType;
+  private transient TransactionConfig transactionConfig;
+  private transient Deque<PendingBatch> pendingBatches;
+  private Neo4jConnection neo4jConnection;
+
+  public Neo4jAsyncUnwindFn(
+      ReportedSourceType reportedSourceType,
+      TargetType targetType,
+      String cypher,
+      String unwindMapName,
+      int maxInFlightBatches,
+      boolean oneBatchPerLane,
+      SerializableFunction<Row, Value> valueFunction,
+      SerializableSupplier<Neo4jConnection> connectionSupplier) {
+
+    this.reportedSourceType = reportedSourceType;
+    this.targetType = targetType;
+    this.cypher = cypher;
+    this.unwindMapName = unwindMapName;
+    this.maxInFlightBatches = maxInFlightBatches;
+    this.oneBatchPerLane = oneBatchPerLane;
+    this.valueFunction = valueFunction;
+    this.connectionSupplier = connectionSupplier;
+  }
+
+  @Setup
+  public void setup() {
+    this.neo4jConnection = connectionSupplier.get();
+    this.transactionConfig =
+        Neo4jBlockingUnwindFn.importTransactionConfig(reportedSourceType, targetType);
+    this.pendingBatches = new ArrayDeque<>(maxInFlightBatches);
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext context) {
+    KV<Integer, Iterable<Row>> rowBatch = context.element();
+    LOG.debug("Processing row batch from key: {}", rowBatch.getKey());
+
+    List<Value> rows = new ArrayList<>();
+    rowBatch.getValue().forEach(row -> rows.add(valueFunction.apply(row)));
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    while (!pendingBatches.isEmpty()
+        && (pendingBatches.size() >= maxInFlightBatches
+            || pendingBatches.peek().elapsedNanos().isDone()
+            || (oneBatchPerLane && isPending(rowBatch.getKey())))) {
+      complete(pendingBatches.poll());
+    }
+    pendingBatches.add(submit(rowBatch.getKey(), rows.toArray(new Value[0])));
+  }
+
+  @FinishBundle
+  public void finishBundle() {
+    while (!pendingBatches.isEmpty()) {
+      complete(pendingBatches.poll());
+    }
+  }
+
+  @Teardown
+  public void tearDown() {
+    this.neo4jConnection.close();
+  }
+
+  private boolean isPending(Integer lane) {
+    for (PendingBatch batch : pendingBatches) {
+      if (batch.lane().equals(lane)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private PendingBatch submit(Integer lane, Value[] rows) {
+    Value parameters = Values.parameters(unwindMapName, Values.value(rows));
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicInteger deadlocks = new AtomicInteger();
+    long startNanos = System.nanoTime();
+    CompletableFuture<Long> elapsedNanos =
+        neo4jConnection
+            .<ResultSummary>writeTransactionAsync(
+                transaction -> {
+                  // The driver retries transient failures, such as deadlocks, by calling
+                  // this again.
+                  attempts.incrementAndGet();
+                  return transaction
+                      .runAsync(cypher, parameters)
+                      .thenCompose(ResultCursor::consumeAsync)
+                      .whenComplete(
+                          (summary, error) -> {
+                            if (isDeadlock(error)) {
+                              deadlocks.incrementAndGet();
+                            }
+                          });
+                },
+                transactionConfig)
+            .thenApply(
+                summary -> {
+                  LOG.debug("Batch transaction of {} rows completed: {}", rows.length, summary);
+                  return System.nanoTime() - startNanos;
+                })
+            .toCompletableFuture();
+    return new PendingBatch(lane, rows.length, attempts, deadlocks, elapsedNanos);
+  }
+
+  // Metrics are only reported from the bundle thread, the driver completes transactions on its own.
+  private void complete(PendingBatch batch) {
+    long elapsedNanos;
+    try {
+      elapsedNanos = batch.elapsedNanos().join();
+    } catch (CompletionException e) {
+      throw new RuntimeException(
+          "Error writing " + batch.rowCount() + " rows to Neo4j with Cypher: " + cypher,
+          e.getCause());
+    } finally {
+      if (batch.attempts().get() > 1) {
+        Neo4jBlockingUnwindFn.TRANSACTION_RETRIES.inc(batch.attempts().get() - 1);
+      }
+      if (batch.deadlocks().get() > 0) {
+        Neo4jBlockingUnwindFn.DEADLOCK_RETRIES.inc(batch.deadlocks().get());
+      }
+    }
+    Neo4jBlockingUnwindFn.reportLaneThroughput(batch.lane(), batch.rowCount(), elapsedNanos);
+  }
+
+  private static boolean isDeadlock(Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    return cause instanceof TransientException transientException
+        && Neo4jBlockingUnwindFn.DEADLOCK_DETECTED.equals(transientException.code());
+  }
+
+  private record PendingBatch(
+      Integer lane,
+      int rowCount,
+      AtomicInteger attempts,
+      AtomicInteger deadlocks,
+      CompletableFuture<Long> elapsedNanos) {}
+}
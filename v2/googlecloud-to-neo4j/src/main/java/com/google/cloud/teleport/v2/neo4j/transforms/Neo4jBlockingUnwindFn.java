@@ -24,11 +24,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.SerializableFunction;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.Row;
 import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.exceptions.TransientException;
 import org.neo4j.driver.summary.ResultSummary;
 import org.neo4j.importer.v1.targets.TargetType;
 import org.slf4j.Logger;
@@ -38,6 +43,15 @@ import org.slf4j.LoggerFactory;
 public class Neo4jBlockingUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row> {
 
   private static final Logger LOG = LoggerFactory.getLogger(Neo4jBlockingUnwindFn.class);
+
+  static final String DEADLOCK_DETECTED = "Neo.TransientError.Transaction.DeadlockDetected";
+
+  static final Counter DEADLOCK_RETRIES =
+      Metrics.counter(Neo4jBlockingUnwindFn.class, "neo4j_deadlock_retries");
+
+  static final Counter TRANSACTION_RETRIES =
+      Metrics.counter(Neo4jBlockingUnwindFn.class, "neo4j_transaction_retries");
+
   private final String cypher;
   private final SerializableFunction<Row, Map<String, Object>> parametersFunction;
   private final boolean logCypher;
@@ -82,7 +96,7 @@ public class Neo4jBlockingUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row>
 
     Iterable<Row> rows = rowBatch.getValue();
     rows.forEach(row -> parameters.add(parametersFunction.apply(row)));
-    executeCypherUnwindStatement();
+    executeCypherUnwindStatement(rowBatch.getKey());
   }
 
   @Teardown
@@ -90,7 +104,7 @@ public class Neo4jBlockingUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row>
     this.neo4jConnection.close();
   }
 
-  private void executeCypherUnwindStatement() {
+  private void executeCypherUnwindStatement(Integer lane) {
     if (this.parameters.isEmpty()) {
       return;
     }
@@ -108,24 +122,28 @@ public class Neo4jBlockingUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row>
       loggingDone = true;
     }
 
+    AtomicInteger attempts = new AtomicInteger();
+    long startNanos = System.nanoTime();
     try {
       ResultSummary summary =
           neo4jConnection.writeTransaction(
-              transaction -> transaction.run(cypher, parametersMap).consume(),
-              TransactionConfig.builder()
-                  .withMetadata(
-                      Neo4jTelemetry.transactionMetadata(
-                          Map.of(
-                              "sink",
-                              "neo4j",
-                              "source",
-                              reportedSourceType.format(),
-                              "target-type",
-                              targetType.name().toLowerCase(Locale.ROOT),
-                              "step",
-                              "import")))
-                  .build());
+              transaction -> {
+                // The driver retries transient failures, such as deadlocks, by running this again.
+                if (attempts.incrementAndGet() > 1) {
+                  TRANSACTION_RETRIES.inc();
+                }
+                try {
+                  return transaction.run(cypher, parametersMap).consume();
+                } catch (TransientException e) {
+                  if (DEADLOCK_DETECTED.equals(e.code())) {
+                    DEADLOCK_RETRIES.inc();
+                  }
+                  throw e;
+                }
+              },
+              importTransactionConfig(reportedSourceType, targetType));
       LOG.debug("Batch transaction of {} rows completed: {}", parameters.size(), summary);
+      reportLaneThroughput(lane, parameters.size(), System.nanoTime() - startNanos);
     } catch (Exception e) {
       throw new RuntimeException(
           "Error writing " + parameters.size() + " rows to Neo4j with Cypher: " + cypher, e);
@@ -133,6 +151,30 @@ public class Neo4jBlockingUnwindFn extends DoFn<KV<Integer, Iterable<Row>>, Row>
     parameters.clear();
   }
 
+  static TransactionConfig importTransactionConfig(
+      ReportedSourceType reportedSourceType, TargetType targetType) {
+    return TransactionConfig.builder()
+        .withMetadata(
+            Neo4jTelemetry.transactionMetadata(
+                Map.of(
+                    "sink",
+                    "neo4j",
+                    "source",
+                    reportedSourceType.format(),
+                    "target-type",
+                    targetType.name().toLowerCase(Locale.ROOT),
+                    "step",
+                    "import")))
+        .build();
+  }
+
+  // Write lanes are the keys of the batches, their throughput shows how evenly they are loaded.
+  static void reportLaneThroughput(Integer lane, int rowCount, long elapsedNanos) {
+    Metrics.counter(Neo4jBlockingUnwindFn.class, "neo4j_lane_" + lane + "_rows").inc(rowCount);
+    Metrics.distribution(Neo4jBlockingUnwindFn.class, "neo4j_lane_" + lane + "_rows_per_second")
+        .update(rowCount * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos));
+  }
+
   private static String getParametersString(Map<String, Object> parametersMap) {
     StringBuilder parametersString = new StringBuilder();
     parametersMap
@@ -25,15 +25,23 @@ import com.google.cloud.teleport.v2.neo4j.telemetry.ReportedSourceType;
 import com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils;
 import com.google.cloud.teleport.v2.neo4j.utils.SerializableSupplier;
 import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
 import org.apache.beam.sdk.transforms.GroupIntoBatches;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.Partition;
 import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.transforms.Wait;
 import org.apache.beam.sdk.transforms.WithKeys;
+import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
 import org.apache.beam.sdk.values.Row;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.neo4j.driver.TransactionConfig;
@@ -42,6 +50,7 @@ import org.neo4j.importer.v1.ImportSpecification;
 import org.neo4j.importer.v1.sources.Source;
 import org.neo4j.importer.v1.targets.CustomQueryTarget;
 import org.neo4j.importer.v1.targets.EntityTarget;
+import org.neo4j.importer.v1.targets.RelationshipTarget;
 import org.neo4j.importer.v1.targets.Target;
 import org.neo4j.importer.v1.targets.TargetType;
 import org.slf4j.Logger;
@@ -69,6 +78,17 @@ public class Neo4jRowWriterTransform extends PTransform<PCollection<Row>, PColle
   private static final String LEGACY_QUERY_PARALLELISM_SETTING = "custom_query_parallelism";
   private static final Integer DEFAULT_QUERY_PARALLELISM_FACTOR = 1;
 
+  private static final String NODE_MAX_IN_FLIGHT_BATCHES_SETTING =
+      "node_target_max_in_flight_batches";
+  private static final String RELATIONSHIP_MAX_IN_FLIGHT_BATCHES_SETTING =
+      "relationship_target_max_in_flight_batches";
+  private static final String QUERY_MAX_IN_FLIGHT_BATCHES_SETTING =
+      "query_target_max_in_flight_batches";
+  private static final Integer DEFAULT_MAX_IN_FLIGHT_BATCHES = 1;
+
+  private static final String RELATIONSHIP_NODE_KEY_PARTITIONING_SETTING =
+      "relationship_target_node_key_partitioning";
+
   private static final Logger LOG = LoggerFactory.getLogger(Neo4jRowWriterTransform.class);
   private final ImportSpecification importSpecification;
   private final Target target;
@@ -111,20 +131,47 @@ public class Neo4jRowWriterTransform extends PTransform<PCollection<Row>, PColle
 
     Configuration config = importSpecification.getConfiguration();
 
-    Neo4jBlockingUnwindFn neo4jUnwindFn =
-        new Neo4jBlockingUnwindFn(
-            reportedSourceType,
-            targetType,
-            getCypherQuery(),
-            false,
-            "rows",
-            getRowCastingFunction(),
-            connectionSupplier);
+    int parallelism = parallelismFactor(targetType, config);
+    boolean nodeKeyPartitioning =
+        targetType == TargetType.RELATIONSHIP
+            && parallelism > 1
+            && config.get(Boolean.class, RELATIONSHIP_NODE_KEY_PARTITIONING_SETTING).orElse(false);
+
+    DoFn<KV<Integer, Iterable<Row>>, Row> neo4jUnwindFn;
+    int maxInFlightBatches = maxInFlightBatches(targetType, config);
+    if (maxInFlightBatches > 1) {
+      neo4jUnwindFn =
+          new Neo4jAsyncUnwindFn(
+              reportedSourceType,
+              targetType,
+              getCypherQuery(),
+              "rows",
+              maxInFlightBatches,
+              nodeKeyPartitioning,
+              DataCastingUtils::rowToNeo4jValue,
+              connectionSupplier);
+    } else {
+      neo4jUnwindFn =
+          new Neo4jBlockingUnwindFn(
+              reportedSourceType,
+              targetType,
+              getCypherQuery(),
+              false,
+              "rows",
+              getRowCastingFunction(),
+              connectionSupplier);
+    }
+
+    if (nodeKeyPartitioning) {
+      return writeInRounds(
+          input,
+          neo4jUnwindFn,
+          NodeKeyLanes.of(importSpecification, (RelationshipTarget) target, parallelism),
+          batchSize(targetType, config));
+    }
 
     return input
-        .apply(
-            "Create KV pairs",
-            WithKeys.of(ThreadLocalRandomInt.of(parallelismFactor(targetType, config))))
+        .apply("Create KV pairs", WithKeys.of(ThreadLocalRandomInt.of(parallelism)))
         .apply("Group into batches", GroupIntoBatches.ofSize(batchSize(targetType, config)))
         .apply(
             targetSequence.getSequenceNumber(target) + ": Neo4j write " + target.getName(),
@@ -132,6 +179,46 @@ public class Neo4jRowWriterTransform extends PTransform<PCollection<Row>, PColle
         .setRowSchema(input.getSchema());
   }
 
+  /*
+   * Writes the relationships in rounds of parallel lanes which do not lock the same nodes, see
+   * NodeKeyLanes. Each round waits for the previous one to be written.
+   */
+  private PCollection<Row> writeInRounds(
+      PCollection<Row> input,
+      DoFn<KV<Integer, Iterable<Row>>, Row> neo4jUnwindFn,
+      NodeKeyLanes lanes,
+      int batchSize) {
+    int laneCount = lanes.laneCount();
+    LOG.info(
+        "Writing relationships of {} in {} rounds of {} lanes",
+        target.getName(),
+        laneCount,
+        laneCount);
+    PCollectionList<Row> rounds =
+        input.apply("Partition into rounds", Partition.of(laneCount, (row, n) -> lanes.round(row)));
+    String writeStep =
+        targetSequence.getSequenceNumber(target) + ": Neo4j write " + target.getName();
+    List<PCollection<Row>> written = new ArrayList<>();
+    PCollection<Row> previousRound = null;
+    for (int round = 0; round < laneCount; round++) {
+      PCollection<Row> rows = rounds.get(round);
+      if (previousRound != null) {
+        rows =
+            rows.apply("Wait for round " + (round - 1), Wait.on(previousRound))
+                .setRowSchema(input.getSchema());
+      }
+      previousRound =
+          rows.apply("Create lane KV pairs " + round, WithKeys.of(lanes))
+              .apply("Group into batches " + round, GroupIntoBatches.ofSize(batchSize))
+              .apply(writeStep + " (round " + round + ")", ParDo.of(neo4jUnwindFn))
+              .setRowSchema(input.getSchema());
+      written.add(previousRound);
+    }
+    return PCollectionList.of(written)
+        .apply("Flatten rounds", Flatten.pCollections())
+        .setRowSchema(input.getSchema());
+  }
+
   private ReportedSourceType determineReportedSourceType() {
     Source source =
         importSpecification.getSources().stream()
@@ -230,6 +317,20 @@ public class Neo4jRowWriterTransform extends PTransform<PCollection<Row>, PColle
     };
   }
 
+  private static int maxInFlightBatches(TargetType targetType, Configuration config) {
+    return switch (targetType) {
+      case NODE -> config
+          .get(Integer.class, NODE_MAX_IN_FLIGHT_BATCHES_SETTING)
+          .orElse(DEFAULT_MAX_IN_FLIGHT_BATCHES);
+      case RELATIONSHIP -> config
+          .get(Integer.class, RELATIONSHIP_MAX_IN_FLIGHT_BATCHES_SETTING)
+          .orElse(DEFAULT_MAX_IN_FLIGHT_BATCHES);
+      case QUERY -> config
+          .get(Integer.class, QUERY_MAX_IN_FLIGHT_BATCHES_SETTING)
+          .orElse(DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    };
+  }
+
   private Neo4jCapabilities getNeo4jCapabilities() {
     try (Neo4jConnection neo4jConnection = connectionSupplier.get()) {
       return neo4jConnection.capabilities();
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.neo4j.transforms;
+
+import com.google.cloud.teleport.v2.neo4j.database.CypherGenerator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.values.Row;
+import org.neo4j.importer.v1.ImportSpecification;
+import org.neo4j.importer.v1.targets.RelationshipTarget;
+
+/**
+ * Assigns the rows of a relationship target to write lanes and rounds, so that the lanes of a round
+ * never lock the same nodes.
+ *
+ * <p>The start and end nodes are bucketed by the hash of their keys. A row whose start node is in
+ * bucket {@code s} and whose end node is in bucket {@code e} is written by lane {@code s} in round
+ * {@code (e - s) mod laneCount}. The lanes of a round therefore hold distinct start buckets and
+ * distinct end buckets. When the start and end nodes share labels, a node may still be the start
+ * node of a lane and the end node of another one, so contention is reduced rather than ruled out.
+ */
+record NodeKeyLanes(List<String> startKeyFields, List<String> endKeyFields, int laneCount)
+    implements SerializableFunction<Row, Integer> {
+
+  static NodeKeyLanes of(
+      ImportSpecification importSpecification, RelationshipTarget target, int laneCount) {
+    return new NodeKeyLanes(
+        CypherGenerator.getRelationshipNodeKeyFields(
+            importSpecification, target.getStartNodeReference()),
+        CypherGenerator.getRelationshipNodeKeyFields(
+            importSpecification, target.getEndNodeReference()),
+        laneCount);
+  }
+
+  /** Returns the lane of a row. */
+  @Override
+  public Integer apply(Row row) {
+    return bucket(row, startKeyFields);
+  }
+
+  /** Returns the round of a row. */
+  int round(Row row) {
+    return Math.floorMod(bucket(row, endKeyFields) - bucket(row, startKeyFields), laneCount);
+  }
+
+  private int bucket(Row row, List<String> keyFields) {
+    int hash = 1;
+    for (String field : keyFields) {
+      Object value = row.getSchema().hasField(field) ? row.getValue(field) : null;
+      // Byte arrays hash by identity, and the buckets must agree across workers.
+      int valueHash =
+          value instanceof byte[] bytes ? Arrays.hashCode(bytes) : Objects.hashCode(value);
+      hash = 31 * hash + valueHash;
+    }
+    // Spreads sequential keys, such as numeric ids, over the buckets.
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    return Math.floorMod(hash, laneCount);
+  }
+}
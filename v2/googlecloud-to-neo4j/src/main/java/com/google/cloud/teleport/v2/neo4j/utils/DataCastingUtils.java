@@ -48,6 +48,8 @@ import org.apache.beam.sdk.schemas.logicaltypes.Time;
 import org.apache.beam.sdk.values.Row;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.ReadableInstant;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
 import org.neo4j.importer.v1.targets.NodeTarget;
 import org.neo4j.importer.v1.targets.Target;
 import org.slf4j.Logger;
@@ -198,6 +200,72 @@ public class DataCastingUtils {
     return map;
   }
 
+  /**
+   * Converts a row straight into a driver {@link Value}, for the rows of an UNWIND batch.
+   *
+   * <p>The values match the ones of {@link #rowToNeo4jDataMap(Row, Target)}, but the driver does
+   * not have to convert the fields and their collections again before sending them. The map built
+   * for the row, and for each nested ROW and MAP value, is still copied by {@link
+   * Values#value(Map)}.
+   */
+  public static Value rowToNeo4jValue(Row row) {
+    Map<String, Object> values = new HashMap<>(row.getFieldCount());
+    for (Schema.Field field : row.getSchema().getFields()) {
+      String fieldName = field.getName();
+      values.put(fieldName, toNeo4jValue(fieldName, field.getType(), row.getValue(fieldName)));
+    }
+    return Values.value(values);
+  }
+
+  static Value toNeo4jValue(String name, Schema.FieldType type, Object value) {
+    if (Objects.isNull(value)) {
+      return Values.NULL;
+    }
+    switch (type.getTypeName()) {
+      case ARRAY:
+      case ITERABLE:
+        {
+          Collection<?> typedValue = castValue(value, Collection.class);
+          Value[] result = new Value[typedValue.size()];
+          int i = 0;
+          for (Object element : typedValue) {
+            result[i++] = toNeo4jValue(name, type.getCollectionElementType(), element);
+          }
+          return Values.value(result);
+        }
+      case MAP:
+        {
+          Schema.FieldType keyType = type.getMapKeyType();
+          Schema.FieldType valueType = type.getMapValueType();
+          if (!keyType.getTypeName().isStringType()) {
+            var message =
+                String.format(
+                    "Only strings are supported as MAP key values, found '%s' in field '%s'",
+                    keyType.getTypeName(), name);
+            LOG.error(message);
+            throw new RuntimeException(message);
+          }
+
+          Map<?, ?> typedValue = castValue(value, Map.class);
+          Map<String, Object> result = new HashMap<>(typedValue.size());
+          for (var element : typedValue.entrySet()) {
+            result.put(
+                castValue(fromBeamType(name, keyType, element.getKey()), String.class),
+                toNeo4jValue(name, valueType, element.getValue()));
+          }
+          return Values.value(result);
+        }
+      case ROW:
+        {
+          return rowToNeo4jValue(castValue(value, Row.class));
+        }
+      default:
+        {
+          return Values.value(fromBeamType(name, type, value));
+        }
+    }
+  }
+
   static Object fromBeamType(String name, Schema.FieldType type, Object value) {
     switch (type.getTypeName()) {
       case BYTE:
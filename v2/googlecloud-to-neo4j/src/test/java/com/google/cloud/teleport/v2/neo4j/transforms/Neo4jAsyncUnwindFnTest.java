@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.neo4j.transforms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.teleport.v2.neo4j.database.Neo4jConnection;
+import com.google.cloud.teleport.v2.neo4j.telemetry.ReportedSourceType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.DoFn.ProcessContext;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.Row;
+import org.junit.Test;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.importer.v1.targets.TargetType;
+
+public class Neo4jAsyncUnwindFnTest {
+
+  @Test
+  public void sends_transaction_metadata() {
+    Neo4jConnection connection = mock(Neo4jConnection.class);
+    when(connection.<ResultSummary>writeTransactionAsync(any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(mock(ResultSummary.class)));
+    Neo4jAsyncUnwindFn batchImporter = anAsyncUnwindFn(connection, 2);
+
+    batchImporter.setup();
+    batchImporter.processElement(aProcessContext());
+    batchImporter.finishBundle();
+
+    Map<String, String> expectedTxMetadata =
+        Map.of("sink", "neo4j", "source", "BigQuery", "target-type", "node", "step", "import");
+    TransactionConfig expectedTransactionConfig =
+        TransactionConfig.builder()
+            .withMetadata(Map.of("app", "dataflow", "metadata", expectedTxMetadata))
+            .build();
+    verify(connection).writeTransactionAsync(any(), eq(expectedTransactionConfig));
+  }
+
+  @Test
+  public void waits_for_the_oldest_batch_beyond_the_max_in_flight_batches() throws Exception {
+    CompletableFuture<ResultSummary> first = new CompletableFuture<>();
+    Neo4jConnection connection = mock(Neo4jConnection.class);
+    when(connection.<ResultSummary>writeTransactionAsync(any(), any()))
+        .thenReturn(first, new CompletableFuture<>(), new CompletableFuture<>());
+    Neo4jAsyncUnwindFn batchImporter = anAsyncUnwindFn(connection, 2);
+    batchImporter.setup();
+    batchImporter.processElement(aProcessContext());
+    batchImporter.processElement(aProcessContext());
+
+    DoFn.ProcessContext context = aProcessContext();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> third = executor.submit(() -> batchImporter.processElement(context));
+
+      assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+      verify(connection, times(2)).writeTransactionAsync(any(), any());
+      first.complete(mock(ResultSummary.class));
+      third.get(10, TimeUnit.SECONDS);
+      verify(connection, times(3)).writeTransactionAsync(any(), any());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void waits_for_the_pending_batch_of_the_same_lane() throws Exception {
+    CompletableFuture<ResultSummary> first = new CompletableFuture<>();
+    Neo4jConnection connection = mock(Neo4jConnection.class);
+    when(connection.<ResultSummary>writeTransactionAsync(any(), any()))
+        .thenReturn(first, new CompletableFuture<>(), new CompletableFuture<>());
+    Neo4jAsyncUnwindFn batchImporter = anAsyncUnwindFn(connection, 4, true);
+    batchImporter.setup();
+    batchImporter.processElement(aProcessContext(1));
+    batchImporter.processElement(aProcessContext(2));
+
+    DoFn.ProcessContext context = aProcessContext(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> third = executor.submit(() -> batchImporter.processElement(context));
+
+      assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+      verify(connection, times(2)).writeTransactionAsync(any(), any());
+      first.complete(mock(ResultSummary.class));
+      third.get(10, TimeUnit.SECONDS);
+      verify(connection, times(3)).writeTransactionAsync(any(), any());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void fails_the_bundle_when_a_batch_fails() {
+    Neo4jConnection connection = mock(Neo4jConnection.class);
+    when(connection.<ResultSummary>writeTransactionAsync(any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+    Neo4jAsyncUnwindFn batchImporter = anAsyncUnwindFn(connection, 2);
+    batchImporter.setup();
+    batchImporter.processElement(aProcessContext());
+
+    RuntimeException exception = assertThrows(RuntimeException.class, batchImporter::finishBundle);
+
+    assertThat(exception).hasMessageThat().contains("Error writing 1 rows to Neo4j");
+    assertThat(exception).hasCauseThat().isInstanceOf(IllegalStateException.class);
+  }
+
+  private static Neo4jAsyncUnwindFn anAsyncUnwindFn(
+      Neo4jConnection connection, int maxInFlightBatches) {
+    return anAsyncUnwindFn(connection, maxInFlightBatches, false);
+  }
+
+  private static Neo4jAsyncUnwindFn anAsyncUnwindFn(
+      Neo4jConnection connection, int maxInFlightBatches, boolean oneBatchPerLane) {
+    return new Neo4jAsyncUnwindFn(
+        ReportedSourceType.BIGQUERY,
+        TargetType.NODE,
+        "RETURN 42",
+        "rows",
+        maxInFlightBatches,
+        oneBatchPerLane,
+        (row) -> Values.value(42),
+        () -> connection);
+  }
+
+  private static DoFn.ProcessContext aProcessContext() {
+    return aProcessContext(42);
+  }
+
+  private static DoFn.ProcessContext aProcessContext(int key) {
+    var context = mock(ProcessContext.class);
+    when(context.element()).thenReturn(KV.of(key, List.of(mock(Row.class))));
+    return context;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.neo4j.transforms;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.beam.sdk.schemas.Schema;
+import org.apache.beam.sdk.values.Row;
+import org.junit.Test;
+
+public class NodeKeyLanesTest {
+
+  private static final Schema SCHEMA =
+      Schema.builder().addInt64Field("customer_id").addStringField("product_code").build();
+
+  private static final NodeKeyLanes LANES =
+      new NodeKeyLanes(List.of("customer_id"), List.of("product_code"), 4);
+
+  private static Row purchase(long customerId, String productCode) {
+    return Row.withSchema(SCHEMA).addValues(customerId, productCode).build();
+  }
+
+  @Test
+  public void lanes_of_a_round_do_not_share_nodes() {
+    // The lane of each start node and of each end node, by round.
+    Map<Integer, Map<Long, Integer>> startNodeLanes = new HashMap<>();
+    Map<Integer, Map<String, Integer>> endNodeLanes = new HashMap<>();
+    for (long customerId = 0; customerId < 50; customerId++) {
+      for (int product = 0; product < 20; product++) {
+        Row row = purchase(customerId, "product-" + product);
+        int round = LANES.round(row);
+        int lane = LANES.apply(row);
+        assertThat(round).isIn(List.of(0, 1, 2, 3));
+        assertThat(lane).isIn(List.of(0, 1, 2, 3));
+
+        Integer startLane =
+            startNodeLanes
+                .computeIfAbsent(round, r -> new HashMap<>())
+                .putIfAbsent(customerId, lane);
+        Integer endLane =
+            endNodeLanes
+                .computeIfAbsent(round, r -> new HashMap<>())
+                .putIfAbsent("product-" + product, lane);
+        assertThat(startLane).isAnyOf(null, lane);
+        assertThat(endLane).isAnyOf(null, lane);
+      }
+    }
+    assertThat(startNodeLanes.keySet()).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void rows_of_a_node_pair_share_a_lane_and_round() {
+    Row first = purchase(42L, "product-7");
+    Row second = purchase(42L, "product-7");
+
+    assertThat(LANES.apply(first)).isEqualTo(LANES.apply(second));
+    assertThat(LANES.round(first)).isEqualTo(LANES.round(second));
+  }
+}
@@ -30,6 +30,7 @@ import static com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils.fromBeam
 import static com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils.listFullOfNulls;
 import static com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils.mapToString;
 import static com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils.rowToNeo4jDataMap;
+import static com.google.cloud.teleport.v2.neo4j.utils.DataCastingUtils.rowToNeo4jValue;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
@@ -63,6 +64,7 @@ import org.apache.beam.sdk.values.Row;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.Test;
+import org.neo4j.driver.Values;
 import org.neo4j.importer.v1.targets.NodeMatchMode;
 import org.neo4j.importer.v1.targets.NodeReference;
 import org.neo4j.importer.v1.targets.NodeTarget;
@@ -490,6 +492,51 @@ public class DataCastingUtilsTest {
             LocalDateTime.of(2022, 8, 15, 1, 2, 3));
   }
 
+  @Test
+  public void testRowToNeo4jValue() {
+    Schema addressSchema =
+        Schema.of(Field.of("city", FieldType.STRING), Field.of("zip", FieldType.INT32));
+    Schema schema =
+        Schema.of(
+            Field.of("id", FieldType.INT64),
+            Field.of("name", FieldType.STRING),
+            Field.nullable("nickname", FieldType.STRING),
+            Field.of("hireDate", FieldType.DATETIME),
+            Field.of("salary", FieldType.DECIMAL),
+            Field.of("scores", FieldType.array(FieldType.INT32)),
+            Field.of("ratings", FieldType.map(FieldType.STRING, FieldType.DOUBLE)),
+            Field.of("address", FieldType.row(addressSchema)));
+    Row row =
+        Row.withSchema(schema)
+            .withFieldValue("id", 1L)
+            .withFieldValue("name", "neo4j")
+            .withFieldValue("nickname", null)
+            .withFieldValue("hireDate", new DateTime(2022, 8, 15, 1, 2, 3, DateTimeZone.UTC))
+            .withFieldValue("salary", new BigDecimal("15.5"))
+            .withFieldValue("scores", List.of(1, 2, 3))
+            .withFieldValue("ratings", Map.of("skill", 4.5))
+            .withFieldValue(
+                "address",
+                Row.withSchema(addressSchema)
+                    .withFieldValue("city", "Malmo")
+                    .withFieldValue("zip", 21119)
+                    .build())
+            .build();
+    Target target =
+        new NodeTarget(
+            true,
+            "neo4j-target",
+            "a-source",
+            null,
+            WriteMode.CREATE,
+            List.of(),
+            List.of("Label"),
+            List.of(),
+            null);
+
+    assertThat(rowToNeo4jValue(row)).isEqualTo(Values.value(rowToNeo4jDataMap(row, target)));
+  }
+
   @Test
   public void testSourceTextToTargetObjects() {
     Schema schema =
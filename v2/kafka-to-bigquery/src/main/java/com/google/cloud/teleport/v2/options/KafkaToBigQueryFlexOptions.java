@@ -236,4 +236,18 @@ public interface KafkaToBigQueryFlexOptions
   Boolean getUseStorageWriteApiAtLeastOnce();
 
   void setUseStorageWriteApiAtLeastOnce(Boolean value);
+
+  @TemplateParameter.Boolean(
+      order = 14,
+      groupName = "Destination",
+      optional = true,
+      description = "Write Avro records to BigQuery without TableRow conversion",
+      helpText =
+          "If true, Avro records are converted straight to Storage Write API protos, and"
+              + " TableRows are only built for the records sent to the dead letter queue. Defaults"
+              + " to `false`.")
+  @Default.Boolean(false)
+  Boolean getWriteAvroRecordsDirectly();
+
+  void setWriteAvroRecordsDirectly(Boolean value);
 }
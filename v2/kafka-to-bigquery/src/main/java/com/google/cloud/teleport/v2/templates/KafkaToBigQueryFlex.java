@@ -335,7 +335,7 @@ public class KafkaToBigQueryFlex {
                     options.getBinaryAvroSchemaPath(),
                     errorHandler,
                     badRecordRouter))
-            .apply(bigQueryWrite);
+            .apply(bigQueryWrite.withDirectAvroWrites(options.getWriteAvroRecordsDirectly()));
     return writeResult;
   }
 
@@ -391,7 +391,7 @@ public class KafkaToBigQueryFlex {
                     options.getConfluentAvroSchemaPath(),
                     errorHandler,
                     badRecordRouter))
-            .apply(bigQueryWrite);
+            .apply(bigQueryWrite.withDirectAvroWrites(options.getWriteAvroRecordsDirectly()));
     return writeResult;
   }
 
@@ -437,7 +437,7 @@ public class KafkaToBigQueryFlex {
                     KafkaConfig.fromSchemaRegistryOptions(options),
                     errorHandler,
                     badRecordRouter))
-            .apply(bigQueryWrite);
+            .apply(bigQueryWrite.withDirectAvroWrites(options.getWriteAvroRecordsDirectly()));
     return writeResult;
   }
 
@@ -24,11 +24,16 @@ import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.StringUtf8Coder;
 import org.apache.beam.sdk.io.gcp.bigquery.DynamicDestinations;
 import org.apache.beam.sdk.io.gcp.bigquery.TableDestination;
+import org.apache.beam.sdk.transforms.SerializableFunction;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.ValueInSingleWindow;
 
-public class BigQueryDynamicDestination
-    extends DynamicDestinations<KV<GenericRecord, TableRow>, String> {
+/**
+ * Routes the elements of a {@link GenericRecord} to one table per Avro schema.
+ *
+ * @param <T> the type of the elements, which must hold a {@link GenericRecord}.
+ */
+public class BigQueryDynamicDestination<T> extends DynamicDestinations<T, String> {
 
   private String projectName;
 
@@ -38,23 +43,39 @@ public class BigQueryDynamicDestination
 
   private boolean persistKafkaKey;
 
-  public static BigQueryDynamicDestination of(
+  private SerializableFunction<T, GenericRecord> recordFn;
+
+  public static BigQueryDynamicDestination<KV<GenericRecord, TableRow>> of(
       String projectName, String datasetName, String tableNamePrefix, boolean persistKafkaKey) {
-    return new BigQueryDynamicDestination(
-        projectName, datasetName, tableNamePrefix, persistKafkaKey);
+    return of(projectName, datasetName, tableNamePrefix, persistKafkaKey, KV::getKey);
+  }
+
+  public static <T> BigQueryDynamicDestination<T> of(
+      String projectName,
+      String datasetName,
+      String tableNamePrefix,
+      boolean persistKafkaKey,
+      SerializableFunction<T, GenericRecord> recordFn) {
+    return new BigQueryDynamicDestination<>(
+        projectName, datasetName, tableNamePrefix, persistKafkaKey, recordFn);
   }
 
   private BigQueryDynamicDestination(
-      String projectName, String datasetName, String tableNamePrefix, boolean persistKafkaKey) {
+      String projectName,
+      String datasetName,
+      String tableNamePrefix,
+      boolean persistKafkaKey,
+      SerializableFunction<T, GenericRecord> recordFn) {
     this.projectName = projectName;
     this.datasetName = datasetName;
     this.tableNamePrefix = tableNamePrefix;
     this.persistKafkaKey = persistKafkaKey;
+    this.recordFn = recordFn;
   }
 
   @Override
-  public String getDestination(ValueInSingleWindow<KV<GenericRecord, TableRow>> element) {
-    return element.getValue().getKey().getSchema().toString();
+  public String getDestination(ValueInSingleWindow<T> element) {
+    return recordFn.apply(element.getValue()).getSchema().toString();
   }
 
   @Override
@@ -16,21 +16,29 @@
 package com.google.cloud.teleport.v2.transforms;
 
 import com.google.api.services.bigquery.model.TableRow;
+import com.google.api.services.bigquery.model.TableSchema;
 import com.google.cloud.teleport.v2.coders.FailsafeElementCoder;
 import com.google.cloud.teleport.v2.coders.GenericRecordCoder;
 import com.google.cloud.teleport.v2.kafka.transforms.AvroTransform;
+import com.google.cloud.teleport.v2.utils.AvroTableRowConverterCache;
 import com.google.cloud.teleport.v2.utils.BigQueryAvroUtils;
 import com.google.cloud.teleport.v2.utils.BigQueryConstants;
 import com.google.cloud.teleport.v2.values.FailsafeElement;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.beam.sdk.coders.ByteArrayCoder;
+import org.apache.beam.sdk.coders.Coder;
 import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.coders.NullableCoder;
-import org.apache.beam.sdk.extensions.avro.schemas.utils.AvroUtils;
+import org.apache.beam.sdk.io.gcp.bigquery.AvroWriteRequest;
 import org.apache.beam.sdk.io.gcp.bigquery.BigQueryIO;
-import org.apache.beam.sdk.io.gcp.bigquery.BigQueryUtils;
 import org.apache.beam.sdk.io.gcp.bigquery.InsertRetryPolicy;
 import org.apache.beam.sdk.io.gcp.bigquery.TableRowJsonCoder;
 import org.apache.beam.sdk.io.gcp.bigquery.WriteResult;
@@ -39,6 +47,7 @@ import org.apache.beam.sdk.io.kafka.KafkaRecordCoder;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
 import org.apache.beam.sdk.transforms.errorhandling.BadRecord;
 import org.apache.beam.sdk.transforms.errorhandling.ErrorHandler;
 import org.apache.beam.sdk.values.KV;
@@ -50,6 +59,10 @@ import org.slf4j.LoggerFactory;
 // TODO: Remove KafkaRecord and support KV.
 public class BigQueryWriteUtils {
 
+  /** Coder of the records written directly, with their Kafka key when it is persisted. */
+  private static final Coder<KV<byte[], GenericRecord>> KEYED_RECORD_CODER =
+      KvCoder.of(NullableCoder.of(ByteArrayCoder.of()), GenericRecordCoder.of());
+
   // Writes to BigQuery when a schema file is provided.
   public static class BigQueryWrite
       extends PTransform<
@@ -71,6 +84,8 @@ public class BigQueryWriteUtils {
     private Boolean useAutoSharding;
     private Schema avroSchema;
 
+    private boolean directAvroWrites;
+
     // Dead letter queue params
     private ErrorHandler<BadRecord, ?> errorHandler;
 
@@ -158,6 +173,15 @@ public class BigQueryWriteUtils {
           errorHandler);
     }
 
+    /**
+     * Writes the Avro records with the Storage Write API without converting them to {@link
+     * TableRow}s first. TableRows are only built for the records which fail to be written.
+     */
+    public BigQueryWriteUtils.BigQueryWrite withDirectAvroWrites(boolean directAvroWrites) {
+      this.directAvroWrites = directAvroWrites;
+      return this;
+    }
+
     private static class GenericRecordToTableRowFn
         extends DoFn<
             FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord>,
@@ -166,18 +190,23 @@ public class BigQueryWriteUtils {
 
       private boolean persistKafkaKey;
 
+      // Derives the TableSchema and conversion plan once per Avro schema.
+      private transient AvroTableRowConverterCache converters;
+
       GenericRecordToTableRowFn(boolean persistKafkaKey) {
         this.persistKafkaKey = persistKafkaKey;
       }
 
+      @Setup
+      public void setup() {
+        converters = new AvroTableRowConverterCache();
+      }
+
       @ProcessElement
       public void processElement(ProcessContext context) {
         FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord> element = context.element();
         TableRow row =
-            BigQueryAvroUtils.convertGenericRecordToTableRow(
-                element.getPayload(),
-                BigQueryUtils.toTableSchema(
-                    AvroUtils.toBeamSchema(element.getPayload().getSchema())));
+            converters.get(element.getPayload().getSchema()).convert(element.getPayload());
         if (this.persistKafkaKey) {
           row.set(BigQueryConstants.KAFKA_KEY_FIELD, element.getOriginalPayload().getKV().getKey());
         }
@@ -196,30 +225,38 @@ public class BigQueryWriteUtils {
 
     public WriteResult expand(
         PCollection<FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord>> input) {
-      BigQueryIO.Write<TableRow> writeToBigQuery =
-          BigQueryIO.<TableRow>write()
-              .withSchema(
-                  BigQueryAvroUtils.convertAvroSchemaToTableSchema(
-                      avroSchema, this.persistKafkaKey))
-              .withWriteDisposition(
-                  BigQueryIO.Write.WriteDisposition.valueOf(this.writeDisposition))
-              .withCreateDisposition(
-                  BigQueryIO.Write.CreateDisposition.valueOf(this.createDisposition))
-              .withFailedInsertRetryPolicy(InsertRetryPolicy.retryTransientErrors())
-              .withFormatFunction(row -> row)
-              .withExtendedErrorInfo()
-              .withMethod(BigQueryIO.Write.Method.STORAGE_WRITE_API)
-              .withNumStorageWriteApiStreams(this.numStorageWriteApiStreams)
-              .withTriggeringFrequency(
-                  Duration.standardSeconds(this.storageWriteApiTriggeringFrequencySec.longValue()));
-
-      if (!(errorHandler instanceof ErrorHandler.DefaultErrorHandler)) {
-        writeToBigQuery = writeToBigQuery.withErrorHandler(errorHandler);
+      TableSchema tableSchema =
+          BigQueryAvroUtils.convertAvroSchemaToTableSchema(avroSchema, this.persistKafkaKey);
+      if (this.directAvroWrites) {
+        BigQueryIO.Write<KV<byte[], GenericRecord>> writeRecords =
+            withStorageWriteApiOptions(
+                BigQueryIO.<KV<byte[], GenericRecord>>write()
+                    .withSchema(tableSchema)
+                    .withAvroFormatFunction(new KeyedRecordFormatFn(this.persistKafkaKey)),
+                this.writeDisposition,
+                this.createDisposition,
+                this.numStorageWriteApiStreams,
+                this.storageWriteApiTriggeringFrequencySec,
+                this.useAutoSharding,
+                this.errorHandler);
+        if (this.outputTableSpec != null) {
+          writeRecords = writeRecords.to(this.outputTableSpec);
+        }
+        return input
+            .apply("ExtractGenericRecord", ParDo.of(new ToKeyedRecordFn(this.persistKafkaKey)))
+            .setCoder(KEYED_RECORD_CODER)
+            .apply(writeRecords);
       }
 
-      if (this.useAutoSharding) {
-        writeToBigQuery = writeToBigQuery.withAutoSharding();
-      }
+      BigQueryIO.Write<TableRow> writeToBigQuery =
+          withStorageWriteApiOptions(
+              BigQueryIO.<TableRow>write().withSchema(tableSchema).withFormatFunction(row -> row),
+              this.writeDisposition,
+              this.createDisposition,
+              this.numStorageWriteApiStreams,
+              this.storageWriteApiTriggeringFrequencySec,
+              this.useAutoSharding,
+              this.errorHandler);
 
       if (this.outputTableSpec != null) {
         writeToBigQuery = writeToBigQuery.to(this.outputTableSpec);
@@ -266,6 +303,8 @@ public class BigQueryWriteUtils {
 
     private ErrorHandler<BadRecord, ?> errorHandler;
 
+    private boolean directAvroWrites;
+
     public BigQueryDynamicWrite(
         String outputProject,
         String outputDataset,
@@ -357,36 +396,58 @@ public class BigQueryWriteUtils {
           errorHandler);
     }
 
+    /**
+     * Writes the Avro records with the Storage Write API without converting them to {@link
+     * TableRow}s first. TableRows are only built for the records which fail to be written.
+     */
+    public BigQueryDynamicWrite withDirectAvroWrites(boolean directAvroWrites) {
+      this.directAvroWrites = directAvroWrites;
+      return this;
+    }
+
     public WriteResult expand(
         PCollection<FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord>> input) {
-      WriteResult writeResult;
-      BigQueryIO.Write<KV<GenericRecord, TableRow>> writeToBigQuery =
-          BigQueryIO.<KV<GenericRecord, TableRow>>write()
-              .to(
-                  BigQueryDynamicDestination.of(
-                      this.outputProject,
-                      this.outputDataset,
-                      this.outputTableNamePrefix,
-                      this.persistKafkaKey))
-              .withWriteDisposition(
-                  BigQueryIO.Write.WriteDisposition.valueOf(this.writeDisposition))
-              .withCreateDisposition(
-                  BigQueryIO.Write.CreateDisposition.valueOf(this.createDisposition))
-              .withFailedInsertRetryPolicy(InsertRetryPolicy.retryTransientErrors())
-              .withFormatFunction(kv -> kv.getValue())
-              .withExtendedErrorInfo()
-              .withMethod(BigQueryIO.Write.Method.STORAGE_WRITE_API)
-              .withNumStorageWriteApiStreams(this.numStorageWriteApiStreams)
-              .withTriggeringFrequency(
-                  Duration.standardSeconds(this.storageWriteApiTriggeringFrequencySec.longValue()));
-
-      if (!(errorHandler instanceof ErrorHandler.DefaultErrorHandler)) {
-        writeToBigQuery = writeToBigQuery.withErrorHandler(errorHandler);
+      if (this.directAvroWrites) {
+        BigQueryIO.Write<KV<byte[], GenericRecord>> writeRecords =
+            withStorageWriteApiOptions(
+                BigQueryIO.<KV<byte[], GenericRecord>>write()
+                    .to(
+                        BigQueryDynamicDestination.<KV<byte[], GenericRecord>>of(
+                            this.outputProject,
+                            this.outputDataset,
+                            this.outputTableNamePrefix,
+                            this.persistKafkaKey,
+                            KV::getValue))
+                    .withAvroFormatFunction(new KeyedRecordFormatFn(this.persistKafkaKey)),
+                this.writeDisposition,
+                this.createDisposition,
+                this.numStorageWriteApiStreams,
+                this.storageWriteApiTriggeringFrequencySec,
+                this.useAutoSharding,
+                this.errorHandler);
+        return input
+            .apply("ExtractGenericRecord", ParDo.of(new ToKeyedRecordFn(this.persistKafkaKey)))
+            .setCoder(KEYED_RECORD_CODER)
+            .apply(writeRecords);
       }
 
-      if (this.useAutoSharding) {
-        writeToBigQuery = writeToBigQuery.withAutoSharding();
-      }
+      WriteResult writeResult;
+      BigQueryIO.Write<KV<GenericRecord, TableRow>> writeToBigQuery =
+          withStorageWriteApiOptions(
+              BigQueryIO.<KV<GenericRecord, TableRow>>write()
+                  .to(
+                      BigQueryDynamicDestination.of(
+                          this.outputProject,
+                          this.outputDataset,
+                          this.outputTableNamePrefix,
+                          this.persistKafkaKey))
+                  .withFormatFunction(kv -> kv.getValue()),
+              this.writeDisposition,
+              this.createDisposition,
+              this.numStorageWriteApiStreams,
+              this.storageWriteApiTriggeringFrequencySec,
+              this.useAutoSharding,
+              this.errorHandler);
       writeResult =
           input
               .apply(
@@ -410,18 +471,23 @@ public class BigQueryWriteUtils {
 
       private boolean persistKafkaKey;
 
+      // Derives the TableSchema and conversion plan once per Avro schema.
+      private transient AvroTableRowConverterCache converters;
+
       GenericRecordToTableRowFn(boolean persistKafkaKey) {
         this.persistKafkaKey = persistKafkaKey;
       }
 
+      @Setup
+      public void setup() {
+        converters = new AvroTableRowConverterCache();
+      }
+
       @ProcessElement
       public void processElement(ProcessContext context) {
         FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord> element = context.element();
         TableRow row =
-            BigQueryAvroUtils.convertGenericRecordToTableRow(
-                element.getPayload(),
-                BigQueryUtils.toTableSchema(
-                    AvroUtils.toBeamSchema(element.getPayload().getSchema())));
+            converters.get(element.getPayload().getSchema()).convert(element.getPayload());
         if (this.persistKafkaKey) {
           row.set(BigQueryConstants.KAFKA_KEY_FIELD, element.getOriginalPayload().getKV().getKey());
         }
@@ -441,4 +507,111 @@ public class BigQueryWriteUtils {
       }
     }
   }
+
+  // Applies the Storage Write API options shared by all the BigQuery writes of the template.
+  private static <T> BigQueryIO.Write<T> withStorageWriteApiOptions(
+      BigQueryIO.Write<T> write,
+      String writeDisposition,
+      String createDisposition,
+      Integer numStorageWriteApiStreams,
+      Integer storageWriteApiTriggeringFrequencySec,
+      Boolean useAutoSharding,
+      ErrorHandler<BadRecord, ?> errorHandler) {
+    BigQueryIO.Write<T> writeToBigQuery =
+        write
+            .withWriteDisposition(BigQueryIO.Write.WriteDisposition.valueOf(writeDisposition))
+            .withCreateDisposition(BigQueryIO.Write.CreateDisposition.valueOf(createDisposition))
+            .withFailedInsertRetryPolicy(InsertRetryPolicy.retryTransientErrors())
+            .withExtendedErrorInfo()
+            .withMethod(BigQueryIO.Write.Method.STORAGE_WRITE_API)
+            .withNumStorageWriteApiStreams(numStorageWriteApiStreams)
+            .withTriggeringFrequency(
+                Duration.standardSeconds(storageWriteApiTriggeringFrequencySec.longValue()));
+
+    // BigQueryIO records bad records even with the no-op DefaultErrorHandler, so it is only
+    // passed a real one.
+    if (!(errorHandler instanceof ErrorHandler.DefaultErrorHandler)) {
+      writeToBigQuery = writeToBigQuery.withErrorHandler(errorHandler);
+    }
+
+    if (useAutoSharding) {
+      writeToBigQuery = writeToBigQuery.withAutoSharding();
+    }
+    return writeToBigQuery;
+  }
+
+  /** Pairs the Avro records with the key of their Kafka record, when it is persisted. */
+  private static class ToKeyedRecordFn
+      extends DoFn<
+          FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord>, KV<byte[], GenericRecord>> {
+
+    private final boolean persistKafkaKey;
+
+    ToKeyedRecordFn(boolean persistKafkaKey) {
+      this.persistKafkaKey = persistKafkaKey;
+    }
+
+    @ProcessElement
+    public void processElement(ProcessContext context) {
+      FailsafeElement<KafkaRecord<byte[], byte[]>, GenericRecord> element = context.element();
+      byte[] key = persistKafkaKey ? element.getOriginalPayload().getKV().getKey() : null;
+      context.output(KV.of(key, element.getPayload()));
+    }
+  }
+
+  /**
+   * Hands the Avro records to the Storage Write API, which converts them to protos with a
+   * descriptor cached per destination.
+   *
+   * <p>The records are passed as is, unless the Kafka key is persisted, in which case they are
+   * copied to a record of the same schema with an extra nullable {@code _key} field.
+   */
+  static class KeyedRecordFormatFn
+      implements SerializableFunction<AvroWriteRequest<KV<byte[], GenericRecord>>, GenericRecord> {
+
+    private final boolean persistKafkaKey;
+
+    // The schemas with a key field, by source schema.
+    private transient Map<Schema, Schema> keyedSchemas;
+
+    KeyedRecordFormatFn(boolean persistKafkaKey) {
+      this.persistKafkaKey = persistKafkaKey;
+    }
+
+    @Override
+    public GenericRecord apply(AvroWriteRequest<KV<byte[], GenericRecord>> request) {
+      GenericRecord record = request.getElement().getValue();
+      if (!persistKafkaKey) {
+        return record;
+      }
+      if (keyedSchemas == null) {
+        keyedSchemas = new ConcurrentHashMap<>();
+      }
+      Schema keyedSchema =
+          keyedSchemas.computeIfAbsent(record.getSchema(), KeyedRecordFormatFn::withKeyField);
+      GenericData.Record keyedRecord = new GenericData.Record(keyedSchema);
+      int fieldCount = record.getSchema().getFields().size();
+      for (int i = 0; i < fieldCount; i++) {
+        keyedRecord.put(i, record.get(i));
+      }
+      byte[] key = request.getElement().getKey();
+      keyedRecord.put(fieldCount, key == null ? null : ByteBuffer.wrap(key));
+      return keyedRecord;
+    }
+
+    static Schema withKeyField(Schema schema) {
+      List<Schema.Field> fields = new ArrayList<>();
+      for (Schema.Field field : schema.getFields()) {
+        fields.add(new Schema.Field(field, field.schema()));
+      }
+      fields.add(
+          new Schema.Field(
+              BigQueryConstants.KAFKA_KEY_FIELD,
+              Schema.createUnion(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.BYTES)),
+              null,
+              Schema.Field.NULL_DEFAULT_VALUE));
+      return Schema.createRecord(
+          schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError(), fields);
+    }
+  }
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.utils;
+
+import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.MoreObjects.firstNonNull;
+import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.Verify.verify;
+import static org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.base.Verify.verifyNotNull;
+
+import com.google.api.services.bigquery.model.TableFieldSchema;
+import com.google.api.services.bigquery.model.TableRow;
+import com.google.api.services.bigquery.model.TableSchema;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.extensions.avro.schemas.utils.AvroUtils;
+import org.apache.beam.sdk.io.gcp.bigquery.BigQueryUtils;
+import org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.collect.ImmutableCollection;
+import org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.io.BaseEncoding;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Converts the {@link GenericRecord}s of one Avro schema to {@link TableRow}s.
+ *
+ * <p>The {@link TableSchema} of the Avro schema and a conversion plan are derived once, when the
+ * converter is created: every BigQuery field is bound to the position of its Avro field and to a
+ * cell converter chosen from the field mode and types. Converting a record then only reads its
+ * fields by position and converts their values. The rows are the same as those of {@link
+ * BigQueryAvroUtils#convertGenericRecordToTableRow(GenericRecord, TableSchema)}.
+ */
+public final class AvroTableRowConverter {
+
+  /** Converts an Avro value to its {@link TableRow} cell value. */
+  private interface CellConverter {
+    @Nullable Object convert(@Nullable Object value);
+  }
+
+  /** A BigQuery field, with the position of its Avro field and the converter of its values. */
+  private static final class FieldPlan {
+    final String name;
+    final int position;
+    final CellConverter converter;
+
+    FieldPlan(String name, int position, CellConverter converter) {
+      this.name = name;
+      this.position = position;
+      this.converter = converter;
+    }
+  }
+
+  private final Schema avroSchema;
+  private final TableSchema tableSchema;
+  private final List<FieldPlan> plan;
+
+  private AvroTableRowConverter(Schema avroSchema, TableSchema tableSchema) {
+    this.avroSchema = avroSchema;
+    this.tableSchema = tableSchema;
+    this.plan = compileRecord(avroSchema, tableSchema.getFields());
+  }
+
+  /** Derives the {@link TableSchema} of an Avro schema, and compiles its conversion plan. */
+  public static AvroTableRowConverter of(Schema avroSchema) {
+    return new AvroTableRowConverter(
+        avroSchema, BigQueryUtils.toTableSchema(AvroUtils.toBeamSchema(avroSchema)));
+  }
+
+  /** Returns the Avro schema of the converted records. */
+  public Schema getAvroSchema() {
+    return avroSchema;
+  }
+
+  /** Returns the {@link TableSchema} derived from the Avro schema. */
+  public TableSchema getTableSchema() {
+    return tableSchema;
+  }
+
+  /** Converts a record of the Avro schema of this converter. */
+  public TableRow convert(GenericRecord record) {
+    return convertRecord(record, plan);
+  }
+
+  private static TableRow convertRecord(GenericRecord record, List<FieldPlan> plan) {
+    TableRow row = new TableRow();
+    for (FieldPlan field : plan) {
+      Object convertedValue = field.converter.convert(record.get(field.position));
+      if (convertedValue != null) {
+        // To match the JSON files exported by BigQuery, do not include null values in the output.
+        row.set(field.name, convertedValue);
+      }
+    }
+    return row;
+  }
+
+  private static List<FieldPlan> compileRecord(Schema avroSchema, List<TableFieldSchema> fields) {
+    List<FieldPlan> plan = new ArrayList<>(fields.size());
+    for (TableFieldSchema fieldSchema : fields) {
+      Field field = avroSchema.getField(fieldSchema.getName());
+      verifyNotNull(field, "Avro schema %s has no field %s", avroSchema, fieldSchema.getName());
+      plan.add(new FieldPlan(field.name(), field.pos(), compileCell(field.schema(), fieldSchema)));
+    }
+    return plan;
+  }
+
+  /*
+   * Compiles the converter of a field from its mode. Schemas which do not match the mode fail every
+   * conversion, and schemas which do not match the type fail the conversions of non null values,
+   * as they do in BigQueryAvroUtils.
+   */
+  private static CellConverter compileCell(Schema schema, TableFieldSchema fieldSchema) {
+    String mode = firstNonNull(fieldSchema.getMode(), "NULLABLE");
+    try {
+      switch (mode) {
+        case "REQUIRED":
+          CellConverter required = compileRequired(schema, fieldSchema);
+          return v -> {
+            checkNotNull(v, "REQUIRED field %s should not be null", fieldSchema.getName());
+            return required.convert(v);
+          };
+        case "REPEATED":
+          return compileRepeated(schema, fieldSchema);
+        case "NULLABLE":
+          return compileNullable(schema, fieldSchema);
+        default:
+          throw new UnsupportedOperationException(
+              "Parsing a field with BigQuery field schema mode " + fieldSchema.getMode());
+      }
+    } catch (RuntimeException e) {
+      return v -> {
+        throw e;
+      };
+    }
+  }
+
+  private static CellConverter compileRepeated(Schema schema, TableFieldSchema fieldSchema) {
+    verify(
+        schema.getType() == Type.ARRAY,
+        "BigQuery REPEATED field %s should be Avro ARRAY, not %s",
+        fieldSchema.getName(),
+        schema.getType());
+    CellConverter element = compileRequired(schema.getElementType(), fieldSchema);
+    return v -> {
+      // REPEATED fields are represented as Avro arrays.
+      if (v == null) {
+        // Handle the case of an empty repeated field.
+        return new ArrayList<>();
+      }
+      List<?> elements = (List<?>) v;
+      ArrayList<Object> values = new ArrayList<>(elements.size());
+      for (Object value : elements) {
+        checkNotNull(value, "REQUIRED field %s should not be null", fieldSchema.getName());
+        values.add(element.convert(value));
+      }
+      return values;
+    };
+  }
+
+  private static CellConverter compileNullable(Schema schema, TableFieldSchema fieldSchema) {
+    // NULLABLE fields are represented as an Avro Union of the corresponding type and "null".
+    verify(
+        schema.getType() == Type.UNION,
+        "Expected Avro schema type UNION, not %s, for BigQuery NULLABLE field %s",
+        schema.getType(),
+        fieldSchema.getName());
+    List<Schema> unionTypes = schema.getTypes();
+    verify(
+        unionTypes.size() == 2,
+        "BigQuery NULLABLE field %s should be an Avro UNION of NULL and another type, not %s",
+        fieldSchema.getName(),
+        unionTypes);
+    Schema valueSchema =
+        unionTypes.get(0).getType() != Type.NULL ? unionTypes.get(0) : unionTypes.get(1);
+    CellConverter value = compileRequired(valueSchema, fieldSchema);
+    return v -> v == null ? null : value.convert(v);
+  }
+
+  /*
+   * Compiles the converter of a non null value. The Avro types are checked once here, values are
+   * only cast. Type mismatches fail the conversions instead of the compilation, since they only
+   * fail BigQueryAvroUtils for non null values.
+   */
+  private static CellConverter compileRequired(Schema schema, TableFieldSchema fieldSchema) {
+    try {
+      return compileRequiredValue(schema, fieldSchema);
+    } catch (RuntimeException e) {
+      return v -> {
+        throw e;
+      };
+    }
+  }
+
+  private static CellConverter compileRequiredValue(Schema schema, TableFieldSchema fieldSchema) {
+    Type avroType = schema.getType();
+    LogicalType avroLogicalType = schema.getLogicalType();
+    String bqType = fieldSchema.getType();
+    ImmutableCollection<Type> expectedAvroTypes =
+        BigQueryAvroUtils.BIG_QUERY_TO_AVRO_TYPES.get(bqType);
+    verifyNotNull(expectedAvroTypes, "Unsupported BigQuery type: %s", bqType);
+    verify(
+        expectedAvroTypes.contains(avroType),
+        "Expected Avro schema types %s for BigQuery %s field %s, but received %s",
+        expectedAvroTypes,
+        bqType,
+        fieldSchema.getName(),
+        avroType);
+    switch (bqType) {
+      case "STRING":
+      case "DATETIME":
+      case "GEOGRAPHY":
+      case "JSON":
+        return Object::toString;
+      case "DATE":
+        if (avroType == Type.INT) {
+          verifyNotNull(avroLogicalType, "Expected Date logical type");
+          verify(avroLogicalType instanceof LogicalTypes.Date, "Expected Date logical type");
+          return v -> BigQueryAvroUtils.formatDate((Integer) v);
+        }
+        return Object::toString;
+      case "TIME":
+        if (avroType == Type.LONG) {
+          verifyNotNull(avroLogicalType, "Expected TimeMicros logical type");
+          verify(
+              avroLogicalType instanceof LogicalTypes.TimeMicros,
+              "Expected TimeMicros logical type");
+          return v -> BigQueryAvroUtils.formatTime((Long) v);
+        }
+        return Object::toString;
+      case "INTEGER":
+      case "INT64":
+        if (avroType == Type.INT) {
+          return v -> Long.toString((Integer) v);
+        }
+        return v -> Long.toString((Long) v);
+      case "FLOAT64":
+        switch (avroType) {
+          case INT:
+            return v -> (double) (Integer) v;
+          case LONG:
+            return v -> (double) (Long) v;
+          case FLOAT:
+            return v -> (double) (Float) v;
+          default:
+            return v -> (Double) v;
+        }
+      case "NUMERIC":
+      case "BIGNUMERIC":
+        // NUMERIC data types are represented as BYTES with the DECIMAL logical type. They are
+        // converted back to Strings with precision and scale determined by the logical type.
+        verifyNotNull(avroLogicalType, "Expected Decimal logical type");
+        verify(avroLogicalType instanceof LogicalTypes.Decimal, "Expected Decimal logical type");
+        Conversions.DecimalConversion conversion = new Conversions.DecimalConversion();
+        Schema bytesSchema = Schema.create(avroType);
+        return v -> conversion.fromBytes((ByteBuffer) v, bytesSchema, avroLogicalType).toString();
+      case "BOOL":
+      case "BOOLEAN":
+        return v -> (Boolean) v;
+      case "TIMESTAMP":
+        return v -> BigQueryAvroUtils.formatTimestamp((Long) v);
+      case "RECORD":
+      case "STRUCT":
+        List<FieldPlan> plan = compileRecord(schema, fieldSchema.getFields());
+        return v -> convertRecord((GenericRecord) v, plan);
+      case "BYTES":
+        return v -> {
+          ByteBuffer byteBuffer = ((ByteBuffer) v).duplicate();
+          byte[] bytes = new byte[byteBuffer.remaining()];
+          byteBuffer.get(bytes);
+          return BaseEncoding.base64().encode(bytes);
+        };
+      default:
+        throw new UnsupportedOperationException(
+            String.format(
+                "Unexpected BigQuery field schema type %s for field named %s",
+                fieldSchema.getType(), fieldSchema.getName()));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
+
+/**
+ * A cache of {@link AvroTableRowConverter}s by Avro schema, meant to be held by a single {@code
+ * DoFn} instance.
+ *
+ * <p>Converters are keyed by the 64-bit fingerprint of the full JSON form of their schema, so that
+ * equal schemas share a converter, logical types included. Decoders usually hand out the same
+ * {@link Schema} object for all the records of a schema, so the schema objects which were already
+ * seen are looked up by identity first, and the fingerprint is only computed for new ones.
+ */
+public class AvroTableRowConverterCache {
+
+  private static final Counter CACHE_HITS =
+      Metrics.counter(AvroTableRowConverterCache.class, "avro_table_row_converter_cache_hits");
+
+  private static final Counter CACHE_MISSES =
+      Metrics.counter(AvroTableRowConverterCache.class, "avro_table_row_converter_cache_misses");
+
+  // Bounds the schema objects kept, for decoders which create a schema object per record.
+  private static final int MAX_SCHEMA_OBJECTS = 1000;
+
+  private final Map<Schema, AvroTableRowConverter> bySchemaObject = new IdentityHashMap<>();
+  private final Map<Long, AvroTableRowConverter> byFingerprint = new HashMap<>();
+
+  /** Returns the converter of a schema, creating it on first use. */
+  public AvroTableRowConverter get(Schema schema) {
+    AvroTableRowConverter converter = bySchemaObject.get(schema);
+    if (converter != null) {
+      CACHE_HITS.inc();
+      return converter;
+    }
+    long fingerprint =
+        SchemaNormalization.fingerprint64(schema.toString().getBytes(StandardCharsets.UTF_8));
+    converter = byFingerprint.get(fingerprint);
+    if (converter == null) {
+      CACHE_MISSES.inc();
+      converter = AvroTableRowConverter.of(schema);
+      byFingerprint.put(fingerprint, converter);
+    } else {
+      CACHE_HITS.inc();
+    }
+    if (bySchemaObject.size() >= MAX_SCHEMA_OBJECTS) {
+      bySchemaObject.clear();
+    }
+    bySchemaObject.put(schema, converter);
+    return converter;
+  }
+
+  /** Returns the number of distinct schemas with a converter. */
+  public int size() {
+    return byFingerprint.size();
+  }
+}
@@ -139,7 +139,7 @@ public class BigQueryAvroUtils {
    * export. Date records are stored in "days since epoch" format, and BigQuery uses the proleptic
    * Gregorian calendar.
    */
-  private static String formatDate(int date) {
+  static String formatDate(int date) {
     return LocalDate.ofEpochDay(date).format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE);
   }
 
@@ -178,7 +178,7 @@ public class BigQueryAvroUtils {
    * This method formats a BigQuery TIME value into a String matching the format used by JSON
    * export. Time records are stored in "microseconds since midnight" format.
    */
-  private static String formatTime(long timeMicros) {
+  static String formatTime(long timeMicros) {
     java.time.format.DateTimeFormatter formatter;
     if (timeMicros % 1000000 == 0) {
       formatter = ISO_LOCAL_TIME_FORMATTER_SECONDS;
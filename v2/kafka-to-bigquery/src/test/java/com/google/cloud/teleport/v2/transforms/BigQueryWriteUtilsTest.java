@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.transforms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.cloud.teleport.v2.transforms.BigQueryWriteUtils.KeyedRecordFormatFn;
+import com.google.cloud.teleport.v2.utils.BigQueryConstants;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.beam.sdk.io.gcp.bigquery.AvroWriteRequest;
+import org.apache.beam.sdk.values.KV;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link BigQueryWriteUtils}. */
+@RunWith(JUnit4.class)
+public class BigQueryWriteUtilsTest {
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.record("Trade")
+          .namespace("com.example")
+          .fields()
+          .requiredLong("id")
+          .optionalString("symbol")
+          .endRecord();
+
+  private static GenericRecord trade(long id, String symbol) {
+    return new GenericRecordBuilder(SCHEMA).set("id", id).set("symbol", symbol).build();
+  }
+
+  private static AvroWriteRequest<KV<byte[], GenericRecord>> request(
+      byte[] key, GenericRecord record) {
+    return new AvroWriteRequest<>(KV.of(key, record), null);
+  }
+
+  @Test
+  public void testKeyedRecordFormatFnPassesRecordsThroughWithoutKey() {
+    GenericRecord record = trade(1L, "GOOGL");
+
+    assertSame(record, new KeyedRecordFormatFn(false).apply(request(null, record)));
+  }
+
+  @Test
+  public void testKeyedRecordFormatFnAddsTheKafkaKey() {
+    KeyedRecordFormatFn formatFn = new KeyedRecordFormatFn(true);
+    byte[] key = "key".getBytes(StandardCharsets.UTF_8);
+
+    GenericRecord keyed = formatFn.apply(request(key, trade(1L, "GOOGL")));
+    GenericRecord unkeyed = formatFn.apply(request(null, trade(2L, null)));
+
+    assertEquals(1L, keyed.get("id"));
+    assertEquals("GOOGL", keyed.get("symbol"));
+    assertEquals(ByteBuffer.wrap(key), keyed.get(BigQueryConstants.KAFKA_KEY_FIELD));
+    assertEquals(2L, unkeyed.get("id"));
+    assertNull(unkeyed.get("symbol"));
+    assertNull(unkeyed.get(BigQueryConstants.KAFKA_KEY_FIELD));
+    assertSame(keyed.getSchema(), unkeyed.getSchema());
+    assertEquals(SCHEMA.getFullName(), keyed.getSchema().getFullName());
+  }
+}
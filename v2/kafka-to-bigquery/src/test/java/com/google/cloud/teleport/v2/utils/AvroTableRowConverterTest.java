@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.services.bigquery.model.TableRow;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.beam.sdk.extensions.avro.schemas.utils.AvroUtils;
+import org.apache.beam.sdk.io.gcp.bigquery.BigQueryUtils;
+import org.apache.beam.vendor.guava.v32_1_2_jre.com.google.common.io.BaseEncoding;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AvroTableRowConverter} and {@link AvroTableRowConverterCache}. */
+@RunWith(JUnit4.class)
+public class AvroTableRowConverterTest {
+
+  private static final String SCHEMA_JSON =
+      "{\"type\":\"record\",\"name\":\"Trade\",\"namespace\":\"com.example\",\"fields\":["
+          + "{\"name\":\"id\",\"type\":\"long\"},"
+          + "{\"name\":\"quantity\",\"type\":\"int\"},"
+          + "{\"name\":\"symbol\",\"type\":\"string\"},"
+          + "{\"name\":\"note\",\"type\":[\"null\",\"string\"],\"default\":null},"
+          + "{\"name\":\"price\",\"type\":\"double\"},"
+          + "{\"name\":\"ratio\",\"type\":\"float\"},"
+          + "{\"name\":\"settled\",\"type\":\"boolean\"},"
+          + "{\"name\":\"payload\",\"type\":\"bytes\"},"
+          + "{\"name\":\"side\",\"type\":{\"type\":\"enum\",\"name\":\"Side\","
+          + "\"symbols\":[\"BUY\",\"SELL\"]}},"
+          + "{\"name\":\"tradeTime\",\"type\":{\"type\":\"long\","
+          + "\"logicalType\":\"timestamp-millis\"}},"
+          + "{\"name\":\"amount\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal\","
+          + "\"precision\":10,\"scale\":2}},"
+          + "{\"name\":\"fills\",\"type\":{\"type\":\"array\",\"items\":\"long\"}},"
+          + "{\"name\":\"venue\",\"type\":{\"type\":\"record\",\"name\":\"Venue\",\"fields\":["
+          + "{\"name\":\"code\",\"type\":\"string\"},"
+          + "{\"name\":\"lane\",\"type\":[\"null\",\"int\"],\"default\":null}]}}]}";
+
+  private static GenericRecord trade(Schema schema, String note, Integer lane) {
+    Schema venueSchema = schema.getField("venue").schema();
+    Schema amountSchema = schema.getField("amount").schema();
+    ByteBuffer amount =
+        new Conversions.DecimalConversion()
+            .toBytes(new BigDecimal("1234.50"), amountSchema, LogicalTypes.decimal(10, 2));
+    return new GenericRecordBuilder(schema)
+        .set("id", 42L)
+        .set("quantity", 7)
+        .set("symbol", "GOOGL")
+        .set("note", note)
+        .set("price", 1006.94)
+        .set("ratio", 0.5f)
+        .set("settled", true)
+        .set("payload", ByteBuffer.wrap("bytes".getBytes(StandardCharsets.UTF_8)))
+        .set("side", new GenericData.EnumSymbol(schema.getField("side").schema(), "SELL"))
+        .set("tradeTime", 1641600000000L)
+        .set("amount", amount)
+        .set("fills", Arrays.asList(1L, 2L, 3L))
+        .set(
+            "venue",
+            new GenericRecordBuilder(venueSchema).set("code", "XNAS").set("lane", lane).build())
+        .build();
+  }
+
+  private static TableRow expected(GenericRecord record) {
+    return BigQueryAvroUtils.convertGenericRecordToTableRow(
+        record, BigQueryUtils.toTableSchema(AvroUtils.toBeamSchema(record.getSchema())));
+  }
+
+  @Test
+  public void testConvertMatchesBigQueryAvroUtils() {
+    Schema schema = new Schema.Parser().parse(SCHEMA_JSON);
+    AvroTableRowConverter converter = AvroTableRowConverter.of(schema);
+
+    // BigQueryAvroUtils consumes the byte buffers of a record, so each side gets its own record.
+    assertEquals(
+        expected(trade(schema, "first fill", 3)),
+        converter.convert(trade(schema, "first fill", 3)));
+    assertEquals(expected(trade(schema, null, null)), converter.convert(trade(schema, null, null)));
+    assertEquals(
+        BigQueryUtils.toTableSchema(AvroUtils.toBeamSchema(schema)), converter.getTableSchema());
+  }
+
+  @Test
+  public void testConvertDoesNotConsumeByteBuffers() {
+    Schema schema = new Schema.Parser().parse(SCHEMA_JSON);
+    AvroTableRowConverter converter = AvroTableRowConverter.of(schema);
+    GenericRecord record = trade(schema, null, null);
+
+    assertEquals(converter.convert(record), converter.convert(record));
+  }
+
+  @Test
+  public void testConvertReadsRemainingBytesOfByteBuffers() {
+    Schema schema = new Schema.Parser().parse(SCHEMA_JSON);
+    AvroTableRowConverter converter = AvroTableRowConverter.of(schema);
+    GenericRecord record = trade(schema, null, null);
+    ByteBuffer payload = ByteBuffer.wrap("--bytes".getBytes(StandardCharsets.UTF_8));
+    payload.position(2);
+    record.put("payload", payload);
+
+    assertEquals(
+        BaseEncoding.base64().encode("bytes".getBytes(StandardCharsets.UTF_8)),
+        converter.convert(record).get("payload"));
+    assertEquals(2, payload.position());
+  }
+
+  @Test
+  public void testCacheSharesConvertersOfEqualSchemas() {
+    AvroTableRowConverterCache cache = new AvroTableRowConverterCache();
+    Schema schema = new Schema.Parser().parse(SCHEMA_JSON);
+    Schema sameSchema = new Schema.Parser().parse(SCHEMA_JSON);
+    Schema otherSchema =
+        new Schema.Parser().parse(SCHEMA_JSON.replace("\"scale\":2", "\"scale\":3"));
+
+    AvroTableRowConverter converter = cache.get(schema);
+
+    assertSame(converter, cache.get(schema));
+    assertSame(converter, cache.get(sameSchema));
+    assertNotSame(converter, cache.get(otherSchema));
+    assertEquals(2, cache.size());
+  }
+}
@@ -265,6 +265,21 @@ public class PubSubToRedis {
     String getOutputDeadletterTopic();
 
     void setOutputDeadletterTopic(String outputDeadletterTopic);
+
+    @TemplateParameter.Boolean(
+        order = 10,
+        optional = true,
+        parentName = "redisSinkType",
+        parentTriggerValues = {"HASH_SINK", "LOGGING_SINK"},
+        description = "Redis Cluster mode, supported only for HASH_SINK and LOGGING_SINK",
+        helpText =
+            "Whether the Redis database is a Redis Cluster. In cluster mode, the host and port are"
+                + " those of any node of the cluster, and the keys are written to the nodes which"
+                + " own their hash slots, with one pipeline per node. Defaults to `false`.")
+    @Default.Boolean(false)
+    Boolean getRedisClusterEnabled();
+
+    void setRedisClusterEnabled(Boolean redisClusterEnabled);
   }
 
   /** Allowed list of sink types. */
@@ -359,7 +374,8 @@ public class PubSubToRedis {
           "Write to " + HASH_SINK.name(),
           RedisHashIO.write()
               .withConnectionConfiguration(redisConnectionConfiguration)
-              .withTtl(options.getTtl()));
+              .withTtl(options.getTtl())
+              .withClusterMode(options.getRedisClusterEnabled()));
     }
     if (options.getRedisSinkType().equals(LOGGING_SINK)) {
       PCollection<KV<String, KV<String, String>>> pCollectionHash =
@@ -370,7 +386,8 @@ public class PubSubToRedis {
           "Write to " + LOGGING_SINK.name(),
           RedisHashIO.write()
               .withConnectionConfiguration(redisConnectionConfiguration)
-              .withTtl(options.getTtl()));
+              .withTtl(options.getTtl())
+              .withClusterMode(options.getRedisClusterEnabled()));
     }
     if (options.getRedisSinkType().equals(STREAMS_SINK)) {
       PCollection<KV<String, Map<String, String>>> pCollectionStreams =
@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.templates.io;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.beam.sdk.io.redis.RedisConnectionConfiguration;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/**
+ * Writes hashes to a Redis Cluster with one pipeline per shard node.
+ *
+ * <p>The writer keeps the owner node of every hash slot, as reported by {@code CLUSTER SLOTS}, and
+ * buffers every write for the node which owns the slot of its key. {@link #flush()} sends the
+ * buffers of all nodes as pipelines, concurrently. Writes answered with a {@code MOVED} redirect
+ * update the slot owner and are sent again to the new owner; writes answered with an {@code ASK}
+ * redirect are sent again to the importing node, after an {@code ASKING} command.
+ *
+ * <p>A writer is not thread safe, it is owned by a single {@code DoFn} instance. Only the pipelines
+ * of different nodes run on other threads, and metrics are reported from the calling thread.
+ */
+class RedisClusterHashWriter implements AutoCloseable {
+
+  static final int SLOT_COUNT = 16384;
+
+  static final long NO_EXPIRATION = -1L;
+
+  private static final int MAX_REDIRECT_ROUNDS = 5;
+
+  private static final Counter MOVED_REDIRECTS =
+      Metrics.counter(RedisClusterHashWriter.class, "redis_cluster_moved_redirects");
+
+  private static final Counter ASK_REDIRECTS =
+      Metrics.counter(RedisClusterHashWriter.class, "redis_cluster_ask_redirects");
+
+  /** Opens connections to the nodes of a cluster. */
+  interface NodeConnector extends Serializable {
+    Jedis connect(HostAndPort node);
+  }
+
+  /** Returns a {@link NodeConnector} with the credentials and settings of a configuration. */
+  static NodeConnector connector(RedisConnectionConfiguration configuration) {
+    return node -> {
+      Jedis jedis =
+          new Jedis(
+              node.getHost(),
+              node.getPort(),
+              configuration.timeout().get(),
+              configuration.ssl().get());
+      String auth = configuration.auth() == null ? null : configuration.auth().get();
+      if (auth != null && !auth.isEmpty()) {
+        jedis.auth(auth);
+      }
+      return jedis;
+    };
+  }
+
+  /** A hash write, with the node it was redirected to by an {@code ASK}, if any. */
+  private static class HashWrite {
+    final String key;
+    final Map<String, String> fields;
+    @Nullable HostAndPort askingNode;
+
+    HashWrite(String key, Map<String, String> fields) {
+      this.key = key;
+      this.fields = fields;
+    }
+  }
+
+  /** The outcome of the pipeline of a node. */
+  private static class NodeFlush {
+    final HostAndPort node;
+    final int batchSize;
+    final long latencyMillis;
+    final List<HashWrite> moved = new ArrayList<>();
+    final List<JedisMovedDataException> movedErrors = new ArrayList<>();
+    final List<HashWrite> asked = new ArrayList<>();
+
+    NodeFlush(HostAndPort node, int batchSize, long latencyMillis) {
+      this.node = node;
+      this.batchSize = batchSize;
+      this.latencyMillis = latencyMillis;
+    }
+  }
+
+  private final NodeConnector connector;
+  private final long expireTime;
+  private final HostAndPort[] slotOwners;
+  private final Map<HostAndPort, Jedis> connections = new HashMap<>();
+  private final Map<HostAndPort, Distribution> latencies = new HashMap<>();
+  private final Map<HostAndPort, Distribution> batchSizes = new HashMap<>();
+  private Map<HostAndPort, List<HashWrite>> pending = new LinkedHashMap<>();
+  private int largestBatch;
+  private final ExecutorService executor =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("redis-cluster-%d").build());
+
+  /**
+   * Creates a writer and reads the slot owners from a node of the cluster.
+   *
+   * @param expireTime the expiration time of the written keys in seconds, or {@link
+   *     #NO_EXPIRATION}.
+   */
+  static RedisClusterHashWriter create(NodeConnector connector, HostAndPort seed, long expireTime) {
+    RedisClusterHashWriter writer =
+        new RedisClusterHashWriter(connector, new HostAndPort[SLOT_COUNT], expireTime);
+    readSlotOwners(writer.connection(seed).clusterSlots(), seed, writer.slotOwners);
+    return writer;
+  }
+
+  RedisClusterHashWriter(NodeConnector connector, HostAndPort[] slotOwners, long expireTime) {
+    this.connector = connector;
+    this.slotOwners = slotOwners;
+    this.expireTime = expireTime;
+  }
+
+  /** Returns the hash slot of a key, honoring {@code {hash tags}}. */
+  static int slot(String key) {
+    return JedisClusterCRC16.getSlot(key);
+  }
+
+  /**
+   * Fills the slot owners from a {@code CLUSTER SLOTS} reply: a list of slot ranges, each with its
+   * first slot, last slot and master node. Nodes with no host are the node which was asked.
+   */
+  static void readSlotOwners(List<Object> clusterSlots, HostAndPort asked, HostAndPort[] owners) {
+    for (Object range : clusterSlots) {
+      List<?> slots = (List<?>) range;
+      int first = ((Long) slots.get(0)).intValue();
+      int last = ((Long) slots.get(1)).intValue();
+      List<?> master = (List<?>) slots.get(2);
+      String host = new String((byte[]) master.get(0), StandardCharsets.UTF_8);
+      int port = ((Long) master.get(1)).intValue();
+      HostAndPort owner = new HostAndPort(host.isEmpty() ? asked.getHost() : host, port);
+      for (int slot = first; slot <= last; slot++) {
+        owners[slot] = owner;
+      }
+    }
+  }
+
+  /** Buffers a write of hash fields for the owner node of the slot of its key. */
+  void write(String key, Map<String, String> fields) {
+    HostAndPort owner = slotOwners[slot(key)];
+    if (owner == null) {
+      throw new IllegalStateException("No node of the cluster serves the slot of key " + key);
+    }
+    List<HashWrite> writes = pending.computeIfAbsent(owner, node -> new ArrayList<>());
+    writes.add(new HashWrite(key, fields));
+    largestBatch = Math.max(largestBatch, writes.size());
+  }
+
+  /** Returns the number of buffered writes of the node with the most buffered writes. */
+  int largestBatch() {
+    return largestBatch;
+  }
+
+  /** Sends the buffered writes of every node, and waits until all of them are acknowledged. */
+  void flush() {
+    Map<HostAndPort, List<HashWrite>> batches = pending;
+    pending = new LinkedHashMap<>();
+    largestBatch = 0;
+    for (int round = 0; !batches.isEmpty(); round++) {
+      if (round > MAX_REDIRECT_ROUNDS) {
+        throw new IllegalStateException(
+            "Writes are still redirected after " + MAX_REDIRECT_ROUNDS + " rounds: " + batches);
+      }
+      Map<HostAndPort, List<HashWrite>> redirected = new LinkedHashMap<>();
+      for (NodeFlush result : sendPipelines(batches)) {
+        latencies
+            .computeIfAbsent(result.node, node -> nodeDistribution("latency_ms", node))
+            .update(result.latencyMillis);
+        batchSizes
+            .computeIfAbsent(result.node, node -> nodeDistribution("batch_size", node))
+            .update(result.batchSize);
+        for (int i = 0; i < result.moved.size(); i++) {
+          JedisMovedDataException moved = result.movedErrors.get(i);
+          slotOwners[moved.getSlot()] = moved.getTargetNode();
+          redirected
+              .computeIfAbsent(moved.getTargetNode(), node -> new ArrayList<>())
+              .add(result.moved.get(i));
+        }
+        for (HashWrite asked : result.asked) {
+          redirected.computeIfAbsent(asked.askingNode, node -> new ArrayList<>()).add(asked);
+        }
+        MOVED_REDIRECTS.inc(result.moved.size());
+        ASK_REDIRECTS.inc(result.asked.size());
+      }
+      batches = redirected;
+    }
+  }
+
+  /*
+   * Runs the pipelines of the nodes concurrently. A single pipeline runs on the calling thread.
+   * Connections are opened here, so that only the pipeline tasks touch them on other threads.
+   */
+  private List<NodeFlush> sendPipelines(Map<HostAndPort, List<HashWrite>> batches) {
+    List<NodeFlush> results = new ArrayList<>();
+    if (batches.size() == 1) {
+      Map.Entry<HostAndPort, List<HashWrite>> batch = batches.entrySet().iterator().next();
+      results.add(sendPipeline(batch.getKey(), connection(batch.getKey()), batch.getValue()));
+      return results;
+    }
+    List<Future<NodeFlush>> futures = new ArrayList<>();
+    for (Map.Entry<HostAndPort, List<HashWrite>> batch : batches.entrySet()) {
+      Jedis jedis = connection(batch.getKey());
+      futures.add(executor.submit(() -> sendPipeline(batch.getKey(), jedis, batch.getValue())));
+    }
+    for (Future<NodeFlush> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while writing to the Redis cluster", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Failed to write to the Redis cluster", e.getCause());
+      }
+    }
+    return results;
+  }
+
+  private NodeFlush sendPipeline(HostAndPort node, Jedis jedis, List<HashWrite> writes) {
+    long start = System.nanoTime();
+    Pipeline pipeline = jedis.pipelined();
+    List<Response<Long>> hsets = new ArrayList<>(writes.size());
+    List<Response<Long>> expires = new ArrayList<>(writes.size());
+    for (HashWrite write : writes) {
+      if (write.askingNode != null) {
+        pipeline.sendCommand(Protocol.Command.ASKING);
+      }
+      hsets.add(pipeline.hset(write.key, write.fields));
+      if (expireTime != NO_EXPIRATION) {
+        if (write.askingNode != null) {
+          pipeline.sendCommand(Protocol.Command.ASKING);
+        }
+        expires.add(pipeline.expire(write.key, expireTime));
+      }
+    }
+    pipeline.sync();
+    NodeFlush result =
+        new NodeFlush(
+            node, writes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    for (int i = 0; i < writes.size(); i++) {
+      HashWrite write = writes.get(i);
+      write.askingNode = null;
+      try {
+        hsets.get(i).get();
+        if (!expires.isEmpty()) {
+          expires.get(i).get();
+        }
+      } catch (JedisMovedDataException e) {
+        result.moved.add(write);
+        result.movedErrors.add(e);
+      } catch (JedisAskDataException e) {
+        write.askingNode = e.getTargetNode();
+        result.asked.add(write);
+      }
+    }
+    return result;
+  }
+
+  private Jedis connection(HostAndPort node) {
+    return connections.computeIfAbsent(node, connector::connect);
+  }
+
+  private static Distribution nodeDistribution(String name, HostAndPort node) {
+    return Metrics.distribution(
+        RedisClusterHashWriter.class,
+        "redis_cluster_" + name + "_" + node.toString().replaceAll("[^A-Za-z0-9]", "_"));
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    for (Jedis jedis : connections.values()) {
+      jedis.close();
+    }
+    connections.clear();
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.PDone;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Transaction;
@@ -39,6 +40,7 @@ public abstract class RedisHashIO {
 
     return (new AutoValue_RedisHashIO_WriteHash.Builder())
         .setConnectionConfiguration(RedisConnectionConfiguration.create())
+        .setClusterMode(false)
         .build();
   }
 
@@ -53,6 +55,8 @@ public abstract class RedisHashIO {
     @Nullable
     abstract Long expireTime();
 
+    abstract boolean clusterMode();
+
     abstract RedisHashIO.WriteHash.Builder builder();
 
     public RedisHashIO.WriteHash withConnectionConfiguration(
@@ -65,11 +69,23 @@ public abstract class RedisHashIO {
       return this.builder().setExpireTime(expireTimeMillis).build();
     }
 
+    /**
+     * Writes to a Redis Cluster, with one pipeline per shard node. The connection configuration is
+     * the address of any node of the cluster, the other nodes are discovered from it.
+     */
+    public RedisHashIO.WriteHash withClusterMode(boolean clusterMode) {
+      return this.builder().setClusterMode(clusterMode).build();
+    }
+
     @NonNull
     public PDone expand(PCollection<KV<String, KV<String, String>>> input) {
       Preconditions.checkArgument(
           connectionConfiguration() != null, "withConnectionConfiguration() is required");
-      input.apply(ParDo.of(new RedisHashIO.WriteHash.WriteFn(this)));
+      if (clusterMode()) {
+        input.apply(ParDo.of(new RedisHashIO.WriteHash.ClusterWriteFn(this)));
+      } else {
+        input.apply(ParDo.of(new RedisHashIO.WriteHash.WriteFn(this)));
+      }
       return PDone.in(input.getPipeline());
     }
 
@@ -149,12 +165,64 @@ public abstract class RedisHashIO {
       }
     }
 
+    /**
+     * Writes hashes to a Redis Cluster through a {@link RedisClusterHashWriter}, which buffers the
+     * writes of every shard node and flushes them as concurrent pipelines.
+     */
+    private static class ClusterWriteFn extends DoFn<KV<String, KV<String, String>>, Void> {
+      private static final int DEFAULT_BATCH_SIZE = 1000;
+      private final RedisHashIO.WriteHash spec;
+      private transient RedisClusterHashWriter writer;
+
+      ClusterWriteFn(RedisHashIO.WriteHash spec) {
+        this.spec = spec;
+      }
+
+      @Setup
+      public void setup() {
+        RedisConnectionConfiguration configuration =
+            Objects.requireNonNull(this.spec.connectionConfiguration());
+        Long expireTime = this.spec.expireTime();
+        this.writer =
+            RedisClusterHashWriter.create(
+                RedisClusterHashWriter.connector(configuration),
+                new HostAndPort(configuration.host().get(), configuration.port().get()),
+                expireTime == null ? RedisClusterHashWriter.NO_EXPIRATION : expireTime);
+      }
+
+      @ProcessElement
+      public void processElement(@Element KV<String, KV<String, String>> record) {
+        Map<String, String> hashFieldValues = new HashMap<>();
+        hashFieldValues.put("redisInsertTimeAsLong", String.valueOf(System.currentTimeMillis()));
+        hashFieldValues.put(record.getValue().getKey(), record.getValue().getValue());
+        writer.write(record.getKey(), hashFieldValues);
+
+        if (writer.largestBatch() >= DEFAULT_BATCH_SIZE) {
+          writer.flush();
+        }
+      }
+
+      @FinishBundle
+      public void finishBundle() {
+        writer.flush();
+      }
+
+      @Teardown
+      public void teardown() {
+        if (writer != null) {
+          writer.close();
+        }
+      }
+    }
+
     @AutoValue.Builder
     abstract static class Builder {
       Builder() {}
 
       abstract WriteHash.Builder setExpireTime(Long expireTimeMillis);
 
+      abstract WriteHash.Builder setClusterMode(boolean clusterMode);
+
       abstract WriteHash.Builder setConnectionConfiguration(
           RedisConnectionConfiguration connectionConfiguration);
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.templates.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+
+/** Tests for {@link RedisClusterHashWriter}. */
+@RunWith(JUnit4.class)
+public class RedisClusterHashWriterTest {
+
+  private static final String REDIS_HOST = "localhost";
+
+  private RedisServer firstServer;
+  private RedisServer secondServer;
+  private HostAndPort firstNode;
+  private HostAndPort secondNode;
+
+  @Before
+  public void setUp() throws IOException {
+    firstServer = RedisServer.newRedisServer();
+    firstServer.start();
+    secondServer = RedisServer.newRedisServer();
+    secondServer.start();
+    firstNode = new HostAndPort(REDIS_HOST, firstServer.getBindPort());
+    secondNode = new HostAndPort(REDIS_HOST, secondServer.getBindPort());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    firstServer.stop();
+    secondServer.stop();
+  }
+
+  private static HostAndPort[] splitSlots(HostAndPort low, HostAndPort high) {
+    HostAndPort[] owners = new HostAndPort[RedisClusterHashWriter.SLOT_COUNT];
+    Arrays.fill(owners, 0, owners.length / 2, low);
+    Arrays.fill(owners, owners.length / 2, owners.length, high);
+    return owners;
+  }
+
+  private static Jedis connect(HostAndPort node) {
+    return new Jedis(node.getHost(), node.getPort());
+  }
+
+  @Test
+  public void testSlotHonorsHashTags() {
+    assertEquals(12182, RedisClusterHashWriter.slot("foo"));
+    assertEquals(5061, RedisClusterHashWriter.slot("bar"));
+    assertEquals(
+        RedisClusterHashWriter.slot("{user1000}.following"),
+        RedisClusterHashWriter.slot("{user1000}.followers"));
+  }
+
+  @Test
+  public void testReadSlotOwners() {
+    List<Object> clusterSlots =
+        Arrays.asList(
+            Arrays.asList(
+                0L, 8191L, Arrays.asList("10.0.0.1".getBytes(StandardCharsets.UTF_8), 7000L)),
+            Arrays.asList(8192L, 16383L, Arrays.asList(new byte[0], 7001L)));
+    HostAndPort[] owners = new HostAndPort[RedisClusterHashWriter.SLOT_COUNT];
+
+    RedisClusterHashWriter.readSlotOwners(clusterSlots, new HostAndPort("10.0.0.2", 7001), owners);
+
+    assertEquals(new HostAndPort("10.0.0.1", 7000), owners[0]);
+    assertEquals(new HostAndPort("10.0.0.1", 7000), owners[8191]);
+    assertEquals(new HostAndPort("10.0.0.2", 7001), owners[8192]);
+    assertEquals(new HostAndPort("10.0.0.2", 7001), owners[16383]);
+  }
+
+  @Test
+  public void testWritesGoToTheOwnersOfTheirSlots() {
+    try (RedisClusterHashWriter writer =
+        new RedisClusterHashWriter(
+            RedisClusterHashWriterTest::connect,
+            splitSlots(firstNode, secondNode),
+            RedisClusterHashWriter.NO_EXPIRATION)) {
+      writer.write("bar", ImmutableMap.of("field", "low"));
+      writer.write("foo", ImmutableMap.of("field", "high"));
+      assertEquals(1, writer.largestBatch());
+      writer.flush();
+      assertEquals(0, writer.largestBatch());
+    }
+
+    try (Jedis first = connect(firstNode);
+        Jedis second = connect(secondNode)) {
+      assertEquals("low", first.hget("bar", "field"));
+      assertNull(first.hget("foo", "field"));
+      assertEquals("high", second.hget("foo", "field"));
+      assertNull(second.hget("bar", "field"));
+      assertEquals(-1L, second.ttl("foo"));
+    }
+  }
+
+  @Test
+  public void testWritesExpire() {
+    try (RedisClusterHashWriter writer =
+        new RedisClusterHashWriter(
+            RedisClusterHashWriterTest::connect, splitSlots(firstNode, secondNode), 60L)) {
+      writer.write("foo", ImmutableMap.of("field", "high"));
+      writer.flush();
+    }
+
+    try (Jedis second = connect(secondNode)) {
+      assertEquals(60L, second.ttl("foo"), 1L);
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testMovedWritesAreSentToTheNewOwner() {
+    HostAndPort staleNode = new HostAndPort(REDIS_HOST, 1);
+    Response<Long> moved = mock(Response.class);
+    when(moved.get())
+        .thenThrow(
+            new JedisMovedDataException(
+                "MOVED 12182 " + secondNode, secondNode, RedisClusterHashWriter.slot("foo")));
+    Pipeline stalePipeline = mock(Pipeline.class);
+    when(stalePipeline.hset(anyString(), anyMap())).thenReturn(moved);
+    Jedis staleConnection = mock(Jedis.class);
+    when(staleConnection.pipelined()).thenReturn(stalePipeline);
+    RedisClusterHashWriter.NodeConnector connector =
+        node -> node.equals(staleNode) ? staleConnection : connect(node);
+
+    try (RedisClusterHashWriter writer =
+        new RedisClusterHashWriter(
+            connector, splitSlots(firstNode, staleNode), RedisClusterHashWriter.NO_EXPIRATION)) {
+      writer.write("foo", ImmutableMap.of("field", "moved"));
+      writer.flush();
+
+      // The slot owner is updated, the next writes of the slot go to the new owner directly.
+      writer.write("foo", ImmutableMap.of("other", "direct"));
+      writer.flush();
+    }
+
+    try (Jedis second = connect(secondNode)) {
+      assertEquals(ImmutableMap.of("field", "moved", "other", "direct"), second.hgetAll("foo"));
+    }
+    verify(staleConnection, times(1)).pipelined();
+  }
+}
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.source.reader.io.jdbc.iowrapper;
 
 import com.google.cloud.teleport.v2.source.reader.io.jdbc.iowrapper.config.TableConfig;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,4 +101,27 @@ public final class FetchSizeCalculator {
       return 0;
     }
   }
+
+  /**
+   * Returns the memory a single reader may use for the rows of one fetch, that is the fetch size
+   * formula without the row size: (WorkerMemory) / (4 * WorkerCores). Readers that observe the
+   * actual row sizes divide this by the bytes per row to adapt the fetch size.
+   *
+   * @param tableConfig the table configuration.
+   * @param workerMemoryBytes The Dataflow worker memory in bytes.
+   * @param workerCores The Dataflow worker cores.
+   * @return The memory budget in bytes, or null if the fetch size is explicitly configured or the
+   *     worker resources are unavailable.
+   */
+  @Nullable
+  public static Long getFetchMemoryBudgetBytes(
+      TableConfig tableConfig, Long workerMemoryBytes, Integer workerCores) {
+    if (tableConfig.fetchSize() != null) {
+      return null;
+    }
+    if (workerMemoryBytes == null || workerCores == null || workerCores <= 0) {
+      return null;
+    }
+    return workerMemoryBytes / ((long) SAFETY_FACTOR * workerCores);
+  }
 }
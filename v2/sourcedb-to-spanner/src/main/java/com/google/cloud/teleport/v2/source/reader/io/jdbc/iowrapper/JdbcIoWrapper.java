@@ -753,6 +753,9 @@ public final class JdbcIoWrapper implements IoWrapper {
       TableReadSpecification.Builder<SourceRow> tableReadSpecificationBuilder =
           TableReadSpecification.<SourceRow>builder()
               .setFetchSize(fetchSize)
+              .setFetchMemoryBudgetBytes(
+                  FetchSizeCalculator.getFetchMemoryBudgetBytes(
+                      tableConfig, config.workerMemoryBytes(), config.workerCores()))
               .setTableIdentifier(tableIdentifier)
               .setRowMapper(
                   new JdbcSourceRowMapper(
@@ -762,7 +765,9 @@ public final class JdbcIoWrapper implements IoWrapper {
                       config.shardID()));
       if (config.maxFetchSize() != null) {
         tableReadSpecificationBuilder =
-            tableReadSpecificationBuilder.setFetchSize(config.maxFetchSize());
+            tableReadSpecificationBuilder
+                .setFetchSize(config.maxFetchSize())
+                .setFetchMemoryBudgetBytes(null);
       }
       readSpecsBuilder.put(tableIdentifier, tableReadSpecificationBuilder.build());
 
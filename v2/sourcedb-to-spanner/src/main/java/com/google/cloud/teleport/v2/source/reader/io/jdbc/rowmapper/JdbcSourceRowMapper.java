@@ -20,9 +20,13 @@ import com.google.cloud.teleport.v2.source.reader.io.exception.ValueMappingExcep
 import com.google.cloud.teleport.v2.source.reader.io.row.SourceRow;
 import com.google.cloud.teleport.v2.source.reader.io.schema.SourceSchemaReference;
 import com.google.cloud.teleport.v2.source.reader.io.schema.SourceTableSchema;
+import com.google.cloud.teleport.v2.spanner.migrations.schema.SourceColumnType;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.avro.Schema;
 import org.apache.beam.sdk.io.jdbc.JdbcIO;
@@ -50,6 +54,9 @@ public final class JdbcSourceRowMapper implements JdbcIO.RowMapper<SourceRow> {
   private final Counter mapperErrors =
       Metrics.counter(JdbcSourceRowMapper.class, MetricCounters.READER_MAPPING_ERRORS);
 
+  /** Mapping of every source column, resolved on the first row mapped by this instance. */
+  private transient List<ColumnMapping> columnMappings;
+
   /**
    * Construct {@link JdbcSourceRowMapper}.
    *
@@ -85,36 +92,66 @@ public final class JdbcSourceRowMapper implements JdbcIO.RowMapper<SourceRow> {
     var builder =
         SourceRow.builder(
             sourceSchemaReference, sourceTableSchema, shardId, getCurrentTimeMicros());
-    this.sourceTableSchema
-        .sourceColumnNameToSourceColumnType()
-        .entrySet()
-        .forEach(
-            entry -> {
-              try {
-                Schema schema =
-                    this.sourceTableSchema.getAvroPayload().getField(entry.getKey()).schema();
-                // The Unified avro mapping produces a union of the mapped type with null type
-                // except for "Unsupported" case.
-                if (schema.isUnion()) {
-                  schema = schema.getTypes().get(1);
-                }
-                builder.setField(
-                    entry.getKey(),
-                    this.mappingsProvider
-                        .getMappings()
-                        .getOrDefault(
-                            entry.getValue().getName().toUpperCase(), JdbcValueMapper.UNSUPPORTED)
-                        .mapValue(resultSet, entry.getKey(), schema));
-              } catch (SQLException e) {
-                mapperErrors.inc();
-                logger.error(
-                    "Exception while mapping jdbc ResultSet to avro. Check for potential schema changes or unexpected inaccuracy in schema discovery logs. SourceSchemaReference: {},  SourceTableSchema: {}. Exception: {}",
-                    sourceSchemaReference,
-                    sourceTableSchema,
-                    e);
-                throw new ValueMappingException(e);
-              }
-            });
+    for (ColumnMapping columnMapping : getColumnMappings()) {
+      try {
+        builder.setField(
+            columnMapping.fieldPosition,
+            columnMapping.valueMapper.mapValue(
+                resultSet, columnMapping.columnName, columnMapping.schema));
+      } catch (SQLException e) {
+        mapperErrors.inc();
+        logger.error(
+            "Exception while mapping jdbc ResultSet to avro. Check for potential schema changes or unexpected inaccuracy in schema discovery logs. SourceSchemaReference: {},  SourceTableSchema: {}. Exception: {}",
+            sourceSchemaReference,
+            sourceTableSchema,
+            e);
+        throw new ValueMappingException(e);
+      }
+    }
     return builder.build();
   }
+
+  private List<ColumnMapping> getColumnMappings() {
+    if (columnMappings == null) {
+      Schema payloadSchema = this.sourceTableSchema.getAvroPayload();
+      List<ColumnMapping> mappings = new ArrayList<>();
+      for (Map.Entry<String, SourceColumnType> entry :
+          this.sourceTableSchema.sourceColumnNameToSourceColumnType().entrySet()) {
+        Schema.Field field = payloadSchema.getField(entry.getKey());
+        Schema schema = field.schema();
+        // The Unified avro mapping produces a union of the mapped type with null type
+        // except for "Unsupported" case.
+        if (schema.isUnion()) {
+          schema = schema.getTypes().get(1);
+        }
+        mappings.add(
+            new ColumnMapping(
+                entry.getKey(),
+                field.pos(),
+                schema,
+                this.mappingsProvider
+                    .getMappings()
+                    .getOrDefault(
+                        entry.getValue().getName().toUpperCase(), JdbcValueMapper.UNSUPPORTED)));
+      }
+      columnMappings = mappings;
+    }
+    return columnMappings;
+  }
+
+  /** The resolved mapping of a source column to a field of the payload. */
+  private static final class ColumnMapping {
+    private final String columnName;
+    private final int fieldPosition;
+    private final Schema schema;
+    private final JdbcValueMapper<?> valueMapper;
+
+    private ColumnMapping(
+        String columnName, int fieldPosition, Schema schema, JdbcValueMapper<?> valueMapper) {
+      this.columnName = columnName;
+      this.fieldPosition = fieldPosition;
+      this.schema = schema;
+      this.valueMapper = valueMapper;
+    }
+  }
 }
@@ -17,6 +17,7 @@ package com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.range
 
 import com.google.auto.value.AutoValue;
 import java.io.Serializable;
+import javax.annotation.Nullable;
 import org.apache.beam.sdk.io.jdbc.JdbcIO;
 
 /**
@@ -55,6 +56,16 @@ public abstract class TableReadSpecification<T> implements Serializable {
    */
   public abstract Integer fetchSize();
 
+  /**
+   * Returns the memory, in bytes, that a single reader may use for the rows of one fetch. When set,
+   * the reader adapts the fetch size to the row sizes it observes, starting from {@link
+   * #fetchSize()}. When null, {@link #fetchSize()} is used as is.
+   *
+   * @return the memory budget of a fetch, or null to use a fixed fetch size.
+   */
+  @Nullable
+  public abstract Long fetchMemoryBudgetBytes();
+
   /**
    * Creates a builder for {@link TableReadSpecification}.
    *
@@ -73,6 +84,8 @@ public abstract class TableReadSpecification<T> implements Serializable {
 
     public abstract Builder<T> setFetchSize(Integer value);
 
+    public abstract Builder<T> setFetchMemoryBudgetBytes(@Nullable Long value);
+
     public abstract TableReadSpecification<T> build();
   }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.transforms;
+
+import com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.range.TableIdentifier;
+import com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.range.TableReadSpecification;
+import com.google.common.annotations.VisibleForTesting;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapts the JDBC fetch size of each table to the row sizes observed while reading it.
+ *
+ * <p>The fetch size computed at discovery time relies on an estimated row size, which is far off
+ * for tables with very uneven rows (for example BLOB or TEXT heavy tables). This class samples the
+ * size of the rows returned by the {@link ResultSet} and, for the next range of the same table,
+ * sets the fetch size to the memory budget of a fetch divided by the observed bytes per row. The
+ * estimate follows larger rows immediately and decays slowly towards smaller ones, so that a few
+ * narrow ranges do not lead to an oversized fetch on a wide one.
+ *
+ * <p>Only tables with a {@link TableReadSpecification#fetchMemoryBudgetBytes()} are adapted. An
+ * instance is not thread safe and is meant to be held by a single {@link MultiTableReadFn}.
+ */
+class AdaptiveFetchSizer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveFetchSizer.class);
+
+  private static final Distribution BYTES_PER_ROW =
+      Metrics.distribution(MultiTableReadFn.class, "jdbc_read_bytes_per_row");
+  private static final Distribution FETCH_SIZE =
+      Metrics.distribution(MultiTableReadFn.class, "jdbc_read_fetch_size");
+
+  /** Every n-th row of a range is sampled, in addition to the first one. */
+  @VisibleForTesting static final int SAMPLING_INTERVAL = 128;
+
+  /** Weight of the bytes per row of the latest range when the row size decreases. */
+  @VisibleForTesting static final double DECAY_WEIGHT = 0.25;
+
+  /** Assumed size of a value whose size can't be derived from its type. */
+  private static final long FIXED_VALUE_SIZE = 16;
+
+  private static final int MIN_FETCH_SIZE = 1;
+
+  private final Map<TableIdentifier, Long> bytesPerRow = new HashMap<>();
+
+  /**
+   * Returns the fetch size to use for the next range of a table.
+   *
+   * @param spec the read specification of the table.
+   * @return the adapted fetch size, or the configured one if the table is not adapted or no row has
+   *     been sampled yet.
+   */
+  int getFetchSize(TableReadSpecification<?> spec) {
+    Long budget = spec.fetchMemoryBudgetBytes();
+    Long observedBytesPerRow = bytesPerRow.get(spec.tableIdentifier());
+    int fetchSize =
+        (budget == null || observedBytesPerRow == null)
+            ? spec.fetchSize()
+            : (int)
+                Math.max(
+                    MIN_FETCH_SIZE,
+                    Math.min(Integer.MAX_VALUE, budget / Math.max(1, observedBytesPerRow)));
+    FETCH_SIZE.update(fetchSize);
+    return fetchSize;
+  }
+
+  /** Starts sampling a range of the given table. */
+  RangeSampler startRange(TableReadSpecification<?> spec) {
+    return new RangeSampler(spec);
+  }
+
+  private void update(TableIdentifier tableIdentifier, long rangeBytesPerRow) {
+    Long current = bytesPerRow.get(tableIdentifier);
+    long updated =
+        (current == null || rangeBytesPerRow >= current)
+            ? rangeBytesPerRow
+            : (long) (current * (1 - DECAY_WEIGHT) + rangeBytesPerRow * DECAY_WEIGHT);
+    bytesPerRow.put(tableIdentifier, updated);
+  }
+
+  /**
+   * Estimates the in-memory size of the current row of the result set from its column values.
+   *
+   * @param resultSet the result set positioned on a row.
+   * @return the estimated size of the row in bytes.
+   * @throws SQLException if the values can't be read.
+   */
+  @VisibleForTesting
+  static long estimateRowBytes(ResultSet resultSet) throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    long rowBytes = 0;
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      Object value = resultSet.getObject(i);
+      if (value == null) {
+        continue;
+      }
+      if (value instanceof byte[]) {
+        rowBytes += ((byte[]) value).length;
+      } else if (value instanceof CharSequence) {
+        rowBytes += 2L * ((CharSequence) value).length();
+      } else if (value instanceof Blob) {
+        rowBytes += ((Blob) value).length();
+      } else if (value instanceof Clob) {
+        rowBytes += 2L * ((Clob) value).length();
+      } else {
+        rowBytes += FIXED_VALUE_SIZE;
+      }
+    }
+    return rowBytes;
+  }
+
+  /** Samples the rows of one range and feeds the largest sampled row size back on completion. */
+  class RangeSampler {
+    private final TableReadSpecification<?> spec;
+    private boolean enabled;
+    private long rows = 0;
+    private long maxRowBytes = 0;
+
+    private RangeSampler(TableReadSpecification<?> spec) {
+      this.spec = spec;
+      this.enabled = spec.fetchMemoryBudgetBytes() != null;
+    }
+
+    /** Called for every row of the range, after it has been mapped. */
+    void onRow(ResultSet resultSet) {
+      if (enabled && rows++ % SAMPLING_INTERVAL == 0) {
+        try {
+          long rowBytes = estimateRowBytes(resultSet);
+          BYTES_PER_ROW.update(rowBytes);
+          maxRowBytes = Math.max(maxRowBytes, rowBytes);
+        } catch (SQLException | RuntimeException e) {
+          // Sampling is best effort, the read itself must not fail because of it.
+          LOG.warn(
+              "Could not sample row sizes of table {}, keeping the fetch size of the range.",
+              spec.tableIdentifier(),
+              e);
+          enabled = false;
+        }
+      }
+    }
+
+    /** Called once the range has been fully read. */
+    void finish() {
+      if (enabled && maxRowBytes > 0) {
+        update(spec.tableIdentifier(), maxRowBytes);
+      }
+    }
+  }
+}
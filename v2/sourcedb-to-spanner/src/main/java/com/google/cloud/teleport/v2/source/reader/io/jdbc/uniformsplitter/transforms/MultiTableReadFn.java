@@ -52,7 +52,8 @@ import org.slf4j.LoggerFactory;
  *
  * <ul>
  *   <li>Selecting the correct {@link RowMapper} and {@link QueryProvider} for each {@link Range}.
- *   <li>Adjusting {@code fetchSize} on a per-table basis.
+ *   <li>Adjusting {@code fetchSize} on a per-table basis, adapting it to the observed row sizes
+ *       when the table has a fetch memory budget (see {@link AdaptiveFetchSizer}).
  *   <li>Reporting data lineage to the Dataflow service for each unique source table encountered.
  * </ul>
  *
@@ -77,6 +78,9 @@ public class MultiTableReadFn<ParameterT, OutputT> extends DoFn<ParameterT, Outp
   /** Keep track of the tables for which lineage has already been reported to avoid duplicates. */
   private transient Set<KV<String, String>> reportedLineages = ConcurrentHashMap.newKeySet();
 
+  /** Fetch sizes adapted to the row sizes observed by this instance, per table. */
+  private transient AdaptiveFetchSizer adaptiveFetchSizer = new AdaptiveFetchSizer();
+
   private static final Logger LOG = LoggerFactory.getLogger(MultiTableReadFn.class);
 
   public MultiTableReadFn(
@@ -97,6 +101,7 @@ public class MultiTableReadFn<ParameterT, OutputT> extends DoFn<ParameterT, Outp
   @Setup
   public void setup() throws Exception {
     this.reportedLineages = ConcurrentHashMap.newKeySet();
+    this.adaptiveFetchSizer = new AdaptiveFetchSizer();
     dataSource = dataSourceProviderFn.apply(null);
   }
 
@@ -254,14 +259,17 @@ public class MultiTableReadFn<ParameterT, OutputT> extends DoFn<ParameterT, Outp
             query.get().getQuery(element),
             ResultSet.TYPE_FORWARD_ONLY,
             ResultSet.CONCUR_READ_ONLY)) {
-      statement.setFetchSize(spec.fetchSize());
+      statement.setFetchSize(adaptiveFetchSizer.getFetchSize(spec));
       parameterSetter.setParameters(element, statement);
+      AdaptiveFetchSizer.RangeSampler rangeSampler = adaptiveFetchSizer.startRange(spec);
       try (ResultSet resultSet = statement.executeQuery()) {
         RowMapper<OutputT> rowMapper = spec.rowMapper();
         while (resultSet.next()) {
           context.output(rowMapper.mapRow(resultSet));
+          rangeSampler.onRow(resultSet);
         }
       }
+      rangeSampler.finish();
     }
   }
 
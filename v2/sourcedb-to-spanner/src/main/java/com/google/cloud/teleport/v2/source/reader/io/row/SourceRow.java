@@ -20,11 +20,13 @@ import com.google.cloud.teleport.v2.source.reader.io.schema.SourceSchemaReferenc
 import com.google.cloud.teleport.v2.source.reader.io.schema.SourceTableSchema;
 import com.google.common.collect.ImmutableList;
 import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.generic.GenericRecordBuilder;
 
 /**
  * Encapsulates the SourceRow that is generated as a part of reading the source database tables.
@@ -33,6 +35,14 @@ import org.apache.avro.generic.GenericRecordBuilder;
 @AutoValue
 public abstract class SourceRow implements Serializable {
 
+  /**
+   * GCS schemas and JSON schemas of the payloads, by payload schema. There is one entry per table,
+   * so that rows written to GCS do not rebuild or print their schema.
+   */
+  private static final Map<Schema, Schema> GCS_SCHEMAS = new ConcurrentHashMap<>();
+
+  private static final Map<Schema, String> PAYLOAD_SCHEMA_JSONS = new ConcurrentHashMap<>();
+
   /**
    * Get the reference to source schema.
    *
@@ -84,11 +94,24 @@ public abstract class SourceRow implements Serializable {
 
   abstract SerializableGenericRecord record();
 
+  /**
+   * Get the JSON representation of the payload schema.
+   *
+   * @return payload schema as JSON.
+   */
+  public String payloadSchemaJson() {
+    return PAYLOAD_SCHEMA_JSONS.computeIfAbsent(this.getPayload().getSchema(), Schema::toString);
+  }
+
   /**
    * Generates a schema that wraps the payload with metadata fields. We prioritize using the
    * payload's existing schema definition.
    */
   public Schema gcsSchema() {
+    return GCS_SCHEMAS.computeIfAbsent(this.getPayload().getSchema(), SourceRow::buildGcsSchema);
+  }
+
+  private static Schema buildGcsSchema(Schema payloadSchema) {
     return SchemaBuilder.record("SourceRowWithMetadata")
         .fields()
         .name("tableName")
@@ -108,19 +131,19 @@ public abstract class SourceRow implements Serializable {
         .noDefault()
         // We reuse the exact schema from the payload to ensure compatibility
         .name("payload")
-        .type(this.getPayload().getSchema())
+        .type(payloadSchema)
         .noDefault()
         .endRecord();
   }
 
   /** Converts the current SourceRow into a GenericRecord suitable for GCS writing. */
   public GenericRecord toGcsRecord() {
-    return new GenericRecordBuilder(this.gcsSchema())
-        .set("tableName", this.tableName())
-        .set("shardId", this.shardId())
-        .set("primaryKeys", this.primaryKeyColumns())
-        .set("payload", this.getPayload())
-        .build();
+    GenericData.Record gcsRecord = new GenericData.Record(this.gcsSchema());
+    gcsRecord.put("tableName", this.tableName());
+    gcsRecord.put("shardId", this.shardId());
+    gcsRecord.put("primaryKeys", this.primaryKeyColumns());
+    gcsRecord.put("payload", this.getPayload());
+    return gcsRecord;
   }
 
   /**
@@ -174,14 +197,16 @@ public abstract class SourceRow implements Serializable {
     @SuppressWarnings("CheckReturnValue")
     abstract Builder setRecord(SerializableGenericRecord value);
 
-    private GenericRecordBuilder recordBuilder = null;
-    private GenericRecordBuilder payloadBuilder = null;
+    // The records are filled in place rather than through a GenericRecordBuilder, which copies
+    // every field into a new record on build.
+    private GenericData.Record record = null;
+    private GenericData.Record payload = null;
 
     abstract SourceRow autoBuild();
 
     public SourceRow build() {
-      this.recordBuilder.set(SourceTableSchema.PAYLOAD_FIELD_NAME, payloadBuilder.build());
-      this.setRecord(new SerializableGenericRecord(recordBuilder.build()));
+      this.record.put(SourceTableSchema.PAYLOAD_FIELD_NAME, payload);
+      this.setRecord(new SerializableGenericRecord(record));
       return autoBuild();
     }
 
@@ -197,18 +222,25 @@ public abstract class SourceRow implements Serializable {
       this.setTableName(sourceTableSchema.tableName());
       this.setShardId(shardId);
       this.setPrimaryKeyColumns(sourceTableSchema.primaryKeyColumns());
-      this.recordBuilder = new GenericRecordBuilder(sourceTableSchema.avroSchema());
-      this.recordBuilder.set(SourceTableSchema.READ_TIME_STAMP_FIELD_NAME, readTimeMicros);
-      this.payloadBuilder =
-          new GenericRecordBuilder(
-              sourceTableSchema
-                  .avroSchema()
-                  .getField(SourceTableSchema.PAYLOAD_FIELD_NAME)
-                  .schema());
+      this.record = new GenericData.Record(sourceTableSchema.avroSchema());
+      this.record.put(SourceTableSchema.READ_TIME_STAMP_FIELD_NAME, readTimeMicros);
+      this.payload = new GenericData.Record(sourceTableSchema.getAvroPayload());
     }
 
     public Builder setField(String fieldName, Object value) {
-      this.payloadBuilder.set(fieldName, value);
+      this.payload.put(this.payload.getSchema().getField(fieldName).pos(), value);
+      return this;
+    }
+
+    /**
+     * Set a field of the payload by its position in the payload schema.
+     *
+     * @param fieldPosition position of the field in {@link SourceTableSchema#getAvroPayload()}.
+     * @param value value of the field.
+     * @return builder.
+     */
+    public Builder setField(int fieldPosition, Object value) {
+      this.payload.put(fieldPosition, value);
       return this;
     }
   }
@@ -193,10 +193,7 @@ public class MigrateTableTransform extends PTransform<PBegin, PCollection<Void>>
     return sourceRows.apply(
         "WriteAvroToGCS",
         FileIO.<AvroDestination, SourceRow>writeDynamic()
-            .by(
-                (record) ->
-                    AvroDestination.of(
-                        record.tableName(), record.getPayload().getSchema().toString()))
+            .by((record) -> AvroDestination.of(record.tableName(), record.payloadSchemaJson()))
             .via(
                 Contextful.fn(
                     record -> {
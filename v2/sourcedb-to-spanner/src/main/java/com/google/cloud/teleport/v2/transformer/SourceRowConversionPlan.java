@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.transformer;
+
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Value;
+import com.google.cloud.teleport.v2.spanner.migrations.avro.GenericRecordTypeConvertor;
+import com.google.cloud.teleport.v2.spanner.migrations.avro.GenericRecordTypeConvertor.ColumnConvertor;
+import com.google.cloud.teleport.v2.spanner.migrations.schema.ISchemaMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * The conversion of the rows of one source table to Spanner {@link Mutation}s, compiled once per
+ * table.
+ *
+ * <p>The plan holds the Spanner table and column names resolved through the {@link ISchemaMapper}
+ * and, for every column read from the source, the position of its Avro field and its {@link
+ * ColumnConvertor}. Converting a row then writes the values straight from the {@link GenericRecord}
+ * into the {@link Mutation.WriteBuilder}, without any schema mapper lookups or intermediate map.
+ * The result is the same as {@link GenericRecordTypeConvertor#transformChangeEvent} without a
+ * custom transformation, which is not supported by plans.
+ */
+class SourceRowConversionPlan {
+
+  private enum ColumnKind {
+    FIELD,
+    SHARD_ID,
+    SYNTHETIC_PRIMARY_KEY
+  }
+
+  private final String spannerTableName;
+  private final Schema recordSchema;
+  private final List<ColumnKind> kinds = new ArrayList<>();
+  private final List<String> spannerColumnNames = new ArrayList<>();
+  private final List<Integer> fieldPositions = new ArrayList<>();
+  private final List<ColumnConvertor> convertors = new ArrayList<>();
+
+  private SourceRowConversionPlan(String spannerTableName, Schema recordSchema) {
+    this.spannerTableName = spannerTableName;
+    this.recordSchema = recordSchema;
+  }
+
+  /**
+   * Compiles the plan for the rows of a source table.
+   *
+   * @param schemaMapper the schema mapper.
+   * @param srcTableName name of the source table.
+   * @param recordSchema Avro schema of the rows of the table.
+   * @return the conversion plan.
+   */
+  static SourceRowConversionPlan compile(
+      ISchemaMapper schemaMapper, String srcTableName, Schema recordSchema) {
+    // TODO: update namespace when Spanner namespace support is added.
+    String namespace = "";
+    GenericRecordTypeConvertor convertor =
+        new GenericRecordTypeConvertor(schemaMapper, namespace, null, null);
+    String spannerTableName = schemaMapper.getSpannerTableName(namespace, srcTableName);
+    SourceRowConversionPlan plan = new SourceRowConversionPlan(spannerTableName, recordSchema);
+    // This is null/blank for identity/override/non-sharded cases.
+    String shardIdCol = schemaMapper.getShardIdColumnName(namespace, spannerTableName);
+    for (String spannerColName : schemaMapper.getSpannerColumns(namespace, spannerTableName)) {
+      try {
+        if (spannerColName.equals(shardIdCol)) {
+          plan.add(ColumnKind.SHARD_ID, spannerColName, -1, null);
+          continue;
+        }
+        // Generated columns are read-only in Spanner.
+        if (schemaMapper.isGeneratedColumn(namespace, spannerTableName, spannerColName)) {
+          continue;
+        }
+        if (spannerColName.equals(
+            schemaMapper.getSyntheticPrimaryKeyColName(namespace, spannerTableName))) {
+          plan.add(ColumnKind.SYNTHETIC_PRIMARY_KEY, spannerColName, -1, null);
+          continue;
+        }
+        // Columns that do not exist in the source data are omitted from the mutation, see
+        // GenericRecordTypeConvertor#transformChangeEvent.
+        if (!schemaMapper.colExistsAtSource(namespace, spannerTableName, spannerColName)) {
+          continue;
+        }
+        String srcColName =
+            schemaMapper.getSourceColumnName(namespace, spannerTableName, spannerColName);
+        Schema.Field field = recordSchema.getField(srcColName);
+        if (field == null) {
+          continue;
+        }
+        ColumnConvertor columnConvertor =
+            convertor.getColumnConvertor(
+                field.schema(),
+                srcColName,
+                schemaMapper.getSpannerColumnType(namespace, spannerTableName, spannerColName),
+                schemaMapper.getSpannerColumnCassandraAnnotations(
+                    namespace, spannerTableName, spannerColName));
+        plan.add(ColumnKind.FIELD, spannerColName, field.pos(), columnConvertor);
+      } catch (NullPointerException | IllegalArgumentException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new RuntimeException(
+            String.format("Unable to convert spanner value for spanner col: %s", spannerColName),
+            e);
+      }
+    }
+    return plan;
+  }
+
+  private void add(
+      ColumnKind kind, String spannerColumnName, int fieldPosition, ColumnConvertor convertor) {
+    kinds.add(kind);
+    spannerColumnNames.add(spannerColumnName);
+    fieldPositions.add(fieldPosition);
+    convertors.add(convertor);
+  }
+
+  /** Returns true if the plan was compiled for rows of the given schema. */
+  boolean isCompiledFor(Schema schema) {
+    return recordSchema == schema || recordSchema.equals(schema);
+  }
+
+  /**
+   * Converts a row of the table to a mutation.
+   *
+   * @param record the row.
+   * @param shardId logical shard id of the row, if any.
+   * @param insertOnly true for an insert mutation, false for an insert or update.
+   * @return the mutation.
+   */
+  Mutation toMutation(GenericRecord record, String shardId, boolean insertOnly) {
+    Mutation.WriteBuilder builder =
+        insertOnly
+            ? Mutation.newInsertBuilder(spannerTableName)
+            : Mutation.newInsertOrUpdateBuilder(spannerTableName);
+    for (int i = 0; i < kinds.size(); i++) {
+      String spannerColName = spannerColumnNames.get(i);
+      switch (kinds.get(i)) {
+        case SHARD_ID:
+          if (shardId != null && !shardId.isBlank()) {
+            builder.set(spannerColName).to(shardId);
+          }
+          break;
+        case SYNTHETIC_PRIMARY_KEY:
+          builder.set(spannerColName).to(UUID.randomUUID().toString());
+          break;
+        default:
+          Value value;
+          try {
+            value = convertors.get(i).convert(record.get(fieldPositions.get(i)));
+          } catch (NullPointerException | IllegalArgumentException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new RuntimeException(
+                String.format(
+                    "Unable to convert spanner value for spanner col: %s", spannerColName),
+                e);
+          }
+          if (value != null) {
+            builder.set(spannerColName).to(value);
+          }
+      }
+    }
+    return builder.build();
+  }
+}
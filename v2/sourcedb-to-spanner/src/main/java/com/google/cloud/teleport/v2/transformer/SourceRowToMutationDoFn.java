@@ -28,8 +28,10 @@ import com.google.cloud.teleport.v2.spanner.migrations.utils.CustomTransformatio
 import com.google.cloud.teleport.v2.spanner.utils.ISpannerMigrationTransformer;
 import com.google.cloud.teleport.v2.templates.RowContext;
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
@@ -49,6 +51,9 @@ public abstract class SourceRowToMutationDoFn extends DoFn<SourceRow, RowContext
 
   private transient ISpannerMigrationTransformer sourceDbToSpannerTransformer;
 
+  /** Conversion plans of the tables seen by this instance, by table schema UUID. */
+  private transient Map<String, SourceRowConversionPlan> conversionPlans;
+
   public void setSourceDbToSpannerTransformer(
       ISpannerMigrationTransformer sourceDbToSpannerTransformer) {
     this.sourceDbToSpannerTransformer = sourceDbToSpannerTransformer;
@@ -86,6 +91,7 @@ public abstract class SourceRowToMutationDoFn extends DoFn<SourceRow, RowContext
   public void setup() {
     sourceDbToSpannerTransformer =
         CustomTransformationImplFetcher.getCustomTransformationLogicImpl(customTransformation());
+    conversionPlans = new HashMap<>();
   }
 
   @ProcessElement
@@ -97,6 +103,16 @@ public abstract class SourceRowToMutationDoFn extends DoFn<SourceRow, RowContext
       // TODO: update namespace in constructor when Spanner namespace support is added.
       GenericRecord record = sourceRow.getPayload();
       String srcTableName = sourceRow.tableName();
+      if (sourceDbToSpannerTransformer == null) {
+        // Without a custom transformation, rows are converted by the precompiled table plan.
+        Mutation mutation =
+            getConversionPlan(sourceRow, record)
+                .toMutation(record, sourceRow.shardId(), insertOnly());
+        output
+            .get(SourceDbToSpannerConstants.ROW_TRANSFORMATION_SUCCESS)
+            .output(RowContext.builder().setRow(sourceRow).setMutation(mutation).build());
+        return;
+      }
       GenericRecordTypeConvertor genericRecordTypeConvertor =
           new GenericRecordTypeConvertor(
               iSchemaMapper(), "", sourceRow.shardId(), sourceDbToSpannerTransformer);
@@ -125,6 +141,19 @@ public abstract class SourceRowToMutationDoFn extends DoFn<SourceRow, RowContext
     }
   }
 
+  private SourceRowConversionPlan getConversionPlan(SourceRow sourceRow, GenericRecord record) {
+    if (conversionPlans == null) {
+      conversionPlans = new HashMap<>();
+    }
+    Schema recordSchema = record.getSchema();
+    SourceRowConversionPlan plan = conversionPlans.get(sourceRow.tableSchemaUUID());
+    if (plan == null || !plan.isCompiledFor(recordSchema)) {
+      plan = SourceRowConversionPlan.compile(iSchemaMapper(), sourceRow.tableName(), recordSchema);
+      conversionPlans.put(sourceRow.tableSchemaUUID(), plan);
+    }
+    return plan;
+  }
+
   private Mutation mutationFromMap(
       String spannerTableName, Map<String, Value> values, boolean insertOnly) {
     Mutation.WriteBuilder builder =
@@ -16,6 +16,7 @@
 package com.google.cloud.teleport.v2.source.reader.io.jdbc.iowrapper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import com.google.cloud.teleport.v2.source.reader.io.jdbc.iowrapper.config.TableConfig;
 import org.junit.Before;
@@ -154,4 +155,21 @@ public final class FetchSizeCalculatorTest {
     int fetchSize = FetchSizeCalculator.getFetchSize(mockTableConfig, 100L, 17179869184L, 4);
     assertEquals(0, fetchSize);
   }
+
+  @Test
+  public void testGetFetchMemoryBudgetBytes() {
+    // Memory: 16 GB, Cores: 4, Budget = 17,179,869,184 / (4 * 4) = 1,073,741,824
+    assertEquals(
+        Long.valueOf(1073741824L),
+        FetchSizeCalculator.getFetchMemoryBudgetBytes(tableConfig, 17179869184L, 4));
+    assertNull(FetchSizeCalculator.getFetchMemoryBudgetBytes(tableConfig, null, 4));
+    assertNull(FetchSizeCalculator.getFetchMemoryBudgetBytes(tableConfig, 17179869184L, null));
+
+    TableConfig configWithFetchSize =
+        TableConfig.builder("t1")
+            .setDataSourceId("b1a1ec3b-195d-4755-b04b-02bc64dc4458")
+            .setFetchSize(12345)
+            .build();
+    assertNull(FetchSizeCalculator.getFetchMemoryBudgetBytes(configWithFetchSize, 17179869184L, 4));
+  }
 }
@@ -1327,6 +1327,8 @@ public class JdbcIoWrapperTest {
     TableIdentifier id1 =
         TableIdentifier.builder().setTableName("\"t1\"").setDataSourceId(config.id()).build();
     assertThat(readSpecs.get(id1).fetchSize()).isEqualTo(42);
+    // An explicit fetch size is not adapted.
+    assertThat(readSpecs.get(id1).fetchMemoryBudgetBytes()).isNull();
   }
 
   @Test
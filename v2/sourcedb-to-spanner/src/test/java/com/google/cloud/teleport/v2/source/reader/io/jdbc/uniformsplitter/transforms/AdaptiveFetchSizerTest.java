@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.transforms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.range.TableIdentifier;
+import com.google.cloud.teleport.v2.source.reader.io.jdbc.uniformsplitter.range.TableReadSpecification;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Test class for {@link AdaptiveFetchSizer}. */
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveFetchSizerTest {
+
+  private static final TableIdentifier TABLE_ID =
+      TableIdentifier.builder()
+          .setDataSourceId("b1a1ec3b-195d-4755-b04b-02bc64dc4458")
+          .setTableName("testTable")
+          .build();
+
+  @Test
+  public void testFixedFetchSizeWithoutBudget() throws Exception {
+    TableReadSpecification<String> spec = getSpec(null);
+    ResultSet resultSet = mock(ResultSet.class);
+    AdaptiveFetchSizer sizer = new AdaptiveFetchSizer();
+
+    AdaptiveFetchSizer.RangeSampler sampler = sizer.startRange(spec);
+    sampler.onRow(resultSet);
+    sampler.finish();
+
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(100);
+    verify(resultSet, never()).getMetaData();
+  }
+
+  @Test
+  public void testFetchSizeAdaptsToRowSize() throws Exception {
+    TableReadSpecification<String> spec = getSpec(1_000_000L);
+    AdaptiveFetchSizer sizer = new AdaptiveFetchSizer();
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(100);
+
+    // A 10,000 bytes row gives 1,000,000 / 10,000.
+    readRange(sizer, spec, getResultSet(new byte[10_000]));
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(100);
+
+    // Wider rows are followed immediately.
+    readRange(sizer, spec, getResultSet(new byte[100_000]));
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(10);
+
+    // Narrower rows only move the estimate by DECAY_WEIGHT: 0.75 * 100,000 + 0.25 * 1,000.
+    readRange(sizer, spec, getResultSet(new byte[1_000]));
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(1_000_000 / 75_250);
+
+    // The fetch size never goes below one row.
+    readRange(sizer, spec, getResultSet(new byte[10_000_000]));
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(1);
+  }
+
+  @Test
+  public void testEstimateRowBytes() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(metaData.getColumnCount()).thenReturn(4);
+    when(resultSet.getObject(1)).thenReturn(new byte[10]);
+    when(resultSet.getObject(2)).thenReturn("abc");
+    when(resultSet.getObject(3)).thenReturn(null);
+    when(resultSet.getObject(4)).thenReturn(42L);
+
+    assertThat(AdaptiveFetchSizer.estimateRowBytes(resultSet)).isEqualTo(10 + 6 + 16);
+  }
+
+  @Test
+  public void testSamplingFailureKeepsFetchSize() throws Exception {
+    TableReadSpecification<String> spec = getSpec(1_000_000L);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getMetaData()).thenThrow(new SQLException("test"));
+    AdaptiveFetchSizer sizer = new AdaptiveFetchSizer();
+
+    readRange(sizer, spec, resultSet);
+
+    assertThat(sizer.getFetchSize(spec)).isEqualTo(100);
+  }
+
+  private static void readRange(
+      AdaptiveFetchSizer sizer, TableReadSpecification<String> spec, ResultSet resultSet) {
+    AdaptiveFetchSizer.RangeSampler sampler = sizer.startRange(spec);
+    sampler.onRow(resultSet);
+    sampler.finish();
+  }
+
+  private static ResultSet getResultSet(byte[] value) throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(metaData.getColumnCount()).thenReturn(1);
+    when(resultSet.getObject(1)).thenReturn(value);
+    return resultSet;
+  }
+
+  private static TableReadSpecification<String> getSpec(Long fetchMemoryBudgetBytes) {
+    return TableReadSpecification.<String>builder()
+        .setTableIdentifier(TABLE_ID)
+        .setFetchSize(100)
+        .setFetchMemoryBudgetBytes(fetchMemoryBudgetBytes)
+        .setRowMapper(rs -> "row")
+        .build();
+  }
+}
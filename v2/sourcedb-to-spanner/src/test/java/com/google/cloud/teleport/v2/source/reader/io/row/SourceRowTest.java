@@ -102,6 +102,48 @@ public class SourceRowTest extends TestCase {
     assertThat(gcsRecord.get("payload")).isEqualTo(sourceRow.getPayload());
   }
 
+  @Test
+  public void testSourceRowBuildsByFieldPosition() {
+    final String testTable = "testTable";
+    final long testReadTime = 1712751118L;
+    var schemaRef = SchemaTestUtils.generateSchemaReference("public", "mydb");
+    var schema = SchemaTestUtils.generateTestTableSchema(testTable);
+    Schema payloadSchema = schema.getAvroPayload();
+    SourceRow sourceRow =
+        SourceRow.builder(schemaRef, schema, null, testReadTime)
+            .setField(payloadSchema.getField("firstName").pos(), "abc")
+            .setField(payloadSchema.getField("lastName").pos(), "def")
+            .build();
+
+    assertThat(sourceRow.getReadTimeMicros()).isEqualTo(testReadTime);
+    assertThat(sourceRow.getPayload().get("firstName")).isEqualTo("abc");
+    assertThat(sourceRow.getPayload().get("lastName")).isEqualTo("def");
+  }
+
+  @Test
+  public void testGcsSchemaIsSharedByRowsOfATable() {
+    final String testTable = "testTable";
+    final long testReadTime = 1712751118L;
+    var schemaRef = SchemaTestUtils.generateSchemaReference("public", "mydb");
+    var schema = SchemaTestUtils.generateTestTableSchema(testTable);
+    SourceRow firstRow =
+        SourceRow.builder(schemaRef, schema, null, testReadTime)
+            .setField("firstName", "abc")
+            .setField("lastName", "def")
+            .build();
+    SourceRow secondRow =
+        SourceRow.builder(schemaRef, schema, null, testReadTime)
+            .setField("firstName", "ghi")
+            .setField("lastName", "jkl")
+            .build();
+
+    assertThat(secondRow.gcsSchema()).isSameInstanceAs(firstRow.gcsSchema());
+    assertThat(secondRow.payloadSchemaJson()).isSameInstanceAs(firstRow.payloadSchemaJson());
+    assertThat(firstRow.payloadSchemaJson())
+        .isEqualTo(firstRow.getPayload().getSchema().toString());
+    assertThat(secondRow.toGcsRecord().get("payload")).isEqualTo(secondRow.getPayload());
+  }
+
   @Test
   public void testSourceRowBuildWithInvalidFieldThrowsNPE() {
     final String testTable = "testTable";
@@ -21,6 +21,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.spanner.Dialect;
@@ -152,6 +154,77 @@ public class SourceRowToMutationDoFnTest {
     pipeline.run();
   }
 
+  @Test
+  public void testConversionPlanIsCompiledOncePerTable() {
+    final String testTable = "srcTable";
+    var schemaRef = SchemaTestUtils.generateSchemaReference("public", "mydb");
+    var schema = SchemaTestUtils.generateTestTableSchema(testTable);
+    SourceRow sourceRow1 =
+        SourceRow.builder(schemaRef, schema, null, 12412435345L)
+            .setField("firstName", "abc")
+            .setField("lastName", "def")
+            .build();
+    SourceRow sourceRow2 =
+        SourceRow.builder(schemaRef, schema, null, 12412435345L)
+            .setField("firstName", "ghi")
+            .setField("lastName", "jkl")
+            .build();
+    ISchemaMapper mockIschemaMapper =
+        mock(ISchemaMapper.class, Mockito.withSettings().serializable());
+    when(mockIschemaMapper.getDialect()).thenReturn(Dialect.GOOGLE_STANDARD_SQL);
+    when(mockIschemaMapper.getSpannerTableName(anyString(), anyString()))
+        .thenReturn("spannerTable");
+    when(mockIschemaMapper.getSourceColumnName(anyString(), anyString(), eq("spFirstName")))
+        .thenReturn("firstName");
+    when(mockIschemaMapper.getSourceColumnName(anyString(), anyString(), eq("spLastName")))
+        .thenReturn("lastName");
+    when(mockIschemaMapper.getSpannerColumnType(anyString(), anyString(), anyString()))
+        .thenReturn(Type.string());
+    when(mockIschemaMapper.getSpannerColumns(anyString(), anyString()))
+        .thenReturn(List.of("spFirstName", "spLastName"));
+    when(mockIschemaMapper.colExistsAtSource(anyString(), anyString(), anyString()))
+        .thenReturn(true);
+
+    DoFn.ProcessContext processContextMock = mock(DoFn.ProcessContext.class);
+    when(processContextMock.element()).thenReturn(sourceRow1, sourceRow2);
+    List<RowContext> eventsActual = new ArrayList<>();
+    DoFn.MultiOutputReceiver outputReceiverMock = mock(DoFn.MultiOutputReceiver.class);
+    DoFn.OutputReceiver<RowContext> mockOutputReceiverForTag = mock(DoFn.OutputReceiver.class);
+    doAnswer(
+            invocation -> {
+              eventsActual.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(mockOutputReceiverForTag)
+        .output(any(RowContext.class));
+    when(outputReceiverMock.get(SourceDbToSpannerConstants.ROW_TRANSFORMATION_SUCCESS))
+        .thenReturn(mockOutputReceiverForTag);
+
+    SourceRowToMutationDoFn sourceRowToMutationDoFn =
+        SourceRowToMutationDoFn.create(mockIschemaMapper, null, false);
+    sourceRowToMutationDoFn.processElement(processContextMock, outputReceiverMock);
+    sourceRowToMutationDoFn.processElement(processContextMock, outputReceiverMock);
+
+    assertEquals(2, eventsActual.size());
+    assertEquals(
+        Mutation.newInsertOrUpdateBuilder("spannerTable")
+            .set("spFirstName")
+            .to("abc")
+            .set("spLastName")
+            .to("def")
+            .build(),
+        eventsActual.get(0).mutation());
+    assertEquals(
+        Mutation.newInsertOrUpdateBuilder("spannerTable")
+            .set("spFirstName")
+            .to("ghi")
+            .set("spLastName")
+            .to("jkl")
+            .build(),
+        eventsActual.get(1).mutation());
+    verify(mockIschemaMapper, times(1)).getSpannerColumns(anyString(), anyString());
+  }
+
   @Test
   public void testCustomTranformation() throws InvalidTransformationException {
     final String testTable = "srcTable";
@@ -562,6 +562,51 @@ public class GenericRecordTypeConvertor {
     return recordArrayList.toArray();
   }
 
+  /**
+   * Returns a convertor from the values of an Avro field to Spanner values of the given type. The
+   * schema resolution and the lookup of the type convertor are done once here instead of for every
+   * value, which makes it suitable for converting many rows of the same table. Converting a value
+   * gives the same result as {@link #getSpannerValue}.
+   */
+  public ColumnConvertor getColumnConvertor(
+      Schema fieldSchema,
+      String recordColName,
+      Type spannerType,
+      CassandraAnnotations cassandraAnnotations) {
+    Dialect dialect = schemaMapper.getDialect();
+    if (dialect == null) {
+      throw new NullPointerException("schemaMapper returned null spanner dialect.");
+    }
+    Schema resolvedSchema = filterNullSchema(fieldSchema, recordColName, null);
+    AvroToValueMapper.AvroToValueFunction convertor =
+        AvroToValueMapper.convertorMap().get(dialect).get(spannerType);
+    if (convertor == null) {
+      throw new IllegalArgumentException(
+          "Found unsupported Spanner column type("
+              + spannerType.getCode()
+              + ") for column "
+              + recordColName);
+    }
+    boolean isNonPrimitive =
+        resolvedSchema.getLogicalType() != null
+            || resolvedSchema.getProp(LOGICAL_TYPE) != null
+            || resolvedSchema.getType().equals(Schema.Type.RECORD)
+            || resolvedSchema.getType().equals(Schema.Type.ARRAY);
+    if (!isNonPrimitive) {
+      return recordValue -> convertor.apply(recordValue, resolvedSchema);
+    }
+    return recordValue ->
+        convertor.apply(
+            handleNonPrimitiveAvroTypes(
+                recordValue, resolvedSchema, recordColName, cassandraAnnotations),
+            resolvedSchema);
+  }
+
+  /** Converts the values of one Avro field to Spanner values. */
+  public interface ColumnConvertor {
+    Value convert(Object recordValue);
+  }
+
   /** Converts an avro object to Spanner Value of the specified type. */
   private Value getSpannerValueFromObject(
       Object value, Schema fieldSchema, String recordColName, Type spannerType) {
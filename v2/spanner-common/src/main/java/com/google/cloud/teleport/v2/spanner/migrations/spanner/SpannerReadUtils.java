@@ -15,6 +15,8 @@
  */
 package com.google.cloud.teleport.v2.spanner.migrations.spanner;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.cloud.ByteArray;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
@@ -32,6 +34,10 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class SpannerReadUtils {
+
+  /** Column holding the index of the key a row was read for in multi-key reads. */
+  public static final String KEY_INDEX_COLUMN = "key_index";
+
   // TODO: After beam release, use the latest client lib version which supports
   // setting lock
   // hints via the read api. SQL string generation should be removed.
@@ -93,6 +99,69 @@ public class SpannerReadUtils {
     return stmtBuilder.build();
   }
 
+  /**
+   * Generates a single locking query that reads the given columns for several primary keys. The
+   * rows of each key are selected by their own branch of a {@code UNION ALL}, and every row carries
+   * the index of its key in {@code primaryKeys} in the {@link #KEY_INDEX_COLUMN} column, so that
+   * the caller can match rows to keys without comparing key values.
+   */
+  public static Statement generateMultiKeyReadSQLWithExclusiveLock(
+      String tableName, List<String> readColumnList, List<Key> primaryKeys, Ddl ddl) {
+    checkArgument(!primaryKeys.isEmpty(), "At least one primary key must be read");
+
+    Dialect dialect = ddl.dialect();
+    boolean isPostgres = dialect == Dialect.POSTGRESQL;
+    Table table = ddl.table(tableName);
+    List<IndexColumn> pks = table.primaryKeys();
+
+    String columnNames =
+        readColumnList.stream()
+            .map(c -> quoteIdentifier(c, dialect))
+            .collect(Collectors.joining(", "));
+
+    StringBuilder sql =
+        new StringBuilder(
+            isPostgres
+                ? "/*@ LOCK_SCANNED_RANGES=exclusive */ "
+                : "@{LOCK_SCANNED_RANGES=exclusive} ");
+    Statement.Builder stmtBuilder = Statement.newBuilder("");
+    int paramIndex = 0;
+    for (int keyIndex = 0; keyIndex < primaryKeys.size(); keyIndex++) {
+      if (keyIndex > 0) {
+        sql.append(" UNION ALL ");
+      }
+      sql.append("SELECT ")
+          .append(keyIndex)
+          .append(" AS ")
+          .append(KEY_INDEX_COLUMN)
+          .append(", ")
+          .append(columnNames)
+          .append(" FROM ")
+          .append(quoteIdentifier(tableName, dialect))
+          .append(" WHERE ");
+
+      int i = 0;
+      for (Object value : primaryKeys.get(keyIndex).getParts()) {
+        String colName = pks.get(i).name();
+        Type keyColType = table.column(colName).type();
+        if (i > 0) {
+          sql.append(" AND ");
+        }
+        if (isPostgres) {
+          paramIndex++;
+          sql.append(quoteIdentifier(colName, dialect)).append("=$").append(paramIndex);
+          bindPgValue(stmtBuilder, "p" + paramIndex, keyColType, value);
+        } else {
+          String bindName = "k" + keyIndex + "_" + colName;
+          sql.append(colName).append("=@").append(bindName);
+          bindGoogleSqlValue(stmtBuilder, bindName, keyColType, value);
+        }
+        i++;
+      }
+    }
+    return stmtBuilder.append(sql.toString()).build();
+  }
+
   private static void bindGoogleSqlValue(
       Statement.Builder stmtBuilder, String bindName, Type type, Object value) {
     // TODO: Handle json type as PKs.
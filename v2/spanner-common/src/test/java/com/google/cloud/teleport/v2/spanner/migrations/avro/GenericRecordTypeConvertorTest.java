@@ -699,6 +699,35 @@ public class GenericRecordTypeConvertorTest {
                             "P1083Y4M3890DT30H31M12.000000009S",
                             "P1083Y4M3890DT25H12.000000009S")),
                 "timeStampArrayCol", Value.timestampArray(expectedTimeStampArray)));
+
+    // Precompiled column convertors give the same values.
+    assertThat(
+            genericRecordTypeConvertor
+                .getColumnConvertor(
+                    payloadSchema.getField("intervalNanoCol").schema(),
+                    "intervalNanoCol",
+                    Type.string(),
+                    getTestCassandraAnnotationNone())
+                .convert(payload.get("intervalNanoCol")))
+        .isEqualTo(Value.string("P1083Y4M3890DT30H31M12.000000009S"));
+    assertThat(
+            genericRecordTypeConvertor
+                .getColumnConvertor(
+                    payloadSchema.getField("booleanNullCol").schema(),
+                    "booleanNullCol",
+                    Type.bool(),
+                    getTestCassandraAnnotationNone())
+                .convert(payload.get("booleanNullCol")))
+        .isEqualTo(Value.bool(null));
+    assertThat(
+            genericRecordTypeConvertor
+                .getColumnConvertor(
+                    payloadSchema.getField("timeStampArrayCol").schema(),
+                    "timeStampCol",
+                    Type.array(Type.timestamp()),
+                    getTestCassandraAnnotationNone())
+                .convert(payload.get("timeStampArrayCol")))
+        .isEqualTo(Value.timestampArray(expectedTimeStampArray));
   }
 
   @Test
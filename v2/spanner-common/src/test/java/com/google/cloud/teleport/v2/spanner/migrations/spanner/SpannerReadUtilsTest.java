@@ -235,4 +235,81 @@ public class SpannerReadUtilsTest {
     assertEquals(Value.timestamp(timestampValue), params.get("timestamp_field"));
     assertEquals(Value.date(dateValue), params.get("date_field"));
   }
+
+  @Test
+  public void testGenerateMultiKeyReadSQL() {
+    Ddl keyDdl =
+        Ddl.builder()
+            .createTable(SHADOW_TABLE)
+            .column("id")
+            .int64()
+            .endColumn()
+            .column("name")
+            .string()
+            .max()
+            .endColumn()
+            .column("version")
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .asc("name")
+            .end()
+            .endTable()
+            .build();
+
+    Statement stmt =
+        SpannerReadUtils.generateMultiKeyReadSQLWithExclusiveLock(
+            SHADOW_TABLE,
+            Arrays.asList("version"),
+            Arrays.asList(Key.of(1L, "a"), Key.of(2L, "b")),
+            keyDdl);
+
+    String expectedSql =
+        "@{LOCK_SCANNED_RANGES=exclusive} "
+            + "SELECT 0 AS key_index, version FROM shadow_test_table "
+            + "WHERE id=@k0_id AND name=@k0_name UNION ALL "
+            + "SELECT 1 AS key_index, version FROM shadow_test_table "
+            + "WHERE id=@k1_id AND name=@k1_name";
+    assertEquals(expectedSql, stmt.getSql());
+
+    Map<String, Value> params = stmt.getParameters();
+    assertEquals(Value.int64(1L), params.get("k0_id"));
+    assertEquals(Value.string("a"), params.get("k0_name"));
+    assertEquals(Value.int64(2L), params.get("k1_id"));
+    assertEquals(Value.string("b"), params.get("k1_name"));
+  }
+
+  @Test
+  public void testGenerateMultiKeyReadSQLPostgres() {
+    Ddl pgDdl =
+        Ddl.builder(com.google.cloud.spanner.Dialect.POSTGRESQL)
+            .createTable(SHADOW_TABLE)
+            .column("id")
+            .pgInt8()
+            .endColumn()
+            .column("version")
+            .pgInt8()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .endTable()
+            .build();
+
+    Statement stmt =
+        SpannerReadUtils.generateMultiKeyReadSQLWithExclusiveLock(
+            SHADOW_TABLE, Arrays.asList("version"), Arrays.asList(Key.of(1L), Key.of(2L)), pgDdl);
+
+    String expectedSql =
+        "/*@ LOCK_SCANNED_RANGES=exclusive */ "
+            + "SELECT 0 AS key_index, \"version\" FROM \"shadow_test_table\" WHERE \"id\"=$1 "
+            + "UNION ALL "
+            + "SELECT 1 AS key_index, \"version\" FROM \"shadow_test_table\" WHERE \"id\"=$2";
+    assertEquals(expectedSql, stmt.getSql());
+
+    Map<String, Value> params = stmt.getParameters();
+    assertEquals(Value.int64(1L), params.get("p1"));
+    assertEquals(Value.int64(2L), params.get("p2"));
+  }
 }
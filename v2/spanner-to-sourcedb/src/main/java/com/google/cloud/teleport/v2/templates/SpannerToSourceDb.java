@@ -540,6 +540,21 @@ public class SpannerToSourceDb {
     RpcPriority getSpannerPriority();
 
     void setSpannerPriority(RpcPriority value);
+
+    @TemplateParameter.Integer(
+        order = 36,
+        optional = true,
+        description = "Maximum number of records written to a shard in one source transaction",
+        helpText =
+            "The maximum number of change records of a shard that are written to the source"
+                + " database in one batched transaction. The records of a batch are written with"
+                + " JDBC statement batches and their shadow table entries are updated in one"
+                + " Spanner transaction. Not supported for Cassandra. Defaults to 1, which writes"
+                + " every record in its own transaction.")
+    @Default.Integer(1)
+    Integer getSourceWriteBatchSize();
+
+    void setSourceWriteBatchSize(Integer value);
   }
 
   /**
@@ -823,7 +838,8 @@ public class SpannerToSourceDb {
                     options.getSessionFilePath(),
                     options.getSchemaOverridesFilePath(),
                     options.getTableOverrides(),
-                    options.getColumnOverrides()));
+                    options.getColumnOverrides(),
+                    options.getSourceWriteBatchSize()));
 
     PCollection<FailsafeElement<String, String>> dlqPermErrorRecords =
         reconsumedElements
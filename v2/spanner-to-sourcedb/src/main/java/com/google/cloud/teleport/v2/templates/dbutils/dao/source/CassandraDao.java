@@ -23,6 +23,7 @@ import com.google.cloud.teleport.v2.templates.dbutils.dml.CassandraTypeHandler;
 import com.google.cloud.teleport.v2.templates.exceptions.ConnectionException;
 import com.google.cloud.teleport.v2.templates.models.DMLGeneratorResponse;
 import com.google.cloud.teleport.v2.templates.models.PreparedStatementGeneratedResponse;
+import java.util.List;
 
 public class CassandraDao implements IDao<DMLGeneratorResponse> {
   private final String cassandraUrl;
@@ -65,4 +66,12 @@ public class CassandraDao implements IDao<DMLGeneratorResponse> {
                 .toArray());
     session.execute(boundStatement);
   }
+
+  @Override
+  public void writeBatch(
+      List<DMLGeneratorResponse> dmlGeneratorResponses, TransactionalCheck transactionalCheck)
+      throws Exception {
+    throw new UnsupportedOperationException(
+        "Batched writes are not supported for Cassandra database");
+  }
 }
@@ -15,6 +15,9 @@
  */
 package com.google.cloud.teleport.v2.templates.dbutils.dao.source;
 
+import com.google.cloud.teleport.v2.templates.models.DMLGeneratorResponse;
+import java.util.List;
+
 public interface IDao<T> {
   /**
    * Executes a given write statement against the data source then calls the transactionalCheck
@@ -27,4 +30,18 @@ public interface IDao<T> {
    * @throws Exception If the sqlStatement could not be successfully committed.
    */
   void write(T statement, TransactionalCheck transactionalCheck) throws Exception;
+
+  /**
+   * Executes the given write statements against the data source in a single transaction, then calls
+   * the transactionalCheck callback function (if not null). The transaction will be committed only
+   * if all statements succeeded and the callback function did not throw any exception.
+   *
+   * @param dmlGeneratorResponses Write statements, executed in the given order.
+   * @param transactionalCheck Callback function which will be executed and checked before
+   *     committing the transaction.
+   * @throws Exception If the statements could not be successfully committed.
+   */
+  void writeBatch(
+      List<DMLGeneratorResponse> dmlGeneratorResponses, TransactionalCheck transactionalCheck)
+      throws Exception;
 }
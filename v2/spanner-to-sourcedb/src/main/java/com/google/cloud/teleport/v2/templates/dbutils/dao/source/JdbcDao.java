@@ -17,8 +17,15 @@ package com.google.cloud.teleport.v2.templates.dbutils.dao.source;
 
 import com.google.cloud.teleport.v2.templates.dbutils.connection.IConnectionHelper;
 import com.google.cloud.teleport.v2.templates.exceptions.ConnectionException;
+import com.google.cloud.teleport.v2.templates.models.DMLGeneratorResponse;
+import com.google.cloud.teleport.v2.templates.models.PreparedStatementGeneratedResponse;
+import com.google.cloud.teleport.v2.templates.models.PreparedStatementValueObject;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.List;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +37,9 @@ public class JdbcDao implements IDao<String> {
 
   private static final Logger LOG = LoggerFactory.getLogger(JdbcDao.class);
 
+  private static final Distribution STATEMENTS_PER_COMMIT =
+      Metrics.distribution(JdbcDao.class, "source_statements_per_commit");
+
   public JdbcDao(String sqlUrl, String sqlUser, IConnectionHelper connectionHelper) {
     this.sqlUrl = sqlUrl;
     this.sqlUser = sqlUser;
@@ -42,10 +52,7 @@ public class JdbcDao implements IDao<String> {
     Statement statement = null;
 
     try {
-      connObj = (Connection) connectionHelper.getConnection(this.sqlUrl + "/" + this.sqlUser);
-      if (connObj == null) {
-        throw new ConnectionException("Connection is null");
-      }
+      connObj = getConnection();
       connObj.setAutoCommit(false);
       statement = connObj.createStatement();
       statement.executeUpdate(sqlStatement);
@@ -65,4 +72,95 @@ public class JdbcDao implements IDao<String> {
       }
     }
   }
+
+  /**
+   * Executes the statements in a single transaction using JDBC batches. Consecutive {@link
+   * PreparedStatementGeneratedResponse}s with the same statement text are sent as one {@link
+   * PreparedStatement} batch, and consecutive plain statements as one {@link Statement} batch, so
+   * that the statements are still applied in the given order.
+   */
+  @Override
+  public void writeBatch(
+      List<DMLGeneratorResponse> dmlGeneratorResponses, TransactionalCheck transactionalCheck)
+      throws Exception {
+    Connection connObj = null;
+
+    try {
+      connObj = getConnection();
+      connObj.setAutoCommit(false);
+      int start = 0;
+      while (start < dmlGeneratorResponses.size()) {
+        int end = getBatchEnd(dmlGeneratorResponses, start);
+        if (dmlGeneratorResponses.get(start) instanceof PreparedStatementGeneratedResponse) {
+          executePreparedStatementBatch(connObj, dmlGeneratorResponses.subList(start, end));
+        } else {
+          executeStatementBatch(connObj, dmlGeneratorResponses.subList(start, end));
+        }
+        start = end;
+      }
+
+      if (transactionalCheck != null) {
+        transactionalCheck.check();
+      }
+      connObj.commit();
+      STATEMENTS_PER_COMMIT.update(dmlGeneratorResponses.size());
+
+    } finally {
+
+      if (connObj != null) {
+        connObj.close();
+      }
+    }
+  }
+
+  /** Returns the end (exclusive) of the run of statements that can share a batch with start. */
+  private static int getBatchEnd(List<DMLGeneratorResponse> dmlGeneratorResponses, int start) {
+    DMLGeneratorResponse first = dmlGeneratorResponses.get(start);
+    boolean isPrepared = first instanceof PreparedStatementGeneratedResponse;
+    int end = start + 1;
+    while (end < dmlGeneratorResponses.size()) {
+      DMLGeneratorResponse next = dmlGeneratorResponses.get(end);
+      if (isPrepared != (next instanceof PreparedStatementGeneratedResponse)
+          || (isPrepared && !first.getDmlStatement().equals(next.getDmlStatement()))) {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  private static void executePreparedStatementBatch(
+      Connection connObj, List<DMLGeneratorResponse> dmlGeneratorResponses) throws Exception {
+    try (PreparedStatement statement =
+        connObj.prepareStatement(dmlGeneratorResponses.get(0).getDmlStatement())) {
+      for (DMLGeneratorResponse dmlGeneratorResponse : dmlGeneratorResponses) {
+        List<PreparedStatementValueObject<?>> values =
+            ((PreparedStatementGeneratedResponse) dmlGeneratorResponse).getValues();
+        for (int i = 0; i < values.size(); i++) {
+          statement.setObject(i + 1, values.get(i).value());
+        }
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static void executeStatementBatch(
+      Connection connObj, List<DMLGeneratorResponse> dmlGeneratorResponses) throws Exception {
+    try (Statement statement = connObj.createStatement()) {
+      for (DMLGeneratorResponse dmlGeneratorResponse : dmlGeneratorResponses) {
+        statement.addBatch(dmlGeneratorResponse.getDmlStatement());
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private Connection getConnection() throws ConnectionException {
+    Connection connObj =
+        (Connection) connectionHelper.getConnection(this.sqlUrl + "/" + this.sqlUser);
+    if (connObj == null) {
+      throw new ConnectionException("Connection is null");
+    }
+    return connObj;
+  }
 }
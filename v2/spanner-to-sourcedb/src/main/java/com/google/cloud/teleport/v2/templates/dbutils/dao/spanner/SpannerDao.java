@@ -25,7 +25,9 @@ import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.spanner.migrations.spanner.SpannerReadUtils;
 import com.google.cloud.teleport.v2.templates.constants.Constants;
 import com.google.cloud.teleport.v2.templates.utils.ShadowTableRecord;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerAccessor;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerConfig;
@@ -40,6 +42,10 @@ public class SpannerDao {
 
   private static final Logger LOG = LoggerFactory.getLogger(SpannerDao.class);
 
+  // Upper bound on the keys read by one multi-key query, which keeps the query parameters within
+  // Spanner limits.
+  private static final int MAX_KEYS_PER_READ = 100;
+
   public SpannerDao(SpannerConfig spannerConfig) {
     this.spannerConfig = spannerConfig;
     this.spannerAccessor = SpannerAccessor.getOrCreate(spannerConfig);
@@ -81,6 +87,41 @@ public class SpannerDao {
         row.getTimestamp(readColumnList.get(0)), row.getLong(readColumnList.get(1)));
   }
 
+  /**
+   * Reads the shadow table records of several primary keys with one locking query per {@code
+   * MAX_KEYS_PER_READ} keys.
+   *
+   * @return the records in the order of {@code primaryKeys}, null for keys without a record
+   */
+  public List<ShadowTableRecord> readShadowTableRecordsWithExclusiveLock(
+      String shadowTableName,
+      List<com.google.cloud.spanner.Key> primaryKeys,
+      Ddl shadowTableDdl,
+      TransactionContext rwTransaction) {
+    List<String> readColumnList =
+        Arrays.asList(Constants.PROCESSED_COMMIT_TS_COLUMN_NAME, Constants.RECORD_SEQ_COLUMN_NAME);
+    List<ShadowTableRecord> records =
+        new ArrayList<>(Collections.nCopies(primaryKeys.size(), null));
+    for (int start = 0; start < primaryKeys.size(); start += MAX_KEYS_PER_READ) {
+      List<com.google.cloud.spanner.Key> keys =
+          primaryKeys.subList(start, Math.min(start + MAX_KEYS_PER_READ, primaryKeys.size()));
+      Statement sql =
+          SpannerReadUtils.generateMultiKeyReadSQLWithExclusiveLock(
+              shadowTableName, readColumnList, keys, shadowTableDdl);
+      try (ResultSet resultSet = rwTransaction.executeQuery(sql)) {
+        while (resultSet.next()) {
+          Struct row = resultSet.getCurrentRowAsStruct();
+          int keyIndex = (int) row.getLong(SpannerReadUtils.KEY_INDEX_COLUMN);
+          records.set(
+              start + keyIndex,
+              new ShadowTableRecord(
+                  row.getTimestamp(readColumnList.get(0)), row.getLong(readColumnList.get(1))));
+        }
+      }
+    }
+    return records;
+  }
+
   public DatabaseClient getDatabaseClient() {
     return spannerAccessor.getDatabaseClient();
   }
@@ -89,6 +130,10 @@ public class SpannerDao {
     transactionContext.buffer(mutation);
   }
 
+  public void updateShadowTables(List<Mutation> mutations, TransactionContext transactionContext) {
+    transactionContext.buffer(mutations);
+  }
+
   public void close() {
     spannerAccessor.close();
   }
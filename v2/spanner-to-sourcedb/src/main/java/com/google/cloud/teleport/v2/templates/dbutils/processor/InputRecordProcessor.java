@@ -64,51 +64,18 @@ public class InputRecordProcessor {
 
     try {
 
-      String tableName = spannerRecord.getTableName();
-      String modType = spannerRecord.getModType().name();
-      String keysJsonStr = spannerRecord.getMod().getKeysJson();
-      String newValueJsonStr = spannerRecord.getMod().getNewValuesJson();
-      JSONObject newValuesJson = new JSONObject(newValueJsonStr);
-      JSONObject keysJson = new JSONObject(keysJsonStr);
-      Map<String, Object> customTransformationResponse = null;
-
-      if (spannerToSourceTransformer != null) {
-        org.joda.time.Instant startTimestamp = org.joda.time.Instant.now();
-        Map<String, Object> mapRequest =
-            ChangeEventToMapConvertor.combineJsonObjects(keysJson, newValuesJson);
-        MigrationTransformationRequest migrationTransformationRequest =
-            new MigrationTransformationRequest(tableName, mapRequest, shardId, modType);
-        MigrationTransformationResponse migrationTransformationResponse = null;
-        try {
-          migrationTransformationResponse =
-              spannerToSourceTransformer.toSourceRow(migrationTransformationRequest);
-        } catch (Exception e) {
-          throw new InvalidTransformationException(e);
-        }
-        org.joda.time.Instant endTimestamp = org.joda.time.Instant.now();
-        applyCustomTransformationResponseTimeMetric.update(
-            new Duration(startTimestamp, endTimestamp).getMillis());
-        if (migrationTransformationResponse.isEventFiltered()) {
-          Metrics.counter(InputRecordProcessor.class, "filtered_events_" + shardId).inc();
-          return true;
-        }
-        if (migrationTransformationResponse != null) {
-          customTransformationResponse = migrationTransformationResponse.getResponseRow();
-        }
-      }
-      DMLGeneratorRequest dmlGeneratorRequest =
-          new DMLGeneratorRequest.Builder(
-                  modType, tableName, newValuesJson, keysJson, sourceDbTimezoneOffset)
-              .setSchemaMapper(schemaMapper)
-              .setCustomTransformationResponse(customTransformationResponse)
-              .setCommitTimestamp(spannerRecord.getCommitTimestamp())
-              .setDdl(ddl)
-              .setSourceSchema(sourceSchema)
-              .build();
-
-      DMLGeneratorResponse dmlGeneratorResponse = dmlGenerator.getDMLStatement(dmlGeneratorRequest);
-      if (dmlGeneratorResponse.getDmlStatement().isEmpty()) {
-        throw new InvalidDMLGenerationException("DML statement is empty for table: " + tableName);
+      DMLGeneratorResponse dmlGeneratorResponse =
+          generateDMLStatement(
+              spannerRecord,
+              schemaMapper,
+              ddl,
+              sourceSchema,
+              shardId,
+              sourceDbTimezoneOffset,
+              dmlGenerator,
+              spannerToSourceTransformer);
+      if (dmlGeneratorResponse == null) {
+        return true;
       }
       // TODO we need to handle it as proper Interface Level as of now we have handle Prepared
       // TODO Statement and Raw Statement Differently
@@ -136,4 +103,71 @@ public class InputRecordProcessor {
       throw e; // throw the original exception since it needs to go to DLQ
     }
   }
+
+  /**
+   * Applies the custom transformation, if any, to the record and generates the DML statement to
+   * write it to the source database.
+   *
+   * @return the generated DML statement, or null if the record was filtered by the custom
+   *     transformation.
+   */
+  public static DMLGeneratorResponse generateDMLStatement(
+      TrimmedShardedDataChangeRecord spannerRecord,
+      ISchemaMapper schemaMapper,
+      Ddl ddl,
+      SourceSchema sourceSchema,
+      String shardId,
+      String sourceDbTimezoneOffset,
+      IDMLGenerator dmlGenerator,
+      ISpannerMigrationTransformer spannerToSourceTransformer)
+      throws Exception {
+
+    String tableName = spannerRecord.getTableName();
+    String modType = spannerRecord.getModType().name();
+    String keysJsonStr = spannerRecord.getMod().getKeysJson();
+    String newValueJsonStr = spannerRecord.getMod().getNewValuesJson();
+    JSONObject newValuesJson = new JSONObject(newValueJsonStr);
+    JSONObject keysJson = new JSONObject(keysJsonStr);
+    Map<String, Object> customTransformationResponse = null;
+
+    if (spannerToSourceTransformer != null) {
+      org.joda.time.Instant startTimestamp = org.joda.time.Instant.now();
+      Map<String, Object> mapRequest =
+          ChangeEventToMapConvertor.combineJsonObjects(keysJson, newValuesJson);
+      MigrationTransformationRequest migrationTransformationRequest =
+          new MigrationTransformationRequest(tableName, mapRequest, shardId, modType);
+      MigrationTransformationResponse migrationTransformationResponse = null;
+      try {
+        migrationTransformationResponse =
+            spannerToSourceTransformer.toSourceRow(migrationTransformationRequest);
+      } catch (Exception e) {
+        throw new InvalidTransformationException(e);
+      }
+      org.joda.time.Instant endTimestamp = org.joda.time.Instant.now();
+      applyCustomTransformationResponseTimeMetric.update(
+          new Duration(startTimestamp, endTimestamp).getMillis());
+      if (migrationTransformationResponse.isEventFiltered()) {
+        Metrics.counter(InputRecordProcessor.class, "filtered_events_" + shardId).inc();
+        return null;
+      }
+      if (migrationTransformationResponse != null) {
+        customTransformationResponse = migrationTransformationResponse.getResponseRow();
+      }
+    }
+    DMLGeneratorRequest dmlGeneratorRequest =
+        new DMLGeneratorRequest.Builder(
+                modType, tableName, newValuesJson, keysJson, sourceDbTimezoneOffset)
+            .setSchemaMapper(schemaMapper)
+            .setCustomTransformationResponse(customTransformationResponse)
+            .setCommitTimestamp(spannerRecord.getCommitTimestamp())
+            .setDdl(ddl)
+            .setSourceSchema(sourceSchema)
+            .build();
+
+    DMLGeneratorResponse dmlGeneratorResponse = dmlGenerator.getDMLStatement(dmlGeneratorRequest);
+    if (dmlGeneratorResponse.getDmlStatement().isEmpty()) {
+      throw new InvalidDMLGenerationException("DML statement is empty for table: " + tableName);
+    }
+    return dmlGeneratorResponse;
+  }
 }
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionRunner;
 import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
 import com.google.cloud.teleport.v2.spanner.ddl.IndexColumn;
@@ -43,6 +44,7 @@ import com.google.cloud.teleport.v2.templates.dbutils.processor.InputRecordProce
 import com.google.cloud.teleport.v2.templates.dbutils.processor.SourceProcessor;
 import com.google.cloud.teleport.v2.templates.dbutils.processor.SourceProcessorFactory;
 import com.google.cloud.teleport.v2.templates.exceptions.UnsupportedSourceException;
+import com.google.cloud.teleport.v2.templates.models.DMLGeneratorResponse;
 import com.google.cloud.teleport.v2.templates.utils.SchemaMapperUtils;
 import com.google.cloud.teleport.v2.templates.utils.ShadowTableRecord;
 import com.google.cloud.teleport.v2.templates.utils.SpannerToSourceDbExceptionClassifier;
@@ -51,17 +53,23 @@ import com.google.gson.Gson;
 import java.io.Serializable;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerConfig;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Distribution;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.BoundedWindow;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
@@ -89,6 +97,11 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
       Metrics.distribution(SourceWriterFn.class, "successful_write_to_source_latency_ms");
   private static final Distribution UNSUCCESSFUL_WRITE_LATENCY_MS =
       Metrics.distribution(SourceWriterFn.class, "unsuccessful_write_to_source_latency_ms");
+  private static final Distribution SOURCE_WRITE_BATCH_SIZE =
+      Metrics.distribution(SourceWriterFn.class, "source_write_batch_size");
+
+  private final Counter batchFallbackCountMetric =
+      Metrics.counter(SourceWriterFn.class, "source_write_batch_fallback_count");
 
   private final String sourceDbTimezoneOffset;
   private final List<Shard> shards;
@@ -110,6 +123,10 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
   private final String schemaOverridesFilePath;
   private final String tableOverrides;
   private final String columnOverrides;
+  private final int sourceWriteBatchSize;
+
+  // Records waiting to be written, per shard. Only used when batching is enabled.
+  private transient Map<String, RecordBatch> batches;
 
   public SourceWriterFn(
       List<Shard> shards,
@@ -127,6 +144,42 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
       String schemaOverridesFilePath,
       String tableOverrides,
       String columnOverrides) {
+    this(
+        shards,
+        spannerConfig,
+        sourceDbTimezoneOffset,
+        sourceSchema,
+        shadowTablePrefix,
+        skipDirName,
+        maxThreadPerDataflowWorker,
+        source,
+        customTransformation,
+        ddlView,
+        shadowTableDdlView,
+        sessionFilePath,
+        schemaOverridesFilePath,
+        tableOverrides,
+        columnOverrides,
+        1);
+  }
+
+  public SourceWriterFn(
+      List<Shard> shards,
+      SpannerConfig spannerConfig,
+      String sourceDbTimezoneOffset,
+      SourceSchema sourceSchema,
+      String shadowTablePrefix,
+      String skipDirName,
+      int maxThreadPerDataflowWorker,
+      String source,
+      CustomTransformation customTransformation,
+      PCollectionView<Ddl> ddlView,
+      PCollectionView<Ddl> shadowTableDdlView,
+      String sessionFilePath,
+      String schemaOverridesFilePath,
+      String tableOverrides,
+      String columnOverrides,
+      int sourceWriteBatchSize) {
 
     this.sourceDbTimezoneOffset = sourceDbTimezoneOffset;
     this.shards = shards;
@@ -143,6 +196,7 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
     this.schemaOverridesFilePath = schemaOverridesFilePath;
     this.tableOverrides = tableOverrides;
     this.columnOverrides = columnOverrides;
+    this.sourceWriteBatchSize = sourceWriteBatchSize;
   }
 
   // for unit testing purposes
@@ -189,156 +243,422 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
     }
   }
 
+  @StartBundle
+  public void startBundle() {
+    if (isBatchingEnabled()) {
+      batches = new LinkedHashMap<>();
+    }
+  }
+
   @ProcessElement
-  public void processElement(ProcessContext c) {
+  public void processElement(ProcessContext c, BoundedWindow window) {
     Ddl ddl = c.sideInput(ddlView);
     Ddl shadowTableDdl = c.sideInput(shadowTableDdlView);
 
-    // SchemaMapper depends on Ddl side input, which is only available in processElement.
+    // SchemaMapper depends on Ddl side input, which is only available in processElement. The
+    // mapper is cached per worker and only rebuilt when the Ddl view changes.
     ISchemaMapper schemaMapper =
-        SchemaMapperUtils.getSchemaMapper(
+        SchemaMapperUtils.getCachedSchemaMapper(
             sessionFilePath, schemaOverridesFilePath, tableOverrides, columnOverrides, ddl);
 
     KV<Long, TrimmedShardedDataChangeRecord> element = c.element();
     TrimmedShardedDataChangeRecord spannerRec = element.getValue();
     String shardId = spannerRec.getShard();
+    RecordOutput output = new ProcessContextOutput(c);
     if (shardId == null || shardId.equals(Constants.SEVERE_ERROR_SHARD_ID)) {
       // if no shard or permanent error shard id found, move to permanent error
       outputWithTag(
-          c, Constants.PERMANENT_ERROR_TAG, Constants.SHARD_NOT_PRESENT_ERROR_MESSAGE, spannerRec);
+          output,
+          Constants.PERMANENT_ERROR_TAG,
+          Constants.SHARD_NOT_PRESENT_ERROR_MESSAGE,
+          spannerRec);
     } else if (shardId.equals(Constants.RETRYABLE_ERROR_SHARD_ID)) {
       // if retryable error shard id found, move to retryable error
       outputWithTag(
-          c, Constants.RETRYABLE_ERROR_TAG, Constants.SHARD_NOT_PRESENT_ERROR_MESSAGE, spannerRec);
+          output,
+          Constants.RETRYABLE_ERROR_TAG,
+          Constants.SHARD_NOT_PRESENT_ERROR_MESSAGE,
+          spannerRec);
     } else if (shardId.equals(skipDirName)) {
       // the record is skipped
       skippedRecordCountMetric.inc();
-      outputWithTag(c, Constants.SKIPPED_TAG, Constants.SKIPPED_TAG_MESSAGE, spannerRec);
+      outputWithTag(output, Constants.SKIPPED_TAG, Constants.SKIPPED_TAG_MESSAGE, spannerRec);
+    } else if (isBatchingEnabled()) {
+      bufferRecord(
+          new BufferedRecord(spannerRec, c.timestamp(), window),
+          shardId,
+          ddl,
+          shadowTableDdl,
+          schemaMapper,
+          output);
     } else {
-      Stopwatch timer = Stopwatch.createStarted();
-      // Get the latest commit timestamp processed at source
-      try {
-        JsonNode keysJson = mapper.readTree(spannerRec.getMod().getKeysJson());
-        String tableName = spannerRec.getTableName();
-        com.google.cloud.spanner.Key primaryKey =
-            ChangeEventSpannerConvertor.changeEventToPrimaryKey(
-                tableName, ddl, keysJson, /* convertNameToLowerCase= */ false);
-        String shadowTableName = shadowTablePrefix + tableName;
-        Boolean transactionResult =
-            spannerDao
-                .getDatabaseClient()
-                .readWriteTransaction(Options.priority(spannerConfig.getRpcPriority().get()))
-                .run(
-                    (TransactionRunner.TransactionCallable<Boolean>)
-                        shadowTransaction -> {
-                          boolean isSourceAhead = false;
-                          // Boolean reference to capture if the record was written in the
-                          // transaction
-                          AtomicBoolean isRecordWritten = new AtomicBoolean(false);
-                          ShadowTableRecord shadowTableRecord =
-                              spannerDao.readShadowTableRecordWithExclusiveLock(
-                                  shadowTableName, primaryKey, shadowTableDdl, shadowTransaction);
-                          isSourceAhead =
-                              shadowTableRecord != null
-                                  && ((shadowTableRecord
-                                              .getProcessedCommitTimestamp()
-                                              .compareTo(spannerRec.getCommitTimestamp())
-                                          > 0) // either the source already has record with greater
-                                      // commit
-                                      // timestamp
-                                      || (shadowTableRecord // or the source has the same commit
-                                                  // timestamp but
-                                                  // greater record sequence
-                                                  .getProcessedCommitTimestamp()
-                                                  .compareTo(spannerRec.getCommitTimestamp())
-                                              == 0
-                                          && shadowTableRecord.getRecordSequence()
-                                              >= Long.parseLong(spannerRec.getRecordSequence())));
-
-                          if (!isSourceAhead) {
-                            IDao sourceDao = sourceProcessor.getSourceDao(shardId);
-                            TransactionalCheck check =
-                                () -> {
-                                  ShadowTableRecord newShadowTableRecord =
-                                      spannerDao.readShadowTableRecordWithExclusiveLock(
-                                          shadowTableName,
-                                          primaryKey,
-                                          shadowTableDdl,
-                                          shadowTransaction);
-                                  if (!ShadowTableRecord.isEquals(
-                                      shadowTableRecord, newShadowTableRecord)) {
-                                    throw new TransactionalCheckException(
-                                        "Shadow table sequence changed during transaction");
-                                  }
-                                };
-                            boolean isEventFiltered =
-                                InputRecordProcessor.processRecord(
-                                    spannerRec,
-                                    schemaMapper,
-                                    ddl,
-                                    sourceSchema,
-                                    sourceDao,
-                                    shardId,
-                                    sourceDbTimezoneOffset,
-                                    sourceProcessor.getDmlGenerator(),
-                                    spannerToSourceTransformer,
-                                    this.source,
-                                    check);
-                            isRecordWritten.set(!isEventFiltered);
-                            if (isEventFiltered) {
-                              outputWithTag(
-                                  c,
-                                  Constants.FILTERED_TAG,
-                                  Constants.FILTERED_TAG_MESSAGE,
-                                  spannerRec);
-                            }
+      writeRecord(output, spannerRec, shardId, ddl, shadowTableDdl, schemaMapper);
+    }
+  }
+
+  /** Writes the records still buffered at the end of the bundle. */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext c) {
+    if (batches == null) {
+      return;
+    }
+    for (RecordBatch batch : batches.values()) {
+      flushBatch(
+          batch,
+          record -> new FinishBundleContextOutput(c, record.elementTimestamp, record.window));
+    }
+    batches.clear();
+  }
 
-                            spannerDao.updateShadowTable(
-                                getShadowTableMutation(
-                                    tableName,
-                                    shadowTableName,
-                                    keysJson,
-                                    spannerRec.getCommitTimestamp(),
-                                    spannerRec.getRecordSequence(),
-                                    ddl),
-                                shadowTransaction);
+  private boolean isBatchingEnabled() {
+    return sourceWriteBatchSize > 1 && !Constants.SOURCE_CASSANDRA.equals(source);
+  }
+
+  private void writeRecord(
+      RecordOutput output,
+      TrimmedShardedDataChangeRecord spannerRec,
+      String shardId,
+      Ddl ddl,
+      Ddl shadowTableDdl,
+      ISchemaMapper schemaMapper) {
+    Stopwatch timer = Stopwatch.createStarted();
+    // Get the latest commit timestamp processed at source
+    try {
+      JsonNode keysJson = mapper.readTree(spannerRec.getMod().getKeysJson());
+      String tableName = spannerRec.getTableName();
+      com.google.cloud.spanner.Key primaryKey =
+          ChangeEventSpannerConvertor.changeEventToPrimaryKey(
+              tableName, ddl, keysJson, /* convertNameToLowerCase= */ false);
+      String shadowTableName = shadowTablePrefix + tableName;
+      Boolean transactionResult =
+          spannerDao
+              .getDatabaseClient()
+              .readWriteTransaction(Options.priority(spannerConfig.getRpcPriority().get()))
+              .run(
+                  (TransactionRunner.TransactionCallable<Boolean>)
+                      shadowTransaction -> {
+                        // Boolean reference to capture if the record was written in the
+                        // transaction
+                        AtomicBoolean isRecordWritten = new AtomicBoolean(false);
+                        ShadowTableRecord shadowTableRecord =
+                            spannerDao.readShadowTableRecordWithExclusiveLock(
+                                shadowTableName, primaryKey, shadowTableDdl, shadowTransaction);
+                        boolean isSourceAhead = isSourceAhead(shadowTableRecord, spannerRec);
+
+                        if (!isSourceAhead) {
+                          IDao sourceDao = sourceProcessor.getSourceDao(shardId);
+                          TransactionalCheck check =
+                              () -> {
+                                ShadowTableRecord newShadowTableRecord =
+                                    spannerDao.readShadowTableRecordWithExclusiveLock(
+                                        shadowTableName,
+                                        primaryKey,
+                                        shadowTableDdl,
+                                        shadowTransaction);
+                                if (!ShadowTableRecord.isEquals(
+                                    shadowTableRecord, newShadowTableRecord)) {
+                                  throw new TransactionalCheckException(
+                                      "Shadow table sequence changed during transaction");
+                                }
+                              };
+                          boolean isEventFiltered =
+                              InputRecordProcessor.processRecord(
+                                  spannerRec,
+                                  schemaMapper,
+                                  ddl,
+                                  sourceSchema,
+                                  sourceDao,
+                                  shardId,
+                                  sourceDbTimezoneOffset,
+                                  sourceProcessor.getDmlGenerator(),
+                                  spannerToSourceTransformer,
+                                  this.source,
+                                  check);
+                          isRecordWritten.set(!isEventFiltered);
+                          if (isEventFiltered) {
+                            outputWithTag(
+                                output,
+                                Constants.FILTERED_TAG,
+                                Constants.FILTERED_TAG_MESSAGE,
+                                spannerRec);
                           }
-                          return isRecordWritten.get();
-                        });
-        if (Boolean.TRUE.equals(transactionResult)) {
-          successRecordCountMetric.inc();
-          Counter recordsWrittenToSource =
-              Metrics.counter(shardId, "records_written_to_source_" + shardId);
-          recordsWrittenToSource.inc(1);
-          Distribution lagMetric =
-              Metrics.distribution(shardId, "replication_lag_in_seconds_" + shardId);
-          Instant instTime = Instant.now();
-          Instant commitTsInst = spannerRec.getCommitTimestamp().toSqlTimestamp().toInstant();
-          long replicationLag = ChronoUnit.SECONDS.between(commitTsInst, instTime);
-          lagMetric.update(replicationLag);
-          SUCCESSFUL_WRITE_LATENCY_MS.update(timer.elapsed(TimeUnit.MILLISECONDS));
-        }
-        if (spannerRec.isRetryRecord()) {
-          retryableRecordCountMetric.dec();
-        }
-        com.google.cloud.Timestamp timestamp = com.google.cloud.Timestamp.now();
-        c.output(Constants.SUCCESS_TAG, timestamp.toString());
-        // Since we have wrapped the logic inside Spanner transaction, the exceptions would also be
-        // wrapped inside a SpannerException.
-        // We need to get and inspect the cause while handling the exception.
-      } catch (Exception ex) {
-        Throwable cause = ex.getCause();
-        String message = ex.getMessage();
-        if (cause != null) {
-          message += ", Caused by: " + cause.getMessage();
-        }
-        TupleTag<String> errorTag = SpannerToSourceDbExceptionClassifier.classify(ex);
-        outputWithTag(c, errorTag, message, spannerRec);
-        UNSUCCESSFUL_WRITE_LATENCY_MS.update(timer.elapsed(TimeUnit.MILLISECONDS));
+
+                          spannerDao.updateShadowTable(
+                              getShadowTableMutation(
+                                  tableName,
+                                  shadowTableName,
+                                  keysJson,
+                                  spannerRec.getCommitTimestamp(),
+                                  spannerRec.getRecordSequence(),
+                                  ddl),
+                              shadowTransaction);
+                        }
+                        return isRecordWritten.get();
+                      });
+      onRecordProcessed(output, spannerRec, shardId, Boolean.TRUE.equals(transactionResult), timer);
+      // Since we have wrapped the logic inside Spanner transaction, the exceptions would also be
+      // wrapped inside a SpannerException.
+      // We need to get and inspect the cause while handling the exception.
+    } catch (Exception ex) {
+      onRecordFailed(output, spannerRec, ex, timer);
+    }
+  }
+
+  /*
+   * Adds a record to the batch of its shard. A batch holds at most one record per primary key, so
+   * the batch is written before adding a record whose key is already buffered. Records of a shard
+   * are kept in arrival order across tables, which keeps parent rows ahead of their children.
+   */
+  private void bufferRecord(
+      BufferedRecord record,
+      String shardId,
+      Ddl ddl,
+      Ddl shadowTableDdl,
+      ISchemaMapper schemaMapper,
+      RecordOutput output) {
+    String recordKey = record.record.getTableName() + record.record.getMod().getKeysJson();
+    RecordBatch batch = batches.get(shardId);
+    if (batch != null
+        && (batch.recordKeys.contains(recordKey)
+            || batch.ddl != ddl
+            || batch.shadowTableDdl != shadowTableDdl)) {
+      flushBatch(batch, r -> output);
+      batch = null;
+    }
+    if (batch == null) {
+      batch = new RecordBatch(shardId, ddl, shadowTableDdl, schemaMapper);
+      batches.put(shardId, batch);
+    }
+    batch.records.add(record);
+    batch.recordKeys.add(recordKey);
+    if (batch.records.size() >= sourceWriteBatchSize) {
+      flushBatch(batch, r -> output);
+      batches.remove(shardId);
+    }
+  }
+
+  /*
+   * Writes a batch of records to the source in one source transaction, with the shadow table
+   * bookkeeping of all the records done in one Spanner transaction. If the batch fails, its records
+   * are written again one at a time so that errors are classified per record.
+   */
+  private void flushBatch(RecordBatch batch, Function<BufferedRecord, RecordOutput> outputs) {
+    if (batch.records.isEmpty()) {
+      return;
+    }
+    Stopwatch timer = Stopwatch.createStarted();
+    List<RecordStatus> statuses;
+    try {
+      statuses = writeBatch(batch);
+    } catch (Exception e) {
+      LOG.warn(
+          "Batched write of {} records to shard {} failed, writing the records individually.",
+          batch.records.size(),
+          batch.shardId,
+          e);
+      batchFallbackCountMetric.inc();
+      for (BufferedRecord record : batch.records) {
+        writeRecord(
+            outputs.apply(record),
+            record.record,
+            batch.shardId,
+            batch.ddl,
+            batch.shadowTableDdl,
+            batch.schemaMapper);
       }
+      return;
+    }
+    SOURCE_WRITE_BATCH_SIZE.update(batch.records.size());
+    for (int i = 0; i < batch.records.size(); i++) {
+      BufferedRecord record = batch.records.get(i);
+      RecordOutput output = outputs.apply(record);
+      if (statuses.get(i) == RecordStatus.FILTERED) {
+        outputWithTag(
+            output, Constants.FILTERED_TAG, Constants.FILTERED_TAG_MESSAGE, record.record);
+      }
+      onRecordProcessed(
+          output, record.record, batch.shardId, statuses.get(i) == RecordStatus.WRITTEN, timer);
     }
   }
 
+  private List<RecordStatus> writeBatch(RecordBatch batch) throws Exception {
+    IDao sourceDao = sourceProcessor.getSourceDao(batch.shardId);
+    List<JsonNode> keysJsons = new ArrayList<>();
+    List<com.google.cloud.spanner.Key> primaryKeys = new ArrayList<>();
+    for (BufferedRecord record : batch.records) {
+      JsonNode keysJson = mapper.readTree(record.record.getMod().getKeysJson());
+      keysJsons.add(keysJson);
+      primaryKeys.add(
+          ChangeEventSpannerConvertor.changeEventToPrimaryKey(
+              record.record.getTableName(),
+              batch.ddl,
+              keysJson,
+              /* convertNameToLowerCase= */ false));
+    }
+    return spannerDao
+        .getDatabaseClient()
+        .readWriteTransaction(Options.priority(spannerConfig.getRpcPriority().get()))
+        .run(
+            (TransactionRunner.TransactionCallable<List<RecordStatus>>)
+                shadowTransaction -> {
+                  List<RecordStatus> statuses = new ArrayList<>();
+                  List<DMLGeneratorResponse> dmlGeneratorResponses = new ArrayList<>();
+                  List<Integer> checkedRecords = new ArrayList<>();
+                  List<ShadowTableRecord> shadowTableRecords = new ArrayList<>();
+                  List<Mutation> shadowTableMutations = new ArrayList<>();
+                  List<Integer> allRecords = new ArrayList<>();
+                  for (int i = 0; i < batch.records.size(); i++) {
+                    allRecords.add(i);
+                  }
+                  List<ShadowTableRecord> currentShadowTableRecords =
+                      readShadowTableRecords(batch, allRecords, primaryKeys, shadowTransaction);
+                  for (int i = 0; i < batch.records.size(); i++) {
+                    TrimmedShardedDataChangeRecord spannerRec = batch.records.get(i).record;
+                    String tableName = spannerRec.getTableName();
+                    String shadowTableName = shadowTablePrefix + tableName;
+                    ShadowTableRecord shadowTableRecord = currentShadowTableRecords.get(i);
+                    if (isSourceAhead(shadowTableRecord, spannerRec)) {
+                      statuses.add(RecordStatus.SKIPPED);
+                      continue;
+                    }
+                    DMLGeneratorResponse dmlGeneratorResponse =
+                        InputRecordProcessor.generateDMLStatement(
+                            spannerRec,
+                            batch.schemaMapper,
+                            batch.ddl,
+                            sourceSchema,
+                            batch.shardId,
+                            sourceDbTimezoneOffset,
+                            sourceProcessor.getDmlGenerator(),
+                            spannerToSourceTransformer);
+                    if (dmlGeneratorResponse == null) {
+                      statuses.add(RecordStatus.FILTERED);
+                    } else {
+                      statuses.add(RecordStatus.WRITTEN);
+                      dmlGeneratorResponses.add(dmlGeneratorResponse);
+                      checkedRecords.add(i);
+                      shadowTableRecords.add(shadowTableRecord);
+                    }
+                    shadowTableMutations.add(
+                        getShadowTableMutation(
+                            tableName,
+                            shadowTableName,
+                            keysJsons.get(i),
+                            spannerRec.getCommitTimestamp(),
+                            spannerRec.getRecordSequence(),
+                            batch.ddl));
+                  }
+                  if (!dmlGeneratorResponses.isEmpty()) {
+                    TransactionalCheck check =
+                        () -> {
+                          List<ShadowTableRecord> newShadowTableRecords =
+                              readShadowTableRecords(
+                                  batch, checkedRecords, primaryKeys, shadowTransaction);
+                          for (int j = 0; j < checkedRecords.size(); j++) {
+                            if (!ShadowTableRecord.isEquals(
+                                shadowTableRecords.get(j), newShadowTableRecords.get(j))) {
+                              throw new TransactionalCheckException(
+                                  "Shadow table sequence changed during transaction");
+                            }
+                          }
+                        };
+                    sourceDao.writeBatch(dmlGeneratorResponses, check);
+                  }
+                  if (!shadowTableMutations.isEmpty()) {
+                    spannerDao.updateShadowTables(shadowTableMutations, shadowTransaction);
+                  }
+                  return statuses;
+                });
+  }
+
+  /*
+   * Reads the shadow table records of the given records of a batch, with one locking query per
+   * shadow table instead of one per record. Returns the records in the order of recordIndexes.
+   */
+  private List<ShadowTableRecord> readShadowTableRecords(
+      RecordBatch batch,
+      List<Integer> recordIndexes,
+      List<com.google.cloud.spanner.Key> primaryKeys,
+      TransactionContext shadowTransaction) {
+    Map<String, List<Integer>> positionsByShadowTable = new LinkedHashMap<>();
+    for (int position = 0; position < recordIndexes.size(); position++) {
+      String shadowTableName =
+          shadowTablePrefix + batch.records.get(recordIndexes.get(position)).record.getTableName();
+      positionsByShadowTable.computeIfAbsent(shadowTableName, k -> new ArrayList<>()).add(position);
+    }
+    List<ShadowTableRecord> shadowTableRecords =
+        new ArrayList<>(Collections.nCopies(recordIndexes.size(), null));
+    for (Map.Entry<String, List<Integer>> entry : positionsByShadowTable.entrySet()) {
+      List<com.google.cloud.spanner.Key> keys = new ArrayList<>();
+      for (int position : entry.getValue()) {
+        keys.add(primaryKeys.get(recordIndexes.get(position)));
+      }
+      List<ShadowTableRecord> records =
+          spannerDao.readShadowTableRecordsWithExclusiveLock(
+              entry.getKey(), keys, batch.shadowTableDdl, shadowTransaction);
+      for (int i = 0; i < keys.size(); i++) {
+        shadowTableRecords.set(entry.getValue().get(i), records.get(i));
+      }
+    }
+    return shadowTableRecords;
+  }
+
+  private static boolean isSourceAhead(
+      ShadowTableRecord shadowTableRecord, TrimmedShardedDataChangeRecord spannerRec) {
+    if (shadowTableRecord == null) {
+      return false;
+    }
+    int compare =
+        shadowTableRecord.getProcessedCommitTimestamp().compareTo(spannerRec.getCommitTimestamp());
+    // either the source already has record with greater commit timestamp, or the source has the
+    // same commit timestamp but greater record sequence
+    return compare > 0
+        || (compare == 0
+            && shadowTableRecord.getRecordSequence()
+                >= Long.parseLong(spannerRec.getRecordSequence()));
+  }
+
+  private void onRecordProcessed(
+      RecordOutput output,
+      TrimmedShardedDataChangeRecord spannerRec,
+      String shardId,
+      boolean isRecordWritten,
+      Stopwatch timer) {
+    if (isRecordWritten) {
+      successRecordCountMetric.inc();
+      Counter recordsWrittenToSource =
+          Metrics.counter(shardId, "records_written_to_source_" + shardId);
+      recordsWrittenToSource.inc(1);
+      Distribution lagMetric =
+          Metrics.distribution(shardId, "replication_lag_in_seconds_" + shardId);
+      Instant instTime = Instant.now();
+      Instant commitTsInst = spannerRec.getCommitTimestamp().toSqlTimestamp().toInstant();
+      long replicationLag = ChronoUnit.SECONDS.between(commitTsInst, instTime);
+      lagMetric.update(replicationLag);
+      SUCCESSFUL_WRITE_LATENCY_MS.update(timer.elapsed(TimeUnit.MILLISECONDS));
+    }
+    if (spannerRec.isRetryRecord()) {
+      retryableRecordCountMetric.dec();
+    }
+    com.google.cloud.Timestamp timestamp = com.google.cloud.Timestamp.now();
+    output.output(Constants.SUCCESS_TAG, timestamp.toString());
+  }
+
+  private void onRecordFailed(
+      RecordOutput output,
+      TrimmedShardedDataChangeRecord spannerRec,
+      Exception ex,
+      Stopwatch timer) {
+    Throwable cause = ex.getCause();
+    String message = ex.getMessage();
+    if (cause != null) {
+      message += ", Caused by: " + cause.getMessage();
+    }
+    TupleTag<String> errorTag = SpannerToSourceDbExceptionClassifier.classify(ex);
+    outputWithTag(output, errorTag, message, spannerRec);
+    UNSUCCESSFUL_WRITE_LATENCY_MS.update(timer.elapsed(TimeUnit.MILLISECONDS));
+  }
+
   private Mutation getShadowTableMutation(
       String tableName,
       String shadowTableName,
@@ -369,7 +689,7 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
   }
 
   void outputWithTag(
-      ProcessContext c,
+      RecordOutput output,
       TupleTag<String> tag,
       String message,
       TrimmedShardedDataChangeRecord record) {
@@ -380,6 +700,81 @@ public class SourceWriterFn extends DoFn<KV<Long, TrimmedShardedDataChangeRecord
     if (!record.isRetryRecord() && tag.equals(Constants.RETRYABLE_ERROR_TAG)) {
       retryableRecordCountMetric.inc();
     }
-    c.output(tag, gson.toJson(errorRecord, ChangeStreamErrorRecord.class));
+    output.output(tag, gson.toJson(errorRecord, ChangeStreamErrorRecord.class));
+  }
+
+  private enum RecordStatus {
+    WRITTEN,
+    FILTERED,
+    SKIPPED
+  }
+
+  /** A record waiting to be written, with the timestamp and window it was received in. */
+  private static class BufferedRecord {
+    private final TrimmedShardedDataChangeRecord record;
+    private final org.joda.time.Instant elementTimestamp;
+    private final BoundedWindow window;
+
+    BufferedRecord(
+        TrimmedShardedDataChangeRecord record,
+        org.joda.time.Instant elementTimestamp,
+        BoundedWindow window) {
+      this.record = record;
+      this.elementTimestamp = elementTimestamp;
+      this.window = window;
+    }
+  }
+
+  /** Records of one shard that are written to the source in one transaction. */
+  private static class RecordBatch {
+    private final String shardId;
+    private final Ddl ddl;
+    private final Ddl shadowTableDdl;
+    private final ISchemaMapper schemaMapper;
+    private final List<BufferedRecord> records = new ArrayList<>();
+    private final Set<String> recordKeys = new HashSet<>();
+
+    RecordBatch(String shardId, Ddl ddl, Ddl shadowTableDdl, ISchemaMapper schemaMapper) {
+      this.shardId = shardId;
+      this.ddl = ddl;
+      this.shadowTableDdl = shadowTableDdl;
+      this.schemaMapper = schemaMapper;
+    }
+  }
+
+  /** Emits outputs from either processElement or finishBundle. */
+  interface RecordOutput {
+    void output(TupleTag<String> tag, String value);
+  }
+
+  private static class ProcessContextOutput implements RecordOutput {
+    private final ProcessContext context;
+
+    ProcessContextOutput(ProcessContext context) {
+      this.context = context;
+    }
+
+    @Override
+    public void output(TupleTag<String> tag, String value) {
+      context.output(tag, value);
+    }
+  }
+
+  private static class FinishBundleContextOutput implements RecordOutput {
+    private final FinishBundleContext context;
+    private final org.joda.time.Instant timestamp;
+    private final BoundedWindow window;
+
+    FinishBundleContextOutput(
+        FinishBundleContext context, org.joda.time.Instant timestamp, BoundedWindow window) {
+      this.context = context;
+      this.timestamp = timestamp;
+      this.window = window;
+    }
+
+    @Override
+    public void output(TupleTag<String> tag, String value) {
+      context.output(tag, value, timestamp, window);
+    }
   }
 }
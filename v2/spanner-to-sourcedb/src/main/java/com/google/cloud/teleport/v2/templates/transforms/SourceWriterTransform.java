@@ -60,6 +60,7 @@ public class SourceWriterTransform
   private final String schemaOverridesFilePath;
   private final String tableOverrides;
   private final String columnOverrides;
+  private final int sourceWriteBatchSize;
 
   public SourceWriterTransform(
       List<Shard> shards,
@@ -77,6 +78,42 @@ public class SourceWriterTransform
       String schemaOverridesFilePath,
       String tableOverrides,
       String columnOverrides) {
+    this(
+        shards,
+        spannerConfig,
+        sourceDbTimezoneOffset,
+        ddlView,
+        shadowTableDdlView,
+        sourceSchema,
+        shadowTablePrefix,
+        skipDirName,
+        maxThreadPerDataflowWorker,
+        source,
+        customTransformation,
+        sessionFilePath,
+        schemaOverridesFilePath,
+        tableOverrides,
+        columnOverrides,
+        1);
+  }
+
+  public SourceWriterTransform(
+      List<Shard> shards,
+      SpannerConfig spannerConfig,
+      String sourceDbTimezoneOffset,
+      PCollectionView<Ddl> ddlView,
+      PCollectionView<Ddl> shadowTableDdlView,
+      SourceSchema sourceSchema,
+      String shadowTablePrefix,
+      String skipDirName,
+      int maxThreadPerDataflowWorker,
+      String source,
+      CustomTransformation customTransformation,
+      String sessionFilePath,
+      String schemaOverridesFilePath,
+      String tableOverrides,
+      String columnOverrides,
+      int sourceWriteBatchSize) {
 
     this.sourceDbTimezoneOffset = sourceDbTimezoneOffset;
     this.shards = shards;
@@ -93,6 +130,7 @@ public class SourceWriterTransform
     this.schemaOverridesFilePath = schemaOverridesFilePath;
     this.tableOverrides = tableOverrides;
     this.columnOverrides = columnOverrides;
+    this.sourceWriteBatchSize = sourceWriteBatchSize;
   }
 
   @Override
@@ -117,7 +155,8 @@ public class SourceWriterTransform
                         this.sessionFilePath,
                         this.schemaOverridesFilePath,
                         this.tableOverrides,
-                        this.columnOverrides))
+                        this.columnOverrides,
+                        this.sourceWriteBatchSize))
                 .withSideInputs(ddlView, shadowTableDdlView)
                 .withOutputTags(
                     Constants.SUCCESS_TAG,
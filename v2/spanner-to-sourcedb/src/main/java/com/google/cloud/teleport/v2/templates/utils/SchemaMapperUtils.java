@@ -21,9 +21,71 @@ import com.google.cloud.teleport.v2.spanner.migrations.schema.IdentityMapper;
 import com.google.cloud.teleport.v2.spanner.migrations.schema.SchemaFileOverridesBasedMapper;
 import com.google.cloud.teleport.v2.spanner.migrations.schema.SchemaStringOverridesBasedMapper;
 import com.google.cloud.teleport.v2.spanner.migrations.schema.SessionBasedMapper;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
 
 public class SchemaMapperUtils {
 
+  private static final Counter SCHEMA_MAPPER_BUILDS =
+      Metrics.counter(SchemaMapperUtils.class, "schema_mapper_builds");
+  private static final Counter SCHEMA_MAPPER_CACHE_HITS =
+      Metrics.counter(SchemaMapperUtils.class, "schema_mapper_cache_hits");
+
+  // Schema mappers shared by all the DoFns of a worker, keyed on the override configuration. Each
+  // entry holds the mapper built for the latest Ddl seen for that configuration.
+  private static final Map<List<String>, CachedSchemaMapper> SCHEMA_MAPPER_CACHE =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the schema mapper for the given configuration, building it only when the configuration
+   * is seen for the first time or when the Ddl changed. The Ddl is compared by identity, since the
+   * side input yields the same instance until the view is updated. Building a mapper may read and
+   * parse the session or overrides file, so this should be used instead of {@link #getSchemaMapper}
+   * on per element paths.
+   */
+  public static ISchemaMapper getCachedSchemaMapper(
+      String sessionFilePath,
+      String schemaOverridesFilePath,
+      String tableOverrides,
+      String columnOverrides,
+      Ddl ddl) {
+    List<String> key =
+        Arrays.asList(sessionFilePath, schemaOverridesFilePath, tableOverrides, columnOverrides);
+    CachedSchemaMapper cached = SCHEMA_MAPPER_CACHE.get(key);
+    if (cached != null && cached.ddl == ddl) {
+      SCHEMA_MAPPER_CACHE_HITS.inc();
+      return cached.schemaMapper;
+    }
+    return SCHEMA_MAPPER_CACHE.compute(
+            key,
+            (k, current) -> {
+              if (current != null && current.ddl == ddl) {
+                SCHEMA_MAPPER_CACHE_HITS.inc();
+                return current;
+              }
+              // Either a new configuration or the Ddl view changed, which invalidates the mapper.
+              SCHEMA_MAPPER_BUILDS.inc();
+              return new CachedSchemaMapper(
+                  ddl,
+                  getSchemaMapper(
+                      sessionFilePath,
+                      schemaOverridesFilePath,
+                      tableOverrides,
+                      columnOverrides,
+                      ddl));
+            })
+        .schemaMapper;
+  }
+
+  /** Drops all the cached schema mappers. */
+  public static void invalidateSchemaMapperCache() {
+    SCHEMA_MAPPER_CACHE.clear();
+  }
+
   public static ISchemaMapper getSchemaMapper(
       String sessionFilePath,
       String schemaOverridesFilePath,
@@ -65,4 +127,14 @@ public class SchemaMapperUtils {
     }
     return schemaMapper;
   }
+
+  private static class CachedSchemaMapper {
+    private final Ddl ddl;
+    private final ISchemaMapper schemaMapper;
+
+    CachedSchemaMapper(Ddl ddl, ISchemaMapper schemaMapper) {
+      this.ddl = ddl;
+      this.schemaMapper = schemaMapper;
+    }
+  }
 }
@@ -18,20 +18,28 @@ package com.google.cloud.teleport.v2.templates.dbutils.dao;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.teleport.v2.templates.dbutils.connection.JdbcConnectionHelper;
 import com.google.cloud.teleport.v2.templates.dbutils.dao.source.JdbcDao;
 import com.google.cloud.teleport.v2.templates.exceptions.ConnectionException;
+import com.google.cloud.teleport.v2.templates.models.DMLGeneratorResponse;
+import com.google.cloud.teleport.v2.templates.models.PreparedStatementGeneratedResponse;
+import com.google.cloud.teleport.v2.templates.models.PreparedStatementValueObject;
 import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -42,6 +50,7 @@ public final class JdbcDaoTest {
   @Mock private HikariDataSource mockHikariDataSource;
   @Mock private Connection mockConnection;
   @Mock private Statement mockStatement;
+  @Mock private PreparedStatement mockPreparedStatement;
 
   @Before
   public void doBeforeEachTest() throws java.sql.SQLException {
@@ -68,4 +77,34 @@ public final class JdbcDaoTest {
     sqlDao.write("sql", null);
     verify(mockStatement).executeUpdate(eq("sql"));
   }
+
+  @Test
+  public void testWriteBatch() throws Exception {
+    Map<String, HikariDataSource> connectionPoolMap = new HashMap<>();
+    connectionPoolMap.put("url/user", mockHikariDataSource);
+    JdbcConnectionHelper jdbcConnectionHelper = new JdbcConnectionHelper();
+    jdbcConnectionHelper.setConnectionPoolMap(connectionPoolMap);
+    when(mockConnection.prepareStatement("insert into t values (?)"))
+        .thenReturn(mockPreparedStatement);
+    JdbcDao sqlDao = new JdbcDao("url", "user", jdbcConnectionHelper);
+    sqlDao.writeBatch(
+        List.of(
+            new DMLGeneratorResponse("sql1"),
+            new DMLGeneratorResponse("sql2"),
+            new PreparedStatementGeneratedResponse(
+                "insert into t values (?)", List.of(PreparedStatementValueObject.create("k", 1))),
+            new PreparedStatementGeneratedResponse(
+                "insert into t values (?)", List.of(PreparedStatementValueObject.create("k", 2)))),
+        null);
+
+    InOrder inOrder = inOrder(mockStatement, mockPreparedStatement, mockConnection);
+    inOrder.verify(mockStatement).addBatch("sql1");
+    inOrder.verify(mockStatement).addBatch("sql2");
+    inOrder.verify(mockStatement).executeBatch();
+    inOrder.verify(mockPreparedStatement).setObject(1, 1);
+    inOrder.verify(mockPreparedStatement).setObject(1, 2);
+    inOrder.verify(mockPreparedStatement).executeBatch();
+    inOrder.verify(mockConnection).commit();
+    verify(mockPreparedStatement, times(2)).addBatch();
+  }
 }
@@ -15,16 +15,33 @@
  */
 package com.google.cloud.teleport.v2.templates.dbutils.dao;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.ReadOnlyTransaction;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.teleport.v2.spanner.ddl.Ddl;
+import com.google.cloud.teleport.v2.spanner.migrations.spanner.SpannerReadUtils;
+import com.google.cloud.teleport.v2.templates.constants.Constants;
 import com.google.cloud.teleport.v2.templates.dbutils.dao.spanner.SpannerDao;
+import com.google.cloud.teleport.v2.templates.utils.ShadowTableRecord;
+import java.util.Arrays;
+import java.util.List;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerAccessor;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -62,4 +79,68 @@ public final class SpannerDaoTest {
     spannerDao.updateShadowTable(mutation, mockReadWriteTransaction);
     verify(mockReadWriteTransaction).buffer(eq(mutation));
   }
+
+  @Test
+  public void testReadShadowTableRecordsWithExclusiveLock() {
+    SpannerDao spannerDao = new SpannerDao(mockSpannerAccessor);
+    Ddl shadowTableDdl =
+        Ddl.builder()
+            .createTable("shadow_T")
+            .column("id")
+            .int64()
+            .endColumn()
+            .column(Constants.PROCESSED_COMMIT_TS_COLUMN_NAME)
+            .timestamp()
+            .endColumn()
+            .column(Constants.RECORD_SEQ_COLUMN_NAME)
+            .int64()
+            .endColumn()
+            .primaryKey()
+            .asc("id")
+            .end()
+            .endTable()
+            .build();
+    Timestamp commitTimestamp = Timestamp.ofTimeMicroseconds(1000);
+    ResultSet resultSet =
+        ResultSets.forRows(
+            Type.struct(
+                Type.StructField.of(SpannerReadUtils.KEY_INDEX_COLUMN, Type.int64()),
+                Type.StructField.of(Constants.PROCESSED_COMMIT_TS_COLUMN_NAME, Type.timestamp()),
+                Type.StructField.of(Constants.RECORD_SEQ_COLUMN_NAME, Type.int64())),
+            Arrays.asList(
+                Struct.newBuilder()
+                    .set(SpannerReadUtils.KEY_INDEX_COLUMN)
+                    .to(1L)
+                    .set(Constants.PROCESSED_COMMIT_TS_COLUMN_NAME)
+                    .to(commitTimestamp)
+                    .set(Constants.RECORD_SEQ_COLUMN_NAME)
+                    .to(7L)
+                    .build()));
+    when(mockReadWriteTransaction.executeQuery(any(Statement.class))).thenReturn(resultSet);
+
+    List<ShadowTableRecord> records =
+        spannerDao.readShadowTableRecordsWithExclusiveLock(
+            "shadow_T",
+            Arrays.asList(Key.of(1L), Key.of(2L)),
+            shadowTableDdl,
+            mockReadWriteTransaction);
+
+    verify(mockReadWriteTransaction, times(1)).executeQuery(any(Statement.class));
+    assertEquals(2, records.size());
+    assertNull(records.get(0));
+    assertEquals(commitTimestamp, records.get(1).getProcessedCommitTimestamp());
+    assertEquals(7L, records.get(1).getRecordSequence());
+  }
+
+  @Test
+  public void testUpdateShadowTables() {
+    SpannerDao spannerDao = new SpannerDao(mockSpannerAccessor);
+    List<Mutation> mutations =
+        Arrays.asList(
+            Mutation.newInsertBuilder("T").set("C1").to("x").build(),
+            Mutation.newInsertBuilder("T").set("C1").to("y").build());
+
+    spannerDao.updateShadowTables(mutations, mockReadWriteTransaction);
+    verify(mockReadWriteTransaction).buffer(eq(mutations));
+  }
 }
@@ -173,4 +173,16 @@ public class CassandraDaoTest {
             () -> cassandraDao.write(mockPreparedStatementGeneratedResponse, null));
     assertEquals("Connection failed", exception.getMessage());
   }
+
+  @Test
+  public void testWriteBatchIsNotSupported() throws Exception {
+    assertThrows(
+        UnsupportedOperationException.class,
+        () ->
+            cassandraDao.writeBatch(
+                Arrays.asList(
+                    mockPreparedStatementGeneratedResponse, mockPreparedStatementGeneratedResponse),
+                null));
+    verify(mockConnectionHelper, never()).getConnection(anyString());
+  }
 }
@@ -17,12 +17,14 @@ package com.google.cloud.teleport.v2.templates.transforms;
 
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -63,7 +65,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import java.sql.SQLDataException;
 import java.sql.SQLSyntaxErrorException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.io.gcp.spanner.SpannerConfig;
 import org.apache.beam.sdk.io.gcp.spanner.changestreams.model.Mod;
@@ -71,6 +75,7 @@ import org.apache.beam.sdk.io.gcp.spanner.changestreams.model.ModType;
 import org.apache.beam.sdk.options.ValueProvider;
 import org.apache.beam.sdk.testing.TestPipeline;
 import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.junit.Before;
@@ -258,7 +263,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
     verify(mockSqlDao, never()).write(any(), any());
@@ -292,7 +297,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
     verify(mockSqlDao, never()).write(any(), any());
@@ -326,13 +331,69 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
     verify(mockSqlDao, atLeast(1)).write(any(), any());
     verify(mockSpannerDao, atLeast(1)).updateShadowTable(any(), any());
   }
 
+  @Test
+  public void testSourceWriteBatching() throws Exception {
+    when(mockTransactionRunner.run(any(TransactionRunner.TransactionCallable.class)))
+        .thenAnswer(
+            invocation ->
+                ((TransactionRunner.TransactionCallable<?>) invocation.getArgument(0)).run(null));
+    when(mockSpannerDao.readShadowTableRecordsWithExclusiveLock(any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> Collections.nCopies(((List<?>) invocation.getArgument(1)).size(), null));
+    TrimmedShardedDataChangeRecord record1 = getParent1TrimmedDataChangeRecord("shardA");
+    TrimmedShardedDataChangeRecord record2 = getParent1TrimmedDataChangeRecord("shardA");
+    record2.setMod(new Mod("{\"id\": \"43\"}", "{}", "{ \"migration_shard_id\": \"shardA\"}"));
+    SourceWriterFn sourceWriterFn =
+        new SourceWriterFn(
+            ImmutableList.of(testShard),
+            mockSpannerConfig,
+            testSourceDbTimezoneOffset,
+            testSourceSchema,
+            "shadow_",
+            "skip",
+            500,
+            "mysql",
+            null,
+            mockDdlView,
+            mockShadowTableDdlView,
+            "src/test/resources/sourceWriterUTSession.json",
+            "",
+            "",
+            "",
+            2);
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    sourceWriterFn.setObjectMapper(mapper);
+    sourceWriterFn.setSourceProcessor(sourceProcessor);
+    sourceWriterFn.setSpannerDao(mockSpannerDao);
+    sourceWriterFn.startBundle();
+    when(processContext.element()).thenReturn(KV.of(1L, record1));
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
+    verify(mockSqlDao, never()).writeBatch(any(), any());
+    when(processContext.element()).thenReturn(KV.of(1L, record2));
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
+
+    verify(mockTransactionRunner, times(1)).run(any());
+    verify(mockSqlDao, times(1)).writeBatch(argThat(dmls -> dmls.size() == 2), any());
+    verify(mockSqlDao, never()).write(any(), any());
+    // Both shadow table rows are read with one query and written with one mutation batch.
+    verify(mockSpannerDao, times(1))
+        .readShadowTableRecordsWithExclusiveLock(
+            eq("shadow_parent1"), argThat(keys -> keys.size() == 2), any(), any());
+    verify(mockSpannerDao, never())
+        .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
+    verify(mockSpannerDao, times(1))
+        .updateShadowTables(argThat(mutations -> mutations.size() == 2), any());
+    verify(processContext, times(2)).output(eq(Constants.SUCCESS_TAG), any());
+  }
+
   @Test
   public void testCustomTransformationException() throws Exception {
     TrimmedShardedDataChangeRecord record = getParent1TrimmedDataChangeRecord("shardA");
@@ -365,7 +426,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
     sourceWriterFn.setSpannerToSourceTransformer(mockSpannerMigrationTransformer);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
@@ -408,7 +469,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
     sourceWriterFn.setSpannerToSourceTransformer(mockSpannerMigrationTransformer);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
@@ -449,7 +510,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
     sourceWriterFn.setSpannerToSourceTransformer(mockSpannerMigrationTransformer);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSpannerDao, atLeast(1))
         .readShadowTableRecordWithExclusiveLock(any(), any(), any(), any());
     verify(mockSqlDao, atLeast(0)).write(any(), any());
@@ -486,7 +547,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     String jsonRec = gson.toJson(record, TrimmedShardedDataChangeRecord.class);
     ChangeStreamErrorRecord errorRecord =
         new ChangeStreamErrorRecord(jsonRec, Constants.SHARD_NOT_PRESENT_ERROR_MESSAGE);
@@ -522,7 +583,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     String jsonRec = gson.toJson(record, TrimmedShardedDataChangeRecord.class);
     ChangeStreamErrorRecord errorRecord =
         new ChangeStreamErrorRecord(jsonRec, Constants.SKIPPED_TAG_MESSAGE);
@@ -556,7 +617,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -591,7 +652,7 @@ public class SourceWriterFnTest {
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -627,7 +688,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -663,7 +724,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -699,7 +760,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -735,7 +796,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -771,7 +832,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -807,7 +868,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -843,7 +904,7 @@ public class SourceWriterFnTest {
     ObjectMapper mapper = new ObjectMapper();
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
 
     verify(processContext, atLeast(1)).output(eq(Constants.RETRYABLE_ERROR_TAG), any());
   }
@@ -875,7 +936,7 @@ public class SourceWriterFnTest {
     ObjectMapper mapper = new ObjectMapper();
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     sourceWriterFn.setObjectMapper(mapper);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
 
     verify(processContext, atLeast(1)).output(eq(Constants.PERMANENT_ERROR_TAG), any());
   }
@@ -907,7 +968,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -943,7 +1004,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.PERMANENT_ERROR_TAG), argumentCaptor.capture());
@@ -979,7 +1040,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -1015,7 +1076,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
         .output(eq(Constants.RETRYABLE_ERROR_TAG), argumentCaptor.capture());
@@ -1057,7 +1118,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
 
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
@@ -1098,7 +1159,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
     sourceWriterFn.setSourceProcessor(sourceProcessor);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
     verify(mockSqlDao, never()).write(contains("567890"), any());
     verify(mockSqlDao, never()).write(contains("567890"), any());
   }
@@ -1134,7 +1195,7 @@ public class SourceWriterFnTest {
     sourceWriterFn.setObjectMapper(mapper);
     sourceWriterFn.setSourceProcessor(mockSourceProcessor);
     sourceWriterFn.setSpannerDao(mockSpannerDao);
-    sourceWriterFn.processElement(processContext);
+    sourceWriterFn.processElement(processContext, GlobalWindow.INSTANCE);
 
     ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
     verify(processContext, atLeast(1))
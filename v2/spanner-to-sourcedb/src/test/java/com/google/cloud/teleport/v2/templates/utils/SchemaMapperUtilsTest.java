@@ -15,7 +15,10 @@
  */
 package com.google.cloud.teleport.v2.templates.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -54,6 +57,34 @@ public class SchemaMapperUtilsTest {
     }
   }
 
+  @Test
+  public void testGetCachedSchemaMapper() {
+    SchemaMapperUtils.invalidateSchemaMapperCache();
+    try (MockedConstruction<SchemaStringOverridesBasedMapper> mocked =
+        mockConstruction(SchemaStringOverridesBasedMapper.class)) {
+      ISchemaMapper mapper =
+          SchemaMapperUtils.getCachedSchemaMapper(null, null, "[{a, b}]", null, ddl);
+      assertSame(
+          mapper, SchemaMapperUtils.getCachedSchemaMapper(null, null, "[{a, b}]", null, ddl));
+      assertEquals(1, mocked.constructed().size());
+
+      // A new Ddl invalidates the cached mapper.
+      Ddl newDdl = mock(Ddl.class);
+      ISchemaMapper newMapper =
+          SchemaMapperUtils.getCachedSchemaMapper(null, null, "[{a, b}]", null, newDdl);
+      assertNotSame(mapper, newMapper);
+      assertSame(
+          newMapper, SchemaMapperUtils.getCachedSchemaMapper(null, null, "[{a, b}]", null, newDdl));
+      assertEquals(2, mocked.constructed().size());
+
+      // A different configuration gets its own mapper.
+      SchemaMapperUtils.getCachedSchemaMapper(null, null, "[{c, d}]", null, newDdl);
+      assertEquals(3, mocked.constructed().size());
+    } finally {
+      SchemaMapperUtils.invalidateSchemaMapperCache();
+    }
+  }
+
   @Test
   public void testGetSchemaMapper_sessionBasedMapper() {
     try (MockedConstruction<SessionBasedMapper> mocked =